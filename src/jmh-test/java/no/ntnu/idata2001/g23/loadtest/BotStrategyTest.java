@@ -0,0 +1,41 @@
+package no.ntnu.idata2001.g23.loadtest;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BotStrategyTest {
+    private static final int CHOICE_COUNT = 1000;
+
+    @Test
+    void testFighterOnlyMovesWhenThereAreNoEnemies() {
+        Random random = new Random(1);
+        for (int i = 0; i < CHOICE_COUNT; i++) {
+            assertNotEquals(Operation.MOVE_PASSAGE,
+                    BotStrategy.FIGHTER.choose(random, true, true, true, true));
+        }
+        assertEquals(Operation.MOVE_PASSAGE,
+                BotStrategy.FIGHTER.choose(random, true, false, false, false));
+    }
+
+    @Test
+    void testOtherStrategiesMoveWhenThereAreEnemies() {
+        for (BotStrategy strategy : new BotStrategy[]{BotStrategy.RANDOM, BotStrategy.EXPLORER}) {
+            Random random = new Random(1);
+            boolean moved = false;
+            for (int i = 0; i < CHOICE_COUNT && !moved; i++) {
+                moved = strategy.choose(random, true, true, true, true)
+                        == Operation.MOVE_PASSAGE;
+            }
+            assertTrue(moved, strategy.name());
+        }
+    }
+
+    @Test
+    void testGameIsStartedWhenNothingCanBeDone() {
+        for (BotStrategy strategy : BotStrategy.values()) {
+            assertEquals(Operation.START_GAME,
+                    strategy.choose(new Random(1), false, false, false, false));
+        }
+    }
+}
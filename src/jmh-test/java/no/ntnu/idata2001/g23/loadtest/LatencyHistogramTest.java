@@ -0,0 +1,85 @@
+package no.ntnu.idata2001.g23.loadtest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    private LatencyHistogram histogram;
+
+    @BeforeEach
+    void before() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    void testEmptyHistogram() {
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+
+    @Test
+    void testSmallLatenciesAreExact() {
+        for (long nanos = 0; nanos < LatencyHistogram.SUB_BUCKET_COUNT; nanos++) {
+            histogram.record(nanos);
+        }
+        assertEquals(LatencyHistogram.SUB_BUCKET_COUNT, histogram.getCount());
+        assertEquals((LatencyHistogram.SUB_BUCKET_COUNT - 1) / 2.0, histogram.getMean());
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        assertEquals(63, histogram.getValueAtPercentile(50));
+        assertEquals(126, histogram.getValueAtPercentile(99));
+        assertEquals(127, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void testBucketBoundaries() {
+        histogram.record(128);
+        assertEquals(128, histogram.getValueAtPercentile(100));
+        histogram.record(129);
+        histogram.record(130);
+        //128 & 129 share a sub-bucket, which reports its highest value
+        assertEquals(129, histogram.getValueAtPercentile(50));
+        assertEquals(130, histogram.getValueAtPercentile(100));
+
+        LatencyHistogram other = new LatencyHistogram();
+        other.record(255);
+        other.record(256);
+        other.record(1000);
+        assertEquals(255, other.getValueAtPercentile(1));
+        assertEquals(259, other.getValueAtPercentile(60));
+        assertEquals(1000, other.getValueAtPercentile(100));
+    }
+
+    @Test
+    void testLargeLatenciesKeepTheirRelativeError() {
+        long[] latencies = {1_000, 123_456, 50_000_000, 7_000_000_000L, Long.MAX_VALUE / 3};
+        for (long nanos : latencies) {
+            LatencyHistogram single = new LatencyHistogram();
+            single.record(nanos);
+            single.record(Long.MAX_VALUE);
+            long value = single.getValueAtPercentile(50);
+            assertTrue(value >= nanos, nanos + " was reported as " + value);
+            assertTrue(value - nanos <= nanos / 64, nanos + " was reported as " + value);
+        }
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+    }
+
+    @Test
+    void testPercentilesNeverExceedTheMax() {
+        histogram.record(1_000_001);
+        assertEquals(1_000_001, histogram.getValueAtPercentile(50));
+        assertEquals(1_000_001, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(100.1));
+        assertEquals(0, histogram.getCount());
+    }
+}
@@ -0,0 +1,36 @@
+package no.ntnu.idata2001.g23.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the {@link GCProfiler}, so the allocation rate is always measured.
+ *
+ * <p>Accepts the same arguments as JMH's own main class. For example, {@code -p size=100}
+ * only runs the smallest fixtures, and {@code FileLoaderBenchmark.parseStory}
+ * only runs a single benchmark.</p>
+ */
+public class BenchmarkRunner {
+    private BenchmarkRunner() {
+        throw new IllegalStateException("Do not instantiate this class pls :)");
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args JMH command line arguments
+     * @throws CommandLineOptionException If the arguments could not be parsed
+     * @throws RunnerException            If the benchmarks could not be run
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class);
+        new Runner(options.build()).run();
+    }
+}
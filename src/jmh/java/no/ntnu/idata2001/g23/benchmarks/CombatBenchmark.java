@@ -0,0 +1,95 @@
+package no.ntnu.idata2001.g23.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import no.ntnu.idata2001.g23.intermediary.GameplayManager;
+import no.ntnu.idata2001.g23.model.Game;
+import no.ntnu.idata2001.g23.model.entities.enemies.Enemy;
+import no.ntnu.idata2001.g23.model.fileparsing.CorruptFileException;
+import no.ntnu.idata2001.g23.model.story.Link;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the combat actions of the {@link GameplayManager}.
+ *
+ * <p>The game is restarted before every iteration, and the player is moved into the arena,
+ * where every enemy has so much health that nobody dies during an iteration.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombatBenchmark {
+    @Param({"1", "10", "100"})
+    private int enemiesPerPassage;
+
+    @Param({"1", "16"})
+    private int listenerCount;
+
+    private GameplayFixture fixture;
+    private Link escapeLink;
+    private Enemy target;
+
+    /**
+     * Generates the game and adds the listeners.
+     *
+     * @throws IOException          If the game could not be written
+     * @throws CorruptFileException If the game could not be loaded
+     */
+    @Setup(Level.Trial)
+    public void setUpGame() throws IOException, CorruptFileException {
+        fixture = new GameplayFixture(10, enemiesPerPassage, 1, listenerCount);
+    }
+
+    /**
+     * Restarts the game, and moves the player into the arena.
+     *
+     * @throws CorruptFileException If the game could not be made
+     */
+    @Setup(Level.Iteration)
+    public void restartGame() throws CorruptFileException {
+        Game game = fixture.restart();
+        GameplayManager.getInstance().movePassage(fixture.getOpeningLink("Arena"));
+        escapeLink = new Link("Go to start", game.getStory().getOpeningPassage().getTitle());
+        target = game.getStory().getPassage(new Link("Arena", "Arena")).getEnemies().get(0);
+    }
+
+    /**
+     * Removes the listeners & the generated game.
+     *
+     * @throws IOException If the generated game could not be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDownGame() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void attack() {
+        GameplayManager.getInstance().attack(target);
+    }
+
+    /**
+     * Tries to escape the arena. The enemies never let the player escape,
+     * so this measures {@code enemiesAttack}, which is only reachable through failed escapes
+     * & attacks.
+     */
+    @Benchmark
+    public void enemiesAttack() {
+        GameplayManager.getInstance().movePassage(escapeLink);
+    }
+}
@@ -0,0 +1,147 @@
+package no.ntnu.idata2001.g23.benchmarks;
+
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import no.ntnu.idata2001.g23.model.Game;
+import no.ntnu.idata2001.g23.model.entities.Player;
+import no.ntnu.idata2001.g23.model.entities.enemies.Enemy;
+import no.ntnu.idata2001.g23.model.fileparsing.CollectionParserUtil;
+import no.ntnu.idata2001.g23.model.fileparsing.CorruptFileException;
+import no.ntnu.idata2001.g23.model.fileparsing.EnemyLoader;
+import no.ntnu.idata2001.g23.model.fileparsing.GameFileCollection;
+import no.ntnu.idata2001.g23.model.fileparsing.GoalLoader;
+import no.ntnu.idata2001.g23.model.fileparsing.ItemLoader;
+import no.ntnu.idata2001.g23.model.fileparsing.PlayerLoader;
+import no.ntnu.idata2001.g23.model.fileparsing.StoryLoader;
+import no.ntnu.idata2001.g23.model.goals.Goal;
+import no.ntnu.idata2001.g23.model.items.Item;
+import no.ntnu.idata2001.g23.model.misc.Provider;
+import no.ntnu.idata2001.g23.model.story.Story;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks every file loader with generated files of increasing size.
+ *
+ * <p>Each benchmark parses a file that's already in memory, so that only parsing is measured.
+ * {@link #makeNewGame()} is the exception, it loads an entire generated game from disk.
+ * Both throughput & latency percentiles are measured,
+ * and {@link BenchmarkRunner} adds the allocation rate.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class FileLoaderBenchmark {
+    @Param({"100", "10000", "1000000"})
+    private int size;
+
+    private String storyFile;
+    private String itemsFile;
+    private String enemiesFile;
+    private String playerFile;
+    private String goalsFile;
+    private String mapFile;
+    private Provider<Item> itemProvider;
+    private Provider<Enemy> enemyProvider;
+    private Path gameDirectory;
+    private GameFileCollection gameFiles;
+
+    /**
+     * Generates every file, and parses the items & enemies that the other files depend on.
+     *
+     * @throws IOException          If the generated game could not be written
+     * @throws CorruptFileException If the generated files could not be parsed
+     */
+    @Setup(Level.Trial)
+    public void generateFixtures() throws IOException, CorruptFileException {
+        storyFile = FixtureGenerator.story(size);
+        itemsFile = FixtureGenerator.items(size);
+        enemiesFile = FixtureGenerator.enemies(size);
+        playerFile = FixtureGenerator.player(size);
+        goalsFile = FixtureGenerator.goals(size);
+        mapFile = FixtureGenerator.map(size);
+        itemProvider = ItemLoader.parseItems(reader(itemsFile));
+        enemyProvider = new EnemyLoader(itemProvider).parseEnemies(reader(enemiesFile));
+
+        gameDirectory = Files.createTempDirectory("generatedGame");
+        FixtureGenerator.writeGame(gameDirectory, size);
+        gameFiles = new GameFileCollection(gameDirectory.toString());
+    }
+
+    /**
+     * Deletes the generated game from disk.
+     *
+     * @throws IOException If the generated game could not be deleted
+     */
+    @TearDown(Level.Trial)
+    public void deleteFixtures() throws IOException {
+        try (Stream<Path> files = Files.list(gameDirectory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(gameDirectory);
+    }
+
+    private static LineNumberReader reader(String file) {
+        return new LineNumberReader(new StringReader(file));
+    }
+
+    @Benchmark
+    public Story parseStory() throws CorruptFileException {
+        return new StoryLoader(itemProvider, enemyProvider).parseStory(reader(storyFile));
+    }
+
+    @Benchmark
+    public Provider<Item> parseItems() throws CorruptFileException {
+        return ItemLoader.parseItems(reader(itemsFile));
+    }
+
+    @Benchmark
+    public Provider<Enemy> parseEnemies() throws CorruptFileException {
+        return new EnemyLoader(itemProvider).parseEnemies(reader(enemiesFile));
+    }
+
+    @Benchmark
+    public Player parsePlayer() throws CorruptFileException {
+        return new PlayerLoader(itemProvider, "Benchmark", FixtureGenerator.DIFFICULTY)
+                .parsePlayer(reader(playerFile));
+    }
+
+    @Benchmark
+    public List<Goal> parseGoals() throws CorruptFileException {
+        return new GoalLoader(itemProvider, FixtureGenerator.DIFFICULTY)
+                .parseGoals(reader(goalsFile));
+    }
+
+    @Benchmark
+    public Map<String, String> parseMap() throws IOException, CorruptFileException {
+        return CollectionParserUtil.parseMap(reader(mapFile), false);
+    }
+
+    @Benchmark
+    public Game makeNewGame() throws CorruptFileException {
+        return gameFiles.makeNewGame("Benchmark", FixtureGenerator.DIFFICULTY);
+    }
+}
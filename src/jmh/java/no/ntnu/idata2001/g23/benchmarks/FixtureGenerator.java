@@ -0,0 +1,244 @@
+package no.ntnu.idata2001.g23.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Generates game files of any size, so that benchmarks don't depend on any files on disk.
+ *
+ * <p>Every generated file is valid, and every file generated for the same size
+ * can be loaded together as one game. The generated game has {@code size} passages,
+ * items & enemies. Every passage links to the next & previous passage,
+ * and every 10th passage has an enemy.</p>
+ */
+public class FixtureGenerator {
+    /**
+     * The difficulty that generated players & goals scale with.
+     * Every other difficulty only has a minimal section.
+     */
+    public static final String DIFFICULTY = "Normal";
+
+    private FixtureGenerator() {
+        throw new IllegalStateException("Do not instantiate this class pls :)");
+    }
+
+    private static String itemName(int index) {
+        return "Item " + index;
+    }
+
+    /**
+     * Generates a {@code .paths}-file.
+     *
+     * @param size The amount of passages to generate
+     * @return The contents of the generated file
+     */
+    public static String story(int size) {
+        StringBuilder builder = new StringBuilder(size * 120).append("Generated story\n\n");
+        for (int i = 0; i < size; i++) {
+            builder.append("::Passage ").append(i).append('\n')
+                    .append("You are in room number ").append(i).append(".\n")
+                    .append("[Go forward] (Passage ").append((i + 1) % size).append(')')
+                    .append(" {Gold: 1} {Score: 2}\n");
+            if (i > 0) {
+                builder.append("[Go back] (Passage ").append(i - 1).append(")\n");
+            }
+            if (i % 10 == 9) {
+                builder.append("[Pick up] (Passage ").append(i).append(") {Inventory: ")
+                        .append(itemName(i % size)).append("}\n")
+                        .append("!Enemy ").append(i).append('\n');
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Generates an {@code .items}-file, alternating between weapons & usable items.
+     *
+     * @param size The amount of items to generate
+     * @return The contents of the generated file
+     */
+    public static String items(int size) {
+        StringBuilder builder = new StringBuilder(size * 80);
+        for (int i = 0; i < size; i++) {
+            builder.append('?').append(itemName(i)).append('\n');
+            if (i % 2 == 0) {
+                builder.append("-Weapon\n")
+                        .append("Damage: ").append(i % 10 + 1).append('\n')
+                        .append("Description: A generated weapon\n");
+            } else {
+                builder.append("-Usable\n")
+                        .append("Description: A generated potion\n")
+                        .append("On Use: {Health: 5}\n");
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Generates an {@code .enemies}-file, alternating between basic enemies & vampires.
+     * Every enemy uses a weapon generated by {@link #items(int)}.
+     *
+     * @param size The amount of enemies to generate
+     * @return The contents of the generated file
+     */
+    public static String enemies(int size) {
+        StringBuilder builder = new StringBuilder(size * 80);
+        for (int i = 0; i < size; i++) {
+            builder.append("!Enemy ").append(i).append('\n')
+                    .append(i % 2 == 0 ? "-Basic\n" : "-Vampire\n")
+                    .append("Health: ").append(10 + i % 50).append('\n')
+                    .append("Score: 5\n")
+                    .append("Gold: 1\n")
+                    .append("Weapon: ").append(itemName(i - i % 2)).append('\n')
+                    .append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Generates a {@code .player}-file,
+     * where the player of the {@link #DIFFICULTY} difficulty has every generated item.
+     *
+     * @param size The amount of items the player should have
+     * @return The contents of the generated file
+     */
+    public static String player(int size) {
+        StringBuilder builder = new StringBuilder(size * 10)
+                .append("#Easy\nHealth: 100\nScore: 0\nGold: 0\n\n")
+                .append('#').append(DIFFICULTY).append('\n')
+                .append("Health: 50\nScore: 0\nGold: 100\nWeapon: ").append(itemName(0))
+                .append("\nInventory: ");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(itemName(i));
+        }
+        return builder.append("\n\n#Hard\nHealth: 10\nScore: 0\nGold: 0\n").toString();
+    }
+
+    /**
+     * Generates a {@code .goals}-file,
+     * where the {@link #DIFFICULTY} difficulty has an inventory goal for every generated item.
+     *
+     * @param size The amount of inventory goals to generate
+     * @return The contents of the generated file
+     */
+    public static String goals(int size) {
+        StringBuilder builder = new StringBuilder(size * 20)
+                .append("#Easy\nGold: 100\n\n")
+                .append('#').append(DIFFICULTY).append('\n')
+                .append("Gold: 1000\nScore: 500\n");
+        for (int i = 0; i < size; i++) {
+            builder.append("Inventory: ").append(itemName(i)).append('\n');
+        }
+        return builder.append("\n#Hard\nHealth: 100\n").toString();
+    }
+
+    /**
+     * Generates a map of keys & values, like the ones in every game file.
+     *
+     * @param size The amount of entries to generate
+     * @return The generated map
+     */
+    public static String map(int size) {
+        StringBuilder builder = new StringBuilder(size * 24);
+        for (int i = 0; i < size; i++) {
+            builder.append("Key ").append(i).append(": Value ").append(i).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes a small game made for benchmarking gameplay, including {@code game.info},
+     * to a directory. The game is played on the {@link #DIFFICULTY} difficulty, and has:
+     * <ul>
+     *     <li>A {@code "Start"} passage, with links to {@code "Hallway"} & {@code "Arena"}.</li>
+     *     <li>A {@code "Hallway"} passage, with a link back to {@code "Start"}.</li>
+     *     <li>An {@code "Arena"} passage, with a link back to {@code "Start"},
+     *     and enemies that never let the player escape.
+     *     Every entity has so much health that nobody dies during a benchmark.</li>
+     *     <li>A player with every item generated by {@link #items(int)}, a {@code "Dagger"}
+     *     & a {@code "Potion"}.</li>
+     * </ul>
+     *
+     * @param gameDirectory     The directory to write the game to
+     * @param inventorySize     The amount of generated items in the player's inventory
+     * @param enemiesPerPassage The amount of enemies in the arena
+     * @param goalCount         The amount of unique goals,
+     *                          alternating between gold & inventory goals
+     * @throws IOException If any file could not be written
+     */
+    public static void writeGameplayGame(Path gameDirectory, int inventorySize,
+                                         int enemiesPerPassage, int goalCount)
+            throws IOException {
+        Files.createDirectories(gameDirectory);
+        Files.writeString(gameDirectory.resolve("game.info"), String.join("\n",
+                "gameplay.difficulties", "gameplay.goals", "gameplay.paths",
+                "gameplay.player", "gameplay.items", "gameplay.enemies"));
+        Files.writeString(gameDirectory.resolve("gameplay.difficulties"), DIFFICULTY + "\n");
+
+        StringBuilder story = new StringBuilder("Gameplay benchmark\n\n")
+                .append("::Start\nThe starting room.\n")
+                .append("[Go to hallway] (Hallway)\n[Go to arena] (Arena)\n\n")
+                .append("::Hallway\nA quiet hallway.\n[Go to start] (Start)\n\n")
+                .append("::Arena\nA room full of enemies.\n[Go to start] (Start)\n");
+        for (int i = 0; i < enemiesPerPassage; i++) {
+            story.append(i % 2 == 0 ? "!Guard\n" : "!Vampire guard\n");
+        }
+        Files.writeString(gameDirectory.resolve("gameplay.paths"), story.append('\n'));
+
+        Files.writeString(gameDirectory.resolve("gameplay.items"), items(inventorySize)
+                + "?Dagger\n-Weapon\nDamage: 1\nDescription: A tiny blade\n\n"
+                + "?Potion\n-Usable\nDescription: A golden potion\nOn Use: {Gold: 1}\n");
+        Files.writeString(gameDirectory.resolve("gameplay.enemies"),
+                "!Guard\n-Basic\nHealth: 1000000000\nScore: 1\nGold: 1\n"
+                        + "Weapon: Dagger\nEscape Chance: 0\n\n"
+                        + "!Vampire guard\n-Vampire\nHealth: 1000000000\nScore: 1\nGold: 1\n"
+                        + "Weapon: Dagger\nEscape Chance: 0\n");
+
+        StringBuilder player = new StringBuilder("#").append(DIFFICULTY).append('\n')
+                .append("Health: 2000000000\nScore: 0\nGold: 0\nWeapon: Dagger\n")
+                .append("Inventory: ");
+        for (int i = 0; i < inventorySize; i++) {
+            player.append(itemName(i)).append(", ");
+        }
+        Files.writeString(gameDirectory.resolve("gameplay.player"),
+                player.append("Potion\n"));
+
+        StringBuilder goals = new StringBuilder("#").append(DIFFICULTY).append('\n');
+        for (int i = 0; i < goalCount; i++) {
+            //Every goal must be unique
+            if (i % 2 == 0 || i / 2 >= inventorySize) {
+                goals.append("Gold: ").append(i + 1).append('\n');
+            } else {
+                goals.append("Inventory: ").append(itemName(i / 2)).append('\n');
+            }
+        }
+        Files.writeString(gameDirectory.resolve("gameplay.goals"), goals);
+    }
+
+    /**
+     * Writes every file of a generated game, including {@code game.info}, to a directory.
+     *
+     * @param gameDirectory The directory to write the game to
+     * @param size          The amount of passages, items & enemies to generate
+     * @throws IOException If any file could not be written
+     */
+    public static void writeGame(Path gameDirectory, int size) throws IOException {
+        Files.createDirectories(gameDirectory);
+        Files.writeString(gameDirectory.resolve("game.info"), String.join("\n",
+                "generated.difficulties", "generated.goals", "generated.paths",
+                "generated.player", "generated.items", "generated.enemies"));
+        Files.writeString(gameDirectory.resolve("generated.difficulties"),
+                "Easy\n" + DIFFICULTY + "\nHard\n");
+        Files.writeString(gameDirectory.resolve("generated.goals"), goals(size));
+        Files.writeString(gameDirectory.resolve("generated.paths"), story(size));
+        Files.writeString(gameDirectory.resolve("generated.player"), player(size));
+        Files.writeString(gameDirectory.resolve("generated.items"), items(size));
+        Files.writeString(gameDirectory.resolve("generated.enemies"), enemies(size));
+    }
+}
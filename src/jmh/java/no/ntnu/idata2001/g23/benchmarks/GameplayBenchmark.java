@@ -0,0 +1,127 @@
+package no.ntnu.idata2001.g23.benchmarks;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import no.ntnu.idata2001.g23.intermediary.GameplayManager;
+import no.ntnu.idata2001.g23.model.Game;
+import no.ntnu.idata2001.g23.model.actions.GoldAction;
+import no.ntnu.idata2001.g23.model.entities.Player;
+import no.ntnu.idata2001.g23.model.fileparsing.CorruptFileException;
+import no.ntnu.idata2001.g23.model.goals.Goal;
+import no.ntnu.idata2001.g23.model.items.Item;
+import no.ntnu.idata2001.g23.model.items.UsableItem;
+import no.ntnu.idata2001.g23.model.items.Weapon;
+import no.ntnu.idata2001.g23.model.story.Link;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the per-turn actions of the {@link GameplayManager} that happen outside of combat.
+ *
+ * <p>The game is restarted before every iteration, and the player starts every benchmark
+ * in the {@code "Start"} passage, where there are no enemies.
+ * Combat is benchmarked by {@link CombatBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameplayBenchmark {
+    @Param({"10", "1000"})
+    private int inventorySize;
+
+    @Param({"1", "50"})
+    private int goalCount;
+
+    @Param({"1", "16"})
+    private int listenerCount;
+
+    private GameplayFixture fixture;
+    private Link hallwayLink;
+    private Player player;
+    private Weapon firstWeapon;
+    private Weapon lastWeapon;
+    private boolean equipFirst;
+    private final UsableItem potion =
+            new UsableItem("Potion", "A golden potion", new GoldAction(1));
+
+    /**
+     * Generates the game and adds the listeners.
+     *
+     * @throws IOException          If the game could not be written
+     * @throws CorruptFileException If the game could not be loaded
+     */
+    @Setup(Level.Trial)
+    public void setUpGame() throws IOException, CorruptFileException {
+        fixture = new GameplayFixture(inventorySize, 0, goalCount, listenerCount);
+    }
+
+    /**
+     * Restarts the game.
+     *
+     * @throws CorruptFileException If the game could not be made
+     */
+    @Setup(Level.Iteration)
+    public void restartGame() throws CorruptFileException {
+        Game game = fixture.restart();
+        hallwayLink = fixture.getOpeningLink("Hallway");
+        player = game.getPlayer();
+        firstWeapon = null;
+        for (Item item : player.getInventory().getContents()) {
+            if (item instanceof Weapon weapon) {
+                firstWeapon = firstWeapon == null ? weapon : firstWeapon;
+                lastWeapon = weapon;
+            }
+        }
+    }
+
+    /**
+     * Removes the listeners & the generated game.
+     *
+     * @throws IOException If the generated game could not be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDownGame() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void movePassage() {
+        GameplayManager.getInstance().movePassage(hallwayLink);
+    }
+
+    /**
+     * Gives the player a potion at the end of their inventory, where finding it is slowest,
+     * and uses it. Adding an item is constant time, so using it dominates the measurement.
+     */
+    @Benchmark
+    public void useItem() {
+        player.getInventory().addItem(potion);
+        GameplayManager.getInstance().useItem(potion);
+    }
+
+    @Benchmark
+    public void equipWeapon() {
+        equipFirst = !equipFirst;
+        GameplayManager.getInstance().equipWeapon(equipFirst ? firstWeapon : lastWeapon);
+    }
+
+    @Benchmark
+    public Map<Goal, Boolean> checkGoals() {
+        return GameplayManager.getInstance().checkGoals();
+    }
+}
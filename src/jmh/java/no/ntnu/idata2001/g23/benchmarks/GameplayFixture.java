@@ -0,0 +1,101 @@
+package no.ntnu.idata2001.g23.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import no.ntnu.idata2001.g23.intermediary.GameUpdateListener;
+import no.ntnu.idata2001.g23.intermediary.GameplayManager;
+import no.ntnu.idata2001.g23.intermediary.events.GameUpdateEvent;
+import no.ntnu.idata2001.g23.intermediary.events.NewGameEvent;
+import no.ntnu.idata2001.g23.model.Game;
+import no.ntnu.idata2001.g23.model.fileparsing.CorruptFileException;
+import no.ntnu.idata2001.g23.model.fileparsing.GameFileCollection;
+import no.ntnu.idata2001.g23.model.story.Link;
+
+/**
+ * A generated gameplay game, set up in the {@link GameplayManager} with a specific amount of
+ * listeners, so that every gameplay benchmark is set up the same way.
+ *
+ * @see FixtureGenerator#writeGameplayGame(Path, int, int, int)
+ */
+class GameplayFixture {
+    private final Path gameDirectory;
+    private final List<GameUpdateListener> listeners;
+    private Game game;
+    //Written by every listener, so that notifying them can't be optimized away
+    private volatile GameUpdateEvent lastEvent;
+
+    /**
+     * Generates a gameplay game, sets it in the {@link GameplayManager},
+     * and adds the listeners.
+     *
+     * @param inventorySize     The amount of generated items in the player's inventory
+     * @param enemiesPerPassage The amount of enemies in the arena
+     * @param goalCount         The amount of goals
+     * @param listenerCount     The amount of listeners to add
+     * @throws IOException          If the game could not be written
+     * @throws CorruptFileException If the game could not be loaded
+     */
+    GameplayFixture(int inventorySize, int enemiesPerPassage, int goalCount, int listenerCount)
+            throws IOException, CorruptFileException {
+        this.gameDirectory = Files.createTempDirectory("gameplayGame");
+        FixtureGenerator.writeGameplayGame(
+                gameDirectory, inventorySize, enemiesPerPassage, goalCount);
+        GameplayManager.getInstance().setGame(new GameFileCollection(gameDirectory.toString()),
+                "Benchmark", FixtureGenerator.DIFFICULTY);
+
+        this.listeners = new ArrayList<>();
+        listeners.add(event -> {
+            lastEvent = event;
+            if (event instanceof NewGameEvent newGameEvent) {
+                game = newGameEvent.game();
+            }
+        });
+        for (int i = 1; i < listenerCount; i++) {
+            listeners.add(event -> lastEvent = event);
+        }
+        listeners.forEach(GameplayManager.getInstance()::addUpdateListener);
+    }
+
+    /**
+     * Starts a new game, resetting everything that previous benchmark iterations changed.
+     *
+     * @return The new game
+     * @throws CorruptFileException If the game could not be made
+     */
+    Game restart() throws CorruptFileException {
+        GameplayManager.getInstance().startGame();
+        return game;
+    }
+
+    /**
+     * Gets a link from the opening passage.
+     *
+     * @param reference The reference of the link to get
+     * @return The link from the opening passage with the specified reference
+     */
+    Link getOpeningLink(String reference) {
+        return game.getStory().getOpeningPassage().getLinks().stream()
+                .filter(link -> link.getReference().equals(reference))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Removes the listeners, and deletes the generated game from disk.
+     *
+     * @throws IOException If the generated game could not be deleted
+     */
+    void close() throws IOException {
+        listeners.forEach(GameplayManager.getInstance()::removeUpdateListener);
+        try (Stream<Path> files = Files.list(gameDirectory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(gameDirectory);
+    }
+}
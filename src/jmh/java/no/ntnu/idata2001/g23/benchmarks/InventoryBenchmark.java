@@ -0,0 +1,93 @@
+package no.ntnu.idata2001.g23.benchmarks;
+
+import java.io.LineNumberReader;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import no.ntnu.idata2001.g23.model.fileparsing.CorruptFileException;
+import no.ntnu.idata2001.g23.model.fileparsing.ItemLoader;
+import no.ntnu.idata2001.g23.model.items.Item;
+import no.ntnu.idata2001.g23.model.misc.Inventory;
+import no.ntnu.idata2001.g23.model.misc.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the {@link Inventory} & {@link Provider} operations that every turn relies on.
+ *
+ * <p>Lookups are made for the last item in the inventory, where finding it is slowest.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    private int inventorySize;
+
+    private Provider<Item> itemProvider;
+    private Inventory inventory;
+    private Inventory halfInventory;
+    private Item lastItem;
+    private String lastItemName;
+
+    /**
+     * Fills an inventory with every generated item,
+     * and another inventory with every other item.
+     *
+     * @throws CorruptFileException If the generated items could not be parsed
+     */
+    @Setup(Level.Trial)
+    public void fillInventory() throws CorruptFileException {
+        itemProvider = ItemLoader.parseItems(new LineNumberReader(
+                new StringReader(FixtureGenerator.items(inventorySize))));
+        inventory = new Inventory();
+        halfInventory = new Inventory();
+        for (int i = 0; i < inventorySize; i++) {
+            Item item = itemProvider.provide("Item " + i);
+            inventory.addItem(item);
+            if (i % 2 == 1) {
+                halfInventory.addItem(item);
+            }
+        }
+        lastItem = inventory.getItem(inventorySize - 1);
+        lastItemName = lastItem.getName();
+    }
+
+    @Benchmark
+    public boolean hasItem() {
+        return inventory.hasItem(lastItem);
+    }
+
+    @Benchmark
+    public boolean hasItems() {
+        return inventory.hasItems(halfInventory);
+    }
+
+    /**
+     * Removes the last item, and puts it back so the inventory stays the same.
+     * Adding an item to the end of the inventory is constant time,
+     * so the removal dominates the measurement.
+     */
+    @Benchmark
+    public void removeItem() {
+        inventory.removeItem(lastItem);
+        inventory.addItem(lastItem);
+    }
+
+    @Benchmark
+    public Item provide() {
+        return itemProvider.provide(lastItemName);
+    }
+}
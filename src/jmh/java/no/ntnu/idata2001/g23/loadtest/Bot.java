@@ -0,0 +1,158 @@
+package no.ntnu.idata2001.g23.loadtest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import no.ntnu.idata2001.g23.intermediary.GameSession;
+import no.ntnu.idata2001.g23.intermediary.GameUpdateListener;
+import no.ntnu.idata2001.g23.intermediary.events.GameUpdateEvent;
+import no.ntnu.idata2001.g23.intermediary.events.PlayerDeathEvent;
+import no.ntnu.idata2001.g23.model.fileparsing.CorruptFileException;
+import no.ntnu.idata2001.g23.model.items.Item;
+import no.ntnu.idata2001.g23.model.items.UsableItem;
+import no.ntnu.idata2001.g23.model.items.Weapon;
+import no.ntnu.idata2001.g23.model.story.Passage;
+
+/**
+ * A simulated player, that plays its own {@link GameSession} until a deadline.
+ *
+ * <p>The bot runs at a fixed rate: Every operation has an intended start time, one think time
+ * after the intended start of the previous operation, with the think time varied randomly by up
+ * to half of it in either direction. Latencies are measured from the intended start, not from
+ * when the operation actually started, so a slow operation also counts the time that the
+ * operations after it spent waiting. Otherwise, the bot would just send fewer operations while
+ * the session is slow, and the recorded latencies would leave out the stall, which is known as
+ * coordinated omission. A bot without any think time has no intended rate, and measures from
+ * when each operation starts instead.</p>
+ *
+ * <p>Whenever its player dies, the bot starts a new game.</p>
+ */
+public class Bot implements Runnable, GameUpdateListener {
+    private final GameSession session;
+    private final BotStrategy strategy;
+    private final Map<Operation, LatencyHistogram> histograms;
+    private final AtomicLong errors;
+    private final long thinkMillis;
+    private final long deadline;
+    private final Random random;
+    private boolean playerDied;
+
+    /**
+     * Makes a bot.
+     *
+     * @param session     The session to play, that must have a set game
+     * @param strategy    How the bot chooses its next operation
+     * @param histograms  The histogram of every operation, shared by every bot
+     * @param errors      The amount of operations that have failed, shared by every bot
+     * @param thinkMillis The average time to wait between operations, in milliseconds
+     * @param deadline    The {@link System#nanoTime()} to stop playing at
+     * @param seed        The seed of the bot's random generator
+     */
+    public Bot(GameSession session, BotStrategy strategy,
+               Map<Operation, LatencyHistogram> histograms, AtomicLong errors,
+               long thinkMillis, long deadline, long seed) {
+        this.session = session;
+        this.strategy = strategy;
+        this.histograms = histograms;
+        this.errors = errors;
+        this.thinkMillis = thinkMillis;
+        this.deadline = deadline;
+        this.random = new Random(seed);
+        this.playerDied = true;
+    }
+
+    @Override
+    public void onUpdate(GameUpdateEvent event) {
+        if (event instanceof PlayerDeathEvent) {
+            playerDied = true;
+        }
+    }
+
+    @Override
+    public void run() {
+        session.addUpdateListener(this);
+        try {
+            long intendedStart = System.nanoTime();
+            while (intendedStart < deadline) {
+                waitUntil(intendedStart);
+                Operation operation = playerDied ? Operation.START_GAME : chooseOperation();
+                try {
+                    perform(operation);
+                    histograms.get(operation).record(System.nanoTime() - intendedStart);
+                } catch (CorruptFileException | RuntimeException e) {
+                    errors.incrementAndGet();
+                    playerDied = true;
+                }
+                intendedStart = thinkMillis > 0
+                        ? intendedStart + nextThinkNanos()
+                        : System.nanoTime();
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } finally {
+            session.removeUpdateListener(this);
+        }
+    }
+
+    private long nextThinkNanos() {
+        return (long) (thinkMillis * 1_000_000 * (0.5 + random.nextDouble()));
+    }
+
+    /**
+     * Sleeps until a {@link System#nanoTime()}, or returns right away if it has already passed.
+     *
+     * @param nanoTime The time to sleep until
+     * @throws InterruptedException If the thread was interrupted while sleeping
+     */
+    private static void waitUntil(long nanoTime) throws InterruptedException {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining > 0) {
+            Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+        }
+    }
+
+    private List<Item> getInventory() {
+        return session.getGame().getPlayer().getInventory().getContents();
+    }
+
+    private Operation chooseOperation() {
+        Passage passage = session.getCurrentPassage();
+        List<Item> inventory = getInventory();
+        return strategy.choose(random,
+                passage.hasLinks(),
+                !passage.getEnemies().isEmpty(),
+                inventory.stream().anyMatch(UsableItem.class::isInstance),
+                inventory.stream().anyMatch(Weapon.class::isInstance));
+    }
+
+    private <T> T pick(List<T> options) {
+        return options.get(random.nextInt(options.size()));
+    }
+
+    /**
+     * Performs an operation.
+     *
+     * @param operation The operation to perform
+     * @throws CorruptFileException If a new game could not be made
+     */
+    private void perform(Operation operation) throws CorruptFileException {
+        switch (operation) {
+            case START_GAME -> {
+                playerDied = false;
+                session.startGame();
+            }
+            case MOVE_PASSAGE -> session.movePassage(pick(session.getCurrentPassage().getLinks()));
+            case ATTACK -> session.attack(pick(session.getCurrentPassage().getEnemies()));
+            case USE_ITEM -> session.useItem(pick(getInventory().stream()
+                    .filter(UsableItem.class::isInstance)
+                    .map(UsableItem.class::cast)
+                    .toList()));
+            case EQUIP_WEAPON -> session.equipWeapon(pick(getInventory().stream()
+                    .filter(Weapon.class::isInstance)
+                    .map(Weapon.class::cast)
+                    .toList()));
+            default -> throw new IllegalStateException("Unknown operation: " + operation);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package no.ntnu.idata2001.g23.loadtest;
+
+import java.util.Random;
+
+/**
+ * How a {@link Bot} chooses its next operation.
+ *
+ * <p>Every strategy weighs the operations that can be done in the bot's current situation,
+ * and picks one of them at random. Starting a new game is never chosen,
+ * since bots only do that when their player has died.</p>
+ */
+public enum BotStrategy {
+    /**
+     * Does every possible operation equally often.
+     */
+    RANDOM(1, 1, 1, 1, false),
+
+    /**
+     * Mostly moves between passages, and rarely fights.
+     */
+    EXPLORER(8, 1, 1, 1, false),
+
+    /**
+     * Mostly attacks enemies, and only moves on when there are none left.
+     */
+    FIGHTER(1, 16, 2, 1, true);
+
+    private final int moveWeight;
+    private final int attackWeight;
+    private final int useWeight;
+    private final int equipWeight;
+    private final boolean clearsPassages;
+
+    BotStrategy(int moveWeight, int attackWeight, int useWeight, int equipWeight,
+                boolean clearsPassages) {
+        this.moveWeight = moveWeight;
+        this.attackWeight = attackWeight;
+        this.useWeight = useWeight;
+        this.equipWeight = equipWeight;
+        this.clearsPassages = clearsPassages;
+    }
+
+    /**
+     * Chooses the next operation.
+     *
+     * @param random    The random generator of the bot
+     * @param canMove   If the current passage has any links
+     * @param canAttack If the current passage has any enemies
+     * @param canUse    If the player has any usable items
+     * @param canEquip  If the player has any weapons
+     * @return The next operation, or {@link Operation#START_GAME} if no other operation can be done
+     */
+    public Operation choose(Random random,
+                            boolean canMove, boolean canAttack, boolean canUse, boolean canEquip) {
+        //A strategy that clears passages never moves on while there are enemies left
+        int move = canMove && !(clearsPassages && canAttack) ? moveWeight : 0;
+        int attack = canAttack ? attackWeight : 0;
+        int use = canUse ? useWeight : 0;
+        int equip = canEquip ? equipWeight : 0;
+        int total = move + attack + use + equip;
+        if (total == 0) {
+            return Operation.START_GAME;
+        }
+        int roll = random.nextInt(total);
+        if (roll < move) {
+            return Operation.MOVE_PASSAGE;
+        } else if (roll < move + attack) {
+            return Operation.ATTACK;
+        } else if (roll < move + attack + use) {
+            return Operation.USE_ITEM;
+        }
+        return Operation.EQUIP_WEAPON;
+    }
+}
@@ -0,0 +1,144 @@
+package no.ntnu.idata2001.g23.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies that any amount of threads can record to at once,
+ * without locking or allocating.
+ *
+ * <p>Like HdrHistogram, latencies are counted in buckets that grow exponentially,
+ * and are split into {@value #SUB_BUCKET_COUNT} linear sub-buckets.
+ * Every recorded latency is therefore kept with a relative error of at most
+ * 1 in {@value #HALF_SUB_BUCKET_COUNT}, no matter how large it is.</p>
+ */
+public class LatencyHistogram {
+    /**
+     * The amount of sub-buckets every bucket is split into.
+     */
+    public static final int SUB_BUCKET_COUNT = 128;
+
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKET_COUNT);
+    private static final int BUCKET_COUNT = Long.SIZE - SUB_BUCKET_BITS + 1;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong totalCount;
+    private final AtomicLong totalNanos;
+    private final AtomicLong maxNanos;
+
+    /**
+     * Makes an empty histogram.
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(SUB_BUCKET_COUNT + BUCKET_COUNT * HALF_SUB_BUCKET_COUNT);
+        this.totalCount = new AtomicLong();
+        this.totalNanos = new AtomicLong();
+        this.maxNanos = new AtomicLong();
+    }
+
+    /**
+     * Gets the index of the sub-bucket that counts a latency.
+     * Latencies below {@value #SUB_BUCKET_COUNT} get a sub-bucket each, and every larger
+     * latency is counted by its {@value #SUB_BUCKET_BITS} most significant bits.
+     *
+     * @param nanos The latency to get the index of
+     * @return The index of the sub-bucket that counts the latency
+     */
+    private static int indexOf(long nanos) {
+        if (nanos < SUB_BUCKET_COUNT) {
+            return (int) nanos;
+        }
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(nanos) - SUB_BUCKET_BITS;
+        int subBucket = (int) (nanos >>> shift) - HALF_SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + (shift - 1) * HALF_SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Gets the highest latency that a sub-bucket counts.
+     *
+     * @param index The index of the sub-bucket
+     * @return The highest latency that the sub-bucket counts
+     */
+    private static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / HALF_SUB_BUCKET_COUNT + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % HALF_SUB_BUCKET_COUNT
+                + HALF_SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos The latency to record, in nanoseconds
+     * @throws IllegalArgumentException If {@code nanos} is negative
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("\"nanos\" cannot be negative");
+        }
+        counts.incrementAndGet(indexOf(nanos));
+        totalCount.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Gets the amount of recorded latencies.
+     *
+     * @return The amount of recorded latencies
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Gets the mean of every recorded latency.
+     *
+     * @return The mean latency in nanoseconds, or {@code 0} if nothing has been recorded
+     */
+    public double getMean() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double) totalNanos.get() / count;
+    }
+
+    /**
+     * Gets the highest recorded latency.
+     *
+     * @return The highest latency in nanoseconds, or {@code 0} if nothing has been recorded
+     */
+    public long getMax() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Gets the latency that a percentage of every recorded latency is at or below.
+     *
+     * @param percentile The percentage of recorded latencies, from {@code 0} to {@code 100}
+     * @return The latency at the percentile in nanoseconds,
+     *         or {@code 0} if nothing has been recorded
+     * @throws IllegalArgumentException If {@code percentile} is not between {@code 0}
+     *                                  and {@code 100}
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("\"percentile\" must be between 0 and 100");
+        }
+        long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueAt(i), getMax());
+            }
+        }
+        return getMax();
+    }
+}
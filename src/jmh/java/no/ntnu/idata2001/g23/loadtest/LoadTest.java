@@ -0,0 +1,176 @@
+package no.ntnu.idata2001.g23.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import no.ntnu.idata2001.g23.benchmarks.FixtureGenerator;
+import no.ntnu.idata2001.g23.intermediary.GameSession;
+import no.ntnu.idata2001.g23.intermediary.GameSessionRegistry;
+import no.ntnu.idata2001.g23.model.fileparsing.CorruptFileException;
+import no.ntnu.idata2001.g23.model.fileparsing.GameFileCollection;
+import no.ntnu.idata2001.g23.server.GameServer;
+
+/**
+ * Drives many concurrent {@link Bot}s through their own {@link GameSession}s,
+ * and reports the latency & throughput of every operation.
+ *
+ * <p>Run it from the benchmarks JAR with
+ * {@code java -cp target/mappe-prosjekt-paths-gruppe-23-1.0-benchmarks.jar
+ * no.ntnu.idata2001.g23.loadtest.LoadTest}, and any of these arguments:</p>
+ * <ul>
+ *     <li>{@code --bots 10,100,1000}: The amount of bots of every stage.
+ *     Stages are run one after another, so that the saturation point can be found.</li>
+ *     <li>{@code --duration 10}: How long every stage runs, in seconds.</li>
+ *     <li>{@code --think 100}: The average time between the intended starts of
+ *     a bot's operations, in milliseconds.</li>
+ *     <li>{@code --strategy RANDOM}: How bots choose their operations.
+ *     One of {@link BotStrategy}.</li>
+ *     <li>{@code --game path}: The game to play. A game of {@code --size} passages
+ *     is generated if no game is specified.</li>
+ *     <li>{@code --size 1000}: The amount of passages in the generated game.</li>
+ *     <li>{@code --difficulty Normal}: The difficulty to play on.</li>
+ * </ul>
+ *
+ * <p>Every bot runs on its own virtual thread when the runtime supports them.</p>
+ */
+public class LoadTest {
+    private static final double NANOS_PER_MICRO = 1000;
+
+    private LoadTest() {
+        throw new IllegalStateException("Do not instantiate this class pls :)");
+    }
+
+    /**
+     * Parses {@code --key value} arguments.
+     *
+     * @param args The arguments to parse
+     * @return Every key without its dashes, mapped to its value
+     * @throws IllegalArgumentException If any argument is not a {@code --key value} pair
+     */
+    private static Map<String, String> parseArguments(String[] args) {
+        Map<String, String> arguments = new HashMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected \"--key value\", but got \""
+                        + args[i] + "\"");
+            }
+            arguments.put(args[i].substring(2), args[i + 1]);
+        }
+        return arguments;
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args Command line arguments
+     * @throws IOException          If the game could not be generated or deleted
+     * @throws CorruptFileException If the game could not be loaded
+     * @throws InterruptedException If the thread was interrupted while waiting for the bots
+     */
+    public static void main(String[] args)
+            throws IOException, CorruptFileException, InterruptedException {
+        Map<String, String> arguments = parseArguments(args);
+        long durationSeconds = Long.parseLong(arguments.getOrDefault("duration", "10"));
+        long thinkMillis = Long.parseLong(arguments.getOrDefault("think", "100"));
+        BotStrategy strategy = BotStrategy.valueOf(
+                arguments.getOrDefault("strategy", BotStrategy.RANDOM.name()));
+        String difficulty = arguments.getOrDefault("difficulty", FixtureGenerator.DIFFICULTY);
+
+        Path generatedGame = null;
+        String gameDirectory = arguments.get("game");
+        if (gameDirectory == null) {
+            generatedGame = Files.createTempDirectory("loadTestGame");
+            FixtureGenerator.writeGame(generatedGame,
+                    Integer.parseInt(arguments.getOrDefault("size", "1000")));
+            gameDirectory = generatedGame.toString();
+        }
+        GameFileCollection gameFiles = new GameFileCollection(gameDirectory);
+
+        try {
+            List<String> summary = new ArrayList<>();
+            for (String bots : arguments.getOrDefault("bots", "10,100,1000").split(",")) {
+                int botCount = Integer.parseInt(bots.trim());
+                System.out.printf("%n%d bots, %s strategy, %d ms think time, %d s%n",
+                        botCount, strategy, thinkMillis, durationSeconds);
+                summary.add(runStage(gameFiles, difficulty, strategy,
+                        botCount, thinkMillis, durationSeconds));
+            }
+            System.out.printf("%n%8s %12s %16s %12s%n",
+                    "Bots", "Ops/s", "Worst p99 (us)", "Errors");
+            summary.forEach(System.out::println);
+        } finally {
+            if (generatedGame != null) {
+                try (Stream<Path> files = Files.list(generatedGame)) {
+                    for (Path file : files.toList()) {
+                        Files.delete(file);
+                    }
+                }
+                Files.delete(generatedGame);
+            }
+        }
+    }
+
+    /**
+     * Runs one stage of the load test, and prints the latencies of every operation.
+     *
+     * @return A summary of the stage, being the bot count, total throughput,
+     *         worst 99th percentile latency of any operation & the amount of errors
+     */
+    private static String runStage(GameFileCollection gameFiles, String difficulty,
+                                   BotStrategy strategy, int botCount,
+                                   long thinkMillis, long durationSeconds)
+            throws InterruptedException {
+        Map<Operation, LatencyHistogram> histograms = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new LatencyHistogram());
+        }
+        AtomicLong errors = new AtomicLong();
+        GameSessionRegistry registry = GameSessionRegistry.getInstance();
+        List<GameSession> sessions = new ArrayList<>(botCount);
+        for (int i = 0; i < botCount; i++) {
+            sessions.add(registry.createSession(gameFiles, "Bot " + i, difficulty));
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ExecutorService executor = GameServer.newRequestExecutor();
+        for (int i = 0; i < botCount; i++) {
+            executor.execute(new Bot(sessions.get(i), strategy, histograms, errors,
+                    thinkMillis, deadline, i));
+        }
+        executor.shutdown();
+        executor.awaitTermination(durationSeconds + 60, TimeUnit.SECONDS);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        sessions.forEach(session -> registry.removeSession(session.getId()));
+
+        System.out.printf("%-14s %10s %10s %10s %10s %10s %10s %10s%n", "Operation", "Count",
+                "Ops/s", "Mean (us)", "p50 (us)", "p99 (us)", "p99.9 (us)", "Max (us)");
+        long totalCount = 0;
+        for (Map.Entry<Operation, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            totalCount += histogram.getCount();
+            System.out.printf("%-14s %10d %10.0f %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    entry.getKey(), histogram.getCount(), histogram.getCount() / elapsedSeconds,
+                    histogram.getMean() / NANOS_PER_MICRO,
+                    histogram.getValueAtPercentile(50) / NANOS_PER_MICRO,
+                    histogram.getValueAtPercentile(99) / NANOS_PER_MICRO,
+                    histogram.getValueAtPercentile(99.9) / NANOS_PER_MICRO,
+                    histogram.getMax() / NANOS_PER_MICRO);
+        }
+        long worstP99 = histograms.values().stream()
+                .mapToLong(histogram -> histogram.getValueAtPercentile(99))
+                .max()
+                .orElse(0);
+        return String.format("%8d %12.0f %16.1f %12d", botCount, totalCount / elapsedSeconds,
+                worstP99 / NANOS_PER_MICRO, errors.get());
+    }
+}
@@ -0,0 +1,12 @@
+package no.ntnu.idata2001.g23.loadtest;
+
+/**
+ * The gameplay operations a {@link Bot} can do, each with its own latency histogram.
+ */
+public enum Operation {
+    START_GAME,
+    MOVE_PASSAGE,
+    ATTACK,
+    USE_ITEM,
+    EQUIP_WEAPON
+}
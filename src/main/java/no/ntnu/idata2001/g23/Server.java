@@ -0,0 +1,23 @@
+package no.ntnu.idata2001.g23;
+
+import java.io.IOException;
+import no.ntnu.idata2001.g23.server.GameServer;
+
+/**
+ * Main class for running the game as a headless server, without the JavaFX application.
+ */
+public class Server {
+    /**
+     * Starts the server on localhost.
+     *
+     * @param args jvm args, where the first argument can be the port to listen to
+     * @throws IOException If the server could not be started
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : GameServer.DEFAULT_PORT;
+        GameServer server = new GameServer(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        server.start();
+        System.out.println("Serving games on http://localhost:" + server.getPort() + "/sessions");
+    }
+}
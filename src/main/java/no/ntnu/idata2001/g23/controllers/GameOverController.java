@@ -1,8 +1,6 @@
 package no.ntnu.idata2001.g23.controllers;
 
-import no.ntnu.idata2001.g23.intermediary.GameUpdateListener;
 import no.ntnu.idata2001.g23.intermediary.GameplayManager;
-import no.ntnu.idata2001.g23.intermediary.events.GameUpdateEvent;
 import no.ntnu.idata2001.g23.intermediary.events.PlayerDeathEvent;
 import no.ntnu.idata2001.g23.model.fileparsing.CorruptFileException;
 import no.ntnu.idata2001.g23.view.PathsApp;
@@ -12,7 +10,7 @@ import no.ntnu.idata2001.g23.view.screens.GameplayScreen;
 /**
  * A controller for {@link GameOverScreen}.
  */
-public class GameOverController extends GenericController implements GameUpdateListener {
+public class GameOverController extends GenericController {
     GameOverScreen screen;
 
     /**
@@ -24,7 +22,8 @@ public class GameOverController extends GenericController implements GameUpdateL
     public GameOverController(GameOverScreen screen, PathsApp application) {
         super(application);
         this.screen = screen;
-        GameplayManager.getInstance().addUpdateListener(this);
+        subscribe(PlayerDeathEvent.class, playerDeathEvent ->
+                screen.getDeathCause().setText(playerDeathEvent.getDescriptiveText()));
     }
 
     /**
@@ -38,11 +37,4 @@ public class GameOverController extends GenericController implements GameUpdateL
         }
         changeScreen(GameplayScreen.class);
     }
-
-    @Override
-    public void onUpdate(GameUpdateEvent event) {
-        if (event instanceof PlayerDeathEvent playerDeathEvent) {
-            screen.getDeathCause().setText(playerDeathEvent.getDescriptiveText());
-        }
-    }
 }
@@ -1,25 +1,24 @@
 package no.ntnu.idata2001.g23.controllers;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import javafx.scene.Group;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ObservableValue;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.control.ListView;
+import javafx.scene.control.Labeled;
 import javafx.scene.control.Separator;
-import javafx.scene.image.Image;
 import javafx.scene.layout.Background;
-import javafx.scene.layout.BackgroundImage;
-import javafx.scene.layout.BackgroundPosition;
-import javafx.scene.layout.BackgroundRepeat;
-import javafx.scene.layout.BackgroundSize;
 import javafx.scene.layout.FlowPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
-import no.ntnu.idata2001.g23.intermediary.GameUpdateListener;
+import javafx.stage.Screen;
 import no.ntnu.idata2001.g23.intermediary.GameplayManager;
 import no.ntnu.idata2001.g23.intermediary.events.AllGoalsFulfilledEvent;
 import no.ntnu.idata2001.g23.intermediary.events.ChangePassageEvent;
@@ -31,31 +30,65 @@ import no.ntnu.idata2001.g23.intermediary.events.NewGameEvent;
 import no.ntnu.idata2001.g23.intermediary.events.PlayerAttackEvent;
 import no.ntnu.idata2001.g23.intermediary.events.PlayerDeathEvent;
 import no.ntnu.idata2001.g23.intermediary.events.UseItemEvent;
-import no.ntnu.idata2001.g23.model.entities.Entity;
 import no.ntnu.idata2001.g23.model.entities.Player;
 import no.ntnu.idata2001.g23.model.entities.enemies.Enemy;
 import no.ntnu.idata2001.g23.model.fileparsing.CorruptFileException;
+import no.ntnu.idata2001.g23.model.goals.Goal;
 import no.ntnu.idata2001.g23.model.items.Item;
 import no.ntnu.idata2001.g23.model.items.UsableItem;
 import no.ntnu.idata2001.g23.model.items.Weapon;
+import no.ntnu.idata2001.g23.model.story.Link;
 import no.ntnu.idata2001.g23.model.story.Passage;
 import no.ntnu.idata2001.g23.view.PathsApp;
+import no.ntnu.idata2001.g23.view.components.EnemyCard;
 import no.ntnu.idata2001.g23.view.misc.GlobalCss;
+import no.ntnu.idata2001.g23.view.misc.ListPatcher;
+import no.ntnu.idata2001.g23.view.misc.NodePool;
 import no.ntnu.idata2001.g23.view.screens.GameOverScreen;
 import no.ntnu.idata2001.g23.view.screens.GameplayScreen;
+import no.ntnu.idata2001.g23.view.screens.GenericScreen;
 import no.ntnu.idata2001.g23.view.screens.VictoryScreen;
+import no.ntnu.idata2001.g23.view.textures.BackgroundCache;
 import no.ntnu.idata2001.g23.view.textures.ImageLoader;
+import no.ntnu.idata2001.g23.view.textures.SpriteCache;
+import no.ntnu.idata2001.g23.view.textures.SpritePrefetcher;
+import no.ntnu.idata2001.g23.view.textures.TextureRegion;
 
 /**
  * Controller for the gameplay screen, where gameplay happens.
  */
-public class GameplayController extends GenericController implements GameUpdateListener {
+public class GameplayController extends GenericController {
+    //Shown in place of sprites that the game doesn't have
+    private static final ObservableValue<TextureRegion> NO_SPRITE = new SimpleObjectProperty<>();
+    private static final double MODAL_SPRITE_HEIGHT = 800;
+
     private final GameplayManager gameplayManager;
     private final GameplayScreen screen;
-
-    private Map<String, Image> sprites;
+    private final SpritePrefetcher spritePrefetcher;
+    private final InvalidationListener backgroundListener = observable -> showBackground();
+    //Nodes that are no longer on screen, so that they can be shown again instead of remade
+    private final NodePool<EnemyCard> enemyCardPool;
+    private final NodePool<Button> moveButtonPool;
+
+    private Map<String, String> spritePaths;
+    private ObservableValue<TextureRegion> backgroundSprite;
     private Player player;
 
+    //What has changed since the last redraw
+    private Passage changedPassage;
+    private List<Enemy> changedEnemies;
+    private boolean playerChanged;
+    private Class<? extends GenericScreen> nextScreen;
+    private boolean redrawScheduled;
+
+    //The nodes currently on screen, so that they can be updated instead of remade
+    private Map<Enemy, EnemyCard> enemyCards;
+    private Map<Goal, Label> goalLabels;
+    private List<Button> moveButtons;
+    private List<Node> enemyButtons;
+    //Swapped with enemyCards on every update, so that updating enemies doesn't allocate
+    private Map<Enemy, EnemyCard> spareEnemyCards;
+
     /**
      * Controller for the gameplay screen.
      *
@@ -66,7 +99,49 @@ public class GameplayController extends GenericController implements GameUpdateL
         super(application);
         this.screen = screen;
         this.gameplayManager = GameplayManager.getInstance();
-        GameplayManager.getInstance().addUpdateListener(this);
+        this.spritePrefetcher = new SpritePrefetcher();
+        spritePrefetcher.setBackgroundSize(0, getBackgroundHeight());
+        spritePrefetcher.setEnemySize(0, EnemyCard.SPRITE_HEIGHT);
+        this.enemyCards = new IdentityHashMap<>();
+        this.goalLabels = new LinkedHashMap<>();
+        this.moveButtons = new ArrayList<>();
+        this.enemyCardPool = new NodePool<>(
+                () -> new EnemyCard(this::showEnemyModal), EnemyCard::unbind);
+        this.moveButtonPool = new NodePool<>(() -> {
+            Button moveButton = new Button();
+            moveButton.setOnAction(ae -> onMoveButton(moveButton));
+            return moveButton;
+        }, moveButton -> moveButton.setUserData(null));
+        this.spareEnemyCards = new IdentityHashMap<>();
+        this.enemyButtons = new ArrayList<>();
+        subscribe(NewGameEvent.class, this::onNewGame);
+        subscribe(ChangePassageEvent.class, this::onChangePassage);
+        subscribe(UseItemEvent.class, event -> {
+            if (event.entity() instanceof Player) {
+                playerChanged();
+            }
+        });
+        subscribe(EnemyAttackEvent.class, this::onEnemyAttack);
+        subscribe(PlayerAttackEvent.class, this::onPlayerAttack);
+        subscribe(EnemyDeathEvent.class, event -> {
+            if (event.killer() instanceof Player) {
+                playerChanged();
+            }
+        });
+        subscribe(EquipWeaponEvent.class, event -> playerChanged());
+        subscribe(PlayerDeathEvent.class, event -> changeScreenAfterRedraw(GameOverScreen.class));
+        subscribe(AllGoalsFulfilledEvent.class,
+                event -> changeScreenAfterRedraw(VictoryScreen.class));
+        subscribe(GameUpdateEvent.class, this::logEvent);
+    }
+
+    /**
+     * Cancels every subscription of this controller, and every sprite it's still prefetching.
+     */
+    @Override
+    public void dispose() {
+        super.dispose();
+        spritePrefetcher.cancelAll();
     }
 
     private void addModal(Node node) {
@@ -126,8 +201,8 @@ public class GameplayController extends GenericController implements GameUpdateL
         enemyHeader.getStyleClass().add(GlobalCss.HEADER);
         enemyModal.getChildren().add(enemyHeader);
 
-        enemyModal.getChildren().add(ImageLoader.getImageView(sprites.get(enemy.getName()),
-                0, 800, true));
+        enemyModal.getChildren().add(ImageLoader.getImageView(
+                getSprite(enemy.getName(), 0, MODAL_SPRITE_HEIGHT), 0, MODAL_SPRITE_HEIGHT, true));
 
         Label detailsText = new Label(enemy.getDetails());
         detailsText.setStyle("-fx-text-alignment: center;");
@@ -244,66 +319,95 @@ public class GameplayController extends GenericController implements GameUpdateL
         gameplayManager.equipWeapon(null);
     }
 
-    @Override
-    public void onUpdate(GameUpdateEvent event) {
-        if (event instanceof NewGameEvent newGameEvent) {
-            Map<String, String> spritePaths = newGameEvent.spritePaths();
-            if (spritePaths != null) {
-                sprites = spritePaths
-                        .entrySet()
-                        .stream()
-                        .collect(Collectors.toMap(
-                                Map.Entry::getKey,
-                                entry -> ImageLoader.getImage(entry.getValue())
-                        ));
-            } else {
-                sprites = new HashMap<>();
-            }
-            player = newGameEvent.game().getPlayer();
-            Passage startPassage = newGameEvent.startPassage();
-            updateCurrentPassage(startPassage);
-            updateEnemies(startPassage.getEnemies());
-            updatePlayerStats();
-            screen.getHistoryContent().getChildren().clear();
-        } else if (event instanceof ChangePassageEvent changePassageEvent) {
-            Passage currentPassage = changePassageEvent.newPassage();
-            updateCurrentPassage(currentPassage);
-            updatePlayerStats();
-            updateEnemies(currentPassage.getEnemies());
-        } else if (event instanceof UseItemEvent useItemEvent) {
-            Entity entity = useItemEvent.entity();
-            if (entity instanceof Player) {
-                updatePlayerStats();
-            }
-        } else if (event instanceof EnemyAttackEvent enemyAttackEvent) {
-            List<Entity> targets = enemyAttackEvent.targets();
-            targets.stream()
-                    .filter(Player.class::isInstance)
-                    .findFirst()
-                    .ifPresent(e -> updatePlayerStats());
-            updateEnemies(enemyAttackEvent.remainingEnemies());
-        } else if (event instanceof PlayerAttackEvent playerAttackEvent) {
-            updateEnemies(playerAttackEvent.remainingEnemies());
-        } else if (event instanceof EnemyDeathEvent enemyDeathEvent
-                && (enemyDeathEvent.killer() instanceof Player)) {
-            updatePlayerStats();
-        } else if (event instanceof PlayerDeathEvent) {
-            changeScreen(GameOverScreen.class);
-        } else if (event instanceof AllGoalsFulfilledEvent) {
-            changeScreen(VictoryScreen.class);
-        } else if (event instanceof EquipWeaponEvent) {
-            updatePlayerStats();
+    /**
+     * Starts showing a new game.
+     *
+     * @param event The event of the new game
+     */
+    private void onNewGame(NewGameEvent event) {
+        spritePaths = event.spritePaths() != null ? event.spritePaths() : Map.of();
+        player = event.game().getPlayer();
+        spritePrefetcher.setGame(event.game().getStory(), spritePaths);
+        changedPassage = event.startPassage();
+        changedEnemies = changedPassage.getEnemies();
+        nextScreen = null;
+        playerChanged();
+    }
+
+    private void onChangePassage(ChangePassageEvent event) {
+        changedPassage = event.newPassage();
+        changedEnemies = changedPassage.getEnemies();
+        playerChanged();
+    }
+
+    private void onEnemyAttack(EnemyAttackEvent event) {
+        changedEnemies = event.remainingEnemies();
+        if (event.targets().stream().anyMatch(Player.class::isInstance)) {
+            playerChanged();
+        } else {
+            scheduleRedraw();
         }
+    }
+
+    private void onPlayerAttack(PlayerAttackEvent event) {
+        changedEnemies = event.remainingEnemies();
+        scheduleRedraw();
+    }
+
+    private void changeScreenAfterRedraw(Class<? extends GenericScreen> screenClass) {
+        nextScreen = screenClass;
+        scheduleRedraw();
+    }
 
-        logEvent(event);
+    private void playerChanged() {
+        playerChanged = true;
+        scheduleRedraw();
+    }
+
+    /**
+     * Redraws the screen once every handler of the current burst of updates has run.
+     * Handlers run through {@link Platform#runLater(Runnable)}, in the order the updates
+     * happened, so a redraw scheduled by the first handler runs after the last one.
+     */
+    private void scheduleRedraw() {
+        if (!redrawScheduled) {
+            redrawScheduled = true;
+            Platform.runLater(this::redraw);
+        }
+    }
+
+    /**
+     * Redraws every part of the screen that changed since the last redraw.
+     */
+    private void redraw() {
+        redrawScheduled = false;
+        if (changedPassage != null) {
+            updateCurrentPassage(changedPassage);
+            changedPassage = null;
+        }
+        if (playerChanged) {
+            updatePlayerStats();
+            playerChanged = false;
+        }
+        if (changedEnemies != null) {
+            updateEnemies(changedEnemies);
+            changedEnemies = null;
+        }
+        if (nextScreen != null) {
+            changeScreen(nextScreen);
+            nextScreen = null;
+        }
     }
 
     /**
-     * Logs an event in the history prompt.
+     * Logs an event in the history prompt. A new game starts with an empty history.
      *
      * @param event The event to log
      */
     private void logEvent(GameUpdateEvent event) {
+        if (event instanceof NewGameEvent) {
+            screen.getHistoryContent().getChildren().clear();
+        }
         String logMessage = event.getDescriptiveText();
         if (logMessage != null && !logMessage.isBlank()) {
             VBox historyContent = screen.getHistoryContent();
@@ -319,6 +423,57 @@ public class GameplayController extends GenericController implements GameUpdateL
         }
     }
 
+    /**
+     * Gets a sprite from the {@link SpriteCache}, decoded at the size it's shown at,
+     * which holds the default texture until the sprite is decoded.
+     *
+     * @param name   The name of the sprite to get
+     * @param width  The width the sprite is shown at, or {@code 0} for any width
+     * @param height The height the sprite is shown at, or {@code 0} for any height
+     * @return The sprite, or an empty sprite if the game doesn't have a sprite with that name
+     */
+    private ObservableValue<TextureRegion> getSprite(String name, double width, double height) {
+        String spritePath = spritePaths.get(name);
+        return spritePath != null
+                ? SpriteCache.getInstance().getSprite(spritePath, width, height)
+                : NO_SPRITE;
+    }
+
+    /**
+     * Gets the height backgrounds are decoded at. Backgrounds cover the screen,
+     * so they never need to be taller than the screen is.
+     *
+     * @return The height of the primary screen
+     */
+    private static double getBackgroundHeight() {
+        return Screen.getPrimary().getBounds().getHeight();
+    }
+
+    /**
+     * Shows the background sprite of the current passage.
+     *
+     * <p>The background that's already shown is kept until the new background is decoded,
+     * and then swapped for it, so that moving never shows the default texture in between.
+     * Backgrounds that fail to decode are done decoding, and show the default texture.
+     * Backgrounds come from the {@link BackgroundCache}, so that moving back & forth
+     * between passages reuses their backgrounds.</p>
+     */
+    private void showBackground() {
+        Background background;
+        if (backgroundSprite == null) {
+            background = Background.EMPTY;
+        } else if (backgroundSprite.getValue() == SpriteCache.getDefaultSprite()) {
+            //Still decoding, swapped in by the background listener once it's decoded
+            return;
+        } else {
+            background = BackgroundCache.getBackground(backgroundSprite.getValue());
+        }
+        Pane contentPane = screen.getContentPane();
+        if (contentPane.getBackground() != background) {
+            contentPane.setBackground(background);
+        }
+    }
+
     /**
      * Updates the passage info shown on screen.
      *
@@ -328,112 +483,141 @@ public class GameplayController extends GenericController implements GameUpdateL
         String passageTitle = newPassage.getTitle();
         screen.getPassageTitle().setText(passageTitle);
         screen.getPassageText().setText(newPassage.getContent());
-        screen.getContentPane().setBackground(sprites.containsKey(passageTitle)
-                ? new Background(new BackgroundImage(
-                sprites.get(passageTitle),
-                BackgroundRepeat.NO_REPEAT,
-                BackgroundRepeat.NO_REPEAT,
-                BackgroundPosition.CENTER, new BackgroundSize(
-                1,
-                1,
-                true,
-                true,
-                true,
-                false)))
-                : Background.EMPTY);
-
-        VBox moveOptions = screen.getMoveOptions();
-        moveOptions.getChildren().clear();
-        newPassage.getLinks().forEach(link -> {
-            Button linkButton = new Button(link.getText());
-            linkButton.setOnAction(ae -> {
-                gameplayManager.movePassage(link);
-                showActionPrompt();
-            });
-            moveOptions.getChildren().add(linkButton);
-        });
+        if (backgroundSprite != null) {
+            backgroundSprite.removeListener(backgroundListener);
+        }
+        backgroundSprite = spritePaths.containsKey(passageTitle)
+                ? getSprite(passageTitle, 0, getBackgroundHeight())
+                : null;
+        if (backgroundSprite != null) {
+            //Shows the background again once it's decoded
+            backgroundSprite.addListener(backgroundListener);
+        }
+        showBackground();
+        //Decodes the sprites of the passages ahead, so that moving there doesn't wait on them
+        spritePrefetcher.prefetchAround(newPassage);
+
+        //Move buttons are shown again with the new links, instead of being remade
+        List<Link> links = newPassage.getLinks();
+        while (moveButtons.size() > links.size()) {
+            moveButtonPool.release(moveButtons.remove(moveButtons.size() - 1));
+        }
+        while (moveButtons.size() < links.size()) {
+            moveButtons.add(moveButtonPool.acquire());
+        }
+        for (int i = 0; i < links.size(); i++) {
+            Button moveButton = moveButtons.get(i);
+            moveButton.setUserData(links.get(i));
+            setText(moveButton, links.get(i).getText());
+        }
+        ListPatcher.patch(screen.getMoveOptions().getChildren(), moveButtons);
+    }
+
+    /**
+     * Moves through the link of a move button.
+     *
+     * @param moveButton The move button that was clicked
+     */
+    private void onMoveButton(Button moveButton) {
+        if (moveButton.getUserData() instanceof Link link) {
+            gameplayManager.movePassage(link);
+            showActionPrompt();
+        }
     }
 
     /**
-     * Updates any inventory list views.
+     * Updates any inventory list views, only replacing the items that changed.
      */
     private void updateInventoryLists() {
-        ListView<Item> viewItemsView = screen.getViewItemsView();
-        ListView<UsableItem> useItemView = screen.getUseItemView();
-        ListView<Weapon> equipWeaponView = screen.getEquipWeaponView();
-        viewItemsView.getItems().clear();
-        useItemView.getItems().clear();
-        equipWeaponView.getItems().clear();
-
-        player.getInventory().getContents().forEach(item -> {
-            viewItemsView.getItems().add(item);
+        List<Item> contents = player.getInventory().getContents();
+        List<UsableItem> usableItems = new ArrayList<>();
+        List<Weapon> weapons = new ArrayList<>();
+        contents.forEach(item -> {
             if (item instanceof UsableItem usableItem) {
-                useItemView.getItems().add(usableItem);
+                usableItems.add(usableItem);
             } else if (item instanceof Weapon weapon) {
-                equipWeaponView.getItems().add(weapon);
+                weapons.add(weapon);
             }
         });
+        ListPatcher.patch(screen.getViewItemsView().getItems(), contents);
+        ListPatcher.patch(screen.getUseItemView().getItems(), usableItems);
+        ListPatcher.patch(screen.getEquipWeaponView().getItems(), weapons);
+    }
+
+    /**
+     * Sets the text of a label or button, if it's not already showing that text.
+     *
+     * @param label The label or button to set the text of
+     * @param text  The text to show
+     */
+    private static void setText(Labeled label, String text) {
+        if (!text.equals(label.getText())) {
+            label.setText(text);
+        }
     }
 
     /**
      * Update the player stats shown on screen.
      */
     private void updatePlayerStats() {
-        screen.getNameLabel().setText(player.getName());
-        screen.getHpLabel().setText(String.format(
+        setText(screen.getNameLabel(), player.getName());
+        setText(screen.getHpLabel(), String.format(
                 "Health: %s/%s", player.getHealth(), player.getMaxHealth()));
-        screen.getGoldLabel().setText("Gold: " + player.getGold());
-        screen.getScoreLabel().setText("Score: " + player.getScore());
+        setText(screen.getGoldLabel(), "Gold: " + player.getGold());
+        setText(screen.getScoreLabel(), "Score: " + player.getScore());
         Weapon weapon = player.getEquippedWeapon();
-        screen.getWeaponLabel().setText("Weapon: " + (weapon != null ? weapon.getName() : "None"));
+        setText(screen.getWeaponLabel(),
+                "Weapon: " + (weapon != null ? weapon.getName() : "None"));
         updateInventoryLists();
         updateGoals();
     }
 
     /**
      * Updates the enemies showed on the screen & all their stats.
+     * Enemies that were already shown keep their card, and only have their health updated.
      *
      * @param enemies The enemies to be showed on the screen
      */
     private void updateEnemies(List<Enemy> enemies) {
-        screen.getEnemyContent().getChildren().clear();
-
-        enemies.forEach(enemy -> {
-            Button enemyButton = new Button();
-            enemyButton.getStyleClass().add(GameplayScreen.Css.ENEMY_BUTTON);
-            enemyButton.setOnAction(ae -> showEnemyModal(enemy));
-            screen.getEnemyContent().getChildren().add(enemyButton);
-
-            VBox enemyBox = new VBox();
-            enemyBox.setStyle("-fx-alignment: center");
-            //The group makes the button not super tall
-            enemyButton.setGraphic(new Group(enemyBox));
-
-            enemyBox.getChildren().add(ImageLoader.getImageView(
-                    sprites.get(enemy.getName()),
-                    0, 400, true
-            ));
-
-            enemyBox.getChildren().add(new Label(enemy.getName()));
-
-            enemyBox.getChildren().add(new Label(String.format(
-                    "HP: %s/%s", enemy.getHealth(), enemy.getMaxHealth()
-            )));
-        });
+        Map<Enemy, EnemyCard> shownCards = spareEnemyCards;
+        enemyButtons.clear();
+        for (Enemy enemy : enemies) {
+            EnemyCard card = enemyCards.remove(enemy);
+            if (card == null) {
+                card = enemyCardPool.acquire();
+                card.bind(enemy, getSprite(enemy.getName(), 0, EnemyCard.SPRITE_HEIGHT));
+            } else {
+                card.update();
+            }
+            shownCards.put(enemy, card);
+            enemyButtons.add(card.getButton());
+        }
+        ListPatcher.patch(screen.getEnemyContent().getChildren(), enemyButtons);
+        //Every card left is of an enemy that's gone
+        enemyCards.values().forEach(enemyCardPool::release);
+        enemyCards.clear();
+        spareEnemyCards = enemyCards;
+        enemyCards = shownCards;
     }
 
     /**
      * Updates the player's list of goals.
+     * The labels are only remade if the goals themselves have changed.
      */
     private void updateGoals() {
-        VBox goalsBox = screen.getGoalsBox();
-        goalsBox.getChildren().clear();
-        GameplayManager.getInstance().checkGoals().forEach((goal, isFulfilled) -> {
-            Label goalText = new Label(goal.getDescriptiveText());
-            if (Boolean.TRUE.equals(isFulfilled)) {
-                goalText.setStyle("-fx-text-fill: lime;");
+        Map<Goal, Boolean> goals = GameplayManager.getInstance().checkGoals();
+        if (!goals.keySet().equals(goalLabels.keySet())) {
+            goalLabels = new LinkedHashMap<>();
+            goals.keySet().forEach(goal -> goalLabels.put(
+                    goal, new Label(goal.getDescriptiveText())));
+            screen.getGoalsBox().getChildren().setAll(goalLabels.values());
+        }
+        goals.forEach((goal, isFulfilled) -> {
+            String style = Boolean.TRUE.equals(isFulfilled) ? "-fx-text-fill: lime;" : "";
+            Label goalText = goalLabels.get(goal);
+            if (!style.equals(goalText.getStyle())) {
+                goalText.setStyle(style);
             }
-            goalsBox.getChildren().add(goalText);
         });
     }
 }
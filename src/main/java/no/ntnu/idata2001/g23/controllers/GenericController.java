@@ -1,5 +1,13 @@
 package no.ntnu.idata2001.g23.controllers;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import javafx.application.Platform;
+import no.ntnu.idata2001.g23.intermediary.GameplayManager;
+import no.ntnu.idata2001.g23.intermediary.Subscription;
+import no.ntnu.idata2001.g23.intermediary.events.GameUpdateEvent;
 import no.ntnu.idata2001.g23.view.PathsApp;
 import no.ntnu.idata2001.g23.view.screens.GenericScreen;
 
@@ -7,10 +15,39 @@ import no.ntnu.idata2001.g23.view.screens.GenericScreen;
  * A generic controller for any scene in the application.
  */
 public abstract class GenericController {
+    //Shared by every subscription, so that a controller's handlers share one mailbox
+    private static final Executor FX_THREAD = Platform::runLater;
+
     protected final PathsApp application;
+    private final List<Subscription> subscriptions;
 
     protected GenericController(PathsApp application) {
         this.application = application;
+        this.subscriptions = new ArrayList<>();
+    }
+
+    /**
+     * Subscribes to one type of update from the {@link GameplayManager}.
+     * The handler is notified on the JavaFX application thread,
+     * after the action that caused the update is done.
+     * Every handler of the controller gets updates in the order they happened in.
+     *
+     * @param eventType The type of update to handle
+     * @param handler   The handler to notify
+     * @param <E>       The type of update to handle
+     */
+    protected <E extends GameUpdateEvent> void subscribe(
+            Class<E> eventType, Consumer<? super E> handler) {
+        subscriptions.add(GameplayManager.getInstance()
+                .subscribe(this, eventType, handler, FX_THREAD));
+    }
+
+    /**
+     * Cancels every subscription of this controller, so that it can be garbage collected.
+     */
+    public void dispose() {
+        subscriptions.forEach(Subscription::cancel);
+        subscriptions.clear();
     }
 
     /**
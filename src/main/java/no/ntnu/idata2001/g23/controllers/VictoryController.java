@@ -1,9 +1,7 @@
 package no.ntnu.idata2001.g23.controllers;
 
-import no.ntnu.idata2001.g23.intermediary.GameUpdateListener;
 import no.ntnu.idata2001.g23.intermediary.GameplayManager;
 import no.ntnu.idata2001.g23.intermediary.events.AllGoalsFulfilledEvent;
-import no.ntnu.idata2001.g23.intermediary.events.GameUpdateEvent;
 import no.ntnu.idata2001.g23.model.fileparsing.CorruptFileException;
 import no.ntnu.idata2001.g23.view.PathsApp;
 import no.ntnu.idata2001.g23.view.screens.GameplayScreen;
@@ -12,7 +10,7 @@ import no.ntnu.idata2001.g23.view.screens.VictoryScreen;
 /**
  * A controller for {@link VictoryScreen}.
  */
-public class VictoryController extends GenericController implements GameUpdateListener {
+public class VictoryController extends GenericController {
     private final VictoryScreen screen;
 
     /**
@@ -24,7 +22,8 @@ public class VictoryController extends GenericController implements GameUpdateLi
     public VictoryController(VictoryScreen screen, PathsApp application) {
         super(application);
         this.screen = screen;
-        GameplayManager.getInstance().addUpdateListener(this);
+        subscribe(AllGoalsFulfilledEvent.class, allGoalsFulfilledEvent ->
+                screen.getVictoryText().setText(allGoalsFulfilledEvent.getDescriptiveText()));
     }
 
     /**
@@ -38,11 +37,4 @@ public class VictoryController extends GenericController implements GameUpdateLi
         }
         changeScreen(GameplayScreen.class);
     }
-
-    @Override
-    public void onUpdate(GameUpdateEvent event) {
-        if (event instanceof AllGoalsFulfilledEvent allGoalsFulfilledEvent) {
-            screen.getVictoryText().setText(allGoalsFulfilledEvent.getDescriptiveText());
-        }
-    }
 }
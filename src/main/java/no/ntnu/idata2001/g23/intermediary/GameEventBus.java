@@ -0,0 +1,442 @@
+package no.ntnu.idata2001.g23.intermediary;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import no.ntnu.idata2001.g23.intermediary.events.AllGoalsFulfilledEvent;
+import no.ntnu.idata2001.g23.intermediary.events.GameUpdateEvent;
+import no.ntnu.idata2001.g23.intermediary.events.NewGameEvent;
+import no.ntnu.idata2001.g23.intermediary.events.PlayerDeathEvent;
+
+/**
+ * Delivers the events of a {@link GameSession} to its subscribers.
+ *
+ * <p>Subscribers are either listeners, that get every event, or handlers of one type of event,
+ * that only get events of that type. Every event class gets its own dispatch table
+ * of the mailboxes that handle it, made the first time an event of that class is published,
+ * so publishing an event only costs as much as the subscribers that handle it.</p>
+ *
+ * <p>Every subscriber has a mailbox, except handlers that are subscribed with an owner:
+ * every handler with the same owner & executor shares one mailbox, and the mailbox
+ * dispatches each event to the owner's handlers of its type. Mailboxes are notified in the
+ * order they were made in, and every mailbox gets every event it handles in the order it was
+ * published in, so an owner's handlers get events in the order they were published in,
+ * even across types. A mailbox can either be notified directly, while the event is published,
+ * or asynchronously through its executor.
+ * Every subscription can be cancelled through the {@link Subscription} it returns.</p>
+ *
+ * <p>Asynchronous mailboxes each hold up to {@value #MAILBOX_CAPACITY} events,
+ * so that publishing never waits on a subscriber. A mailbox is drained by one task at a time,
+ * and every event that's queued by the time the task runs is delivered in the same batch.
+ * Coalescing listeners get each batch in one call to
+ * {@link GameUpdateListener#onUpdates(List)}, so that a burst of events, like every attack
+ * in a single turn, is handled once. If a subscriber falls so far behind that its mailbox
+ * is full, the mailbox is coalesced by dropping its oldest event, so that it keeps the latest
+ * state of the game. Events that start or end a game ({@link NewGameEvent},
+ * {@link PlayerDeathEvent} & {@link AllGoalsFulfilledEvent}) are never dropped.
+ * Dropped events are counted by {@link #getDroppedEventCount()}.</p>
+ */
+public class GameEventBus {
+    /**
+     * The max amount of events that can be queued for one asynchronous subscriber.
+     */
+    public static final int MAILBOX_CAPACITY = 1024;
+
+    private final AtomicLong droppedEventCount;
+    //Replaced whenever the subscribers change, so that publishing never needs to lock
+    private volatile Subscribers subscribers;
+
+    /**
+     * Makes an event bus without any subscribers.
+     */
+    public GameEventBus() {
+        this.droppedEventCount = new AtomicLong();
+        this.subscribers = new Subscribers(List.of());
+    }
+
+    /**
+     * Subscribes a listener that's notified directly, while an event is published.
+     * Replaces any earlier subscription of the same listener.
+     *
+     * @param listener The listener to subscribe
+     * @return The listener's subscription
+     * @throws IllegalArgumentException If {@code listener} is {@code null}
+     */
+    public Subscription subscribe(GameUpdateListener listener) {
+        return subscribe(listener, null, false);
+    }
+
+    /**
+     * Subscribes a listener that's notified asynchronously through an executor.
+     * Replaces any earlier subscription of the same listener.
+     *
+     * @param listener The listener to subscribe
+     * @param executor The executor to notify the listener through,
+     *                 or {@code null} to notify it directly
+     * @param coalesce If every queued event should be delivered in one call to
+     *                 {@link GameUpdateListener#onUpdates(List)},
+     *                 instead of one call to {@link GameUpdateListener#onUpdate(GameUpdateEvent)}
+     *                 per event
+     * @return The listener's subscription
+     * @throws IllegalArgumentException If {@code listener} is {@code null}
+     */
+    public synchronized Subscription subscribe(
+            GameUpdateListener listener, Executor executor, boolean coalesce) {
+        if (listener == null) {
+            throw new IllegalArgumentException("\"listener\" cannot be null");
+        }
+        unsubscribe(listener);
+        Mailbox mailbox = new Mailbox(listener, executor, coalesce);
+        Handler handler = new Handler(mailbox, GameUpdateEvent.class, listener::onUpdate);
+        mailbox.add(handler);
+        add(mailbox);
+        return handler;
+    }
+
+    /**
+     * Subscribes a handler of one type of event, that's notified directly,
+     * while an event of that type is published.
+     *
+     * @param eventType The type of event to handle, including any subtypes
+     * @param handler   The handler to notify
+     * @param <E>       The type of event to handle
+     * @return The handler's subscription
+     * @throws IllegalArgumentException If {@code eventType} or {@code handler} is {@code null}
+     */
+    public <E extends GameUpdateEvent> Subscription subscribe(
+            Class<E> eventType, Consumer<? super E> handler) {
+        return subscribe(eventType, handler, null);
+    }
+
+    /**
+     * Subscribes a handler of one type of event, that's notified asynchronously
+     * through an executor. The handler gets its own mailbox, so events of other types,
+     * that are delivered to other handlers, may be handled before or after it.
+     *
+     * @param eventType The type of event to handle, including any subtypes
+     * @param handler   The handler to notify
+     * @param executor  The executor to notify the handler through,
+     *                  or {@code null} to notify it directly
+     * @param <E>       The type of event to handle
+     * @return The handler's subscription
+     * @throws IllegalArgumentException If {@code eventType} or {@code handler} is {@code null}
+     */
+    public <E extends GameUpdateEvent> Subscription subscribe(
+            Class<E> eventType, Consumer<? super E> handler, Executor executor) {
+        return subscribe(handler, eventType, handler, executor);
+    }
+
+    /**
+     * Subscribes a handler of one type of event, that shares a mailbox with every other handler
+     * of the same owner & executor, so that the owner's handlers get every event
+     * in the order it was published in, even across types.
+     *
+     * @param owner     The owner of the handler
+     * @param eventType The type of event to handle, including any subtypes
+     * @param handler   The handler to notify
+     * @param executor  The executor to notify the handler through,
+     *                  or {@code null} to notify it directly
+     * @param <E>       The type of event to handle
+     * @return The handler's subscription
+     * @throws IllegalArgumentException If {@code owner}, {@code eventType}
+     *                                  or {@code handler} is {@code null}
+     */
+    public synchronized <E extends GameUpdateEvent> Subscription subscribe(
+            Object owner, Class<E> eventType, Consumer<? super E> handler, Executor executor) {
+        if (owner == null) {
+            throw new IllegalArgumentException("\"owner\" cannot be null");
+        }
+        if (eventType == null) {
+            throw new IllegalArgumentException("\"eventType\" cannot be null");
+        }
+        if (handler == null) {
+            throw new IllegalArgumentException("\"handler\" cannot be null");
+        }
+        Mailbox mailbox = null;
+        for (Mailbox ownerMailbox : subscribers.mailboxes()) {
+            if (ownerMailbox.owner == owner && ownerMailbox.executor == executor
+                    && !ownerMailbox.coalesce) {
+                mailbox = ownerMailbox;
+            }
+        }
+        if (mailbox == null) {
+            mailbox = new Mailbox(owner, executor, false);
+        }
+        Handler typedHandler = new Handler(mailbox, eventType,
+                event -> handler.accept(eventType.cast(event)));
+        mailbox.add(typedHandler);
+        add(mailbox);
+        return typedHandler;
+    }
+
+    /**
+     * Adds a mailbox to the subscribers, or remakes the dispatch tables
+     * if the mailbox is already added, since its handlers have changed.
+     *
+     * @param mailbox The mailbox to add
+     */
+    private void add(Mailbox mailbox) {
+        List<Mailbox> mailboxes = new ArrayList<>(subscribers.mailboxes());
+        if (!mailboxes.contains(mailbox)) {
+            mailboxes.add(mailbox);
+        }
+        subscribers = new Subscribers(List.copyOf(mailboxes));
+    }
+
+    private synchronized void remove(Handler handler) {
+        Mailbox mailbox = handler.mailbox;
+        mailbox.remove(handler);
+        List<Mailbox> mailboxes = new ArrayList<>(subscribers.mailboxes());
+        if (mailbox.handlers.isEmpty()) {
+            mailbox.cancel();
+            mailboxes.remove(mailbox);
+        }
+        subscribers = new Subscribers(List.copyOf(mailboxes));
+    }
+
+    /**
+     * Unsubscribes a listener, so that it's no longer notified.
+     * Events already queued for an asynchronous listener are not delivered.
+     *
+     * @param listener The listener to unsubscribe
+     */
+    public synchronized void unsubscribe(GameUpdateListener listener) {
+        for (Mailbox mailbox : subscribers.mailboxes()) {
+            if (mailbox.owner == listener) {
+                mailbox.handlers.forEach(Handler::cancel);
+            }
+        }
+    }
+
+    /**
+     * Publishes an event to every subscriber that handles it.
+     *
+     * @param event The event to publish
+     * @throws IllegalArgumentException If {@code event} is {@code null}
+     */
+    public void publish(GameUpdateEvent event) {
+        if (event == null) {
+            throw new IllegalArgumentException("\"event\" cannot be null");
+        }
+        for (Mailbox mailbox : subscribers.getDispatchTable(event.getClass())) {
+            mailbox.post(event);
+        }
+    }
+
+    /**
+     * Gets the amount of subscribers.
+     *
+     * @return The amount of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscribers.mailboxes().stream().mapToInt(mailbox -> mailbox.handlers.size()).sum();
+    }
+
+    /**
+     * Checks if an event must never be dropped from a full mailbox,
+     * because it starts or ends a game.
+     *
+     * @param event The event to check
+     * @return {@code true} if the event must never be dropped
+     */
+    private static boolean isKept(GameUpdateEvent event) {
+        return event instanceof NewGameEvent
+                || event instanceof PlayerDeathEvent
+                || event instanceof AllGoalsFulfilledEvent;
+    }
+
+    /**
+     * Gets the amount of events that have been dropped because a subscriber's mailbox was full.
+     *
+     * @return The amount of dropped events
+     */
+    public long getDroppedEventCount() {
+        return droppedEventCount.get();
+    }
+
+    /**
+     * Every subscriber at one point in time, and the dispatch tables made from them.
+     *
+     * @param mailboxes      The mailbox of every subscriber, in the order they subscribed in
+     * @param dispatchTables The mailboxes that handle each event class
+     */
+    private record Subscribers(
+            List<Mailbox> mailboxes,
+            Map<Class<?>, Mailbox[]> dispatchTables
+    ) {
+        private Subscribers(List<Mailbox> mailboxes) {
+            this(mailboxes, new ConcurrentHashMap<>());
+        }
+
+        private Mailbox[] getDispatchTable(Class<?> eventClass) {
+            return dispatchTables.computeIfAbsent(eventClass, c -> mailboxes.stream()
+                    .filter(mailbox -> mailbox.handles(c))
+                    .toArray(Mailbox[]::new));
+        }
+    }
+
+    /**
+     * The subscription of one handler or listener.
+     */
+    private final class Handler implements Subscription {
+        private final Mailbox mailbox;
+        private final Class<?> eventType;
+        private final Consumer<GameUpdateEvent> delivery;
+        private volatile boolean cancelled;
+
+        private Handler(Mailbox mailbox, Class<?> eventType, Consumer<GameUpdateEvent> delivery) {
+            this.mailbox = mailbox;
+            this.eventType = eventType;
+            this.delivery = delivery;
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                remove(this);
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * The mailbox of one subscriber or owner,
+     * with its queue of events that are yet to be delivered to its handlers.
+     */
+    private final class Mailbox implements Runnable {
+        private final Object owner;
+        private final Executor executor;
+        private final boolean coalesce;
+        private final ArrayDeque<GameUpdateEvent> queue;
+        //Set while a drain task is scheduled or running, so that only one runs at a time
+        private final AtomicBoolean scheduled;
+        //Replaced whenever the handlers change, so that delivering never needs to lock
+        private volatile List<Handler> handlers;
+        private volatile boolean cancelled;
+
+        private Mailbox(Object owner, Executor executor, boolean coalesce) {
+            this.owner = owner;
+            this.executor = executor;
+            this.coalesce = coalesce;
+            this.queue = executor == null ? null : new ArrayDeque<>();
+            this.scheduled = new AtomicBoolean();
+            this.handlers = List.of();
+        }
+
+        private void add(Handler handler) {
+            List<Handler> newHandlers = new ArrayList<>(handlers);
+            newHandlers.add(handler);
+            handlers = List.copyOf(newHandlers);
+        }
+
+        private void remove(Handler handler) {
+            List<Handler> newHandlers = new ArrayList<>(handlers);
+            newHandlers.remove(handler);
+            handlers = List.copyOf(newHandlers);
+        }
+
+        private boolean handles(Class<?> eventClass) {
+            return handlers.stream().anyMatch(handler -> handler.eventType.isAssignableFrom(
+                    eventClass));
+        }
+
+        private void post(GameUpdateEvent event) {
+            if (cancelled) {
+                return;
+            }
+            if (executor == null) {
+                deliver(List.of(event));
+                return;
+            }
+            synchronized (queue) {
+                if (queue.size() >= MAILBOX_CAPACITY) {
+                    coalesce();
+                }
+                queue.add(event);
+            }
+            schedule();
+        }
+
+        /**
+         * Drops the oldest event that can be dropped, to make room for a new event.
+         * If every queued event must be kept, the mailbox is let past its capacity instead.
+         */
+        private void coalesce() {
+            Iterator<GameUpdateEvent> events = queue.iterator();
+            while (events.hasNext()) {
+                if (!isKept(events.next())) {
+                    events.remove();
+                    droppedEventCount.incrementAndGet();
+                    return;
+                }
+            }
+        }
+
+        private void schedule() {
+            if (!cancelled && scheduled.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        private void deliver(List<GameUpdateEvent> batch) {
+            List<Handler> currentHandlers = handlers;
+            if (coalesce) {
+                //Coalescing mailboxes only belong to one listener, that handles every event
+                ((GameUpdateListener) owner).onUpdates(batch);
+                return;
+            }
+            for (GameUpdateEvent event : batch) {
+                for (Handler handler : currentHandlers) {
+                    if (!handler.cancelled && handler.eventType.isInstance(event)) {
+                        handler.delivery.accept(event);
+                    }
+                }
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            if (queue != null) {
+                synchronized (queue) {
+                    queue.clear();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                List<GameUpdateEvent> batch;
+                synchronized (queue) {
+                    batch = new ArrayList<>(queue);
+                    queue.clear();
+                }
+                if (!cancelled && !batch.isEmpty()) {
+                    deliver(batch);
+                }
+            } finally {
+                scheduled.set(false);
+                //Catches events that were queued after the drain, but before the flag was reset
+                boolean hasQueued;
+                synchronized (queue) {
+                    hasQueued = !queue.isEmpty();
+                }
+                if (hasQueued) {
+                    schedule();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package no.ntnu.idata2001.g23.intermediary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import no.ntnu.idata2001.g23.intermediary.events.AllGoalsFulfilledEvent;
+import no.ntnu.idata2001.g23.intermediary.events.ChangePassageEvent;
+import no.ntnu.idata2001.g23.intermediary.events.ChangePassageFailedEvent;
+import no.ntnu.idata2001.g23.intermediary.events.EnemyAttackEvent;
+import no.ntnu.idata2001.g23.intermediary.events.EnemyDeathEvent;
+import no.ntnu.idata2001.g23.intermediary.events.EquipWeaponEvent;
+import no.ntnu.idata2001.g23.intermediary.events.GameUpdateEvent;
+import no.ntnu.idata2001.g23.intermediary.events.NewGameEvent;
+import no.ntnu.idata2001.g23.intermediary.events.PlayerAttackEvent;
+import no.ntnu.idata2001.g23.intermediary.events.PlayerDeathEvent;
+import no.ntnu.idata2001.g23.intermediary.events.UseItemEvent;
+import no.ntnu.idata2001.g23.model.Game;
+import no.ntnu.idata2001.g23.model.actions.Action;
+import no.ntnu.idata2001.g23.model.actions.HealthAction;
+import no.ntnu.idata2001.g23.model.entities.Entity;
+import no.ntnu.idata2001.g23.model.entities.Player;
+import no.ntnu.idata2001.g23.model.entities.enemies.Enemy;
+import no.ntnu.idata2001.g23.model.fileparsing.CorruptFileException;
+import no.ntnu.idata2001.g23.model.fileparsing.GameFileCollection;
+import no.ntnu.idata2001.g23.model.fileparsing.GameTemplate;
+import no.ntnu.idata2001.g23.model.fileparsing.GameTemplateCache;
+import no.ntnu.idata2001.g23.model.goals.Goal;
+import no.ntnu.idata2001.g23.model.items.UsableItem;
+import no.ntnu.idata2001.g23.model.items.Weapon;
+import no.ntnu.idata2001.g23.model.story.Link;
+import no.ntnu.idata2001.g23.model.story.Passage;
+
+/**
+ * One playthrough of a game, that keeps track of its own game progress and listeners,
+ * and contains methods for the controllers to interact with the game.
+ * Also makes use of observer pattern to notify the view about any changes.
+ *
+ * <p>Any amount of sessions can be played at once. Sessions of the same game share its
+ * parsed template through the {@link GameTemplateCache}, and only copy what they can change.
+ * Every action on a session is synchronized, so one session can be played from any thread,
+ * while different sessions never block each other.</p>
+ *
+ * @see GameSessionRegistry
+ */
+public class GameSession {
+    private final String id;
+    private final GameEventBus eventBus;
+    private GameFileCollection gameFiles;
+    private String playerName;
+    private String difficulty;
+
+    private Game game;
+    private Passage currentPassage;
+    private volatile long lastAccess;
+
+    /**
+     * Makes a game session with a random ID, without a game.
+     *
+     * @see #setGame(GameFileCollection, String, String)
+     */
+    public GameSession() {
+        this.id = UUID.randomUUID().toString();
+        this.eventBus = new GameEventBus();
+    }
+
+    /**
+     * Gets the id field.
+     *
+     * @return The id field
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the lastAccess field.
+     *
+     * @return When the session was last accessed through the {@link GameSessionRegistry},
+     *         in the registry's clock's nanoseconds
+     */
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * Sets when the session was last accessed.
+     *
+     * @param lastAccess When the session was last accessed, in nanoseconds
+     */
+    void setLastAccess(long lastAccess) {
+        this.lastAccess = lastAccess;
+    }
+
+    /**
+     * Gets the game field.
+     *
+     * @return The game field, or {@code null} if the game hasn't been started
+     */
+    public synchronized Game getGame() {
+        return game;
+    }
+
+    /**
+     * Gets the currentPassage field.
+     *
+     * @return The currentPassage field, or {@code null} if the game hasn't been started
+     */
+    public synchronized Passage getCurrentPassage() {
+        return currentPassage;
+    }
+
+    /**
+     * Adds a listener that can listen for updates.
+     * The listener is notified directly, while the session is updated.
+     *
+     * @param listener The listener to add
+     * @return The listener's subscription
+     */
+    public Subscription addUpdateListener(GameUpdateListener listener) {
+        return eventBus.subscribe(listener);
+    }
+
+    /**
+     * Adds a listener that listens for updates asynchronously, through an executor,
+     * so that the session never waits on the listener.
+     *
+     * @param listener The listener to add
+     * @param executor The executor to notify the listener through
+     * @param coalesce If bursts of updates should be delivered to the listener together
+     * @return The listener's subscription
+     * @see GameEventBus#subscribe(GameUpdateListener, Executor, boolean)
+     */
+    public Subscription addUpdateListener(
+            GameUpdateListener listener, Executor executor, boolean coalesce) {
+        return eventBus.subscribe(listener, executor, coalesce);
+    }
+
+    /**
+     * Subscribes a handler that's only notified of one type of update.
+     * The handler is notified directly, while the session is updated.
+     *
+     * @param eventType The type of update to handle, including any subtypes
+     * @param handler   The handler to notify
+     * @param <E>       The type of update to handle
+     * @return The handler's subscription
+     */
+    public <E extends GameUpdateEvent> Subscription subscribe(
+            Class<E> eventType, Consumer<? super E> handler) {
+        return eventBus.subscribe(eventType, handler);
+    }
+
+    /**
+     * Subscribes a handler that's only notified of one type of update,
+     * asynchronously through an executor.
+     *
+     * @param eventType The type of update to handle, including any subtypes
+     * @param handler   The handler to notify
+     * @param executor  The executor to notify the handler through
+     * @param <E>       The type of update to handle
+     * @return The handler's subscription
+     * @see GameEventBus#subscribe(Class, Consumer, Executor)
+     */
+    public <E extends GameUpdateEvent> Subscription subscribe(
+            Class<E> eventType, Consumer<? super E> handler, Executor executor) {
+        return eventBus.subscribe(eventType, handler, executor);
+    }
+
+    /**
+     * Subscribes a handler that's only notified of one type of update,
+     * asynchronously through an executor, sharing a mailbox with every other handler
+     * of the same owner & executor, so that the owner gets every update in order.
+     *
+     * @param owner     The owner of the handler
+     * @param eventType The type of update to handle, including any subtypes
+     * @param handler   The handler to notify
+     * @param executor  The executor to notify the handler through
+     * @param <E>       The type of update to handle
+     * @return The handler's subscription
+     * @see GameEventBus#subscribe(Object, Class, Consumer, Executor)
+     */
+    public <E extends GameUpdateEvent> Subscription subscribe(
+            Object owner, Class<E> eventType, Consumer<? super E> handler, Executor executor) {
+        return eventBus.subscribe(owner, eventType, handler, executor);
+    }
+
+    /**
+     * Removes a listener, so that it no longer listens for updates.
+     *
+     * @param listener The listener to remove
+     */
+    public void removeUpdateListener(GameUpdateListener listener) {
+        eventBus.unsubscribe(listener);
+    }
+
+    /**
+     * Notifies every listener about an event.
+     *
+     * @param event The event to notify all listeners of
+     */
+    private void notifyListeners(GameUpdateEvent event) {
+        eventBus.publish(event);
+    }
+
+    /**
+     * Sets a game that can be played.
+     *
+     * @param gameFiles  The game's files
+     * @param playerName The player's name
+     * @param difficulty The game's difficulty
+     * @see #startGame()
+     */
+    public synchronized void setGame(
+            GameFileCollection gameFiles, String playerName, String difficulty) {
+        this.gameFiles = gameFiles;
+        this.playerName = playerName;
+        this.difficulty = difficulty;
+    }
+
+    /**
+     * Makes the set game and starts it from the beginning.
+     *
+     * @throws IllegalStateException If no game has been set
+     * @throws CorruptFileException  If the game cannot be made due to one or more corrupt files
+     * @see #setGame(GameFileCollection, String, String)
+     */
+    public synchronized void startGame() throws CorruptFileException {
+        if (gameFiles == null
+                || playerName == null || playerName.isBlank()
+                || difficulty == null || difficulty.isBlank()
+        ) {
+            throw new IllegalStateException("No game has been set");
+        }
+        GameTemplate template = GameTemplateCache.getInstance().getTemplate(gameFiles);
+        this.game = template.makeGame(playerName, difficulty);
+        this.currentPassage = game.begin();
+        notifyListeners(new NewGameEvent(game, currentPassage, template.getSpritePaths()));
+    }
+
+    /**
+     * Updates the current passage to the passage associated with the provided link.
+     *
+     * @param link The link associated with the passage to move to
+     * @throws IllegalArgumentException If {@code link} is {@code null}
+     */
+    public synchronized void movePassage(Link link) {
+        if (link == null) {
+            throw new IllegalArgumentException("\"link\" cannot be null");
+        }
+
+        Passage oldPassage = currentPassage;
+        Passage newPassage = game.go(link);
+        Optional<Enemy> blockingEnemy = oldPassage
+                .getEnemies()
+                .stream()
+                .filter(enemy ->
+                        enemy.getEscapeChance() < ThreadLocalRandom.current().nextDouble())
+                .findFirst();
+
+        if (blockingEnemy.isEmpty()) {
+            Player player = game.getPlayer();
+            List<Action> actions = link.getActions();
+            actions.forEach(action -> action.execute(player));
+            this.currentPassage = game.go(link);
+            ChangePassageEvent changePassageEvent =
+                    new ChangePassageEvent(oldPassage, currentPassage, actions);
+            notifyListeners(changePassageEvent);
+            if (player.getHealth() <= 0) {
+                notifyListeners(new PlayerDeathEvent(changePassageEvent));
+            }
+        } else {
+            notifyListeners(new ChangePassageFailedEvent(
+                    oldPassage, newPassage, blockingEnemy.get()));
+            enemiesAttack();
+        }
+    }
+
+    /**
+     * Uses an item in the player's inventory.
+     *
+     * @param item The item to use
+     */
+    public synchronized void useItem(UsableItem item) {
+        Player player = game.getPlayer();
+        player.useItem(item);
+        UseItemEvent useItemEvent = new UseItemEvent(item, player);
+        notifyListeners(useItemEvent);
+        if (player.getHealth() <= 0) {
+            notifyListeners(new PlayerDeathEvent(useItemEvent));
+        }
+    }
+
+    /**
+     * Equips the player wit a specified weapons.
+     *
+     * @param weapon The weapon to equip
+     */
+    public synchronized void equipWeapon(Weapon weapon) {
+        game.getPlayer().equipWeapon(weapon);
+        notifyListeners(new EquipWeaponEvent(game.getPlayer().getEquippedWeapon()));
+    }
+
+    /**
+     * Drops the loot of any enemy who has died, and gives it to the enemy's killer.
+     *
+     * @param deadEnemy The enemy that died
+     * @param killedBy  The entity that killed the enemy who died
+     */
+    private void enemyDeath(Enemy deadEnemy, Entity killedBy) {
+        List<Action> droppedLoot = deadEnemy.dropLoot();
+        if (killedBy != null) {
+            droppedLoot.forEach(action -> action.execute(killedBy));
+        }
+        notifyListeners(new EnemyDeathEvent(deadEnemy, killedBy, droppedLoot));
+    }
+
+    /**
+     * Makes every enemy attack.
+     */
+    private void enemiesAttack() {
+        List<Enemy> enemies = currentPassage.getEnemies();
+        for (Enemy enemy : new ArrayList<>(enemies)) {
+            if (enemy.getHealth() > 0) {
+                List<Entity> possibleTargets = new ArrayList<>();
+                possibleTargets.add(game.getPlayer());
+                possibleTargets.addAll(enemies);
+
+                Map<Action, List<Entity>> actionMap = enemy.act(possibleTargets);
+                for (Map.Entry<Action, List<Entity>> actionEntry : actionMap.entrySet()) {
+                    Action enemyAttack = actionEntry.getKey();
+                    List<Entity> targets = actionEntry.getValue();
+                    targets.forEach(enemyAttack::execute);
+                    EnemyAttackEvent enemyAttackEvent = new EnemyAttackEvent(
+                            enemy, enemyAttack, targets,
+                            enemies.stream().filter(e -> e.getHealth() > 0).toList());
+                    notifyListeners(enemyAttackEvent);
+                    targets.stream().filter(entity -> entity.getHealth() <= 0).forEach(dead -> {
+                        if (dead instanceof Enemy e) {
+                            enemyDeath(e, enemy);
+                        } else if (dead instanceof Player) {
+                            notifyListeners(new PlayerDeathEvent(enemyAttackEvent));
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes an attack phase, and kills any entity that would die during it.
+     *
+     * @param target The target for the player's attack
+     */
+    public synchronized void attack(Enemy target) {
+        Player player = game.getPlayer();
+        List<Enemy> enemies = currentPassage.getEnemies();
+        Action attack = new HealthAction(-player.getEquippedWeapon().getDamage());
+        attack.execute(target);
+        if (target.getHealth() <= 0) {
+            enemyDeath(target, player);
+            enemies.remove(target);
+        }
+        notifyListeners(new PlayerAttackEvent(attack, target, enemies));
+
+        //After the player attacks, every enemy goes for an attack
+        enemiesAttack();
+    }
+
+    /**
+     * Checks all the game's goals to see if the player fulfills them or not.
+     *
+     * @return A map of every goal, and if it's fulfilled or not
+     */
+    public synchronized Map<Goal, Boolean> checkGoals() {
+        Player player = game.getPlayer();
+        Map<Goal, Boolean> goalMap = game
+                .getGoals()
+                .stream()
+                .collect(Collectors.toMap(
+                        goal -> goal,
+                        goal -> goal.isFulfilled(player)
+                ));
+        if (goalMap.values().stream().allMatch(isFulfilled -> isFulfilled)) {
+            notifyListeners(new AllGoalsFulfilledEvent(game.getGoals()));
+        }
+        return goalMap;
+    }
+}
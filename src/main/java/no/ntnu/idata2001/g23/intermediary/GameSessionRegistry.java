@@ -0,0 +1,316 @@
+package no.ntnu.idata2001.g23.intermediary;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import no.ntnu.idata2001.g23.model.fileparsing.GameFileCollection;
+
+/**
+ * A process-wide registry of every {@link GameSession} that is being played,
+ * other than the default {@link GameplayManager} session.
+ *
+ * <p>Sessions are looked up by their ID, and can be made, looked up & removed from any thread.
+ * Every session of the same game shares its parsed template, and its story shares the
+ * template's story, so a session only costs its player, goals, and its own copies of the
+ * passages with enemies that it has been to.</p>
+ *
+ * <p>Every time a session is made or looked up, its last access is updated. Sessions that
+ * haven't been accessed for longer than the registry's idle timeout are removed by a sweeper,
+ * that runs in the background once the registry has a session. Removal listeners are notified
+ * whenever a session is removed, whether it's removed explicitly or because it was idle.
+ * A listener that throws an exception doesn't keep the other listeners from being notified,
+ * nor stop the sweeper. The sweeper can be stopped with {@link #stopSweeper()}.</p>
+ */
+public class GameSessionRegistry {
+    /**
+     * The max amount of sessions the shared registry keeps at once.
+     */
+    public static final int DEFAULT_MAX_SESSIONS = 65536;
+
+    /**
+     * How long a session in the shared registry can go without being accessed
+     * before it's removed.
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    //Shared by every registry, since sweeping is quick & rare
+    private static final ScheduledExecutorService SWEEPER =
+            Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "game-session-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private static GameSessionRegistry instance;
+    private final int maxSessions;
+    private final long idleTimeoutNanos;
+    private final LongSupplier clock;
+    private final Map<String, GameSession> sessions;
+    private final AtomicInteger sessionCount;
+    private final List<Consumer<GameSession>> removalListeners;
+    private ScheduledFuture<?> sweeper;
+
+    /**
+     * Makes a game session registry.
+     *
+     * @param maxSessions       The max amount of sessions to keep at once
+     * @param idleTimeoutMillis How long a session can go without being accessed
+     *                          before it's removed
+     * @param clock             Gives the current time in nanoseconds,
+     *                          like {@link System#nanoTime()}
+     */
+    GameSessionRegistry(int maxSessions, long idleTimeoutMillis, LongSupplier clock) {
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("\"maxSessions\" must be at least 1");
+        }
+        if (idleTimeoutMillis < 1) {
+            throw new IllegalArgumentException("\"idleTimeoutMillis\" must be at least 1");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("\"clock\" cannot be null");
+        }
+        this.maxSessions = maxSessions;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.clock = clock;
+        this.sessions = new ConcurrentHashMap<>();
+        this.sessionCount = new AtomicInteger();
+        this.removalListeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Makes a game session registry with the default idle timeout,
+     * that's separate from the shared registry.
+     *
+     * @param maxSessions The max amount of sessions to keep at once
+     * @throws IllegalArgumentException If {@code maxSessions} is less than 1
+     */
+    public GameSessionRegistry(int maxSessions) {
+        this(maxSessions, DEFAULT_IDLE_TIMEOUT_MILLIS, System::nanoTime);
+    }
+
+    /**
+     * Singleton.
+     *
+     * @return Singleton instance
+     */
+    public static synchronized GameSessionRegistry getInstance() {
+        if (instance == null) {
+            instance = new GameSessionRegistry(DEFAULT_MAX_SESSIONS);
+        }
+        return instance;
+    }
+
+    /**
+     * Makes a new session with a set game, and adds it to the registry.
+     * The game is not started, so that listeners can be added to the session first.
+     *
+     * @param gameFiles  The game's files
+     * @param playerName The player's name
+     * @param difficulty The game's difficulty
+     * @return The new session
+     * @throws IllegalArgumentException If {@code gameFiles} is {@code null},
+     *                                  or {@code playerName} or {@code difficulty} is blank
+     * @throws IllegalStateException    If the registry already has the max amount of sessions
+     * @see GameSession#startGame()
+     */
+    public GameSession createSession(
+            GameFileCollection gameFiles, String playerName, String difficulty) {
+        if (gameFiles == null) {
+            throw new IllegalArgumentException("\"gameFiles\" cannot be null");
+        }
+        if (playerName == null || playerName.isBlank()) {
+            throw new IllegalArgumentException("\"playerName\" cannot be null or blank");
+        }
+        if (difficulty == null || difficulty.isBlank()) {
+            throw new IllegalArgumentException("\"difficulty\" cannot be null or blank");
+        }
+        if (sessionCount.incrementAndGet() > maxSessions) {
+            sessionCount.decrementAndGet();
+            throw new IllegalStateException("Cannot have more than " + maxSessions + " sessions");
+        }
+        GameSession session = new GameSession();
+        session.setGame(gameFiles, playerName, difficulty);
+        session.setLastAccess(clock.getAsLong());
+        sessions.put(session.getId(), session);
+        startSweeper();
+        return session;
+    }
+
+    /**
+     * Starts sweeping idle sessions in the background, if it's not already started.
+     */
+    private synchronized void startSweeper() {
+        if (sweeper == null) {
+            long periodNanos = Math.max(TimeUnit.SECONDS.toNanos(1), idleTimeoutNanos / 2);
+            sweeper = SWEEPER.scheduleAtFixedRate(this::sweep,
+                    periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stops sweeping idle sessions in the background. Sessions are kept,
+     * and sweeping starts again the next time a session is made.
+     */
+    public synchronized void stopSweeper() {
+        if (sweeper != null) {
+            sweeper.cancel(false);
+            sweeper = null;
+        }
+    }
+
+    /**
+     * Checks if idle sessions are being swept in the background.
+     *
+     * @return {@code true} if the sweeper is started
+     */
+    public synchronized boolean isSweeping() {
+        return sweeper != null;
+    }
+
+    private void sweep() {
+        try {
+            removeIdleSessions();
+        } catch (RuntimeException re) {
+            //An exception would cancel every future sweep, so it's only reported
+            re.printStackTrace();
+        }
+    }
+
+    /**
+     * Gets a session by its ID, and updates its last access.
+     *
+     * @param id The ID of the session to get
+     * @return The session with the specified ID, or {@code null} if there is no such session
+     */
+    public GameSession getSession(String id) {
+        GameSession session = id == null ? null : sessions.get(id);
+        if (session != null) {
+            session.setLastAccess(clock.getAsLong());
+        }
+        return session;
+    }
+
+    /**
+     * Removes a session from the registry.
+     *
+     * @param id The ID of the session to remove
+     * @return The removed session, or {@code null} if there was no such session
+     * @throws RuntimeException The first exception thrown by a removal listener,
+     *                          once every listener is notified. The session is removed anyway
+     */
+    public GameSession removeSession(String id) {
+        GameSession removed = id == null ? null : sessions.remove(id);
+        if (removed != null) {
+            sessionRemoved(removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Removes every session that hasn't been accessed for longer than the idle timeout.
+     *
+     * @return The amount of removed sessions
+     * @throws RuntimeException The first exception thrown by a removal listener,
+     *                          once every idle session is removed
+     */
+    public int removeIdleSessions() {
+        long now = clock.getAsLong();
+        int removedCount = 0;
+        RuntimeException listenerException = null;
+        for (GameSession session : sessions.values()) {
+            //Only removed if it wasn't replaced or removed by someone else in the meantime
+            if (now - session.getLastAccess() > idleTimeoutNanos
+                    && sessions.remove(session.getId(), session)) {
+                removedCount++;
+                try {
+                    sessionRemoved(session);
+                } catch (RuntimeException re) {
+                    listenerException = addException(listenerException, re);
+                }
+            }
+        }
+        if (listenerException != null) {
+            throw listenerException;
+        }
+        return removedCount;
+    }
+
+    /**
+     * Counts a removed session, and notifies every removal listener,
+     * even if some of them throw an exception.
+     *
+     * @param session The removed session
+     * @throws RuntimeException The first exception thrown by a listener,
+     *                          with any later ones suppressed
+     */
+    private void sessionRemoved(GameSession session) {
+        sessionCount.decrementAndGet();
+        RuntimeException listenerException = null;
+        for (Consumer<GameSession> listener : removalListeners) {
+            try {
+                listener.accept(session);
+            } catch (RuntimeException re) {
+                listenerException = addException(listenerException, re);
+            }
+        }
+        if (listenerException != null) {
+            throw listenerException;
+        }
+    }
+
+    private static RuntimeException addException(RuntimeException first, RuntimeException next) {
+        if (first == null) {
+            return next;
+        }
+        first.addSuppressed(next);
+        return first;
+    }
+
+    /**
+     * Adds a listener that's notified whenever a session is removed.
+     *
+     * @param listener The listener to add
+     * @throws IllegalArgumentException If {@code listener} is {@code null}
+     */
+    public void addRemovalListener(Consumer<GameSession> listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("\"listener\" cannot be null");
+        }
+        removalListeners.add(listener);
+    }
+
+    /**
+     * Removes a removal listener, so that it's no longer notified.
+     *
+     * @param listener The listener to remove
+     */
+    public void removeRemovalListener(Consumer<GameSession> listener) {
+        removalListeners.remove(listener);
+    }
+
+    /**
+     * Gets the amount of sessions in the registry.
+     *
+     * @return The amount of sessions in the registry
+     */
+    public int getSessionCount() {
+        return sessionCount.get();
+    }
+
+    /**
+     * Gets the maxSessions field.
+     *
+     * @return The maxSessions field
+     */
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+}
@@ -1,5 +1,6 @@
 package no.ntnu.idata2001.g23.intermediary;
 
+import java.util.List;
 import no.ntnu.idata2001.g23.intermediary.events.GameUpdateEvent;
 
 /**
@@ -7,4 +8,15 @@ import no.ntnu.idata2001.g23.intermediary.events.GameUpdateEvent;
  */
 public interface GameUpdateListener {
     void onUpdate(GameUpdateEvent event);
+
+    /**
+     * Gets notified of a burst of updates at once, when listening with coalescing.
+     * Notifies {@link #onUpdate(GameUpdateEvent)} of every update by default.
+     *
+     * @param events Every update in the burst, in the order they happened
+     * @see GameEventBus
+     */
+    default void onUpdates(List<GameUpdateEvent> events) {
+        events.forEach(this::onUpdate);
+    }
 }
@@ -0,0 +1,21 @@
+package no.ntnu.idata2001.g23.intermediary;
+
+/**
+ * A subscription to the events of a {@link GameEventBus}, that can be cancelled
+ * when the subscriber no longer needs to be notified.
+ */
+public interface Subscription {
+    /**
+     * Cancels the subscription, so that the subscriber is no longer notified.
+     * Events that are already queued for the subscriber are not delivered.
+     * Cancelling a cancelled subscription does nothing.
+     */
+    void cancel();
+
+    /**
+     * Checks if the subscription has been cancelled.
+     *
+     * @return {@code true} if the subscription has been cancelled, {@code false} otherwise
+     */
+    boolean isCancelled();
+}
@@ -17,6 +17,15 @@ public class GoldAction implements Action {
         this.gold = gold;
     }
 
+    /**
+     * Gets the gold field.
+     *
+     * @return The gold field
+     */
+    public int getGold() {
+        return gold;
+    }
+
     @Override
     public void execute(Entity entity) {
         entity.changeGold(gold);
@@ -17,6 +17,15 @@ public class HealthAction implements Action {
         this.health = health;
     }
 
+    /**
+     * Gets the health field.
+     *
+     * @return The health field
+     */
+    public int getHealth() {
+        return health;
+    }
+
     @Override
     public void execute(Entity entity) {
         entity.changeHealth(health);
@@ -21,6 +21,15 @@ public class InventoryAction implements Action {
         this.item = item;
     }
 
+    /**
+     * Gets the item field.
+     *
+     * @return The item field
+     */
+    public Item getItem() {
+        return item;
+    }
+
     @Override
     public void execute(Entity entity) {
         entity.getInventory().addItem(item);
@@ -17,6 +17,15 @@ public class ScoreAction implements Action {
         this.points = points;
     }
 
+    /**
+     * Gets the points field.
+     *
+     * @return The points field
+     */
+    public int getPoints() {
+        return points;
+    }
+
     @Override
     public void execute(Entity entity) {
         entity.changeScore(points);
@@ -30,28 +30,46 @@ public class ActionParser {
      */
     public static Action parseAction(String actionData, int lineNumber, Provider<Item> provider)
             throws CorruptFileException {
-        String[] splitActionData = actionData.split(":", 2);
-        if (splitActionData.length < 2) {
+        return parseAction(new Lexer(actionData), new Lexer(), lineNumber, provider);
+    }
+
+    /**
+     * Parses an action from a {@link Lexer}, without making any intermediate strings.
+     *
+     * @param actionData The lexer containing the action data to parse
+     * @param actionType The lexer to read the action's type into,
+     *                   which can be reused for every action a parser reads
+     * @param lineNumber The line number of the action to parse.
+     *                   Used to generate a more detailed error message
+     *                   if the action data can't be parsed
+     * @param provider   The {@link Provider} to use when
+     *                   generating the item for an {@link InventoryAction}
+     * @return The parsed action
+     * @throws CorruptFileException If the action data can't be parsed
+     */
+    static Action parseAction(Lexer actionData, Lexer actionType, int lineNumber,
+                              Provider<Item> provider) throws CorruptFileException {
+        if (!actionData.readUntil(':', actionType)) {
             throw new CorruptFileException(CorruptFileException.Type.ACTION_INVALID_FORMAT,
-                    lineNumber, actionData);
+                    lineNumber, actionData.toString());
         }
-        Action returnAction;
-        String actionType = splitActionData[0].trim();
-        String actionValue = splitActionData[1].trim();
+        actionType.trim();
+        Lexer actionValue = actionData.trim();
         try {
-            switch (actionType) {
-                case "Gold" -> returnAction = new GoldAction(Integer.parseInt(actionValue));
-                case "Health" -> returnAction = new HealthAction(Integer.parseInt(actionValue));
-                case "Inventory" -> returnAction =
-                        new InventoryAction(provider.provide(actionValue));
-                case "Score" -> returnAction = new ScoreAction(Integer.parseInt(actionValue));
-                default -> throw new CorruptFileException(
-                        CorruptFileException.Type.ACTION_INVALID_TYPE, lineNumber, actionType);
+            if (actionType.contentEquals("Gold")) {
+                return new GoldAction(actionValue.parseInt());
+            } else if (actionType.contentEquals("Health")) {
+                return new HealthAction(actionValue.parseInt());
+            } else if (actionType.contentEquals("Inventory")) {
+                return new InventoryAction(provider.provide(actionValue.toString()));
+            } else if (actionType.contentEquals("Score")) {
+                return new ScoreAction(actionValue.parseInt());
             }
         } catch (IllegalArgumentException iae) {
             throw new CorruptFileException(CorruptFileException.Type.ACTION_INVALID_VALUE,
-                    lineNumber, actionValue);
+                    lineNumber, actionValue.toString());
         }
-        return returnAction;
+        throw new CorruptFileException(CorruptFileException.Type.ACTION_INVALID_TYPE,
+                lineNumber, actionType.toString());
     }
 }
@@ -2,8 +2,8 @@ package no.ntnu.idata2001.g23.model.fileparsing;
 
 import java.io.IOException;
 import java.io.LineNumberReader;
-import java.util.AbstractMap;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,20 +33,42 @@ public class CollectionParserUtil {
      * @return A parsed list with every element in the provided string
      */
     public static List<String> parseList(String listString) {
-        return Arrays
-                .stream(listString.split(","))
-                .map(String::trim)
-                .toList();
+        Lexer lexer = new Lexer(listString);
+        List<String> elements = new ArrayList<>();
+        //The amount of elements up to & including the last non-empty element
+        int nonEmptyCount = 0;
+        Lexer element = new Lexer();
+        while (lexer.readUntil(',', element)) {
+            if (element.hasRemaining()) {
+                nonEmptyCount = elements.size() + 1;
+            }
+            elements.add(element.trim().toString());
+        }
+        if (elements.isEmpty() || lexer.hasRemaining()) {
+            elements.add(lexer.trim().toString());
+        } else {
+            //Trailing empty elements are removed, like String.split does
+            elements.subList(nonEmptyCount, elements.size()).clear();
+        }
+        return Collections.unmodifiableList(elements);
     }
 
-    private static Map.Entry<String, String> parseEntry(String entryString, int lineNumber)
-            throws CorruptFileException {
-        String[] splitData = entryString.split(":", 2);
-        if (splitData.length < 2) {
+    /**
+     * Reads the key of a line containing a key/value-pair,
+     * leaving the value as the text left to read.
+     *
+     * @param entry      The lexer containing the line
+     * @param key        The lexer to read the key into
+     * @param lineNumber The line number of the line
+     * @throws CorruptFileException If the line is missing a ":"-separator
+     */
+    static void readEntry(Lexer entry, Lexer key, int lineNumber) throws CorruptFileException {
+        if (!entry.readUntil(':', key)) {
             throw new CorruptFileException(CorruptFileException.Type.ENTRY_INVALID_FORMAT,
-                    lineNumber, entryString);
+                    lineNumber, entry.toString());
         }
-        return new AbstractMap.SimpleEntry<>(splitData[0].trim(), splitData[1].trim());
+        key.trim();
+        entry.trim();
     }
 
     /**
@@ -86,20 +108,21 @@ public class CollectionParserUtil {
             String... requiredKeys
     ) throws IOException, CorruptFileException {
         Map<String, String> parsedMap = new HashMap<>();
+        Lexer entry = new Lexer();
+        Lexer key = new Lexer();
         String nextLine;
         //Goes through one map of data
         while ((nextLine = fileReader.readLine()) != null
                 && (!nextLine.isBlank() || !stopAtBlankLine)) {
             if (!nextLine.isBlank()) {
-                Map.Entry<String, String> parsedEntry =
-                        parseEntry(nextLine, fileReader.getLineNumber());
-                parsedMap.put(parsedEntry.getKey(), parsedEntry.getValue());
+                readEntry(entry.reset(nextLine), key, fileReader.getLineNumber());
+                parsedMap.put(key.toString(), entry.toString());
             }
         }
-        for (String key : requiredKeys) {
-            if (!parsedMap.containsKey(key.trim())) {
+        for (String requiredKey : requiredKeys) {
+            if (!parsedMap.containsKey(requiredKey.trim())) {
                 throw new CorruptFileException(CorruptFileException.Type.REQUIRED_KEY_MISSING,
-                        fileReader.getLineNumber(), key);
+                        fileReader.getLineNumber(), requiredKey);
             }
         }
 
@@ -0,0 +1,328 @@
+package no.ntnu.idata2001.g23.model.fileparsing;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import no.ntnu.idata2001.g23.model.actions.Action;
+import no.ntnu.idata2001.g23.model.actions.GoldAction;
+import no.ntnu.idata2001.g23.model.actions.HealthAction;
+import no.ntnu.idata2001.g23.model.actions.InventoryAction;
+import no.ntnu.idata2001.g23.model.actions.ScoreAction;
+import no.ntnu.idata2001.g23.model.entities.enemies.Enemy;
+import no.ntnu.idata2001.g23.model.items.Item;
+import no.ntnu.idata2001.g23.model.misc.Provider;
+import no.ntnu.idata2001.g23.model.story.Link;
+import no.ntnu.idata2001.g23.model.story.Passage;
+import no.ntnu.idata2001.g23.model.story.Story;
+
+/**
+ * A game compiled by {@link GameCompiler}, memory-mapped from its compiled file.
+ * The story, items & enemies of the game can be made from it without parsing any text.
+ * The story can also be made as a {@link LazyStory}, that reads its passages from the
+ * compiled file when they're needed.
+ */
+public class CompiledGame {
+    private final Path compiledFilePath;
+    private final ByteBuffer buffer;
+    private final String[] strings;
+    private final List<ObjectTemplate> itemTemplates;
+    private final List<ObjectTemplate> enemyTemplates;
+    private final int storyOffset;
+
+    private CompiledGame(Path compiledFilePath, ByteBuffer buffer) {
+        this.compiledFilePath = compiledFilePath;
+        this.buffer = buffer;
+        if (buffer.getInt() != GameCompiler.MAGIC || buffer.getInt() != GameCompiler.VERSION) {
+            throw new IllegalArgumentException("Unrecognized header");
+        }
+        this.strings = readStringTable(buffer);
+        this.itemTemplates = readTemplates(buffer);
+        this.enemyTemplates = readTemplates(buffer);
+        this.storyOffset = buffer.position();
+    }
+
+    /**
+     * Loads a compiled game by memory-mapping its compiled file.
+     *
+     * @param compiledFilePath The file path of the compiled game
+     * @return The loaded compiled game
+     * @throws CorruptFileException If the compiled game could not be loaded
+     */
+    public static CompiledGame load(Path compiledFilePath) throws CorruptFileException {
+        try (FileChannel channel = FileChannel.open(compiledFilePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new CorruptFileException(CorruptFileException.Type.COMPILED_INVALID_FORMAT);
+            }
+            return new CompiledGame(compiledFilePath,
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        } catch (IOException ioe) {
+            throw new CorruptFileException(CorruptFileException.Type.UNKNOWN_COMPILED);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException
+                 | IllegalArgumentException e) {
+            throw new CorruptFileException(CorruptFileException.Type.COMPILED_INVALID_FORMAT);
+        }
+    }
+
+    private static String[] readStringTable(ByteBuffer buffer) {
+        String[] stringTable = new String[buffer.getInt()];
+        byte[] stringBytes = new byte[0];
+        for (int i = 0; i < stringTable.length; i++) {
+            int length = buffer.getInt();
+            if (length > stringBytes.length) {
+                stringBytes = new byte[length];
+            }
+            buffer.get(stringBytes, 0, length);
+            stringTable[i] = new String(stringBytes, 0, length, StandardCharsets.UTF_8);
+        }
+        return stringTable;
+    }
+
+    private List<ObjectTemplate> readTemplates(ByteBuffer buffer) {
+        int templateCount = buffer.getInt();
+        if (templateCount == GameCompiler.ABSENT) {
+            return null;
+        }
+        List<ObjectTemplate> templates = new ArrayList<>(templateCount);
+        for (int i = 0; i < templateCount; i++) {
+            String name = strings[buffer.getInt()];
+            String type = strings[buffer.getInt()];
+            int lineNumber = buffer.getInt();
+            int parameterCount = buffer.getInt();
+            Map<String, String> parameters = new HashMap<>();
+            for (int j = 0; j < parameterCount; j++) {
+                parameters.put(strings[buffer.getInt()], strings[buffer.getInt()]);
+            }
+            templates.add(new ObjectTemplate(name, type, parameters, lineNumber));
+        }
+        return templates;
+    }
+
+    /**
+     * Makes a {@link Provider} that can provide every item in the compiled game.
+     *
+     * @return A {@link Provider} that can provide every item,
+     *         or {@code null} if the compiled game has no items
+     * @throws CorruptFileException If the items could not be made
+     */
+    public Provider<Item> makeItemProvider() throws CorruptFileException {
+        return itemTemplates != null
+                ? ItemLoader.makeProvider(itemTemplates)
+                : null;
+    }
+
+    /**
+     * Makes a {@link Provider} that can provide every enemy in the compiled game.
+     *
+     * @param itemProvider The {@link Provider} to use to provide items for the enemies
+     * @return A {@link Provider} that can provide every enemy,
+     *         or {@code null} if the compiled game has no enemies
+     * @throws CorruptFileException If the enemies could not be made
+     */
+    public Provider<Enemy> makeEnemyProvider(Provider<Item> itemProvider)
+            throws CorruptFileException {
+        return enemyTemplates != null
+                ? new EnemyLoader(itemProvider).makeProvider(enemyTemplates)
+                : null;
+    }
+
+    private Action readAction(ByteBuffer storyBuffer, Provider<Item> itemProvider)
+            throws CorruptFileException {
+        byte actionType = storyBuffer.get();
+        int value = storyBuffer.getInt();
+        return switch (actionType) {
+            case GameCompiler.GOLD_ACTION -> new GoldAction(value);
+            case GameCompiler.HEALTH_ACTION -> new HealthAction(value);
+            case GameCompiler.INVENTORY_ACTION -> new InventoryAction(
+                    requireProvider(itemProvider).provide(strings[value]));
+            case GameCompiler.SCORE_ACTION -> new ScoreAction(value);
+            default -> throw new CorruptFileException(
+                    CorruptFileException.Type.COMPILED_INVALID_FORMAT);
+        };
+    }
+
+    /**
+     * Checks that a provider exists before the story uses it,
+     * since the compiled story may refer to items or enemies the compiled game doesn't have.
+     *
+     * @param provider The provider to check
+     * @param <T>      The type of object the provider provides
+     * @return The provider
+     * @throws CorruptFileException If the provider is {@code null}
+     */
+    private static <T> Provider<T> requireProvider(Provider<T> provider)
+            throws CorruptFileException {
+        if (provider == null) {
+            throw new CorruptFileException(CorruptFileException.Type.COMPILED_INVALID_FORMAT);
+        }
+        return provider;
+    }
+
+    /**
+     * Reads the title of the story & every passage, leaving the buffer at the first passage.
+     *
+     * @param storyBuffer The buffer to read from, positioned at the start of the story
+     * @return The title of the story, followed by the title of every passage
+     */
+    private String[] readTitles(ByteBuffer storyBuffer) {
+        String storyTitle = strings[storyBuffer.getInt()];
+        String[] titles = new String[storyBuffer.getInt() + 1];
+        titles[0] = storyTitle;
+        for (int i = 1; i < titles.length; i++) {
+            titles[i] = strings[storyBuffer.getInt()];
+        }
+        return titles;
+    }
+
+    /**
+     * Reads a passage, leaving the buffer at the next passage.
+     *
+     * @param storyBuffer   The buffer to read from, positioned at the start of the passage
+     * @param passageTitles The title of every passage in the story
+     * @param index         The index of the passage
+     * @param itemProvider  The {@link Provider} to use to provide items for the passage
+     * @param enemyProvider The {@link Provider} to use to provide enemies for the passage
+     * @return The read passage
+     * @throws CorruptFileException If the passage refers to items or enemies the game doesn't have
+     */
+    private Passage readPassage(ByteBuffer storyBuffer, String[] passageTitles, int index,
+                                Provider<Item> itemProvider, Provider<Enemy> enemyProvider)
+            throws CorruptFileException {
+        Passage passage = new Passage(passageTitles[index], strings[storyBuffer.getInt()]);
+        int linkCount = storyBuffer.getInt();
+        for (int i = 0; i < linkCount; i++) {
+            Link link = new Link(strings[storyBuffer.getInt()],
+                    passageTitles[storyBuffer.getInt()]);
+            int actionCount = storyBuffer.getInt();
+            for (int j = 0; j < actionCount; j++) {
+                link.addAction(readAction(storyBuffer, itemProvider));
+            }
+            passage.addLink(link);
+        }
+        int enemyCount = storyBuffer.getInt();
+        for (int i = 0; i < enemyCount; i++) {
+            passage.addEnemy(requireProvider(enemyProvider).provide(
+                    strings[storyBuffer.getInt()]));
+        }
+        return passage;
+    }
+
+    /**
+     * Makes the compiled game's story.
+     *
+     * @param itemProvider  The {@link Provider} to use to provide items for the story
+     * @param enemyProvider The {@link Provider} to use to provide enemies for the story
+     * @return The compiled game's story
+     * @throws CorruptFileException If the story could not be made
+     */
+    public Story makeStory(Provider<Item> itemProvider, Provider<Enemy> enemyProvider)
+            throws CorruptFileException {
+        //Each call reads from its own view of the buffer, so stories can be made concurrently
+        ByteBuffer storyBuffer = buffer.duplicate().position(storyOffset);
+        try {
+            String[] titles = readTitles(storyBuffer);
+            String[] passageTitles = Arrays.copyOfRange(titles, 1, titles.length);
+            if (passageTitles.length == 0) {
+                throw new CorruptFileException(CorruptFileException.Type.NO_PASSAGES);
+            }
+            Story story = new Story(titles[0], readPassage(
+                    storyBuffer, passageTitles, 0, itemProvider, enemyProvider));
+            for (int i = 1; i < passageTitles.length; i++) {
+                story.addPassage(readPassage(
+                        storyBuffer, passageTitles, i, itemProvider, enemyProvider));
+            }
+            return story;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException
+                 | IllegalArgumentException e) {
+            throw new CorruptFileException(CorruptFileException.Type.COMPILED_INVALID_FORMAT);
+        }
+    }
+
+    /**
+     * Makes the compiled game's story as a {@link LazyStory}.
+     * Only the location & links of each passage are read, without making any objects,
+     * and the rest of each passage is read from the compiled file when it's needed.
+     *
+     * @param itemProvider  The {@link Provider} to use to provide items for the story
+     * @param enemyProvider The {@link Provider} to use to provide enemies for the story
+     * @param cacheSize     The max amount of passages to keep in memory at once
+     * @return The compiled game's story
+     * @throws CorruptFileException If the story could not be made
+     */
+    public LazyStory makeLazyStory(Provider<Item> itemProvider, Provider<Enemy> enemyProvider,
+                                   int cacheSize) throws CorruptFileException {
+        ByteBuffer storyBuffer = buffer.duplicate().position(storyOffset);
+        try {
+            String[] titles = readTitles(storyBuffer);
+            String[] passageTitles = Arrays.copyOfRange(titles, 1, titles.length);
+            if (passageTitles.length == 0) {
+                throw new CorruptFileException(CorruptFileException.Type.NO_PASSAGES);
+            }
+            LazyStory.PassageIndex passageIndex = new LazyStory.PassageIndex();
+            for (String passageTitle : passageTitles) {
+                passageIndex.add(passageTitle.trim(), storyBuffer.position(), 0);
+                skipPassage(storyBuffer, passageTitles, passageIndex);
+            }
+            //Every target is a passage index, so no reference can be broken
+            passageIndex.resolveLinks();
+            return LazyStory.load(titles[0], passageIndex, new LazyStory.PassageSource() {
+                @Override
+                public Passage read(int index) throws CorruptFileException {
+                    ByteBuffer passageBuffer = buffer.duplicate()
+                            .position((int) passageIndex.getOffset(index));
+                    try {
+                        return readPassage(passageBuffer, passageTitles, index,
+                                itemProvider, enemyProvider);
+                    } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                        throw new CorruptFileException(
+                                CorruptFileException.Type.COMPILED_INVALID_FORMAT);
+                    }
+                }
+
+                @Override
+                public String getLocation() {
+                    return compiledFilePath.toString();
+                }
+            }, cacheSize);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException
+                 | IllegalArgumentException | IOException e) {
+            throw new CorruptFileException(CorruptFileException.Type.COMPILED_INVALID_FORMAT);
+        }
+    }
+
+    /**
+     * Skips over a passage, adding its links & enemies to the index.
+     *
+     * @param storyBuffer   The buffer to read from, positioned at the start of the passage
+     * @param passageTitles The title of every passage in the story
+     * @param passageIndex  The index to add the passage's links & enemies to
+     */
+    private void skipPassage(ByteBuffer storyBuffer, String[] passageTitles,
+                             LazyStory.PassageIndex passageIndex) {
+        //Content
+        storyBuffer.getInt();
+        int linkCount = storyBuffer.getInt();
+        for (int i = 0; i < linkCount; i++) {
+            //Text
+            storyBuffer.getInt();
+            passageIndex.addReference(passageTitles[storyBuffer.getInt()].trim());
+            int actionCount = storyBuffer.getInt();
+            storyBuffer.position(storyBuffer.position()
+                    + actionCount * (Byte.BYTES + Integer.BYTES));
+        }
+        int enemyCount = storyBuffer.getInt();
+        if (enemyCount > 0) {
+            passageIndex.markEnemies();
+        }
+        storyBuffer.position(storyBuffer.position() + enemyCount * Integer.BYTES);
+    }
+}
@@ -92,6 +92,7 @@ public class CorruptFileException extends Exception {
         NO_PASSAGES("Reached end of file without finding any passages for the story"),
         PASSAGE_NO_NAME("Found passage with no name"),
         PASSAGE_NO_CONTENT("Found passage with no content"),
+        PASSAGE_INVALID_ENEMY("Found enemy in passage that isn't in the enemies file"),
         LINK_NO_TEXT("Cannot find link text"),
         LINK_NO_REFERENCE("Cannot find link reference"),
         LINK_INVALID_ACTION("Expected to find action, "
@@ -138,6 +139,11 @@ public class CorruptFileException extends Exception {
                 "An unknown error occurred while attempting to read the sprites file"),
         INVALID_SPRITE("An invalid path for a sprite was found"),
 
+        //Compiled game exceptions
+        UNKNOWN_COMPILED(
+                "An unknown error occurred while attempting to read the compiled game file"),
+        COMPILED_INVALID_FORMAT("The compiled game file is not in a recognized format"),
+
         //Map parsing exceptions
         ENTRY_INVALID_FORMAT(MISSING_COLON_SEPARATOR_STRING
                 + "that separates the parameter name & value"),
@@ -0,0 +1,129 @@
+package no.ntnu.idata2001.g23.model.fileparsing;
+
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An index of every difficulty section in a file, like a {@code .player}- or {@code .goals}-file,
+ * where each section is parsed into a template once, so that it can be looked up later
+ * without reading the file again.
+ *
+ * <p>A section starts with a line beginning with {@code #}, and ends at the first blank line.
+ * Sections that can't be parsed are kept along with the exception they caused,
+ * so that the exception is only thrown if that difficulty is looked up.</p>
+ *
+ * @param <T> The type of template that each section is parsed into
+ */
+class DifficultyIndex<T> {
+    private final List<Section<T>> sections;
+    private final int lineCount;
+
+    private DifficultyIndex(List<Section<T>> sections, int lineCount) {
+        this.sections = sections;
+        this.lineCount = lineCount;
+    }
+
+    /**
+     * Parses every difficulty section from a {@link LineNumberReader}.
+     *
+     * @param fileReader    The {@link LineNumberReader} containing the sections to parse
+     * @param sectionParser Parses a single section into a template
+     * @param <T>           The type of template that each section is parsed into
+     * @return An index of every parsed section
+     * @throws IOException If the file could not be read
+     */
+    static <T> DifficultyIndex<T> parse(
+            LineNumberReader fileReader, SectionParser<T> sectionParser
+    ) throws IOException {
+        int firstLineNumber = fileReader.getLineNumber() + 1;
+        List<String> lines = new ArrayList<>();
+        String nextLine;
+        while ((nextLine = fileReader.readLine()) != null) {
+            lines.add(nextLine);
+        }
+
+        List<Section<T>> sections = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).startsWith("#")) {
+                //Includes the blank line ending the section, so that line numbers add up
+                StringBuilder sectionBody = new StringBuilder();
+                for (int j = i + 1; j < lines.size(); j++) {
+                    sectionBody.append(lines.get(j)).append("\n");
+                    if (lines.get(j).isBlank()) {
+                        break;
+                    }
+                }
+                LineNumberReader sectionReader = new LineNumberReader(
+                        new StringReader(sectionBody.toString()));
+                sectionReader.setLineNumber(firstLineNumber + i);
+
+                T template = null;
+                CorruptFileException exception = null;
+                try {
+                    template = sectionParser.parse(sectionReader);
+                } catch (CorruptFileException cfe) {
+                    exception = cfe;
+                }
+                sections.add(new Section<>(lines.get(i), template, exception));
+            }
+        }
+        return new DifficultyIndex<>(List.copyOf(sections), fileReader.getLineNumber());
+    }
+
+    /**
+     * Gets the template for a difficulty.
+     * If several sections match the difficulty, the first one in the file is used.
+     *
+     * @param difficulty  The difficulty to get the template for
+     * @param missingType The {@link CorruptFileException.Type Type} of
+     *                    {@link CorruptFileException} to throw if the difficulty is not found
+     * @return The template for the specified difficulty
+     * @throws CorruptFileException If the difficulty is not found,
+     *                              or its section could not be parsed
+     */
+    T get(String difficulty, CorruptFileException.Type missingType)
+            throws CorruptFileException {
+        for (Section<T> section : sections) {
+            //Every header starts with "#", so only the rest of the header is compared
+            if (section.header().startsWith(difficulty, 1)) {
+                if (section.exception() != null) {
+                    throw section.exception();
+                }
+                return section.template();
+            }
+        }
+        throw new CorruptFileException(missingType, lineCount, difficulty);
+    }
+
+    /**
+     * A single difficulty section.
+     *
+     * @param header    The line that started the section
+     * @param template  The parsed template, or {@code null} if the section could not be parsed
+     * @param exception The exception thrown while parsing the section, if any
+     * @param <T>       The type of the template
+     */
+    private record Section<T>(String header, T template, CorruptFileException exception) {}
+
+    /**
+     * Parses a single difficulty section into a template.
+     *
+     * @param <T> The type of template to parse the section into
+     */
+    @FunctionalInterface
+    interface SectionParser<T> {
+        /**
+         * Parses a difficulty section.
+         *
+         * @param sectionReader A {@link LineNumberReader} positioned right after the section's
+         *                      header, which ends after the first blank line
+         * @return The parsed template
+         * @throws IOException          If the section could not be read
+         * @throws CorruptFileException If the section could not be parsed
+         */
+        T parse(LineNumberReader sectionReader) throws IOException, CorruptFileException;
+    }
+}
@@ -4,6 +4,8 @@ import java.io.IOException;
 import java.io.LineNumberReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 import no.ntnu.idata2001.g23.model.entities.enemies.Enemy;
@@ -86,7 +88,16 @@ public class EnemyLoader {
         return vampireBuilder::build;
     }
 
-    private Supplier<Enemy> parseEnemy(String enemyName, LineNumberReader fileReader)
+    /**
+     * Reads the definition of an enemy, without building it.
+     *
+     * @param enemyName  The name of the enemy to read
+     * @param fileReader A {@link LineNumberReader} containing the enemy to read
+     * @return The read enemy template
+     * @throws IOException          If the file reader cannot be read
+     * @throws CorruptFileException If the enemy's type or parameters cannot be read
+     */
+    private ObjectTemplate readEnemy(String enemyName, LineNumberReader fileReader)
             throws IOException, CorruptFileException {
         String type = fileReader.readLine();
         if (!type.startsWith("-")) {
@@ -94,37 +105,78 @@ public class EnemyLoader {
                     fileReader.getLineNumber());
         }
 
+        String normalizedType = new Lexer(type).skip(1).matchKeyword("basic", "vampire");
+        if (normalizedType == null) {
+            throw new CorruptFileException(
+                    CorruptFileException.Type.ENEMY_INVALID_TYPE,
+                    fileReader.getLineNumber());
+        }
+        String[] requiredParameters = switch (normalizedType) {
+            case "basic" -> Parameters.getBasicRequired();
+            case "vampire" -> Parameters.getVampireRequired();
+            default -> throw new CorruptFileException(
+                    CorruptFileException.Type.ENEMY_INVALID_TYPE,
+                    fileReader.getLineNumber());
+        };
+        Map<String, String> enemyParameterMap = CollectionParserUtil
+                .parseMap(fileReader, true, requiredParameters);
+        return new ObjectTemplate(enemyName, normalizedType, enemyParameterMap,
+                fileReader.getLineNumber());
+    }
+
+    /**
+     * Makes a supplier for an enemy, based on its template.
+     *
+     * @param template The template of the enemy to make
+     * @return A supplier that makes the enemy
+     * @throws CorruptFileException If the enemy cannot be made from its template
+     */
+    Supplier<Enemy> makeEnemy(ObjectTemplate template) throws CorruptFileException {
         Supplier<Enemy> enemySupplier;
         try {
-            switch (type.substring(1).toLowerCase().replace(" ", "")) {
-                case "basic" -> enemySupplier = parseBasicEnemy(enemyName,
-                        CollectionParserUtil.parseMap(fileReader, true,
-                                Parameters.getBasicRequired()));
-                case "vampire" -> enemySupplier = parseVampireEnemy(enemyName,
-                        CollectionParserUtil.parseMap(fileReader, true,
-                                Parameters.getVampireRequired()));
-
+            switch (template.type()) {
+                case "basic" -> enemySupplier = parseBasicEnemy(
+                        template.name(), template.parameters());
+                case "vampire" -> enemySupplier = parseVampireEnemy(
+                        template.name(), template.parameters());
                 default -> throw new CorruptFileException(
                         CorruptFileException.Type.ENEMY_INVALID_TYPE,
-                        fileReader.getLineNumber());
+                        template.lineNumber());
             }
         } catch (ClassCastException | IllegalArgumentException e) {
             throw new CorruptFileException(CorruptFileException.Type.ENEMY_INVALID_PARAMETER_VALUE,
-                    fileReader.getLineNumber());
+                    template.lineNumber());
         }
         return enemySupplier;
     }
 
     /**
-     * Parses enemies from a {@link LineNumberReader},
-     * and returns a {@link Provider} that can provide all the enemies.
+     * Makes a {@link Provider} that can provide every enemy in a list of enemy templates.
      *
-     * @param fileReader A {@link LineNumberReader} that contains some enemies.
-     * @return A {@link Provider} that can provide all the parsed enemies
-     * @throws CorruptFileException If the enemies could not be parsed
+     * @param templates The templates of every enemy to provide
+     * @return A {@link Provider} that can provide all the enemies
+     * @throws CorruptFileException If any enemy cannot be made from its template
      */
-    public Provider<Enemy> parseEnemies(LineNumberReader fileReader) throws CorruptFileException {
+    Provider<Enemy> makeProvider(List<ObjectTemplate> templates) throws CorruptFileException {
         Provider<Enemy> provider = new Provider<>();
+        for (ObjectTemplate template : templates) {
+            provider.addProvidable(template.name(), makeEnemy(template));
+        }
+        return provider;
+    }
+
+    /**
+     * Reads enemies from a {@link LineNumberReader}, without building them.
+     * Every enemy is passed to the template handler as soon as it is read.
+     *
+     * @param fileReader      A {@link LineNumberReader} that contains some enemies.
+     * @param templateHandler The handler to pass every read enemy template to
+     * @throws CorruptFileException If the enemies could not be read,
+     *                              or the template handler fails to handle an enemy
+     */
+    private void readEnemies(
+            LineNumberReader fileReader, ObjectTemplate.Handler templateHandler)
+            throws CorruptFileException {
         try {
             String nextLine;
             //Goes through entire file
@@ -134,8 +186,8 @@ public class EnemyLoader {
                         throw new CorruptFileException(CorruptFileException.Type.ENEMY_NO_NAME,
                                 fileReader.getLineNumber());
                     }
-                    String enemyName = nextLine.substring(1).trim();
-                    provider.addProvidable(enemyName, parseEnemy(enemyName, fileReader));
+                    String enemyName = new Lexer(nextLine).skip(1).trim().toString();
+                    templateHandler.handle(readEnemy(enemyName, fileReader));
                 } else if (!nextLine.isBlank()) {
                     throw new CorruptFileException(CorruptFileException.Type.INVALID_ENEMY,
                             fileReader.getLineNumber());
@@ -145,6 +197,34 @@ public class EnemyLoader {
             throw new CorruptFileException(CorruptFileException.Type.UNKNOWN_ENEMIES,
                     fileReader.getLineNumber());
         }
+    }
+
+    /**
+     * Parses enemy templates from a {@link LineNumberReader}, without building the enemies.
+     *
+     * @param fileReader A {@link LineNumberReader} that contains some enemies.
+     * @return A list of every enemy template, in the order they were defined
+     * @throws CorruptFileException If the enemies could not be parsed
+     */
+    List<ObjectTemplate> parseEnemyTemplates(LineNumberReader fileReader)
+            throws CorruptFileException {
+        List<ObjectTemplate> templates = new ArrayList<>();
+        readEnemies(fileReader, templates::add);
+        return templates;
+    }
+
+    /**
+     * Parses enemies from a {@link LineNumberReader},
+     * and returns a {@link Provider} that can provide all the enemies.
+     *
+     * @param fileReader A {@link LineNumberReader} that contains some enemies.
+     * @return A {@link Provider} that can provide all the parsed enemies
+     * @throws CorruptFileException If the enemies could not be parsed
+     */
+    public Provider<Enemy> parseEnemies(LineNumberReader fileReader) throws CorruptFileException {
+        Provider<Enemy> provider = new Provider<>();
+        readEnemies(fileReader, template -> provider.addProvidable(
+                template.name(), makeEnemy(template)));
         return provider;
     }
 
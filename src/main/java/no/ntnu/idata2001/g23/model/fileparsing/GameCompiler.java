@@ -0,0 +1,264 @@
+package no.ntnu.idata2001.g23.model.fileparsing;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import no.ntnu.idata2001.g23.model.actions.Action;
+import no.ntnu.idata2001.g23.model.actions.GoldAction;
+import no.ntnu.idata2001.g23.model.actions.HealthAction;
+import no.ntnu.idata2001.g23.model.actions.InventoryAction;
+import no.ntnu.idata2001.g23.model.actions.ScoreAction;
+import no.ntnu.idata2001.g23.model.entities.enemies.Enemy;
+import no.ntnu.idata2001.g23.model.items.Item;
+import no.ntnu.idata2001.g23.model.misc.Provider;
+import no.ntnu.idata2001.g23.model.story.Link;
+import no.ntnu.idata2001.g23.model.story.Passage;
+import no.ntnu.idata2001.g23.model.story.Story;
+
+/**
+ * Compiles the story, items & enemies of a game into a single binary file,
+ * that can be loaded by {@link CompiledGame} without parsing any text.
+ *
+ * <p>The compiled file is laid out as follows, with every number stored as a big-endian int,
+ * and every string stored as an index in the string table:</p>
+ * <ol>
+ *     <li>Header: magic number & format version</li>
+ *     <li>String table: string count, then the length & UTF-8 bytes of every string</li>
+ *     <li>Items: item count ({@code -1} if the game has no items),
+ *     then the name, type, line number & parameters of every item</li>
+ *     <li>Enemies: same as items</li>
+ *     <li>Story: title, passage count, the title of every passage,
+ *     then the content, links & enemy names of every passage.
+ *     Links refer to their target by passage index, and the opening passage is always first</li>
+ * </ol>
+ */
+public class GameCompiler {
+    static final int MAGIC = 0x50544843; //"PTHC"
+    static final int VERSION = 1;
+    static final int ABSENT = -1;
+
+    static final byte GOLD_ACTION = 0;
+    static final byte HEALTH_ACTION = 1;
+    static final byte INVENTORY_ACTION = 2;
+    static final byte SCORE_ACTION = 3;
+
+    private final Map<String, Integer> stringIndexes;
+    private final List<String> strings;
+
+    private GameCompiler() {
+        this.stringIndexes = new HashMap<>();
+        this.strings = new ArrayList<>();
+    }
+
+    /**
+     * Compiles a game into its {@link GameFileCollection#getCompiledPath() compiled file}.
+     *
+     * @param gameFiles The game to compile
+     * @throws CorruptFileException If the game cannot be loaded due to one or more corrupt files
+     * @throws IOException          If the compiled file cannot be written
+     */
+    public static void compile(GameFileCollection gameFiles)
+            throws CorruptFileException, IOException {
+        compile(gameFiles, gameFiles.getCompiledPath());
+    }
+
+    /**
+     * Compiles a game into a binary file.
+     * Every file is fully loaded first, so a corrupt game is never compiled.
+     *
+     * @param gameFiles  The game to compile
+     * @param outputPath The file to write the compiled game to
+     * @throws CorruptFileException If the game cannot be loaded due to one or more corrupt files
+     * @throws IOException          If the compiled file cannot be written
+     */
+    public static void compile(GameFileCollection gameFiles, Path outputPath)
+            throws CorruptFileException, IOException {
+        List<ObjectTemplate> itemTemplates = null;
+        Provider<Item> itemProvider = null;
+        Path itemsPath = gameFiles.getPath(".items");
+        if (itemsPath != null) {
+            itemTemplates = readTemplates(itemsPath, ItemLoader::parseItemTemplates,
+                    CorruptFileException.Type.UNKNOWN_ITEMS);
+            itemProvider = ItemLoader.makeProvider(itemTemplates);
+        }
+
+        List<ObjectTemplate> enemyTemplates = null;
+        Provider<Enemy> enemyProvider = null;
+        Path enemiesPath = gameFiles.getPath(".enemies");
+        if (enemiesPath != null) {
+            EnemyLoader enemyLoader = new EnemyLoader(itemProvider);
+            enemyTemplates = readTemplates(enemiesPath, enemyLoader::parseEnemyTemplates,
+                    CorruptFileException.Type.UNKNOWN_ENEMIES);
+            enemyProvider = enemyLoader.makeProvider(enemyTemplates);
+        }
+
+        //Always loads the story from text, so an outdated compiled file is never recompiled
+        Story story = new StoryLoader(itemProvider, enemyProvider).loadStory(
+                gameFiles.getPathRequired(".paths", CorruptFileException.Type.INFO_MISSING_STORY));
+
+        GameCompiler compiler = new GameCompiler();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (DataOutputStream bodyStream = new DataOutputStream(body)) {
+            compiler.writeTemplates(bodyStream, itemTemplates);
+            compiler.writeTemplates(bodyStream, enemyTemplates);
+            compiler.writeStory(bodyStream, story);
+        }
+        try (DataOutputStream fileStream = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(outputPath)))) {
+            fileStream.writeInt(MAGIC);
+            fileStream.writeInt(VERSION);
+            compiler.writeStringTable(fileStream);
+            body.writeTo(fileStream);
+        }
+    }
+
+    private static List<ObjectTemplate> readTemplates(
+            Path filePath, TemplateParser parser, CorruptFileException.Type unknownType
+    ) throws CorruptFileException {
+        List<ObjectTemplate> templates;
+        try (LineNumberReader fileReader = new LineNumberReader(
+                Files.newBufferedReader(filePath)
+        )) {
+            templates = parser.parse(fileReader);
+        } catch (IOException ioe) {
+            throw new CorruptFileException(unknownType);
+        }
+        return templates;
+    }
+
+    /**
+     * Gets the index of a string in the string table, adding it if it's not already there.
+     *
+     * @param string The string to get the index of
+     * @return The string's index in the string table
+     */
+    private int intern(String string) {
+        return stringIndexes.computeIfAbsent(string, s -> {
+            strings.add(s);
+            return strings.size() - 1;
+        });
+    }
+
+    private void writeStringTable(DataOutputStream stream) throws IOException {
+        stream.writeInt(strings.size());
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            stream.writeInt(bytes.length);
+            stream.write(bytes);
+        }
+    }
+
+    private void writeTemplates(DataOutputStream stream, List<ObjectTemplate> templates)
+            throws IOException {
+        if (templates == null) {
+            stream.writeInt(ABSENT);
+            return;
+        }
+        stream.writeInt(templates.size());
+        for (ObjectTemplate template : templates) {
+            stream.writeInt(intern(template.name()));
+            stream.writeInt(intern(template.type()));
+            stream.writeInt(template.lineNumber());
+            stream.writeInt(template.parameters().size());
+            for (Map.Entry<String, String> parameter : template.parameters().entrySet()) {
+                stream.writeInt(intern(parameter.getKey()));
+                stream.writeInt(intern(parameter.getValue()));
+            }
+        }
+    }
+
+    private void writeAction(DataOutputStream stream, Action action) throws IOException {
+        if (action instanceof GoldAction goldAction) {
+            stream.writeByte(GOLD_ACTION);
+            stream.writeInt(goldAction.getGold());
+        } else if (action instanceof HealthAction healthAction) {
+            stream.writeByte(HEALTH_ACTION);
+            stream.writeInt(healthAction.getHealth());
+        } else if (action instanceof InventoryAction inventoryAction) {
+            stream.writeByte(INVENTORY_ACTION);
+            stream.writeInt(intern(inventoryAction.getItem().getName()));
+        } else if (action instanceof ScoreAction scoreAction) {
+            stream.writeByte(SCORE_ACTION);
+            stream.writeInt(scoreAction.getPoints());
+        } else {
+            throw new IllegalArgumentException("Cannot compile action of type "
+                    + action.getClass().getSimpleName());
+        }
+    }
+
+    private void writeStory(DataOutputStream stream, Story story)
+            throws IOException, CorruptFileException {
+        List<Passage> passages = new ArrayList<>();
+        passages.add(story.getOpeningPassage());
+        story.getPassages().stream()
+                .filter(passage -> passage != story.getOpeningPassage())
+                .forEach(passages::add);
+        Map<String, Integer> passageIndexes = new HashMap<>();
+        for (int i = 0; i < passages.size(); i++) {
+            passageIndexes.put(passages.get(i).getTitle().trim(), i);
+        }
+
+        stream.writeInt(intern(story.getTitle()));
+        stream.writeInt(passages.size());
+        for (Passage passage : passages) {
+            stream.writeInt(intern(passage.getTitle()));
+        }
+        for (Passage passage : passages) {
+            stream.writeInt(intern(passage.getContent()));
+            stream.writeInt(passage.getLinks().size());
+            for (Link link : passage.getLinks()) {
+                Integer target = passageIndexes.get(link.getReference());
+                if (target == null) {
+                    throw new CorruptFileException(CorruptFileException.Type.STORY_BROKEN_LINKS);
+                }
+                stream.writeInt(intern(link.getText()));
+                stream.writeInt(target);
+                stream.writeInt(link.getActions().size());
+                for (Action action : link.getActions()) {
+                    writeAction(stream, action);
+                }
+            }
+            stream.writeInt(passage.getEnemies().size());
+            for (Enemy enemy : passage.getEnemies()) {
+                stream.writeInt(intern(enemy.getName()));
+            }
+        }
+    }
+
+    /**
+     * Compiles the game in the specified directory.
+     *
+     * @param args The game directory to compile
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: GameCompiler <game directory>");
+            System.exit(1);
+        }
+        try {
+            GameFileCollection gameFiles = new GameFileCollection(args[0]);
+            compile(gameFiles);
+            System.out.println("Compiled game to " + gameFiles.getCompiledPath());
+        } catch (CorruptFileException | IOException e) {
+            System.err.println("Could not compile game: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Parses object templates from a file.
+     */
+    @FunctionalInterface
+    private interface TemplateParser {
+        List<ObjectTemplate> parse(LineNumberReader fileReader) throws CorruptFileException;
+    }
+}
@@ -5,9 +5,13 @@ import java.io.LineNumberReader;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import no.ntnu.idata2001.g23.model.Game;
 import no.ntnu.idata2001.g23.model.entities.Player;
@@ -21,8 +25,26 @@ import no.ntnu.idata2001.g23.model.story.Story;
  * A collection of files that make up an entire game.
  */
 public class GameFileCollection {
+    /**
+     * The name of the file that {@link GameCompiler} compiles a game into.
+     */
+    public static final String COMPILED_FILE_NAME = "game.compiled";
+
+    /**
+     * The size in bytes a {@code .paths}-file must exceed to be loaded as a {@link LazyStory}.
+     */
+    public static final long LAZY_STORY_THRESHOLD = 32L * 1024 * 1024;
+
+    /**
+     * The max amount of parsed passages a {@link LazyStory} keeps in memory at once.
+     */
+    public static final int LAZY_STORY_CACHE_SIZE = 1024;
+
     private final Path gamePath;
     private final Collection<Path> gameFiles;
+    private final Map<Path, IndexEntry> difficultyIndexes;
+    private CompiledGame compiledGame;
+    private FileTime compiledGameTime;
 
     /**
      * Creates a new collection of game files based on the
@@ -33,6 +55,7 @@ public class GameFileCollection {
      */
     public GameFileCollection(String gameDirectory) throws CorruptFileException {
         gamePath = Path.of(gameDirectory);
+        difficultyIndexes = new HashMap<>();
         try (LineNumberReader fileReader = new LineNumberReader(
                 Files.newBufferedReader(gamePath.resolve("game.info"))
         )) {
@@ -46,6 +69,15 @@ public class GameFileCollection {
         return gamePath;
     }
 
+    /**
+     * Gets the path to every file listed in {@code game.info}.
+     *
+     * @return The path to every file listed in {@code game.info}
+     */
+    public Collection<Path> getPaths() {
+        return Collections.unmodifiableCollection(gameFiles);
+    }
+
     /**
      * Parses the game's {@code game.info}-file.
      * This method is static so that unit tests can access it to validate the parsing logic,
@@ -119,44 +151,282 @@ public class GameFileCollection {
                 .orElseThrow(() -> new CorruptFileException(exceptionType));
     }
 
+    /**
+     * Gets the path to the game's compiled file. The file may not exist.
+     *
+     * @return The path to the game's compiled file
+     * @see GameCompiler
+     */
+    public Path getCompiledPath() {
+        return gamePath.resolve(COMPILED_FILE_NAME);
+    }
+
+    private boolean isNewerThan(FileTime time, Path path) throws IOException {
+        return path == null
+                || !Files.exists(path)
+                || time.compareTo(Files.getLastModifiedTime(path)) > 0;
+    }
+
+    /**
+     * Gets the game's compiled file, if it exists and is newer than
+     * {@code game.info}, and the story, items & enemies it was compiled from.
+     * The compiled file is only loaded again if it has been modified since it was last loaded.
+     *
+     * @return The game's compiled file, or {@code null} if it's missing, outdated or corrupt,
+     *         in which case the game should be loaded from its text files instead
+     */
+    synchronized CompiledGame getCompiledGame() {
+        Path compiledPath = getCompiledPath();
+        try {
+            if (!Files.exists(compiledPath)) {
+                return null;
+            }
+            FileTime compiledTime = Files.getLastModifiedTime(compiledPath);
+            if (!isNewerThan(compiledTime, gamePath.resolve("game.info"))
+                    || !isNewerThan(compiledTime, getPath(".paths"))
+                    || !isNewerThan(compiledTime, getPath(".items"))
+                    || !isNewerThan(compiledTime, getPath(".enemies"))) {
+                return null;
+            }
+            if (compiledGame == null || !compiledTime.equals(compiledGameTime)) {
+                compiledGame = CompiledGame.load(compiledPath);
+                compiledGameTime = compiledTime;
+            }
+            return compiledGame;
+        } catch (IOException | CorruptFileException e) {
+            compiledGame = null;
+            compiledGameTime = null;
+            return null;
+        }
+    }
+
+    /**
+     * Loads the game's items, if it has any.
+     *
+     * @return A {@link Provider} that can provide every item in the game,
+     *         or {@code null} if the game has no {@code .items}-file
+     * @throws CorruptFileException If the items could not be loaded
+     */
+    Provider<Item> loadItems() throws CorruptFileException {
+        CompiledGame compiled = getCompiledGame();
+        if (compiled != null) {
+            return compiled.makeItemProvider();
+        }
+        Path itemsPath = getPath(".items");
+        return itemsPath != null
+                ? ItemLoader.loadItems(itemsPath)
+                : null;
+    }
+
+    /**
+     * Loads the game's enemies, if it has any.
+     *
+     * @param itemProvider The {@link Provider} to use to provide items for the enemies
+     * @return A {@link Provider} that can provide every enemy in the game,
+     *         or {@code null} if the game has no {@code .enemies}-file
+     * @throws CorruptFileException If the enemies could not be loaded
+     */
+    Provider<Enemy> loadEnemies(Provider<Item> itemProvider) throws CorruptFileException {
+        CompiledGame compiled = getCompiledGame();
+        if (compiled != null) {
+            return compiled.makeEnemyProvider(itemProvider);
+        }
+        Path enemiesPath = getPath(".enemies");
+        return enemiesPath != null
+                ? new EnemyLoader(itemProvider).loadEnemies(enemiesPath)
+                : null;
+    }
+
+    private static boolean isLargeFile(Path path) {
+        try {
+            return Files.size(path) > LAZY_STORY_THRESHOLD;
+        } catch (IOException ioe) {
+            return false;
+        }
+    }
+
+    /**
+     * Loads the game's story.
+     * Stories larger than {@link #LAZY_STORY_THRESHOLD} are loaded as a {@link LazyStory},
+     * whether they're loaded from the compiled file or the {@code .paths}-file.
+     *
+     * @param itemProvider  The {@link Provider} to use to provide items for the story
+     * @param enemyProvider The {@link Provider} to use to provide enemies for the story
+     * @return The loaded story
+     * @throws CorruptFileException If the story could not be loaded
+     */
+    Story loadStory(Provider<Item> itemProvider, Provider<Enemy> enemyProvider)
+            throws CorruptFileException {
+        Path storyPath = getPathRequired(".paths",
+                CorruptFileException.Type.INFO_MISSING_STORY);
+        CompiledGame compiled = getCompiledGame();
+        if (compiled != null) {
+            return isLargeFile(storyPath)
+                    ? compiled.makeLazyStory(itemProvider, enemyProvider, LAZY_STORY_CACHE_SIZE)
+                    : compiled.makeStory(itemProvider, enemyProvider);
+        }
+        StoryLoader storyLoader = new StoryLoader(itemProvider, enemyProvider);
+        return isLargeFile(storyPath)
+                ? storyLoader.loadLazyStory(storyPath, LAZY_STORY_CACHE_SIZE)
+                : storyLoader.loadStory(storyPath);
+    }
+
+    /**
+     * Gets the difficulty index of a game file, parsing the file if it's not already indexed,
+     * or if it has been modified since it was last indexed.
+     *
+     * @param filePath    The file to get the difficulty index of
+     * @param indexLoader Loads the difficulty index of the file
+     * @param <T>         The type of template in the difficulty index
+     * @return The difficulty index of the file
+     * @throws CorruptFileException If the file could not be indexed
+     */
+    @SuppressWarnings("unchecked")
+    private synchronized <T> DifficultyIndex<T> getDifficultyIndex(
+            Path filePath, IndexLoader<T> indexLoader
+    ) throws CorruptFileException {
+        FileTime modifiedTime;
+        try {
+            modifiedTime = Files.getLastModifiedTime(filePath);
+        } catch (IOException ioe) {
+            modifiedTime = null;
+        }
+        IndexEntry entry = difficultyIndexes.get(filePath);
+        if (entry == null || modifiedTime == null || !modifiedTime.equals(entry.modifiedTime())) {
+            entry = new IndexEntry(modifiedTime, indexLoader.load(filePath));
+            difficultyIndexes.put(filePath, entry);
+        }
+        return (DifficultyIndex<T>) entry.index();
+    }
+
+    /**
+     * Gets the index of the player template of every difficulty in the game.
+     *
+     * @return The index of the player template of every difficulty
+     * @throws CorruptFileException If the game has no {@code .player}-file,
+     *                              or it could not be indexed
+     */
+    DifficultyIndex<PlayerLoader.PlayerTemplate> getPlayerIndex() throws CorruptFileException {
+        return getDifficultyIndex(getPathRequired(".player",
+                CorruptFileException.Type.INFO_MISSING_PLAYER), PlayerLoader::loadPlayerIndex);
+    }
+
+    /**
+     * Gets the index of the goal templates of every difficulty in the game.
+     *
+     * @return The index of the goal templates of every difficulty
+     * @throws CorruptFileException If the game has no {@code .goals}-file,
+     *                              or it could not be indexed
+     */
+    DifficultyIndex<GoalLoader.GoalsTemplate> getGoalIndex() throws CorruptFileException {
+        return getDifficultyIndex(getPathRequired(".goals",
+                CorruptFileException.Type.INFO_MISSING_GOALS), GoalLoader::loadGoalIndex);
+    }
+
+    /**
+     * Loads the game's sprite paths, if it has any.
+     *
+     * @return Every object name & the path to its sprite,
+     *         or {@code null} if the game has no {@code .sprites}-file
+     * @throws CorruptFileException If the sprite paths could not be loaded
+     */
+    Map<String, String> loadSpritePaths() throws CorruptFileException {
+        Path spritesPath = getPath(".sprites");
+        return spritesPath != null
+                ? new SpritePathsLoader(gamePath).loadSpritePaths(spritesPath)
+                : null;
+    }
+
+    /**
+     * Loads the game's player for a specific difficulty.
+     * The {@code .player}-file is only parsed once, and every difficulty is looked up from it.
+     *
+     * @param itemProvider The {@link Provider} to use to provide items for the player
+     * @param playerName   The player's name
+     * @param difficulty   The difficulty to load the player for
+     * @return The loaded player
+     * @throws CorruptFileException If the player could not be loaded
+     */
+    Player loadPlayer(Provider<Item> itemProvider, String playerName, String difficulty)
+            throws CorruptFileException {
+        return new PlayerLoader(itemProvider, playerName, difficulty)
+                .makePlayer(getPlayerIndex());
+    }
+
+    /**
+     * Loads the game's goals for a specific difficulty.
+     * The {@code .goals}-file is only parsed once, and every difficulty is looked up from it.
+     *
+     * @param itemProvider The {@link Provider} to use to provide items for the goals
+     * @param difficulty   The difficulty to load goals for
+     * @return The loaded goals
+     * @throws CorruptFileException If the goals could not be loaded
+     */
+    List<Goal> loadGoals(Provider<Item> itemProvider, String difficulty)
+            throws CorruptFileException {
+        return new GoalLoader(itemProvider, difficulty).makeGoals(getGoalIndex());
+    }
+
     /**
      * Makes a new {@link Game} object from the collection of game files.
+     * Every file is loaded one after another on the calling thread.
      *
      * @param playerName The player's name
      * @param difficulty The game's difficulty
      * @return The newly made game
      * @throws CorruptFileException If the game cannot be made due to one or more corrupt files
+     * @see ParallelGameLoader
      */
     public Game makeNewGame(String playerName, String difficulty) throws CorruptFileException {
         //Parse items, create itemProvider
-        Path itemsPath = getPath(".items");
-        Provider<Item> itemProvider = itemsPath != null
-                ? ItemLoader.loadItems(itemsPath)
-                : null;
+        Provider<Item> itemProvider = loadItems();
 
         //Parse enemies, create enemyProvider, using itemProvider
-        Path enemiesPath = getPath(".enemies");
-        Provider<Enemy> enemyProvider = enemiesPath != null
-                ? new EnemyLoader(itemProvider).loadEnemies(enemiesPath)
-                : null;
+        Provider<Enemy> enemyProvider = loadEnemies(itemProvider);
 
         //parse & create story, using itemProvider & enemyProvider
-        Path storyPath = getPathRequired(".paths",
-                CorruptFileException.Type.INFO_MISSING_STORY);
-        Story story = new StoryLoader(itemProvider, enemyProvider).loadStory(storyPath);
+        Story story = loadStory(itemProvider, enemyProvider);
 
         //parse & create player, using itemProvider, name & difficulty
-        Path playerPath = getPathRequired(".player",
-                CorruptFileException.Type.INFO_MISSING_PLAYER);
-        Player player = new PlayerLoader(itemProvider, playerName,
-                difficulty).loadPlayer(playerPath);
+        Player player = loadPlayer(itemProvider, playerName, difficulty);
 
         //parse & create goals, using itemProvider & difficulty
-        Path goalsPath = getPathRequired(".goals",
-                CorruptFileException.Type.INFO_MISSING_GOALS);
-        List<Goal> goals = new GoalLoader(itemProvider, difficulty).loadGoals(goalsPath);
+        List<Goal> goals = loadGoals(itemProvider, difficulty);
 
         //Create & return game, using story & goals
         return new Game(player, story, goals);
     }
+
+    /**
+     * Makes a new {@link GameTemplate} from the collection of game files,
+     * loading independent files in parallel. New games are made from the template with
+     * {@link GameTemplate#makeGame(String, String)}, and how long each file took to load
+     * is found with {@link GameTemplate#getLoadTimings()}.
+     *
+     * @return The newly made game template
+     * @throws CorruptFileException If the template cannot be made due to one or more
+     *                              corrupt files
+     * @see ParallelGameLoader
+     */
+    public GameTemplate makeTemplateParallel() throws CorruptFileException {
+        return new ParallelGameLoader(this).loadTemplate();
+    }
+
+    /**
+     * A cached difficulty index, and when its file was last modified.
+     *
+     * @param modifiedTime When the indexed file was last modified
+     * @param index        The difficulty index of the file
+     */
+    private record IndexEntry(FileTime modifiedTime, DifficultyIndex<?> index) {}
+
+    /**
+     * Loads the difficulty index of a file.
+     *
+     * @param <T> The type of template in the difficulty index
+     */
+    @FunctionalInterface
+    private interface IndexLoader<T> {
+        DifficultyIndex<T> load(Path filePath) throws CorruptFileException;
+    }
 }
@@ -0,0 +1,138 @@
+package no.ntnu.idata2001.g23.model.fileparsing;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import no.ntnu.idata2001.g23.model.Game;
+import no.ntnu.idata2001.g23.model.entities.Player;
+import no.ntnu.idata2001.g23.model.entities.enemies.Enemy;
+import no.ntnu.idata2001.g23.model.goals.Goal;
+import no.ntnu.idata2001.g23.model.items.Item;
+import no.ntnu.idata2001.g23.model.misc.Provider;
+import no.ntnu.idata2001.g23.model.story.Passage;
+import no.ntnu.idata2001.g23.model.story.Story;
+
+/**
+ * Every parsed file of a game, that new games can be made from without reading any files.
+ *
+ * <p>The template itself is never modified. Every game made from it gets its own player
+ * & enemies, while everything else is shared. A game's story shares the template's story,
+ * and only copies the passages with enemies that the game gets, sharing their links,
+ * but with their own enemies. Passages without enemies, and every link & action,
+ * are shared by every game, and must not be modified by any game.</p>
+ *
+ * @see GameTemplateCache
+ */
+public class GameTemplate {
+    private final Provider<Item> itemProvider;
+    private final Provider<Enemy> enemyProvider;
+    private final Story story;
+    private final DifficultyIndex<PlayerLoader.PlayerTemplate> playerIndex;
+    private final DifficultyIndex<GoalLoader.GoalsTemplate> goalIndex;
+    private final Map<String, String> spritePaths;
+    private final Map<ParallelGameLoader.Stage, Duration> loadTimings;
+
+    /**
+     * Makes a game template.
+     *
+     * @param itemProvider  A {@link Provider} that can provide every item in the game
+     * @param enemyProvider A {@link Provider} that can provide every enemy in the game
+     * @param story         The game's story. Never given to any game directly, only copied
+     * @param playerIndex   An index of the player template of every difficulty
+     * @param goalIndex     An index of the goal templates of every difficulty
+     * @param spritePaths   Every object name & the path to its sprite, or {@code null}
+     * @param loadTimings   How long each stage of loading the template took
+     */
+    GameTemplate(Provider<Item> itemProvider,
+                 Provider<Enemy> enemyProvider,
+                 Story story,
+                 DifficultyIndex<PlayerLoader.PlayerTemplate> playerIndex,
+                 DifficultyIndex<GoalLoader.GoalsTemplate> goalIndex,
+                 Map<String, String> spritePaths,
+                 Map<ParallelGameLoader.Stage, Duration> loadTimings) {
+        if (story == null) {
+            throw new IllegalArgumentException("\"story\" cannot be null");
+        }
+        if (playerIndex == null) {
+            throw new IllegalArgumentException("\"playerIndex\" cannot be null");
+        }
+        if (goalIndex == null) {
+            throw new IllegalArgumentException("\"goalIndex\" cannot be null");
+        }
+        if (loadTimings == null) {
+            throw new IllegalArgumentException("\"loadTimings\" cannot be null");
+        }
+        this.itemProvider = itemProvider;
+        this.enemyProvider = enemyProvider;
+        this.story = story;
+        this.playerIndex = playerIndex;
+        this.goalIndex = goalIndex;
+        this.spritePaths = spritePaths != null ? Map.copyOf(spritePaths) : null;
+        this.loadTimings = Map.copyOf(loadTimings);
+    }
+
+    /**
+     * Gets the spritePaths field.
+     *
+     * @return Every object name & the path to its sprite,
+     *         or {@code null} if the game has no {@code .sprites}-file
+     */
+    public Map<String, String> getSpritePaths() {
+        return spritePaths;
+    }
+
+    /**
+     * Gets how long each stage of loading the template took.
+     * A template from the {@link GameTemplateCache} keeps the timings of when it was loaded.
+     *
+     * @return A map of every stage, and how long it took to finish
+     */
+    public Map<ParallelGameLoader.Stage, Duration> getLoadTimings() {
+        return loadTimings;
+    }
+
+    /**
+     * Makes a copy of a passage for a new game.
+     *
+     * @param passage The passage to copy
+     * @return A copy of the passage with its own enemies, sharing its links
+     */
+    private Passage copyPassage(Passage passage) {
+        Passage copy = new Passage(passage.getTitle(), passage.getContent());
+        passage.getLinks().forEach(copy::addLink);
+        passage.getEnemies().forEach(enemy ->
+                copy.addEnemy(enemyProvider.provide(enemy.getName())));
+        return copy;
+    }
+
+    /**
+     * Makes a story for a new game, with its own enemies.
+     *
+     * @return A story that shares the template's story
+     */
+    private Story copyStory() {
+        if (story instanceof LazyStory lazyStory) {
+            return lazyStory.copy(passage ->
+                    passage.getEnemies().isEmpty() ? passage : copyPassage(passage));
+        }
+        return new TemplateStory(story, copyPassage(story.getOpeningPassage()),
+                this::copyPassage);
+    }
+
+    /**
+     * Makes a new {@link Game} from the template.
+     *
+     * @param playerName The player's name
+     * @param difficulty The game's difficulty
+     * @return The newly made game
+     * @throws CorruptFileException If the game's player or goals
+     *                              cannot be made for the specified difficulty
+     */
+    public Game makeGame(String playerName, String difficulty) throws CorruptFileException {
+        Player player = new PlayerLoader(itemProvider, playerName, difficulty)
+                .makePlayer(playerIndex);
+        List<Goal> goals = new GoalLoader(itemProvider, difficulty)
+                .makeGoals(goalIndex);
+        return new Game(player, copyStory(), goals);
+    }
+}
@@ -0,0 +1,137 @@
+package no.ntnu.idata2001.g23.model.fileparsing;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A process-wide cache of {@link GameTemplate}s, so that starting or restarting a game
+ * doesn't need to parse any files again.
+ *
+ * <p>Templates are cached by their game directory, and the modification time of every file
+ * in the game. If any file is modified, added or removed, the game is parsed again.
+ * When the cache is full, the least recently used template is evicted.</p>
+ */
+public class GameTemplateCache {
+    /**
+     * The max amount of templates the shared cache keeps at once.
+     */
+    public static final int DEFAULT_MAX_SIZE = 4;
+
+    private static GameTemplateCache instance;
+    private final int maxSize;
+    private final Map<Path, CacheEntry> templates;
+
+    /**
+     * Makes a game template cache.
+     *
+     * @param maxSize The max amount of templates to keep at once
+     */
+    GameTemplateCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("\"maxSize\" must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.templates = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, CacheEntry> eldest) {
+                return size() > GameTemplateCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Singleton.
+     *
+     * @return Singleton instance
+     */
+    public static synchronized GameTemplateCache getInstance() {
+        if (instance == null) {
+            instance = new GameTemplateCache(DEFAULT_MAX_SIZE);
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the modification time of every file in a game.
+     *
+     * @param gameFiles The game to get the modification times of
+     * @return The modification time of every file in the game that exists
+     */
+    private static Map<Path, FileTime> getModifiedTimes(GameFileCollection gameFiles) {
+        List<Path> paths = new ArrayList<>(gameFiles.getPaths());
+        paths.add(gameFiles.getGamePath().resolve("game.info"));
+        paths.add(gameFiles.getCompiledPath());
+        Map<Path, FileTime> modifiedTimes = new HashMap<>();
+        for (Path path : paths) {
+            try {
+                modifiedTimes.put(path, Files.getLastModifiedTime(path));
+            } catch (IOException ioe) {
+                //Missing files are left out, so that adding them changes the key
+            }
+        }
+        return modifiedTimes;
+    }
+
+    /**
+     * Gets the template of a game, parsing the game if it's not cached,
+     * or if any of its files have been modified since it was cached.
+     *
+     * @param gameFiles The game to get the template of
+     * @return The template of the game
+     * @throws CorruptFileException If the game cannot be parsed due to one or more corrupt files
+     */
+    public GameTemplate getTemplate(GameFileCollection gameFiles) throws CorruptFileException {
+        if (gameFiles == null) {
+            throw new IllegalArgumentException("\"gameFiles\" cannot be null");
+        }
+        Path gameDirectory = gameFiles.getGamePath().toAbsolutePath().normalize();
+        Map<Path, FileTime> modifiedTimes = getModifiedTimes(gameFiles);
+        synchronized (templates) {
+            CacheEntry entry = templates.get(gameDirectory);
+            if (entry != null && entry.modifiedTimes().equals(modifiedTimes)) {
+                return entry.template();
+            }
+        }
+        //Parses outside the lock, so that other games can be looked up in the meantime
+        GameTemplate template = new ParallelGameLoader(gameFiles).loadTemplate();
+        synchronized (templates) {
+            templates.put(gameDirectory, new CacheEntry(modifiedTimes, template));
+        }
+        return template;
+    }
+
+    /**
+     * Removes every cached template.
+     */
+    public void clear() {
+        synchronized (templates) {
+            templates.clear();
+        }
+    }
+
+    /**
+     * Gets the amount of cached templates.
+     *
+     * @return The amount of cached templates
+     */
+    public int size() {
+        synchronized (templates) {
+            return templates.size();
+        }
+    }
+
+    /**
+     * A cached template, and the modification times of the files it was parsed from.
+     *
+     * @param modifiedTimes The modification time of every file in the game
+     * @param template      The parsed template
+     */
+    private record CacheEntry(Map<Path, FileTime> modifiedTimes, GameTemplate template) {}
+}
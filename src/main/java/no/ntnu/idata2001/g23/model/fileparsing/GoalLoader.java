@@ -32,70 +32,146 @@ public class GoalLoader {
         this.difficulty = difficulty;
     }
 
-    private Goal parseGoal(String goalData, int lineNumber, Provider<Item> itemProvider)
+    /**
+     * Parses a goal template from a single line.
+     * Goals that don't need any items are made right away, since goals are immutable.
+     *
+     * @param goalData   The line containing the goal
+     * @param lineNumber The line number of the line containing the goal
+     * @return The parsed goal template
+     * @throws CorruptFileException If the goal could not be parsed
+     */
+    private static GoalTemplate parseGoalTemplate(String goalData, int lineNumber)
             throws CorruptFileException {
-        String[] splitGoalData = goalData.split(":", 2);
-        if (splitGoalData.length < 2) {
+        Lexer goalLexer = new Lexer(goalData);
+        Lexer goalType = new Lexer();
+        if (!goalLexer.readUntil(':', goalType)) {
             throw new CorruptFileException(CorruptFileException.Type.GOAL_INVALID_FORMAT,
                     lineNumber, goalData);
         }
-        Goal goal;
-        String goalType = splitGoalData[0].trim();
-        String goalValue = splitGoalData[1].trim();
+        goalType.trim();
+        Lexer goalValue = goalLexer.trim();
         try {
-            switch (goalType) {
-                case "Gold" -> goal = new GoldGoal(Integer.parseInt(goalValue));
-                case "Health" -> goal = new HealthGoal(Integer.parseInt(goalValue));
-                case "Inventory" -> goal =
-                        new InventoryGoal(itemProvider.provide(goalValue));
-                case "Score" -> goal = new ScoreGoal(Integer.parseInt(goalValue));
-                default -> throw new CorruptFileException(
-                        CorruptFileException.Type.GOAL_INVALID_TYPE,
-                        lineNumber, goalType);
+            if (goalType.contentEquals("Gold")) {
+                return madeGoal(new GoldGoal(goalValue.parseInt()));
+            } else if (goalType.contentEquals("Health")) {
+                return madeGoal(new HealthGoal(goalValue.parseInt()));
+            } else if (goalType.contentEquals("Inventory")) {
+                String itemName = goalValue.toString();
+                return itemProvider -> {
+                    try {
+                        return new InventoryGoal(itemProvider.provide(itemName));
+                    } catch (IllegalArgumentException iae) {
+                        throw new CorruptFileException(
+                                CorruptFileException.Type.GOAL_INVALID_VALUE,
+                                lineNumber, itemName);
+                    }
+                };
+            } else if (goalType.contentEquals("Score")) {
+                return madeGoal(new ScoreGoal(goalValue.parseInt()));
             }
         } catch (IllegalArgumentException iae) {
             throw new CorruptFileException(CorruptFileException.Type.GOAL_INVALID_VALUE,
-                    lineNumber, goalValue);
+                    lineNumber, goalValue.toString());
         }
-        return goal;
+        throw new CorruptFileException(CorruptFileException.Type.GOAL_INVALID_TYPE,
+                lineNumber, goalType.toString());
+    }
+
+    private static GoalTemplate madeGoal(Goal goal) {
+        return itemProvider -> goal;
     }
 
     /**
-     * Parses goals from a {@link LineNumberReader},
-     * and returns a {@link List} of every goal associated with the goal loader's difficulty.
+     * Parses the goal templates of a single difficulty section.
      *
-     * @param fileReader A {@link LineNumberReader} that contains some goals.
-     * @return A {@link List} of every goal associated with the goal loader's difficulty
-     * @throws CorruptFileException If the goals could not be parsed
+     * @param sectionReader The {@link LineNumberReader} containing the difficulty section
+     * @return The parsed goal templates
+     * @throws IOException          If the section could not be read
+     * @throws CorruptFileException If the section could not be parsed
      */
-    public List<Goal> parseGoals(LineNumberReader fileReader)
+    private static GoalsTemplate parseGoalsTemplate(LineNumberReader sectionReader)
+            throws IOException, CorruptFileException {
+        List<GoalTemplate> goals = new ArrayList<>();
+        String nextLine;
+        //Goes through one difficulty of goals
+        while ((nextLine = sectionReader.readLine()) != null && !nextLine.isBlank()) {
+            goals.add(parseGoalTemplate(nextLine, sectionReader.getLineNumber()));
+        }
+        return new GoalsTemplate(List.copyOf(goals), sectionReader.getLineNumber());
+    }
+
+    /**
+     * Parses the goal templates of every difficulty from a {@link LineNumberReader}.
+     *
+     * @param fileReader The {@link LineNumberReader} containing every goal
+     * @return An index of the goal templates of every difficulty
+     * @throws CorruptFileException If the file could not be read
+     */
+    static DifficultyIndex<GoalsTemplate> parseGoalIndex(LineNumberReader fileReader)
             throws CorruptFileException {
-        List<Goal> goals = new ArrayList<>();
         try {
-            String nextLine = "";
-            //Moves the reader forward to the list of goals for the specified difficulty.
-            while (!nextLine.startsWith("#" + difficulty)) {
-                nextLine = fileReader.readLine();
-                if (nextLine == null) {
-                    throw new CorruptFileException(CorruptFileException.Type.NO_GOALS,
-                            fileReader.getLineNumber(), difficulty);
-                }
-            }
-            //Goes through one difficulty of goals
-            while ((nextLine = fileReader.readLine()) != null && !nextLine.isBlank()) {
-                goals.add(parseGoal(nextLine, fileReader.getLineNumber(), itemProvider));
-            }
-            if (goals.isEmpty()) {
-                throw new CorruptFileException(CorruptFileException.Type.NO_GOALS,
-                        fileReader.getLineNumber(), difficulty);
-            }
+            return DifficultyIndex.parse(fileReader, GoalLoader::parseGoalsTemplate);
         } catch (IOException ioe) {
             throw new CorruptFileException(CorruptFileException.Type.UNKNOWN_GOALS,
                     fileReader.getLineNumber());
         }
+    }
+
+    /**
+     * Loads the goal templates of every difficulty from a {@code .goals}-file.
+     *
+     * @param goalsFilePath The file path of the goals to load
+     * @return An index of the goal templates of every difficulty
+     * @throws CorruptFileException If the file could not be loaded
+     */
+    static DifficultyIndex<GoalsTemplate> loadGoalIndex(Path goalsFilePath)
+            throws CorruptFileException {
+        DifficultyIndex<GoalsTemplate> goalIndex;
+        try (LineNumberReader fileReader = new LineNumberReader(
+                Files.newBufferedReader(goalsFilePath)
+        )) {
+            goalIndex = parseGoalIndex(fileReader);
+        } catch (IOException ioe) {
+            throw new CorruptFileException(CorruptFileException.Type.UNKNOWN_GOALS);
+        }
+        return goalIndex;
+    }
+
+    /**
+     * Makes every goal associated with the goal loader's difficulty.
+     *
+     * @param goalIndex An index of the goal templates of every difficulty
+     * @return A {@link List} of every goal associated with the goal loader's difficulty
+     * @throws CorruptFileException If the difficulty has no valid goals,
+     *                              or the goals could not be made
+     */
+    List<Goal> makeGoals(DifficultyIndex<GoalsTemplate> goalIndex) throws CorruptFileException {
+        GoalsTemplate template = goalIndex.get(difficulty, CorruptFileException.Type.NO_GOALS);
+        if (template.goals().isEmpty()) {
+            throw new CorruptFileException(CorruptFileException.Type.NO_GOALS,
+                    template.lineNumber(), difficulty);
+        }
+        List<Goal> goals = new ArrayList<>();
+        for (GoalTemplate goal : template.goals()) {
+            goals.add(goal.make(itemProvider));
+        }
         return goals;
     }
 
+    /**
+     * Parses goals from a {@link LineNumberReader},
+     * and returns a {@link List} of every goal associated with the goal loader's difficulty.
+     *
+     * @param fileReader A {@link LineNumberReader} that contains some goals.
+     * @return A {@link List} of every goal associated with the goal loader's difficulty
+     * @throws CorruptFileException If the goals could not be parsed
+     */
+    public List<Goal> parseGoals(LineNumberReader fileReader)
+            throws CorruptFileException {
+        return makeGoals(parseGoalIndex(fileReader));
+    }
+
     /**
      * Loads goals from a {@code .goals}-file,
      * and returns a {@link List} of every goal associated with the goal loader's difficulty.
@@ -116,4 +192,21 @@ public class GoalLoader {
         }
         return goals;
     }
+
+    /**
+     * The parsed goals of a single difficulty.
+     *
+     * @param goals      The goal templates of every goal in the difficulty
+     * @param lineNumber The line number the difficulty's goals ended at.
+     *                   Used to generate a more detailed error message if there are no goals
+     */
+    record GoalsTemplate(List<GoalTemplate> goals, int lineNumber) {}
+
+    /**
+     * Makes a single goal, providing any items it needs.
+     */
+    @FunctionalInterface
+    interface GoalTemplate {
+        Goal make(Provider<Item> itemProvider) throws CorruptFileException;
+    }
 }
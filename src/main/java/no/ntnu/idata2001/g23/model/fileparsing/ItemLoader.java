@@ -4,6 +4,8 @@ import java.io.IOException;
 import java.io.LineNumberReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 import no.ntnu.idata2001.g23.model.actions.Action;
@@ -21,18 +23,15 @@ public class ItemLoader {
     }
 
     /**
-     * Parses an item.
+     * Reads the definition of an item, without building it.
      *
-     * @param name The name of the item to parse.
-     * @param fileReader A {@link LineNumberReader} containing the item to parse
-     * @param itemProvider An {@link Provider} to provide items.
-     *                     Used in cases where an item can create other items
-     * @return The parsed item
-     * @throws IOException If the file reader cannot be read
-     * @throws CorruptFileException If the item cannot be parsed
+     * @param name       The name of the item to read
+     * @param fileReader A {@link LineNumberReader} containing the item to read
+     * @return The read item template
+     * @throws IOException          If the file reader cannot be read
+     * @throws CorruptFileException If the item's type or parameters cannot be read
      */
-    private static Supplier<Item> parseItem(
-            String name, LineNumberReader fileReader, Provider<Item> itemProvider)
+    private static ObjectTemplate readItem(String name, LineNumberReader fileReader)
             throws IOException, CorruptFileException {
         String type = fileReader.readLine();
         if (!type.startsWith("-")) {
@@ -40,56 +39,119 @@ public class ItemLoader {
                     fileReader.getLineNumber());
         }
 
+        String normalizedType = new Lexer(type).skip(1)
+                .matchKeyword("basic", "weapon", "usable");
+        if (normalizedType == null) {
+            throw new CorruptFileException(
+                    CorruptFileException.Type.ITEM_INVALID_TYPE,
+                    fileReader.getLineNumber());
+        }
+        String[] requiredParameters = switch (normalizedType) {
+            case "basic" -> Parameters.getBasicRequired();
+            case "weapon" -> Parameters.getWeaponRequired();
+            case "usable" -> Parameters.getUsableRequired();
+            default -> throw new CorruptFileException(
+                    CorruptFileException.Type.ITEM_INVALID_TYPE,
+                    fileReader.getLineNumber());
+        };
+        Map<String, String> itemParameterMap = CollectionParserUtil
+                .parseMap(fileReader, true, requiredParameters);
+        return new ObjectTemplate(name, normalizedType, itemParameterMap,
+                fileReader.getLineNumber());
+    }
+
+    /**
+     * Removes every curly bracket from an item's "On Use"-action.
+     * The brackets are usually only around the action,
+     * in which case they're skipped without making a new string.
+     *
+     * @param onUse The item's "On Use"-action
+     * @return A {@link Lexer} containing the action without any curly brackets
+     */
+    private static Lexer parseOnUse(String onUse) {
+        Lexer onUseLexer = new Lexer(onUse).stripEnclosing('{', '}');
+        if (onUseLexer.contains('{') || onUseLexer.contains('}')) {
+            StringBuilder strippedOnUse = new StringBuilder(onUse.length());
+            for (int i = 0; i < onUse.length(); i++) {
+                if (onUse.charAt(i) != '{' && onUse.charAt(i) != '}') {
+                    strippedOnUse.append(onUse.charAt(i));
+                }
+            }
+            onUseLexer = new Lexer(strippedOnUse).trim();
+        }
+        return onUseLexer;
+    }
+
+    /**
+     * Makes a supplier for an item, based on its template.
+     *
+     * @param template     The template of the item to make
+     * @param itemProvider An {@link Provider} to provide items.
+     *                     Used in cases where an item can create other items
+     * @return A supplier that makes the item
+     * @throws CorruptFileException If the item cannot be made from its template
+     */
+    static Supplier<Item> makeItem(ObjectTemplate template, Provider<Item> itemProvider)
+            throws CorruptFileException {
+        String name = template.name();
+        Map<String, String> itemParameterMap = template.parameters();
         Supplier<Item> itemSupplier;
         try {
-            switch (type.substring(1).toLowerCase().replace(" ", "")) {
-                case "basic" -> {
-                    Map<String, String> itemParameterMap = CollectionParserUtil
-                            .parseMap(fileReader, true, Parameters.getBasicRequired());
-                    itemSupplier = () -> new Item(name,
-                            itemParameterMap.get(Parameters.DESCRIPTION));
-                }
+            switch (template.type()) {
+                case "basic" -> itemSupplier = () -> new Item(name,
+                        itemParameterMap.get(Parameters.DESCRIPTION));
                 case "weapon" -> {
-                    Map<String, String> itemParameterMap = CollectionParserUtil
-                            .parseMap(fileReader, true, Parameters.getWeaponRequired());
                     int damage = Integer.parseInt(itemParameterMap.get(Parameters.DAMAGE));
                     itemSupplier = () -> new Weapon(damage, name,
                             itemParameterMap.get(Parameters.DESCRIPTION));
                 }
                 case "usable" -> {
-                    Map<String, String> itemParameterMap = CollectionParserUtil
-                            .parseMap(fileReader, true, Parameters.getUsableRequired());
                     Action onUse = ActionParser.parseAction(
-                            itemParameterMap
-                                    .get(Parameters.ON_USE)
-                                    .replaceAll("[{}]", "")
-                                    .trim(),
-                            fileReader.getLineNumber(), itemProvider);
+                            parseOnUse(itemParameterMap.get(Parameters.ON_USE)), new Lexer(),
+                            template.lineNumber(), itemProvider);
                     itemSupplier = () -> new UsableItem(name,
                             itemParameterMap.get(Parameters.DESCRIPTION), onUse);
                 }
                 default -> throw new CorruptFileException(
                         CorruptFileException.Type.ITEM_INVALID_TYPE,
-                        fileReader.getLineNumber());
+                        template.lineNumber());
             }
         } catch (NumberFormatException nfe) {
             throw new CorruptFileException(CorruptFileException.Type.ITEM_INVALID_PARAMETER_VALUE,
-                    fileReader.getLineNumber());
+                    template.lineNumber());
         }
         return itemSupplier;
     }
 
     /**
-     * Parses items from a {@link LineNumberReader},
-     * and returns a {@link Provider} that can provide all the items.
+     * Makes a {@link Provider} that can provide every item in a list of item templates.
+     * The items are made in order, so an item can only make items defined before itself.
      *
-     * @param fileReader A {@link LineNumberReader} that contains some items.
-     * @return A {@link Provider} that can provide all the parsed items
-     * @throws CorruptFileException If the items could not be parsed
+     * @param templates The templates of every item to provide
+     * @return A {@link Provider} that can provide all the items
+     * @throws CorruptFileException If any item cannot be made from its template
      */
-    public static Provider<Item> parseItems(LineNumberReader fileReader)
+    static Provider<Item> makeProvider(List<ObjectTemplate> templates)
             throws CorruptFileException {
         Provider<Item> provider = new Provider<>();
+        for (ObjectTemplate template : templates) {
+            provider.addProvidable(template.name(), makeItem(template, provider));
+        }
+        return provider;
+    }
+
+    /**
+     * Reads items from a {@link LineNumberReader}, without building them.
+     * Every item is passed to the template handler as soon as it is read.
+     *
+     * @param fileReader      A {@link LineNumberReader} that contains some items.
+     * @param templateHandler The handler to pass every read item template to
+     * @throws CorruptFileException If the items could not be read,
+     *                              or the template handler fails to handle an item
+     */
+    private static void readItems(
+            LineNumberReader fileReader, ObjectTemplate.Handler templateHandler)
+            throws CorruptFileException {
         try {
             String nextLine;
             //Goes through entire file
@@ -99,8 +161,8 @@ public class ItemLoader {
                         throw new CorruptFileException(CorruptFileException.Type.ITEM_NO_NAME,
                                 fileReader.getLineNumber());
                     }
-                    String itemName = nextLine.substring(1).trim();
-                    provider.addProvidable(itemName, parseItem(itemName, fileReader, provider));
+                    String itemName = new Lexer(nextLine).skip(1).trim().toString();
+                    templateHandler.handle(readItem(itemName, fileReader));
                 } else if (!nextLine.isBlank()) {
                     throw new CorruptFileException(CorruptFileException.Type.INVALID_ITEM,
                             fileReader.getLineNumber());
@@ -110,6 +172,35 @@ public class ItemLoader {
             throw new CorruptFileException(CorruptFileException.Type.UNKNOWN_ITEMS,
                     fileReader.getLineNumber());
         }
+    }
+
+    /**
+     * Parses item templates from a {@link LineNumberReader}, without building the items.
+     *
+     * @param fileReader A {@link LineNumberReader} that contains some items.
+     * @return A list of every item template, in the order they were defined
+     * @throws CorruptFileException If the items could not be parsed
+     */
+    static List<ObjectTemplate> parseItemTemplates(LineNumberReader fileReader)
+            throws CorruptFileException {
+        List<ObjectTemplate> templates = new ArrayList<>();
+        readItems(fileReader, templates::add);
+        return templates;
+    }
+
+    /**
+     * Parses items from a {@link LineNumberReader},
+     * and returns a {@link Provider} that can provide all the items.
+     *
+     * @param fileReader A {@link LineNumberReader} that contains some items.
+     * @return A {@link Provider} that can provide all the parsed items
+     * @throws CorruptFileException If the items could not be parsed
+     */
+    public static Provider<Item> parseItems(LineNumberReader fileReader)
+            throws CorruptFileException {
+        Provider<Item> provider = new Provider<>();
+        readItems(fileReader, template -> provider.addProvidable(
+                template.name(), makeItem(template, provider)));
         return provider;
     }
 
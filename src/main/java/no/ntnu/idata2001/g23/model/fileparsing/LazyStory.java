@@ -0,0 +1,959 @@
+package no.ntnu.idata2001.g23.model.fileparsing;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.LineNumberReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import no.ntnu.idata2001.g23.model.entities.enemies.Enemy;
+import no.ntnu.idata2001.g23.model.story.Link;
+import no.ntnu.idata2001.g23.model.story.Passage;
+import no.ntnu.idata2001.g23.model.story.Story;
+import no.ntnu.idata2001.g23.model.story.StoryIntegrity;
+import no.ntnu.idata2001.g23.model.story.analysis.StoryGraph;
+
+/**
+ * A story that only keeps the location & references of each passage in its {@code .paths}-file
+ * in memory, and parses passages when they're first needed.
+ *
+ * <p>Parsed passages are kept in a cache with a max size, where the least recently used passage
+ * is evicted first, and parsed again from the file if it's needed later.
+ * When a passage with enemies is evicted, only its list of enemies is kept,
+ * and shared with the passage when it's parsed again,
+ * so that the state of its enemies is kept for the rest of the game.</p>
+ *
+ * <p>Passages can be added & removed like in any other story. Added passages are kept in memory,
+ * while removed passages are only marked as removed in the index.
+ * The {@code .paths}-file must not be modified while the story is in use.</p>
+ *
+ * <p>Passages are read through a {@link PassageSource}, so a {@link CompiledGame} can make a lazy
+ * story that reads its passages from the compiled file instead of the {@code .paths}-file.</p>
+ */
+public class LazyStory extends Story implements StoryGraph.Source {
+    private final PassageSource passageSource;
+    private final int cacheSize;
+    private final PassageIndex passageIndex;
+    private final Map<Integer, Passage> cachedPassages;
+    private final Map<Integer, List<Enemy>> enemyStates;
+    private final BitSet removedPassages;
+
+    private LazyStory(String title, Passage openingPassage, PassageSource passageSource,
+                      int cacheSize, PassageIndex passageIndex) {
+        super(title, openingPassage);
+        this.passageSource = passageSource;
+        this.cacheSize = cacheSize;
+        this.passageIndex = passageIndex;
+        this.cachedPassages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Passage> eldest) {
+                boolean evict = size() > LazyStory.this.cacheSize;
+                if (evict) {
+                    passageEvicted(eldest.getKey(), eldest.getValue());
+                }
+                return evict;
+            }
+        };
+        this.enemyStates = new HashMap<>();
+        this.removedPassages = new BitSet();
+    }
+
+    /**
+     * Scans a {@code .paths}-file, validating every passage like {@link StoryLoader} does,
+     * and that every link references a passage in the story.
+     * Only the location & references of each passage are kept,
+     * and the rest of each passage is parsed by {@link StoryLoader} when it's needed.
+     *
+     * @param storyFilePath The file path of the story to load
+     * @param storyLoader   The story loader to parse passages with
+     * @param cacheSize     The max amount of parsed passages to keep in memory at once
+     * @return The loaded story
+     * @throws CorruptFileException If the story could not be loaded
+     */
+    static LazyStory load(Path storyFilePath, StoryLoader storyLoader, int cacheSize)
+            throws CorruptFileException {
+        checkCacheSize(cacheSize);
+        OffsetLineReader fileReader = null;
+        try (InputStream fileStream = Files.newInputStream(storyFilePath)) {
+            fileReader = new OffsetLineReader(fileStream);
+            String storyTitle = fileReader.readLine();
+            if (storyTitle == null) {
+                throw new CorruptFileException(CorruptFileException.Type.EMPTY_FILE);
+            } else if (storyTitle.isBlank()
+                    || storyTitle.startsWith("::")
+                    || storyTitle.startsWith("#")) {
+                throw new CorruptFileException(CorruptFileException.Type.NO_TITLE,
+                        fileReader.getLineNumber());
+            }
+
+            PassageIndex passageIndex = new PassageIndex();
+            long offset = fileReader.getOffset();
+            String nextLine;
+            while ((nextLine = fileReader.readLine()) != null) { //Goes through whole file
+                if (nextLine.startsWith("::")) {
+                    passageIndex.add(nextLine.substring(2).trim(), offset,
+                            fileReader.getLineNumber());
+                    scanPassage(fileReader, storyLoader, passageIndex);
+                } else if (!nextLine.isBlank()) {
+                    throw new CorruptFileException(CorruptFileException.Type.INVALID_PASSAGE,
+                            fileReader.getLineNumber(), nextLine);
+                }
+                offset = fileReader.getOffset();
+            }
+            if (passageIndex.size == 0) {
+                throw new CorruptFileException(CorruptFileException.Type.NO_PASSAGES,
+                        fileReader.getLineNumber());
+            }
+
+            List<String> brokenReferences = passageIndex.resolveLinks();
+            if (!brokenReferences.isEmpty()) {
+                throw new CorruptFileException(CorruptFileException.Type.STORY_BROKEN_LINKS,
+                        fileReader.getLineNumber(), String.join(", ", brokenReferences));
+            }
+            return load(storyTitle.trim(), passageIndex,
+                    new TextPassageSource(storyFilePath, storyLoader, passageIndex), cacheSize);
+        } catch (IOException ioe) {
+            throw new CorruptFileException(CorruptFileException.Type.UNKNOWN_STORY,
+                    fileReader != null ? fileReader.getLineNumber() : 0);
+        }
+    }
+
+    /**
+     * Makes a lazy story from an index that's already made, reading its opening passage.
+     *
+     * @param title         The title of the story
+     * @param passageIndex  The index of every passage in the story,
+     *                      with every link resolved, and the opening passage first
+     * @param passageSource Reads the passages in the index
+     * @param cacheSize     The max amount of parsed passages to keep in memory at once
+     * @return The story
+     * @throws IOException          If the opening passage could not be read
+     * @throws CorruptFileException If the opening passage could not be parsed
+     */
+    static LazyStory load(String title, PassageIndex passageIndex, PassageSource passageSource,
+                          int cacheSize) throws IOException, CorruptFileException {
+        checkCacheSize(cacheSize);
+        return new LazyStory(title, passageSource.read(0), passageSource, cacheSize,
+                passageIndex);
+    }
+
+    private static void checkCacheSize(int cacheSize) {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("\"cacheSize\" must be at least 1");
+        }
+    }
+
+    /**
+     * Scans the body of a passage, up to and including the blank line that ends it,
+     * following the same rules as {@link StoryLoader#parsePassage(String, LineNumberReader)}.
+     *
+     * @param fileReader   The reader to read the passage body from,
+     *                     positioned right after the passage's header
+     * @param storyLoader  The story loader to validate links & enemies with
+     * @param passageIndex The index to add the passage's references to
+     * @throws IOException          If the passage body could not be read
+     * @throws CorruptFileException If the passage has no title, no content,
+     *                              an invalid link, or an unknown enemy
+     */
+    private static void scanPassage(OffsetLineReader fileReader, StoryLoader storyLoader,
+                                    PassageIndex passageIndex)
+            throws IOException, CorruptFileException {
+        if (passageIndex.titles[passageIndex.size - 1].isBlank()) {
+            throw new CorruptFileException(CorruptFileException.Type.PASSAGE_NO_NAME,
+                    fileReader.getLineNumber());
+        }
+        boolean hasContent = false;
+        String nextLine;
+        while ((nextLine = fileReader.readLine()) != null && !nextLine.isBlank()) {
+            if (StoryLoader.isLinkLine(nextLine)) {
+                passageIndex.addReference(storyLoader.parseLinkReference(
+                        nextLine, fileReader.getLineNumber()));
+            } else if (nextLine.startsWith("!")) {
+                storyLoader.checkEnemy(nextLine.substring(1), fileReader.getLineNumber());
+                passageIndex.markEnemies();
+            } else {
+                hasContent = true;
+            }
+        }
+        if (!hasContent) {
+            throw new CorruptFileException(CorruptFileException.Type.PASSAGE_NO_CONTENT,
+                    fileReader.getLineNumber());
+        }
+    }
+
+    /**
+     * Reads the body of a passage, up to and including the blank line that ends it.
+     *
+     * @param fileReader The reader to read the passage body from,
+     *                   positioned right after the passage's header
+     * @param lineNumber The line number of the passage's header
+     * @return A {@link LineNumberReader} containing the passage body,
+     *         with line numbers matching the {@code .paths}-file
+     * @throws IOException If the passage body could not be read
+     */
+    private static LineNumberReader readPassageBody(OffsetLineReader fileReader, int lineNumber)
+            throws IOException {
+        StringBuilder passageBody = new StringBuilder();
+        String nextLine;
+        while ((nextLine = fileReader.readLine()) != null) {
+            passageBody.append(nextLine).append("\n");
+            if (nextLine.isBlank()) {
+                break;
+            }
+        }
+        LineNumberReader bodyReader = new LineNumberReader(
+                new StringReader(passageBody.toString()));
+        bodyReader.setLineNumber(lineNumber);
+        return bodyReader;
+    }
+
+    /**
+     * Parses a passage again from the passage source.
+     *
+     * @param index The index of the passage to parse
+     * @return The parsed passage
+     * @throws IllegalStateException If the passage could not be parsed
+     */
+    private Passage readPassage(int index) {
+        try {
+            return passageSource.read(index);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        } catch (CorruptFileException | IllegalArgumentException e) {
+            //Every passage is validated when the story is loaded, so the file has been modified
+            throw new IllegalStateException("The passage \"" + passageIndex.titles[index]
+                    + "\" in \"" + passageSource.getLocation() + "\" could not be parsed", e);
+        }
+    }
+
+    /**
+     * Gets a passage by its index, parsing it if it's not already in memory.
+     * A passage that's parsed again gets the same list of enemies it had when it was evicted,
+     * so that the evicted passage & the new one share their enemies.
+     *
+     * @param index The index of the passage to get
+     * @return The passage with the specified index
+     */
+    private synchronized Passage getPassage(int index) {
+        if (index == 0) {
+            return getOpeningPassage();
+        }
+        Passage passage = cachedPassages.get(index);
+        if (passage == null) {
+            passage = readPassage(index);
+            List<Enemy> enemies = enemyStates.remove(index);
+            if (enemies != null) {
+                Passage parsedPassage = passage;
+                passage = new Passage(parsedPassage.getTitle(), parsedPassage.getContent(),
+                        enemies);
+                parsedPassage.getLinks().forEach(passage::addLink);
+            }
+            cachedPassages.put(index, passage);
+        }
+        return passage;
+    }
+
+    /**
+     * Keeps the enemies of a passage that's evicted from the cache.
+     *
+     * @param index   The index of the evicted passage
+     * @param passage The evicted passage
+     */
+    private void passageEvicted(int index, Passage passage) {
+        if (passageIndex.enemyPassages.get(index)) {
+            //The list itself is kept, in case the evicted passage is still in use
+            enemyStates.put(index, passage.getEnemies());
+        }
+    }
+
+    /**
+     * Checks if a passage in the index is part of the story,
+     * meaning it's not removed, or replaced by another passage with the same title.
+     *
+     * @param index The index of the passage
+     * @return {@code true} if the passage is part of the story
+     */
+    private boolean isInStory(int index) {
+        return !removedPassages.get(index)
+                && passageIndex.indexes.get(passageIndex.titles[index]) == index;
+    }
+
+    /**
+     * Checks if a passage that's kept by {@link Story} was added to the story,
+     * and isn't the opening passage that's also in the index.
+     *
+     * @param passage The passage to check
+     * @return {@code true} if the passage was added to the story
+     */
+    private boolean isAdded(Passage passage) {
+        return passage != getOpeningPassage() || removedPassages.get(0);
+    }
+
+    private List<Passage> getAddedPassages() {
+        return super.getPassages().stream().filter(this::isAdded).toList();
+    }
+
+    private boolean hasPassage(String reference, Set<String> addedTitles) {
+        Integer index = passageIndex.indexes.get(reference);
+        return (index != null && !removedPassages.get(index)) || addedTitles.contains(reference);
+    }
+
+    /**
+     * Finds every reference that any passage in the story links to.
+     *
+     * @param addedPassages Every passage that was added to the story
+     * @return Every reference that any passage in the story links to
+     */
+    private Set<String> findReferences(List<Passage> addedPassages) {
+        Set<String> references = new HashSet<>();
+        for (int i = 0; i < passageIndex.size; i++) {
+            if (isInStory(i)) {
+                for (int link = passageIndex.linkStarts[i];
+                     link < passageIndex.linkStarts[i + 1]; link++) {
+                    references.add(passageIndex.titles[passageIndex.linkTargets[link]]);
+                }
+            }
+        }
+        addedPassages.forEach(passage -> passage.getLinks().forEach(link ->
+                references.add(link.getReference())));
+        return references;
+    }
+
+    /**
+     * Makes a copy of the story, sharing the location of every passage,
+     * but with its own passages & enemies.
+     *
+     * @param passageCopier Makes a copy of every passage that was added to the story
+     * @return A copy of the story
+     */
+    LazyStory copy(UnaryOperator<Passage> passageCopier) {
+        LazyStory copy = new LazyStory(getTitle(), readPassage(0),
+                passageSource, cacheSize, passageIndex);
+        copy.removedPassages.or(removedPassages);
+        if (removedPassages.get(0)) {
+            copy.removePassage(new Link(getOpeningPassage().getTitle(),
+                    getOpeningPassage().getTitle()));
+        }
+        getAddedPassages().forEach(passage -> copy.addPassage(passageCopier.apply(passage)));
+        return copy;
+    }
+
+    /**
+     * Gets the amount of passages that are currently parsed & kept in memory.
+     *
+     * @return The amount of passages that are currently parsed & kept in memory
+     */
+    public synchronized int getLoadedPassageCount() {
+        return cachedPassages.size() + super.getPassages().size();
+    }
+
+    /**
+     * Gets every passage in the story, with the passages of the file first, in order.
+     * Passages are parsed as they're iterated over,
+     * and may be evicted again before the iteration is done.
+     *
+     * @return Every passage in the story
+     */
+    @Override
+    public Collection<Passage> getPassages() {
+        List<Passage> addedPassages = getAddedPassages();
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Passage> iterator() {
+                return new Iterator<>() {
+                    private final Iterator<Passage> addedIterator = addedPassages.iterator();
+                    private int nextIndex = findNext(0);
+
+                    private int findNext(int index) {
+                        while (index < passageIndex.size && !isInStory(index)) {
+                            index++;
+                        }
+                        return index;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return nextIndex < passageIndex.size || addedIterator.hasNext();
+                    }
+
+                    @Override
+                    public Passage next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        if (nextIndex == passageIndex.size) {
+                            return addedIterator.next();
+                        }
+                        Passage passage = getPassage(nextIndex);
+                        nextIndex = findNext(nextIndex + 1);
+                        return passage;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                int size = addedPassages.size();
+                for (int i = 0; i < passageIndex.size; i++) {
+                    if (isInStory(i)) {
+                        size++;
+                    }
+                }
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Gets every passage in the story with a link to a specific passage.
+     * Only the passages that link to the passage are parsed to find them.
+     *
+     * @param link A link to the passage to find the referring passages of
+     * @return Every passage with a link to the specified passage,
+     *         with the passages of the file first, in order
+     */
+    @Override
+    public List<Passage> getReferringPassages(Link link) {
+        if (link == null) {
+            throw new IllegalArgumentException("\"link\" cannot be null");
+        }
+        List<Passage> referrers = new ArrayList<>();
+        for (int i = 0; i < passageIndex.size; i++) {
+            if (isInStory(i) && passageIndex.linksTo(i, link.getReference())) {
+                referrers.add(getPassage(i));
+            }
+        }
+        Set<Passage> distinctReferrers = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinctReferrers.addAll(referrers);
+        super.getReferringPassages(link).stream()
+                .filter(this::isAdded)
+                .filter(distinctReferrers::add)
+                .forEach(referrers::add);
+        return referrers;
+    }
+
+    /**
+     * Adds a passage to the story, which is kept in memory for as long as it's in the story.
+     * If the story has a different passage with the same title, that passage is replaced.
+     *
+     * @param passage The passage to add to the story.
+     */
+    @Override
+    public void addPassage(Passage passage) {
+        if (passage == null) {
+            throw new IllegalArgumentException("\"passage\" cannot be null");
+        }
+        Integer index = passageIndex.indexes.get(passage.getTitle().trim());
+        if (index != null && isInStory(index)) {
+            if (passage.equals(getPassage(index))) {
+                throw new IllegalArgumentException("Passage \"" + passage.getTitle()
+                        + "\" is already added to the story");
+            }
+            removedPassages.set(index);
+        }
+        super.addPassage(passage);
+    }
+
+    /**
+     * Removes a passage from the story.
+     *
+     * @param link A link to the passage that should be removed.
+     */
+    @Override
+    public void removePassage(Link link) {
+        if (link == null) {
+            throw new IllegalArgumentException("\"link\" cannot be null");
+        }
+        for (int i = 0; i < passageIndex.size; i++) {
+            if (isInStory(i) && passageIndex.linksTo(i, link.getReference())) {
+                throw new IllegalStateException(
+                        "Other passages in the story link to this passage, cannot remove it");
+            }
+        }
+        super.removePassage(link);
+        Integer index = passageIndex.indexes.get(link.getReference());
+        if (index != null) {
+            removedPassages.set(index);
+        }
+    }
+
+    /**
+     * Gets a passage in the story, parsing it if it's not already in memory.
+     *
+     * @param link The link associated with the passage.
+     * @return The passage associated with the provided link.
+     */
+    @Override
+    public Passage getPassage(Link link) {
+        if (link == null) {
+            throw new IllegalArgumentException("\"link\" cannot be null");
+        }
+        Integer index = passageIndex.indexes.get(link.getReference());
+        return index != null && !removedPassages.get(index)
+                ? getPassage(index)
+                : super.getPassage(link);
+    }
+
+    /**
+     * Finds and returns a list of dead links.
+     * Every link in the file is validated when the story is loaded,
+     * so only the passages that were added to the story can have dead links.
+     *
+     * @return A list of all dead links in the story.
+     */
+    @Override
+    public List<Link> getBrokenLinks() {
+        List<Passage> addedPassages = getAddedPassages();
+        Set<String> addedTitles = new HashSet<>();
+        addedPassages.forEach(passage -> addedTitles.add(passage.getTitle().trim()));
+        List<Link> brokenLinks = new ArrayList<>();
+        for (Passage passage : addedPassages) {
+            passage.getLinks().stream()
+                    .filter(link -> !hasPassage(link.getReference(), addedTitles))
+                    .forEach(brokenLinks::add);
+        }
+        return brokenLinks;
+    }
+
+    /**
+     * Gets a snapshot of the integrity of the story, made from the references in the index.
+     * Only orphan passages & dead ends are parsed, and the snapshot is not kept up to date.
+     *
+     * @return A snapshot of the integrity of the story
+     */
+    @Override
+    public StoryIntegrity getIntegrity() {
+        List<Passage> addedPassages = getAddedPassages();
+        Set<String> addedTitles = new HashSet<>();
+        addedPassages.forEach(passage -> addedTitles.add(passage.getTitle().trim()));
+        Set<String> references = findReferences(addedPassages);
+        String openingReference = getOpeningPassage().getTitle().trim();
+
+        Set<String> danglingReferences = new LinkedHashSet<>();
+        references.stream()
+                .filter(reference -> !hasPassage(reference, addedTitles))
+                .forEach(danglingReferences::add);
+        List<Passage> orphanPassages = new ArrayList<>();
+        List<Passage> deadEnds = new ArrayList<>();
+        for (int i = 0; i < passageIndex.size; i++) {
+            if (isInStory(i)) {
+                String reference = passageIndex.titles[i];
+                if (!references.contains(reference) && !reference.equals(openingReference)) {
+                    orphanPassages.add(getPassage(i));
+                }
+                if (passageIndex.linkStarts[i] == passageIndex.linkStarts[i + 1]) {
+                    deadEnds.add(getPassage(i));
+                }
+            }
+        }
+        for (Passage passage : addedPassages) {
+            String reference = passage.getTitle().trim();
+            if (!references.contains(reference) && !reference.equals(openingReference)) {
+                orphanPassages.add(passage);
+            }
+            if (!passage.hasLinks()) {
+                deadEnds.add(passage);
+            }
+        }
+        return StoryIntegrity.snapshot(danglingReferences, orphanPassages, deadEnds);
+    }
+
+    /**
+     * Makes a graph of every passage & link in the story, from the links in the index.
+     * Only the passages that were added to the story are read, and no passage is parsed.
+     *
+     * @return A graph of the story
+     */
+    @Override
+    public StoryGraph makeGraph() {
+        List<Passage> addedPassages = new ArrayList<>(getAddedPassages());
+        Passage openingPassage = getOpeningPassage();
+        boolean openingIsAdded = isAdded(openingPassage);
+        if (openingIsAdded) {
+            addedPassages.remove(openingPassage);
+        }
+        int indexedCount = 0;
+        for (int i = 0; i < passageIndex.size; i++) {
+            if (isInStory(i)) {
+                indexedCount++;
+            }
+        }
+
+        //Indexed passages come first, in order, with the opening passage at index 0
+        int passageCount = (openingIsAdded ? 1 : 0) + indexedCount + addedPassages.size();
+        String[] titles = new String[passageCount];
+        Map<String, Integer> graphIndexes = new HashMap<>(passageCount * 4 / 3 + 1);
+        int nextIndex = 0;
+        if (openingIsAdded) {
+            titles[nextIndex] = openingPassage.getTitle().trim();
+            graphIndexes.put(titles[nextIndex], nextIndex++);
+        }
+        for (int i = 0; i < passageIndex.size; i++) {
+            if (isInStory(i)) {
+                titles[nextIndex] = passageIndex.titles[i];
+                graphIndexes.put(titles[nextIndex], nextIndex++);
+            }
+        }
+        for (Passage passage : addedPassages) {
+            titles[nextIndex] = passage.getTitle().trim();
+            graphIndexes.put(titles[nextIndex], nextIndex++);
+        }
+        //The graph index of the passage every indexed link leads to, or -1 if it's removed
+        int[] remappedTargets = new int[passageIndex.size];
+        for (int i = 0; i < passageIndex.size; i++) {
+            remappedTargets[i] = graphIndexes.getOrDefault(passageIndex.titles[i], -1);
+        }
+        //The passages that are kept in memory, by their graph index
+        Map<Integer, Passage> keptPassages = new LinkedHashMap<>();
+        if (openingIsAdded) {
+            keptPassages.put(0, openingPassage);
+        }
+        for (int i = 0; i < addedPassages.size(); i++) {
+            keptPassages.put(passageCount - addedPassages.size() + i, addedPassages.get(i));
+        }
+
+        //First pass counts the links that lead somewhere, second pass writes their targets
+        int[] offsets = new int[passageCount + 1];
+        int brokenLinkCount = 0;
+        int graphIndex = openingIsAdded ? 1 : 0;
+        for (int i = 0; i < passageIndex.size; i++) {
+            if (isInStory(i)) {
+                int targetCount = 0;
+                for (int link = passageIndex.linkStarts[i];
+                     link < passageIndex.linkStarts[i + 1]; link++) {
+                    if (remappedTargets[passageIndex.linkTargets[link]] != -1) {
+                        targetCount++;
+                    } else {
+                        brokenLinkCount++;
+                    }
+                }
+                offsets[graphIndex + 1] = targetCount;
+                graphIndex++;
+            }
+        }
+        for (Map.Entry<Integer, Passage> kept : keptPassages.entrySet()) {
+            int targetCount = 0;
+            for (Link link : kept.getValue().getLinks()) {
+                if (graphIndexes.containsKey(link.getReference())) {
+                    targetCount++;
+                } else {
+                    brokenLinkCount++;
+                }
+            }
+            offsets[kept.getKey() + 1] = targetCount;
+        }
+        for (int i = 0; i < passageCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        int[] targets = new int[offsets[passageCount]];
+        graphIndex = openingIsAdded ? 1 : 0;
+        for (int i = 0; i < passageIndex.size; i++) {
+            if (isInStory(i)) {
+                int nextTarget = offsets[graphIndex++];
+                for (int link = passageIndex.linkStarts[i];
+                     link < passageIndex.linkStarts[i + 1]; link++) {
+                    int target = remappedTargets[passageIndex.linkTargets[link]];
+                    if (target != -1) {
+                        targets[nextTarget++] = target;
+                    }
+                }
+            }
+        }
+        for (Map.Entry<Integer, Passage> kept : keptPassages.entrySet()) {
+            int nextTarget = offsets[kept.getKey()];
+            for (Link link : kept.getValue().getLinks()) {
+                Integer target = graphIndexes.get(link.getReference());
+                if (target != null) {
+                    targets[nextTarget++] = target;
+                }
+            }
+        }
+        return StoryGraph.of(titles, offsets, targets, brokenLinkCount);
+    }
+
+    /**
+     * Test for content equality between two objects.
+     *
+     * @param obj The object to compare to this one
+     * @return True if the argument object is a lazy story read from the same location,
+     *         with matching parameters
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return super.equals(obj)
+                && passageSource.getLocation().equals(
+                        ((LazyStory) obj).passageSource.getLocation())
+                && removedPassages.equals(((LazyStory) obj).removedPassages);
+    }
+
+    /**
+     * Compute a hashCode using the rules found in "Effective java" by Joshua Bloch.
+     *
+     * @return A hashCode for the story, using all its parameters
+     */
+    @Override
+    public int hashCode() {
+        int hash = super.hashCode();
+        hash = 31 * hash + passageSource.getLocation().hashCode();
+        hash = 31 * hash + removedPassages.hashCode();
+        return hash;
+    }
+
+    /**
+     * Reads the passages of a lazy story from where they're stored.
+     */
+    interface PassageSource {
+        /**
+         * Reads a passage.
+         *
+         * @param index The index of the passage to read
+         * @return The read passage
+         * @throws IOException          If the passage could not be read
+         * @throws CorruptFileException If the passage could not be parsed
+         */
+        Passage read(int index) throws IOException, CorruptFileException;
+
+        /**
+         * Gets where the passages are stored, like the path of their file.
+         *
+         * @return Where the passages are stored
+         */
+        String getLocation();
+    }
+
+    /**
+     * Reads passages from a {@code .paths}-file, at the offsets found while scanning it.
+     *
+     * @param storyFilePath The file path of the story
+     * @param storyLoader   The story loader to parse passages with
+     * @param passageIndex  The index of every passage in the story
+     */
+    private record TextPassageSource(Path storyFilePath, StoryLoader storyLoader,
+                                     PassageIndex passageIndex) implements PassageSource {
+        /**
+         * Parses a passage from the {@code .paths}-file.
+         *
+         * @param index The index of the passage to parse
+         * @return The parsed passage
+         * @throws IOException           If the passage could not be read
+         * @throws CorruptFileException  If the passage could not be parsed
+         * @throws IllegalStateException If the file was modified since it was scanned
+         */
+        @Override
+        public Passage read(int index) throws IOException, CorruptFileException {
+            try (FileChannel channel = FileChannel.open(
+                    storyFilePath, StandardOpenOption.READ)) {
+                channel.position(passageIndex.offsets[index]);
+                OffsetLineReader fileReader = new OffsetLineReader(
+                        Channels.newInputStream(channel));
+                String header = fileReader.readLine();
+                if (header == null || !header.startsWith("::")
+                        || !header.substring(2).trim().equals(passageIndex.titles[index])) {
+                    throw new IllegalStateException("The story file \"" + storyFilePath
+                            + "\" has been modified since it was loaded");
+                }
+                return storyLoader.parsePassage(passageIndex.titles[index],
+                        readPassageBody(fileReader, passageIndex.lineNumbers[index]));
+            }
+        }
+
+        @Override
+        public String getLocation() {
+            return storyFilePath.toString();
+        }
+    }
+
+    /**
+     * The location & references of every passage found while scanning a {@code .paths}-file,
+     * or a compiled game. The links of each passage are kept as the indexes of the passages
+     * they reference, with the links of passage {@code i} from {@code linkStarts[i]},
+     * up to {@code linkStarts[i + 1]}. The index is never modified once it's scanned.
+     */
+    static class PassageIndex {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final BitSet enemyPassages = new BitSet();
+        private String[] titles = new String[16];
+        private long[] offsets = new long[16];
+        private int[] lineNumbers = new int[16];
+        private int[] linkStarts = new int[17];
+        private int[] linkTargets;
+        private int size = 0;
+        //Only kept while scanning, until every reference can be resolved
+        private String[] references = new String[16];
+        private int linkCount = 0;
+
+        /**
+         * Adds a passage to the index. The links & enemies found after this belong to it.
+         *
+         * @param title      The trimmed title of the passage
+         * @param offset     Where the passage is stored
+         * @param lineNumber The line number of the passage's header, or {@code 0} if it has none
+         */
+        void add(String title, long offset, int lineNumber) {
+            if (size == titles.length) {
+                titles = Arrays.copyOf(titles, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2);
+                lineNumbers = Arrays.copyOf(lineNumbers, size * 2);
+                linkStarts = Arrays.copyOf(linkStarts, size * 2 + 1);
+            }
+            titles[size] = title;
+            offsets[size] = offset;
+            lineNumbers[size] = lineNumber;
+            linkStarts[size] = linkCount;
+            indexes.put(title, size);
+            size++;
+        }
+
+        /**
+         * Adds a link to the passage that was added last.
+         *
+         * @param reference The reference of the link
+         */
+        void addReference(String reference) {
+            if (linkCount == references.length) {
+                references = Arrays.copyOf(references, linkCount * 2);
+            }
+            references[linkCount++] = reference;
+        }
+
+        /**
+         * Resolves every reference to the index of the passage it references,
+         * and trims the index to its size.
+         *
+         * @return Every reference that doesn't belong to any passage
+         */
+        List<String> resolveLinks() {
+            titles = Arrays.copyOf(titles, size);
+            offsets = Arrays.copyOf(offsets, size);
+            lineNumbers = Arrays.copyOf(lineNumbers, size);
+            linkStarts = Arrays.copyOf(linkStarts, size + 1);
+            linkStarts[size] = linkCount;
+            linkTargets = new int[linkCount];
+            List<String> brokenReferences = new ArrayList<>();
+            for (int i = 0; i < linkCount; i++) {
+                Integer target = indexes.get(references[i]);
+                if (target == null) {
+                    brokenReferences.add(references[i]);
+                } else {
+                    linkTargets[i] = target;
+                }
+            }
+            references = null;
+            return brokenReferences;
+        }
+
+        /**
+         * Marks the passage that was added last as having enemies.
+         */
+        void markEnemies() {
+            enemyPassages.set(size - 1);
+        }
+
+        /**
+         * Gets where a passage is stored.
+         *
+         * @param index The index of the passage
+         * @return Where the passage is stored
+         */
+        long getOffset(int index) {
+            return offsets[index];
+        }
+
+        private boolean linksTo(int index, String reference) {
+            for (int link = linkStarts[index]; link < linkStarts[index + 1]; link++) {
+                if (titles[linkTargets[link]].equals(reference)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Reads UTF-8 lines from a stream, while keeping track of the byte offset of each line.
+     */
+    private static class OffsetLineReader {
+        private final InputStream stream;
+        private byte[] lineBytes;
+        private long offset;
+        private int lineNumber;
+
+        private OffsetLineReader(InputStream stream) {
+            this.stream = new BufferedInputStream(stream);
+            this.lineBytes = new byte[256];
+            this.offset = 0;
+            this.lineNumber = 0;
+        }
+
+        /**
+         * Reads the next line, without its line terminator.
+         *
+         * @return The next line, or {@code null} if the end of the stream is reached
+         * @throws IOException If the line could not be read
+         */
+        private String readLine() throws IOException {
+            int length = 0;
+            int nextByte;
+            while ((nextByte = stream.read()) != -1) {
+                offset++;
+                if (nextByte == '\n') {
+                    break;
+                }
+                if (length == lineBytes.length) {
+                    lineBytes = Arrays.copyOf(lineBytes, length * 2);
+                }
+                lineBytes[length++] = (byte) nextByte;
+            }
+            if (nextByte == -1 && length == 0) {
+                return null;
+            }
+            lineNumber++;
+            if (length > 0 && lineBytes[length - 1] == '\r') {
+                length--;
+            }
+            return new String(lineBytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Gets the byte offset of the next line to be read.
+         *
+         * @return The byte offset of the next line to be read
+         */
+        private long getOffset() {
+            return offset;
+        }
+
+        /**
+         * Gets the line number of the last line read.
+         *
+         * @return The line number of the last line read
+         */
+        private int getLineNumber() {
+            return lineNumber;
+        }
+    }
+}
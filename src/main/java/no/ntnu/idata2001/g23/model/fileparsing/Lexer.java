@@ -0,0 +1,274 @@
+package no.ntnu.idata2001.g23.model.fileparsing;
+
+/**
+ * A cursor over a section of text, used to tokenize game files in place.
+ *
+ * <p>The lexer only keeps the offsets of the text left to read, and every operation only moves
+ * those offsets. Tokens are read into other lexers that point at the same text, and lexers can
+ * be reset to read another text, so a parser can read every line of a file with the same few
+ * lexers. Strings are only made when a token is explicitly converted using {@link #toString()},
+ * so keys, bracketed segments & integers can be read without any intermediate strings.</p>
+ */
+final class Lexer {
+    private CharSequence text;
+    private int position;
+    private int limit;
+
+    /**
+     * Makes a lexer without any text, to read tokens into.
+     */
+    Lexer() {
+        this("");
+    }
+
+    /**
+     * Makes a lexer over an entire text.
+     *
+     * @param text The text to read
+     */
+    Lexer(CharSequence text) {
+        reset(text);
+    }
+
+    /**
+     * Makes the lexer read another text from the start.
+     *
+     * @param text The text to read
+     * @return This lexer
+     */
+    Lexer reset(CharSequence text) {
+        this.text = text;
+        this.position = 0;
+        this.limit = text.length();
+        return this;
+    }
+
+    /**
+     * Checks if there is any text left to read.
+     *
+     * @return {@code true} if there is any text left to read
+     */
+    boolean hasRemaining() {
+        return position < limit;
+    }
+
+    /**
+     * Checks if the text left to read is empty or only contains whitespace,
+     * like {@link String#isBlank()}.
+     *
+     * @return {@code true} if the text left to read is empty or only contains whitespace
+     */
+    boolean isBlank() {
+        for (int i = position; i < limit; i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the text left to read starts with a specific character.
+     *
+     * @param character The character to check for
+     * @return {@code true} if the text left to read starts with the specified character
+     */
+    boolean startsWith(char character) {
+        return position < limit && text.charAt(position) == character;
+    }
+
+    /**
+     * Checks if the text left to read contains a specific character.
+     *
+     * @param character The character to check for
+     * @return {@code true} if the text left to read contains the specified character
+     */
+    boolean contains(char character) {
+        return indexOf(character) != -1;
+    }
+
+    private int indexOf(char character) {
+        for (int i = position; i < limit; i++) {
+            if (text.charAt(i) == character) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Skips a specific amount of characters.
+     *
+     * @param amount The amount of characters to skip
+     * @return This lexer
+     */
+    Lexer skip(int amount) {
+        position += amount;
+        return this;
+    }
+
+    /**
+     * Removes leading and trailing whitespace from the text left to read,
+     * like {@link String#trim()}.
+     *
+     * @return This lexer
+     */
+    Lexer trim() {
+        int start = position;
+        int end = limit;
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        position = start;
+        limit = end;
+        return this;
+    }
+
+    /**
+     * Removes any leading opening characters & trailing closing characters,
+     * along with any whitespace around them.
+     *
+     * @param open  The opening character to remove
+     * @param close The closing character to remove
+     * @return This lexer
+     */
+    Lexer stripEnclosing(char open, char close) {
+        int start = position;
+        int end = limit;
+        while (start < end && (text.charAt(start) <= ' ' || text.charAt(start) == open)) {
+            start++;
+        }
+        while (end > start && (text.charAt(end - 1) <= ' ' || text.charAt(end - 1) == close)) {
+            end--;
+        }
+        position = start;
+        limit = end;
+        return this;
+    }
+
+    /**
+     * Reads the text up to the first occurrence of a delimiter into a token,
+     * and moves past the delimiter.
+     * The token is pointed at the offsets of the text before the delimiter,
+     * so reading a token makes no new lexers or strings.
+     * If the delimiter is not found, nothing is read, and the token is left as it was.
+     *
+     * @param delimiter The delimiter to read up to
+     * @param token     The lexer to point at the text before the delimiter
+     * @return {@code true} if the delimiter was found
+     */
+    boolean readUntil(char delimiter, Lexer token) {
+        int delimiterIndex = indexOf(delimiter);
+        if (delimiterIndex == -1) {
+            return false;
+        }
+        token.text = text;
+        token.position = position;
+        token.limit = delimiterIndex;
+        position = delimiterIndex + 1;
+        return true;
+    }
+
+    /**
+     * Checks if the text left to read is equal to a string.
+     *
+     * @param string The string to compare to
+     * @return {@code true} if the text left to read is equal to the string
+     */
+    boolean contentEquals(String string) {
+        if (limit - position != string.length()) {
+            return false;
+        }
+        for (int i = 0; i < string.length(); i++) {
+            if (text.charAt(position + i) != string.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the keyword that the text left to read is equal to,
+     * ignoring case & spaces.
+     *
+     * @param keywords The keywords to compare to, in lower case & without spaces
+     * @return The matching keyword, or {@code null} if no keywords match
+     */
+    String matchKeyword(String... keywords) {
+        for (String keyword : keywords) {
+            int keywordIndex = 0;
+            boolean matches = true;
+            for (int i = position; i < limit && matches; i++) {
+                char character = text.charAt(i);
+                if (character != ' ') {
+                    matches = keywordIndex < keyword.length()
+                            && Character.toLowerCase(character) == keyword.charAt(keywordIndex);
+                    keywordIndex++;
+                }
+            }
+            if (matches && keywordIndex == keyword.length()) {
+                return keyword;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses the text left to read as a signed decimal integer,
+     * following the same rules as {@link Integer#parseInt(String)}.
+     *
+     * @return The parsed integer
+     * @throws NumberFormatException If the text left to read is not a valid integer
+     */
+    int parseInt() {
+        int start = position;
+        int end = limit;
+        if (start == end) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+        boolean negative = false;
+        int bound = -Integer.MAX_VALUE;
+        int index = start;
+        char firstChar = text.charAt(index);
+        if (firstChar < '0') {
+            if (firstChar == '-') {
+                negative = true;
+                bound = Integer.MIN_VALUE;
+            } else if (firstChar != '+') {
+                throw new NumberFormatException("For input string: \"" + this + "\"");
+            }
+            index++;
+            if (index == end) {
+                throw new NumberFormatException("For input string: \"" + this + "\"");
+            }
+        }
+        //Accumulates negatively, since the negative range is larger than the positive range
+        int multiplyBound = bound / 10;
+        int result = 0;
+        while (index < end) {
+            int digit = Character.digit(text.charAt(index++), 10);
+            if (digit < 0 || result < multiplyBound) {
+                throw new NumberFormatException("For input string: \"" + this + "\"");
+            }
+            result *= 10;
+            if (result < bound + digit) {
+                throw new NumberFormatException("For input string: \"" + this + "\"");
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Makes a string of the text left to read.
+     *
+     * @return A string of the text left to read
+     */
+    @Override
+    public String toString() {
+        return text.subSequence(position, limit).toString();
+    }
+}
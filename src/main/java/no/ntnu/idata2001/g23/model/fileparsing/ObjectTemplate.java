@@ -0,0 +1,33 @@
+package no.ntnu.idata2001.g23.model.fileparsing;
+
+import java.util.Map;
+
+/**
+ * The parsed, but not yet built, definition of a providable object,
+ * like an item or an enemy.
+ *
+ * @param name       The object's name
+ * @param type       The object's type, in lower case & without spaces
+ * @param parameters Every parameter of the object
+ * @param lineNumber The line number the object's definition ended at.
+ *                   Used to generate a more detailed error message
+ *                   if the object can't be built
+ */
+record ObjectTemplate(
+        String name,
+        String type,
+        Map<String, String> parameters,
+        int lineNumber
+) {
+    ObjectTemplate {
+        parameters = Map.copyOf(parameters);
+    }
+
+    /**
+     * Handles object templates as they are read.
+     */
+    @FunctionalInterface
+    interface Handler {
+        void handle(ObjectTemplate template) throws CorruptFileException;
+    }
+}
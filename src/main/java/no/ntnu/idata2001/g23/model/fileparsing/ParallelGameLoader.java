@@ -0,0 +1,179 @@
+package no.ntnu.idata2001.g23.model.fileparsing;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import no.ntnu.idata2001.g23.model.Game;
+import no.ntnu.idata2001.g23.model.entities.enemies.Enemy;
+import no.ntnu.idata2001.g23.model.items.Item;
+import no.ntnu.idata2001.g23.model.misc.Provider;
+import no.ntnu.idata2001.g23.model.story.Story;
+
+/**
+ * Loads every file of a {@link GameFileCollection} as a dependency graph,
+ * where each file is loaded as soon as the files it depends on are loaded.
+ *
+ * <p>Items are loaded first, since enemies & the story can reference them,
+ * and the story is loaded as soon as the enemies are.
+ * The player, goals & sprites don't depend on any other file,
+ * so they're loaded in parallel with the rest right away.</p>
+ *
+ * <p>If any file fails to load, the first {@link CorruptFileException} is thrown right away,
+ * without waiting for the remaining files.</p>
+ */
+public class ParallelGameLoader {
+    private final GameFileCollection gameFiles;
+    private final Executor executor;
+    private final Map<Stage, Duration> stageTimings;
+
+    /**
+     * Makes a parallel game loader that loads files using the common {@link ForkJoinPool}.
+     *
+     * @param gameFiles The game files to load
+     */
+    public ParallelGameLoader(GameFileCollection gameFiles) {
+        this(gameFiles, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Makes a parallel game loader.
+     *
+     * @param gameFiles The game files to load
+     * @param executor  The {@link Executor} to load the files with
+     */
+    public ParallelGameLoader(GameFileCollection gameFiles, Executor executor) {
+        if (gameFiles == null) {
+            throw new IllegalArgumentException("\"gameFiles\" cannot be null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("\"executor\" cannot be null");
+        }
+        this.gameFiles = gameFiles;
+        this.executor = executor;
+        this.stageTimings = Collections.synchronizedMap(new EnumMap<>(Stage.class));
+    }
+
+    /**
+     * Gets how long each stage took during the last load.
+     * Stages that didn't finish during the last load are not included.
+     *
+     * @return A map of every finished stage, and how long it took to finish
+     */
+    public Map<Stage, Duration> getStageTimings() {
+        synchronized (stageTimings) {
+            return Map.copyOf(stageTimings);
+        }
+    }
+
+    private <T> CompletableFuture<T> runStage(Stage stage, StageTask<T> task) {
+        return CompletableFuture.supplyAsync(() -> timeStage(stage, task), executor);
+    }
+
+    private <T> T timeStage(Stage stage, StageTask<T> task) {
+        long startTime = System.nanoTime();
+        try {
+            T result = task.run();
+            stageTimings.put(stage, Duration.ofNanos(System.nanoTime() - startTime));
+            return result;
+        } catch (CorruptFileException cfe) {
+            throw new CompletionException(cfe);
+        }
+    }
+
+    /**
+     * Makes a new {@link GameTemplate} by loading the game files in parallel.
+     * The template keeps how long each stage took, see {@link GameTemplate#getLoadTimings()}.
+     *
+     * @return The newly made game template
+     * @throws CorruptFileException If the template cannot be made due to one or more corrupt
+     *                              files. If several files are corrupt,
+     *                              the first exception to occur is thrown
+     */
+    public GameTemplate loadTemplate() throws CorruptFileException {
+        stageTimings.clear();
+        CompletableFuture<Void> failure = new CompletableFuture<>();
+
+        CompletableFuture<Provider<Item>> items = runStage(Stage.ITEMS, gameFiles::loadItems);
+        CompletableFuture<Provider<Enemy>> enemies = items.thenApplyAsync(itemProvider ->
+                timeStage(Stage.ENEMIES, () -> gameFiles.loadEnemies(itemProvider)), executor);
+        CompletableFuture<Story> story = enemies.thenApplyAsync(enemyProvider ->
+                timeStage(Stage.STORY, () -> gameFiles.loadStory(
+                        items.join(), enemyProvider)), executor);
+        CompletableFuture<DifficultyIndex<PlayerLoader.PlayerTemplate>> players =
+                runStage(Stage.PLAYER, gameFiles::getPlayerIndex);
+        CompletableFuture<DifficultyIndex<GoalLoader.GoalsTemplate>> goals =
+                runStage(Stage.GOALS, gameFiles::getGoalIndex);
+        CompletableFuture<Map<String, String>> sprites =
+                runStage(Stage.SPRITES, gameFiles::loadSpritePaths);
+
+        List<CompletableFuture<?>> stages = List.of(items, enemies, story, players, goals, sprites);
+        stages.forEach(stage -> stage.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                failure.completeExceptionally(throwable);
+            }
+        }));
+
+        try {
+            CompletableFuture.anyOf(
+                    CompletableFuture.allOf(stages.toArray(CompletableFuture[]::new)),
+                    failure
+            ).join();
+            return new GameTemplate(items.join(), enemies.join(), story.join(),
+                    players.join(), goals.join(), sprites.join(), getStageTimings());
+        } catch (CompletionException ce) {
+            stages.forEach(stage -> stage.cancel(false));
+            Throwable cause = ce.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof CorruptFileException cfe) {
+                throw cfe;
+            } else if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw ce;
+        }
+    }
+
+    /**
+     * Makes a new {@link Game} by loading the game files in parallel.
+     *
+     * @param playerName The player's name
+     * @param difficulty The game's difficulty
+     * @return The newly made game
+     * @throws CorruptFileException If the game cannot be made due to one or more corrupt files.
+     *                              If several files are corrupt,
+     *                              the first exception to occur is thrown
+     */
+    public Game loadGame(String playerName, String difficulty) throws CorruptFileException {
+        return loadTemplate().makeGame(playerName, difficulty);
+    }
+
+    /**
+     * Every stage of loading a game.
+     */
+    public enum Stage {
+        ITEMS,
+        ENEMIES,
+        STORY,
+        PLAYER,
+        GOALS,
+        SPRITES
+    }
+
+    /**
+     * A single stage of loading a game.
+     *
+     * @param <T> The type of the object that the stage loads
+     */
+    @FunctionalInterface
+    private interface StageTask<T> {
+        T run() throws CorruptFileException;
+    }
+}
@@ -4,7 +4,6 @@ import java.io.IOException;
 import java.io.LineNumberReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Map;
 import no.ntnu.idata2001.g23.model.entities.Player;
 import no.ntnu.idata2001.g23.model.items.Item;
 import no.ntnu.idata2001.g23.model.items.Weapon;
@@ -32,50 +31,143 @@ public class PlayerLoader {
     }
 
     /**
-     * Parses a player from a {@link LineNumberReader}.
+     * Parses the player template of a single difficulty section.
+     * Every line is read through the same lexers, and the numeric values are parsed in place
+     * & validated right away, while items are provided when the player is made.
+     * Like {@link CollectionParserUtil#parseMap(LineNumberReader, boolean, String...)},
+     * the last value of a repeated key is used, and unknown keys are ignored.
      *
-     * @param fileReader The {@link LineNumberReader} containing a player
-     * @return The parsed player
-     * @throws CorruptFileException If the player could not be parsed
+     * @param sectionReader The {@link LineNumberReader} containing the difficulty section
+     * @return The parsed player template
+     * @throws IOException          If the section could not be read
+     * @throws CorruptFileException If the section could not be parsed
      */
-    public Player parsePlayer(LineNumberReader fileReader)
-            throws CorruptFileException {
-        Player.PlayerBuilder playerBuilder;
-        try {
-            String nextLine = "";
-            //Moves the reader forward to the player stats for the specified difficulty.
-            while (!nextLine.startsWith("#" + difficulty)) {
-                nextLine = fileReader.readLine();
-                if (nextLine == null) {
-                    throw new CorruptFileException(CorruptFileException.Type.NO_PLAYER,
-                            fileReader.getLineNumber(), difficulty);
+    private static PlayerTemplate parsePlayerTemplate(LineNumberReader sectionReader)
+            throws IOException, CorruptFileException {
+        Lexer entry = new Lexer();
+        Lexer key = new Lexer();
+        Integer health = null;
+        Integer score = null;
+        Integer gold = null;
+        String inventory = null;
+        String weapon = null;
+        String nextLine;
+        while ((nextLine = sectionReader.readLine()) != null && !nextLine.isBlank()) {
+            CollectionParserUtil.readEntry(
+                    entry.reset(nextLine), key, sectionReader.getLineNumber());
+            try {
+                if (key.contentEquals(Parameters.HEALTH)) {
+                    health = entry.parseInt();
+                } else if (key.contentEquals(Parameters.SCORE)) {
+                    score = entry.parseInt();
+                } else if (key.contentEquals(Parameters.GOLD)) {
+                    gold = entry.parseInt();
+                } else if (key.contentEquals(Parameters.INVENTORY)) {
+                    inventory = entry.toString();
+                } else if (key.contentEquals(Parameters.WEAPON)) {
+                    weapon = entry.toString();
                 }
+            } catch (NumberFormatException nfe) {
+                throw new CorruptFileException(CorruptFileException.Type.PLAYER_INVALID_VALUE,
+                        sectionReader.getLineNumber());
             }
+        }
+        String missingKey = health == null ? Parameters.HEALTH
+                : score == null ? Parameters.SCORE
+                : gold == null ? Parameters.GOLD
+                : null;
+        if (missingKey != null) {
+            throw new CorruptFileException(CorruptFileException.Type.REQUIRED_KEY_MISSING,
+                    sectionReader.getLineNumber(), missingKey);
+        }
+        try {
+            //Validates the stats, since they're the same for every player made from the template
+            new Player.PlayerBuilder("Player", health)
+                    .setGold(gold)
+                    .setScore(score);
+        } catch (IllegalArgumentException iae) {
+            throw new CorruptFileException(CorruptFileException.Type.PLAYER_INVALID_VALUE,
+                    sectionReader.getLineNumber());
+        }
+        return new PlayerTemplate(health, score, gold, inventory, weapon,
+                sectionReader.getLineNumber());
+    }
+
+    /**
+     * Parses the player template of every difficulty from a {@link LineNumberReader}.
+     *
+     * @param fileReader The {@link LineNumberReader} containing every player
+     * @return An index of the player template of every difficulty
+     * @throws CorruptFileException If the file could not be read
+     */
+    static DifficultyIndex<PlayerTemplate> parsePlayerIndex(LineNumberReader fileReader)
+            throws CorruptFileException {
+        try {
+            return DifficultyIndex.parse(fileReader, PlayerLoader::parsePlayerTemplate);
+        } catch (IOException ioe) {
+            throw new CorruptFileException(CorruptFileException.Type.UNKNOWN_PLAYER,
+                    fileReader.getLineNumber());
+        }
+    }
 
-            Map<String, String> playerParameterMap =
-                    CollectionParserUtil.parseMap(fileReader, true,
-                            Parameters.getPlayerRequired());
-            playerBuilder = new Player.PlayerBuilder(name,
-                    Integer.parseInt(playerParameterMap.get(Parameters.HEALTH)))
-                    .setGold(Integer.parseInt(playerParameterMap.get(Parameters.GOLD)))
-                    .setScore(Integer.parseInt(playerParameterMap.get(Parameters.SCORE)));
-            String inventoryString = playerParameterMap.get(Parameters.INVENTORY);
-            if (inventoryString != null) {
+    /**
+     * Loads the player template of every difficulty from a {@code .player}-file.
+     *
+     * @param playerFilePath The file path of the players to load
+     * @return An index of the player template of every difficulty
+     * @throws CorruptFileException If the file could not be loaded
+     */
+    static DifficultyIndex<PlayerTemplate> loadPlayerIndex(Path playerFilePath)
+            throws CorruptFileException {
+        DifficultyIndex<PlayerTemplate> playerIndex;
+        try (LineNumberReader fileReader = new LineNumberReader(
+                Files.newBufferedReader(playerFilePath)
+        )) {
+            playerIndex = parsePlayerIndex(fileReader);
+        } catch (IOException ioe) {
+            throw new CorruptFileException(CorruptFileException.Type.UNKNOWN_PLAYER);
+        }
+        return playerIndex;
+    }
+
+    /**
+     * Makes a player from the player template of the player loader's difficulty.
+     *
+     * @param playerIndex An index of the player template of every difficulty
+     * @return The made player
+     * @throws CorruptFileException If the difficulty has no valid player template,
+     *                              or the player could not be made from it
+     */
+    Player makePlayer(DifficultyIndex<PlayerTemplate> playerIndex) throws CorruptFileException {
+        PlayerTemplate template = playerIndex.get(difficulty, CorruptFileException.Type.NO_PLAYER);
+        try {
+            Player.PlayerBuilder playerBuilder = new Player.PlayerBuilder(name, template.health())
+                    .setGold(template.gold())
+                    .setScore(template.score());
+            if (template.inventory() != null) {
                 playerBuilder.setStartingItems(itemProvider.provideAll(CollectionParserUtil
-                        .parseList(inventoryString)));
+                        .parseList(template.inventory())));
             }
-            String weaponString = playerParameterMap.get(Parameters.WEAPON);
-            if (weaponString != null) {
-                playerBuilder.setEquippedWeapon((Weapon) itemProvider.provide(weaponString));
+            if (template.weapon() != null) {
+                playerBuilder.setEquippedWeapon((Weapon) itemProvider.provide(template.weapon()));
             }
-        } catch (IOException ioe) {
-            throw new CorruptFileException(CorruptFileException.Type.UNKNOWN_ENEMIES,
-                    fileReader.getLineNumber());
+            return playerBuilder.build();
         } catch (ClassCastException | IllegalArgumentException e) {
             throw new CorruptFileException(CorruptFileException.Type.PLAYER_INVALID_VALUE,
-                    fileReader.getLineNumber());
+                    template.lineNumber());
         }
-        return playerBuilder.build();
+    }
+
+    /**
+     * Parses a player from a {@link LineNumberReader}.
+     *
+     * @param fileReader The {@link LineNumberReader} containing a player
+     * @return The parsed player
+     * @throws CorruptFileException If the player could not be parsed
+     */
+    public Player parsePlayer(LineNumberReader fileReader)
+            throws CorruptFileException {
+        return makePlayer(parsePlayerIndex(fileReader));
     }
 
     /**
@@ -97,6 +189,27 @@ public class PlayerLoader {
         return player;
     }
 
+    /**
+     * The parsed, but not yet built, player of a single difficulty.
+     *
+     * @param health     The player's health
+     * @param score      The player's score
+     * @param gold       The player's gold
+     * @param inventory  A comma-separated list of the player's starting items, if any
+     * @param weapon     The player's equipped weapon, if any
+     * @param lineNumber The line number the player's definition ended at.
+     *                   Used to generate a more detailed error message
+     *                   if the player can't be built
+     */
+    record PlayerTemplate(
+            int health,
+            int score,
+            int gold,
+            String inventory,
+            String weapon,
+            int lineNumber
+    ) {}
+
     private static class Parameters {
         public static final String HEALTH = "Health";
         public static final String SCORE = "Score";
@@ -107,9 +220,5 @@ public class PlayerLoader {
         private Parameters() {
             throw new IllegalStateException("Do not instantiate this class pls :)");
         }
-
-        public static String[] getPlayerRequired() {
-            return new String[]{HEALTH, SCORE, GOLD};
-        }
     }
 }
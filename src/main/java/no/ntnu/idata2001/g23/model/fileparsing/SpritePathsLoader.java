@@ -6,7 +6,6 @@ import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.util.Map;
-import java.util.stream.Collectors;
 import no.ntnu.idata2001.g23.view.textures.ImageLoader;
 
 /**
@@ -39,14 +38,10 @@ public class SpritePathsLoader {
             throws CorruptFileException {
         Map<String, String> spritePaths;
         try {
-            spritePaths = CollectionParserUtil
-                    .parseMap(fileReader, false)
-                    .entrySet()
-                    .stream()
-                    .collect(Collectors.toMap(
-                            Map.Entry::getKey,
-                            entry -> gamePath.resolve(entry.getValue()).toString()
-                    ));
+            spritePaths = CollectionParserUtil.parseMap(fileReader, false);
+            for (Map.Entry<String, String> spritePath : spritePaths.entrySet()) {
+                spritePath.setValue(gamePath.resolve(spritePath.getValue()).toString());
+            }
         } catch (IOException ioe) {
             throw new CorruptFileException(CorruptFileException.Type.UNKNOWN_SPRITES,
                     fileReader.getLineNumber());
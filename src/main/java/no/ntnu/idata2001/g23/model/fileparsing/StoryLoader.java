@@ -32,41 +32,90 @@ public class StoryLoader {
         this.enemyProvider = enemyProvider;
     }
 
+    /**
+     * Checks if a line of a passage is a link.
+     *
+     * @param line The line to check
+     * @return {@code true} if the line is a link
+     */
+    static boolean isLinkLine(String line) {
+        return (line.contains("[") && line.contains("]"))
+                || (line.contains("(") && line.contains(")"));
+    }
+
+    /**
+     * Parses a link, validating its text, reference & actions, but only keeps its reference.
+     *
+     * @param rawLinkData The line containing the link
+     * @param lineNumber  The line number of the link
+     * @return The link's reference
+     * @throws CorruptFileException If the link could not be parsed
+     */
+    String parseLinkReference(String rawLinkData, int lineNumber)
+            throws CorruptFileException {
+        return parseLink(rawLinkData, lineNumber).getReference();
+    }
+
+    /**
+     * Checks that an enemy in a passage can be provided, without providing it.
+     *
+     * @param enemyName  The name of the enemy
+     * @param lineNumber The line number of the enemy
+     * @throws CorruptFileException If no enemy with the name can be provided
+     */
+    void checkEnemy(String enemyName, int lineNumber) throws CorruptFileException {
+        if (!enemyProvider.getIdentifiers().contains(enemyName)) {
+            throw new CorruptFileException(CorruptFileException.Type.PASSAGE_INVALID_ENEMY,
+                    lineNumber, enemyName);
+        }
+    }
+
     private Link parseLink(String rawLinkData, int lineNumber)
             throws CorruptFileException {
-        String[] splitLinkData = rawLinkData.split("]", 2);
-        if (!rawLinkData.startsWith("[") || splitLinkData.length < 2) {
+        Lexer linkLexer = new Lexer(rawLinkData);
+        Lexer linkText = new Lexer();
+        if (!linkLexer.startsWith('[') || !linkLexer.readUntil(']', linkText)) {
             throw new CorruptFileException(CorruptFileException.Type.LINK_NO_TEXT, lineNumber);
         }
-        final String linkText = splitLinkData[0].substring(1).trim();
-        rawLinkData = splitLinkData[1].trim();
+        linkLexer.trim();
 
-        splitLinkData = rawLinkData.split("\\)", 2);
-        if (!rawLinkData.startsWith("(") || splitLinkData.length < 2) {
+        Lexer linkReference = new Lexer();
+        if (!linkLexer.startsWith('(') || !linkLexer.readUntil(')', linkReference)) {
             throw new CorruptFileException(CorruptFileException.Type.LINK_NO_REFERENCE, lineNumber);
         }
-        String linkReference = splitLinkData[0].substring(1).trim();
-        rawLinkData = splitLinkData[1].trim();
+        linkLexer.trim();
 
         List<Action> linkActions = new ArrayList<>();
-        while (!rawLinkData.isBlank()) {
-            splitLinkData = rawLinkData.split("}", 2);
-            if (!rawLinkData.startsWith("{") || splitLinkData.length < 2) {
+        //Every action is read into the same lexers
+        Lexer actionData = new Lexer();
+        Lexer actionType = new Lexer();
+        while (!linkLexer.isBlank()) {
+            if (!linkLexer.startsWith('{') || !linkLexer.readUntil('}', actionData)) {
                 throw new CorruptFileException(CorruptFileException.Type.LINK_INVALID_ACTION,
-                        lineNumber, rawLinkData);
+                        lineNumber, linkLexer.toString());
             }
             linkActions.add(ActionParser.parseAction(
-                    splitLinkData[0].substring(1), lineNumber, itemProvider));
-            rawLinkData = splitLinkData[1].trim();
+                    actionData.skip(1), actionType, lineNumber, itemProvider));
+            linkLexer.trim();
         }
-        Link link = new Link(linkText, linkReference);
+        Link link = new Link(linkText.skip(1).trim().toString(),
+                linkReference.skip(1).trim().toString());
         for (Action linkAction : linkActions) {
             link.addAction(linkAction);
         }
         return link;
     }
 
-    private Passage parsePassage(String passageTitle, LineNumberReader fileReader)
+    /**
+     * Parses a single passage, from the line after its header until the first blank line.
+     *
+     * @param passageTitle The title of the passage, taken from its header
+     * @param fileReader   A {@link LineNumberReader} positioned right after the passage's header
+     * @return The parsed passage
+     * @throws IOException          If the passage could not be read
+     * @throws CorruptFileException If the passage could not be parsed
+     */
+    Passage parsePassage(String passageTitle, LineNumberReader fileReader)
             throws IOException, CorruptFileException {
         if (passageTitle.isBlank()) {
             throw new CorruptFileException(CorruptFileException.Type.PASSAGE_NO_NAME,
@@ -78,11 +127,12 @@ public class StoryLoader {
         String nextLine;
         //Goes through one passage
         while ((nextLine = fileReader.readLine()) != null && !nextLine.isBlank()) {
-            if ((nextLine.contains("[") && nextLine.contains("]"))
-                    || (nextLine.contains("(") && nextLine.contains(")"))) {
+            if (isLinkLine(nextLine)) {
                 passageLinks.add(parseLink(nextLine, fileReader.getLineNumber()));
             } else if (nextLine.startsWith("!")) {
-                passageEnemies.add(enemyProvider.provide(nextLine.substring(1)));
+                String enemyName = nextLine.substring(1);
+                checkEnemy(enemyName, fileReader.getLineNumber());
+                passageEnemies.add(enemyProvider.provide(enemyName));
             } else {
                 if (!passageContent.isEmpty()) {
                     passageContent.append("\n");
@@ -137,14 +187,12 @@ public class StoryLoader {
             loadedStory = new Story(storyTitle.trim(), passages.remove(0));
             passages.forEach(loadedStory::addPassage);
 
-            List<Link> brokenLinks = loadedStory.getBrokenLinks();
-            if (!brokenLinks.isEmpty()) {
+            //The story's integrity is tracked while passages are added, so this is a lookup
+            if (loadedStory.getIntegrity().hasDanglingReferences()) {
                 throw new CorruptFileException(CorruptFileException.Type.STORY_BROKEN_LINKS,
-                        fileReader.getLineNumber(), String.join(
-                                ", ", brokenLinks.stream().map(Link::getText).toList()));
+                        fileReader.getLineNumber(), String.join(", ", loadedStory
+                                .getBrokenLinks().stream().map(Link::getText).toList()));
             }
-            loadedStory.getPassages().forEach(passage ->
-                    passage.getLinks().removeIf(loadedStory.getBrokenLinks()::contains));
         } catch (IOException ioe) {
             throw new CorruptFileException(CorruptFileException.Type.UNKNOWN_STORY,
                     fileReader.getLineNumber());
@@ -170,4 +218,20 @@ public class StoryLoader {
         }
         return story;
     }
+
+    /**
+     * Loads a {@link LazyStory} from a {@code .paths}-file.
+     * The whole file is validated up front, like with {@link #loadStory(Path)},
+     * but only the location & references of each passage are kept,
+     * and passages are fully parsed when they're needed.
+     *
+     * @param storyFilePath The file path of the story to load
+     * @param cacheSize     The max amount of parsed passages to keep in memory at once
+     * @return The loaded story
+     * @throws CorruptFileException If the story could not be loaded
+     */
+    public LazyStory loadLazyStory(Path storyFilePath, int cacheSize)
+            throws CorruptFileException {
+        return LazyStory.load(storyFilePath, this, cacheSize);
+    }
 }
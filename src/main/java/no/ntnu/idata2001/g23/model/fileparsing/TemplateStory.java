@@ -0,0 +1,205 @@
+package no.ntnu.idata2001.g23.model.fileparsing;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import no.ntnu.idata2001.g23.model.story.Link;
+import no.ntnu.idata2001.g23.model.story.Passage;
+import no.ntnu.idata2001.g23.model.story.Story;
+import no.ntnu.idata2001.g23.model.story.StoryIntegrity;
+import no.ntnu.idata2001.g23.model.story.analysis.StoryGraph;
+
+/**
+ * The story of a game made from a {@link GameTemplate}, that shares the template's story
+ * instead of copying it.
+ *
+ * <p>Only passages with enemies have any state that changes during a game, so only those
+ * are copied, the first time the game gets them. Every other passage, and the index of
+ * passages & references, is the template's own, so a game only costs the passages with enemies
+ * that it has been to. The opening passage is always copied, since a story keeps its
+ * opening passage itself.</p>
+ *
+ * <p>The template's story must never be modified, so neither can this story.
+ * Its integrity & broken links are the template's, that refer to the template's passages.</p>
+ */
+final class TemplateStory extends Story implements StoryGraph.Source {
+    private final Story templateStory;
+    private final UnaryOperator<Passage> passageCopier;
+    //Passages are mutable, so they're looked up by identity
+    private final Map<Passage, Passage> copiedPassages;
+
+    /**
+     * Makes a story that shares the template's story.
+     *
+     * @param templateStory  The story of the template
+     * @param openingPassage A copy of the template story's opening passage
+     * @param passageCopier  Makes a copy of a passage with enemies, with its own enemies
+     */
+    TemplateStory(Story templateStory, Passage openingPassage,
+                  UnaryOperator<Passage> passageCopier) {
+        super(templateStory.getTitle(), openingPassage);
+        this.templateStory = templateStory;
+        this.passageCopier = passageCopier;
+        this.copiedPassages = new IdentityHashMap<>();
+    }
+
+    /**
+     * Gets this game's passage for a passage of the template story,
+     * copying it if it has enemies, and it's not copied already.
+     *
+     * @param passage The passage of the template story
+     * @return This game's passage
+     */
+    private synchronized Passage getOwnPassage(Passage passage) {
+        if (passage == templateStory.getOpeningPassage()) {
+            return getOpeningPassage();
+        }
+        Passage copy = copiedPassages.get(passage);
+        if (copy == null) {
+            if (passage.getEnemies().isEmpty()) {
+                return passage;
+            }
+            copy = passageCopier.apply(passage);
+            copiedPassages.put(passage, copy);
+        }
+        return copy;
+    }
+
+    /**
+     * Gets every passage in the story.
+     * Passages with enemies are copied as they're iterated over, if they aren't already.
+     *
+     * @return Every passage in the story
+     */
+    @Override
+    public Collection<Passage> getPassages() {
+        Collection<Passage> templatePassages = templateStory.getPassages();
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Passage> iterator() {
+                Iterator<Passage> templateIterator = templatePassages.iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return templateIterator.hasNext();
+                    }
+
+                    @Override
+                    public Passage next() {
+                        return getOwnPassage(templateIterator.next());
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return templatePassages.size();
+            }
+        };
+    }
+
+    /**
+     * Gets a passage in the story, copying it if it has enemies, and it's not copied already.
+     *
+     * @param link The link associated with the passage.
+     * @return The passage associated with the provided link.
+     */
+    @Override
+    public Passage getPassage(Link link) {
+        return getOwnPassage(templateStory.getPassage(link));
+    }
+
+    /**
+     * Gets every passage in the story with a link to a specific passage,
+     * copying the ones with enemies that aren't copied already.
+     *
+     * @param link A link to the passage to find the referring passages of
+     * @return Every passage with a link to the specified passage, in the order they were linked
+     */
+    @Override
+    public List<Passage> getReferringPassages(Link link) {
+        return templateStory.getReferringPassages(link).stream()
+                .map(this::getOwnPassage)
+                .toList();
+    }
+
+    /**
+     * Not supported, since the template's story must never be modified.
+     *
+     * @param passage The passage to add to the story.
+     * @throws UnsupportedOperationException Always
+     */
+    @Override
+    public void addPassage(Passage passage) {
+        throw new UnsupportedOperationException("The story of a game made from a template "
+                + "cannot be modified");
+    }
+
+    /**
+     * Not supported, since the template's story must never be modified.
+     *
+     * @param link A link to the passage that should be removed.
+     * @throws UnsupportedOperationException Always
+     */
+    @Override
+    public void removePassage(Link link) {
+        throw new UnsupportedOperationException("The story of a game made from a template "
+                + "cannot be modified");
+    }
+
+    /**
+     * Gets the integrity of the template's story.
+     *
+     * @return The integrity of the template's story, that refers to the template's passages
+     */
+    @Override
+    public StoryIntegrity getIntegrity() {
+        return templateStory.getIntegrity();
+    }
+
+    /**
+     * Finds and returns a list of dead links in the template's story.
+     *
+     * @return A list of all dead links in the template's story.
+     */
+    @Override
+    public List<Link> getBrokenLinks() {
+        return templateStory.getBrokenLinks();
+    }
+
+    /**
+     * Makes a graph of the template's story, which has the same passages & links.
+     *
+     * @return The graph of the story
+     */
+    @Override
+    public StoryGraph makeGraph() {
+        return StoryGraph.of(templateStory);
+    }
+
+    /**
+     * Test for content equality between two objects.
+     *
+     * @param obj The object to compare to this one
+     * @return True if the argument object is a story made from an equal template story,
+     *         with matching parameters
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return super.equals(obj) && templateStory.equals(((TemplateStory) obj).templateStory);
+    }
+
+    /**
+     * Compute a hashCode using the rules found in "Effective java" by Joshua Bloch.
+     *
+     * @return A hashCode for the story, using all its parameters
+     */
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + templateStory.hashCode();
+    }
+}
@@ -1,7 +1,11 @@
 package no.ntnu.idata2001.g23.model.story;
 
+import java.lang.ref.WeakReference;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
 import no.ntnu.idata2001.g23.model.entities.enemies.Enemy;
 
 /**
@@ -12,6 +16,9 @@ public class Passage {
     private final String content;
     private final List<Link> links;
     private final List<Enemy> enemies;
+    //Weak, since passages without enemies are shared by every game made from the same story
+    private final List<WeakReference<Story>> stories;
+    private int storyPruneThreshold;
 
     /**
      * Makes a passage.
@@ -20,16 +27,34 @@ public class Passage {
      * @param content The content of the passage. Must not be null or blank.
      */
     public Passage(String title, String content) {
+        this(title, content, new ArrayList<>());
+    }
+
+    /**
+     * Makes a passage that uses an existing list as its enemies, without copying it.
+     * Used to give a passage that's parsed again the enemies of an earlier copy of it,
+     * so that both copies see the same enemies, even if the earlier copy is still in use.
+     *
+     * @param title   The title of the passage. Must not be null or blank.
+     * @param content The content of the passage. Must not be null or blank.
+     * @param enemies The list of enemies to use. Must not be null.
+     */
+    public Passage(String title, String content, List<Enemy> enemies) {
         if (title == null || title.isBlank()) {
             throw new IllegalArgumentException("String \"title\" cannot be null or blank");
         }
         if (content == null || content.isBlank()) {
             throw new IllegalArgumentException("String \"Content\" cannot be null or blank");
         }
+        if (enemies == null) {
+            throw new IllegalArgumentException("\"enemies\" cannot be null");
+        }
         this.title = title;
         this.content = content;
-        this.links = new ArrayList<>();
-        this.enemies = new ArrayList<>();
+        this.links = new LinkList();
+        this.enemies = enemies;
+        this.stories = new ArrayList<>(1);
+        this.storyPruneThreshold = 4;
     }
 
     /**
@@ -52,6 +77,8 @@ public class Passage {
 
     /**
      * Gets the links field.
+     * Any changes made to the list are also reflected in
+     * the stories that this passage is added to.
      *
      * @return The links field
      */
@@ -108,6 +135,49 @@ public class Passage {
         enemies.add(enemy);
     }
 
+    /**
+     * Registers a story that this passage is added to,
+     * so that the story is notified whenever a link is added or removed.
+     *
+     * @param story The story that this passage is added to
+     */
+    synchronized void addStory(Story story) {
+        if (stories.size() >= storyPruneThreshold) {
+            //Stories that are garbage collected are only pruned once in a while, to stay cheap
+            stories.removeIf(reference -> reference.get() == null);
+            storyPruneThreshold = Math.max(4, stories.size() * 2);
+        }
+        stories.add(new WeakReference<>(story));
+    }
+
+    /**
+     * Unregisters a story that this passage is removed from.
+     *
+     * @param story The story that this passage is removed from
+     */
+    synchronized void removeStory(Story story) {
+        for (int i = 0; i < stories.size(); i++) {
+            if (stories.get(i).get() == story) {
+                stories.remove(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Does something for every story that this passage is added to.
+     *
+     * @param action The action to do for every story
+     */
+    private synchronized void forEachStory(Consumer<Story> action) {
+        for (WeakReference<Story> reference : stories) {
+            Story story = reference.get();
+            if (story != null) {
+                action.accept(story);
+            }
+        }
+    }
+
     @Override
     public String toString() {
         return "Title: " + title
@@ -151,4 +221,53 @@ public class Passage {
         hash = 31 * hash + links.hashCode();
         return hash;
     }
+
+    /**
+     * The passage's list of links, which notifies every story that the passage is added to
+     * whenever a link is added or removed, including through iterators & bulk operations.
+     */
+    private class LinkList extends AbstractList<Link> implements RandomAccess {
+        private final List<Link> list = new ArrayList<>();
+
+        @Override
+        public Link get(int index) {
+            return list.get(index);
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+
+        @Override
+        public Link set(int index, Link link) {
+            if (link == null) {
+                throw new IllegalArgumentException("\"link\" cannot be null");
+            }
+            Link oldLink = list.set(index, link);
+            forEachStory(story -> {
+                story.linkRemoved(Passage.this, oldLink);
+                story.linkAdded(Passage.this, link);
+            });
+            return oldLink;
+        }
+
+        @Override
+        public void add(int index, Link link) {
+            if (link == null) {
+                throw new IllegalArgumentException("\"link\" cannot be null");
+            }
+            list.add(index, link);
+            modCount++;
+            forEachStory(story -> story.linkAdded(Passage.this, link));
+        }
+
+        @Override
+        public Link remove(int index) {
+            Link oldLink = list.remove(index);
+            modCount++;
+            forEachStory(story -> story.linkRemoved(Passage.this, oldLink));
+            return oldLink;
+        }
+    }
 }
@@ -1,18 +1,29 @@
 package no.ntnu.idata2001.g23.model.story;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * A story containing passages for the player to navigate through,
  * and goals for the player to achieve.
+ *
+ * <p>Passages are indexed by their title, and every link reference is indexed with the passages
+ * that link to it, so that adding, finding & removing passages doesn't need to go through
+ * the entire story. The reference index is kept up to date whenever a passage's links change,
+ * along with the story's {@link StoryIntegrity}.</p>
  */
 public class Story {
     private final String title;
     private final Map<Link, Passage> passages;
     private final Passage openingPassage;
+    private final Map<String, List<Passage>> referringPassages;
+    private final StoryIntegrity integrity;
 
     /**
      * Makes a story.
@@ -30,8 +41,11 @@ public class Story {
         this.title = title;
         this.openingPassage = openingPassage;
         this.passages = new HashMap<>();
-        addPassage(openingPassage);
-
+        this.referringPassages = new HashMap<>();
+        this.integrity = new StoryIntegrity();
+        passages.put(new Link(openingPassage.getTitle(), openingPassage.getTitle()),
+                openingPassage);
+        indexPassage(openingPassage);
     }
 
     /**
@@ -63,6 +77,7 @@ public class Story {
 
     /**
      * Adds a passage to the story.
+     * If the story has a different passage with the same title, that passage is replaced.
      *
      * @param passage The passage to add to the story.
      */
@@ -70,11 +85,18 @@ public class Story {
         if (passage == null) {
             throw new IllegalArgumentException("\"passage\" cannot be null");
         }
-        if (getPassages().contains(passage)) {
+        Link passageLink = new Link(passage.getTitle(), passage.getTitle());
+        //Equal passages always have equal titles, so only the passage with this title is checked
+        Passage replacedPassage = passages.get(passageLink);
+        if (passage.equals(replacedPassage)) {
             throw new IllegalArgumentException("Passage \"" + passage.getTitle()
                     + "\" is already added to the story");
         }
-        passages.put(new Link(passage.getTitle(), passage.getTitle()), passage);
+        if (replacedPassage != null) {
+            unindexPassage(replacedPassage);
+        }
+        passages.put(passageLink, passage);
+        indexPassage(passage);
     }
 
     /**
@@ -86,15 +108,105 @@ public class Story {
         if (link == null) {
             throw new IllegalArgumentException("\"link\" cannot be null");
         }
-        if (getPassages()
-                .stream()
-                .flatMap(passage -> passage.getLinks().stream())
-                .anyMatch(passageLink -> passageLink.equals(link))
-        ) {
+        if (referringPassages.containsKey(link.getReference())) {
             throw new IllegalStateException(
                     "Other passages in the story link to this passage, cannot remove it");
         }
-        passages.remove(link);
+        Passage removedPassage = passages.remove(link);
+        if (removedPassage != null) {
+            unindexPassage(removedPassage);
+        }
+    }
+
+    /**
+     * Gets every passage in the story with a link to a specific passage.
+     *
+     * @param link A link to the passage to find the referring passages of
+     * @return Every passage with a link to the specified passage, in the order they were linked.
+     *         Each passage is only included once, even if it has several links to the passage
+     */
+    public List<Passage> getReferringPassages(Link link) {
+        if (link == null) {
+            throw new IllegalArgumentException("\"link\" cannot be null");
+        }
+        List<Passage> referrers = referringPassages.get(link.getReference());
+        if (referrers == null) {
+            return List.of();
+        }
+        Set<Passage> distinctReferrers = Collections.newSetFromMap(new IdentityHashMap<>());
+        return referrers.stream().filter(distinctReferrers::add).toList();
+    }
+
+    /**
+     * Gets the integrity of the story,
+     * which is kept up to date as passages & links are added or removed.
+     *
+     * @return The integrity of the story
+     */
+    public StoryIntegrity getIntegrity() {
+        return integrity;
+    }
+
+    private boolean isOpeningReference(String reference) {
+        return reference.equals(openingPassage.getTitle().trim());
+    }
+
+    private void indexPassage(Passage passage) {
+        String reference = passage.getTitle().trim();
+        integrity.passageAdded(passage, referringPassages.containsKey(reference),
+                isOpeningReference(reference));
+        passage.addStory(this);
+        passage.getLinks().forEach(link -> linkAdded(passage, link));
+    }
+
+    private void unindexPassage(Passage passage) {
+        passage.removeStory(this);
+        passage.getLinks().forEach(link -> linkRemoved(passage, link));
+        String reference = passage.getTitle().trim();
+        integrity.passageRemoved(passage, referringPassages.containsKey(reference));
+    }
+
+    /**
+     * Indexes a link that was added to a passage in the story.
+     *
+     * @param passage The passage that the link was added to
+     * @param link    The added link
+     */
+    void linkAdded(Passage passage, Link link) {
+        List<Passage> referrers = referringPassages.get(link.getReference());
+        if (referrers == null) {
+            referrers = new ArrayList<>(1);
+            referringPassages.put(link.getReference(), referrers);
+            integrity.referenceLinked(link.getReference(), passages.containsKey(link));
+        }
+        referrers.add(passage);
+        integrity.linksChanged(passage);
+    }
+
+    /**
+     * Removes a link that was removed from a passage in the story from the index.
+     *
+     * @param passage The passage that the link was removed from
+     * @param link    The removed link
+     */
+    void linkRemoved(Passage passage, Link link) {
+        List<Passage> referrers = referringPassages.get(link.getReference());
+        if (referrers == null) {
+            return;
+        }
+        for (int i = 0; i < referrers.size(); i++) {
+            //Passages are mutable, so they're compared by identity
+            if (referrers.get(i) == passage) {
+                referrers.remove(i);
+                break;
+            }
+        }
+        if (referrers.isEmpty()) {
+            referringPassages.remove(link.getReference());
+            integrity.referenceUnlinked(link.getReference(),
+                    isOpeningReference(link.getReference()) ? null : passages.get(link));
+        }
+        integrity.linksChanged(passage);
     }
 
     /**
@@ -121,11 +233,18 @@ public class Story {
      * @return A list of all dead links in the story.
      */
     public List<Link> getBrokenLinks() {
-        return getPassages()
-                .stream()
-                .flatMap(passage -> passage.getLinks().stream())
-                .filter(link -> !passages.containsKey(link))
-                .toList();
+        List<Link> brokenLinks = new ArrayList<>();
+        for (String reference : integrity.getDanglingReferences()) {
+            Set<Passage> visitedPassages = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Passage passage : referringPassages.get(reference)) {
+                if (visitedPassages.add(passage)) {
+                    passage.getLinks().stream()
+                            .filter(link -> link.getReference().equals(reference))
+                            .forEach(brokenLinks::add);
+                }
+            }
+        }
+        return brokenLinks;
     }
 
     /**
@@ -0,0 +1,174 @@
+package no.ntnu.idata2001.g23.model.story;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps track of the integrity of a {@link Story} while it's being built or edited.
+ *
+ * <p>The story updates its integrity every time a passage or link is added or removed,
+ * so every problem can be looked up at any time without going through the entire story.
+ * The following problems are tracked:</p>
+ * <ul>
+ *     <li><b>Dangling references:</b> References that are linked to,
+ *     but don't belong to any passage in the story.</li>
+ *     <li><b>Orphan passages:</b> Passages, other than the opening passage,
+ *     that no passage links to.</li>
+ *     <li><b>Dead ends:</b> Passages without any links.</li>
+ * </ul>
+ */
+public class StoryIntegrity {
+    private final Set<String> danglingReferences;
+    private final Map<String, Passage> orphanPassages;
+    private final Map<String, Passage> deadEnds;
+
+    /**
+     * Makes an empty story integrity tracker.
+     */
+    StoryIntegrity() {
+        this.danglingReferences = new LinkedHashSet<>();
+        this.orphanPassages = new LinkedHashMap<>();
+        this.deadEnds = new LinkedHashMap<>();
+    }
+
+    /**
+     * Makes a snapshot of a story's integrity, that is not kept up to date as the story changes.
+     * Used by stories that don't keep every passage in memory.
+     *
+     * @param danglingReferences Every reference that's linked to,
+     *                           but doesn't belong to any passage in the story
+     * @param orphanPassages     Every passage, other than the opening passage,
+     *                           that no passage links to
+     * @param deadEnds           Every passage without any links
+     * @return The snapshot
+     * @throws IllegalArgumentException If any of the parameters are {@code null}
+     */
+    public static StoryIntegrity snapshot(Collection<String> danglingReferences,
+                                          Collection<Passage> orphanPassages,
+                                          Collection<Passage> deadEnds) {
+        if (danglingReferences == null || orphanPassages == null || deadEnds == null) {
+            throw new IllegalArgumentException("The snapshot's problems cannot be null");
+        }
+        StoryIntegrity snapshot = new StoryIntegrity();
+        snapshot.danglingReferences.addAll(danglingReferences);
+        orphanPassages.forEach(passage ->
+                snapshot.orphanPassages.put(passage.getTitle().trim(), passage));
+        deadEnds.forEach(passage -> snapshot.deadEnds.put(passage.getTitle().trim(), passage));
+        return snapshot;
+    }
+
+    /**
+     * Gets every dangling reference.
+     *
+     * @return An unmodifiable view of every reference that's linked to,
+     *         but doesn't belong to any passage in the story
+     */
+    public Set<String> getDanglingReferences() {
+        return Collections.unmodifiableSet(danglingReferences);
+    }
+
+    /**
+     * Gets every orphan passage.
+     *
+     * @return An unmodifiable view of every passage, other than the opening passage,
+     *         that no passage links to
+     */
+    public Collection<Passage> getOrphanPassages() {
+        return Collections.unmodifiableCollection(orphanPassages.values());
+    }
+
+    /**
+     * Gets every dead end.
+     *
+     * @return An unmodifiable view of every passage without any links
+     */
+    public Collection<Passage> getDeadEnds() {
+        return Collections.unmodifiableCollection(deadEnds.values());
+    }
+
+    /**
+     * Checks if the story has any links to passages that don't exist.
+     *
+     * @return {@code true} if the story has any dangling references
+     */
+    public boolean hasDanglingReferences() {
+        return !danglingReferences.isEmpty();
+    }
+
+    /**
+     * Updates the integrity after a passage is added to the story.
+     *
+     * @param passage      The added passage
+     * @param isReferenced If any passage in the story links to the added passage
+     * @param isOpening    If the added passage is the story's opening passage
+     */
+    void passageAdded(Passage passage, boolean isReferenced, boolean isOpening) {
+        String reference = passage.getTitle().trim();
+        danglingReferences.remove(reference);
+        if (!isReferenced && !isOpening) {
+            orphanPassages.put(reference, passage);
+        }
+        linksChanged(passage);
+    }
+
+    /**
+     * Updates the integrity after a passage is removed from the story.
+     *
+     * @param passage      The removed passage
+     * @param isReferenced If any passage in the story still links to the removed passage
+     */
+    void passageRemoved(Passage passage, boolean isReferenced) {
+        String reference = passage.getTitle().trim();
+        orphanPassages.remove(reference);
+        deadEnds.remove(reference);
+        if (isReferenced) {
+            danglingReferences.add(reference);
+        }
+    }
+
+    /**
+     * Updates the integrity after a reference is linked to for the first time.
+     *
+     * @param reference The reference that's now linked to
+     * @param isPassage If the reference belongs to a passage in the story
+     */
+    void referenceLinked(String reference, boolean isPassage) {
+        if (isPassage) {
+            orphanPassages.remove(reference);
+        } else {
+            danglingReferences.add(reference);
+        }
+    }
+
+    /**
+     * Updates the integrity after the last link to a reference is removed.
+     *
+     * @param reference The reference that's no longer linked to
+     * @param passage   The passage that the reference belongs to,
+     *                  or {@code null} if it doesn't belong to a passage or belongs to
+     *                  the opening passage
+     */
+    void referenceUnlinked(String reference, Passage passage) {
+        danglingReferences.remove(reference);
+        if (passage != null) {
+            orphanPassages.put(reference, passage);
+        }
+    }
+
+    /**
+     * Updates the integrity after a link is added to or removed from a passage in the story.
+     *
+     * @param passage The passage that the link was added to or removed from
+     */
+    void linksChanged(Passage passage) {
+        if (passage.hasLinks()) {
+            deadEnds.remove(passage.getTitle().trim());
+        } else {
+            deadEnds.put(passage.getTitle().trim(), passage);
+        }
+    }
+}
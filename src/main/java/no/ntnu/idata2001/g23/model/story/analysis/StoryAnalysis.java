@@ -0,0 +1,169 @@
+package no.ntnu.idata2001.g23.model.story.analysis;
+
+import java.util.Arrays;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+
+/**
+ * The results of analyzing a {@link StoryGraph} using a {@link StoryAnalyzer}.
+ *
+ * <p>Passages are referred to by their index in the graph.
+ * Use {@link StoryGraph#getTitle(int)} to get the title of a passage.</p>
+ */
+public class StoryAnalysis {
+    /**
+     * The distance to a passage that can't be reached from the opening passage.
+     */
+    public static final int UNREACHABLE = -1;
+
+    private final StoryGraph graph;
+    private final int[] distances;
+    private final int reachableCount;
+    private final int[] componentIds;
+    private final int componentCount;
+    private final int[] deadEnds;
+    private final IntSummaryStatistics branchingStatistics;
+
+    /**
+     * Makes a story analysis.
+     *
+     * @param graph               The analyzed graph
+     * @param distances           The shortest distance from the opening passage
+     *                            to every passage
+     * @param reachableCount      The amount of passages that can be reached
+     * @param componentIds        The strongly connected component of every passage
+     * @param componentCount      The amount of strongly connected components
+     * @param deadEnds            Every passage without any links, in ascending order
+     * @param branchingStatistics Statistics of the amount of links from every passage
+     */
+    StoryAnalysis(StoryGraph graph, int[] distances, int reachableCount,
+                  int[] componentIds, int componentCount, int[] deadEnds,
+                  IntSummaryStatistics branchingStatistics) {
+        this.graph = graph;
+        this.distances = distances;
+        this.reachableCount = reachableCount;
+        this.componentIds = componentIds;
+        this.componentCount = componentCount;
+        this.deadEnds = deadEnds;
+        this.branchingStatistics = branchingStatistics;
+    }
+
+    /**
+     * Gets the graph field.
+     *
+     * @return The analyzed graph
+     */
+    public StoryGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Gets the length of the shortest path from the opening passage to a passage.
+     *
+     * @param passageIndex The index of the passage
+     * @return The least amount of links needed to reach the passage,
+     *         or {@link #UNREACHABLE} if the passage can't be reached
+     */
+    public int getDistance(int passageIndex) {
+        return distances[passageIndex];
+    }
+
+    /**
+     * Checks if a passage can be reached from the opening passage.
+     *
+     * @param passageIndex The index of the passage
+     * @return {@code true} if the passage can be reached from the opening passage
+     */
+    public boolean isReachable(int passageIndex) {
+        return distances[passageIndex] != UNREACHABLE;
+    }
+
+    /**
+     * Gets the reachableCount field.
+     *
+     * @return The amount of passages that can be reached from the opening passage,
+     *         including the opening passage itself
+     */
+    public int getReachableCount() {
+        return reachableCount;
+    }
+
+    /**
+     * Gets every passage that can't be reached from the opening passage.
+     *
+     * @return The index of every unreachable passage, in ascending order
+     */
+    public int[] getUnreachablePassages() {
+        int[] unreachablePassages = new int[distances.length - reachableCount];
+        int count = 0;
+        for (int i = 0; i < distances.length; i++) {
+            if (distances[i] == UNREACHABLE) {
+                unreachablePassages[count++] = i;
+            }
+        }
+        return unreachablePassages;
+    }
+
+    /**
+     * Gets the strongly connected component that a passage belongs to.
+     * Two passages belong to the same component if each can be reached from the other.
+     *
+     * @param passageIndex The index of the passage
+     * @return The id of the component, from {@code 0} to the amount of components
+     */
+    public int getComponent(int passageIndex) {
+        return componentIds[passageIndex];
+    }
+
+    /**
+     * Gets the componentCount field.
+     *
+     * @return The amount of strongly connected components
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Gets the size of the largest strongly connected component.
+     *
+     * @return The amount of passages in the largest component
+     */
+    public int getLargestComponentSize() {
+        int[] componentSizes = new int[componentCount];
+        int largestSize = 0;
+        for (int componentId : componentIds) {
+            largestSize = Math.max(largestSize, ++componentSizes[componentId]);
+        }
+        return largestSize;
+    }
+
+    /**
+     * Gets every dead end, a passage without any links to other passages in the story.
+     *
+     * @return The index of every dead end, in ascending order
+     */
+    public int[] getDeadEnds() {
+        return deadEnds.clone();
+    }
+
+    /**
+     * Gets the title of every dead end.
+     *
+     * @return The title of every dead end, in ascending order of index
+     */
+    public List<String> getDeadEndTitles() {
+        return Arrays.stream(deadEnds).mapToObj(graph::getTitle).toList();
+    }
+
+    /**
+     * Gets statistics of the branching factor, the amount of links from each passage.
+     *
+     * @return Statistics of the amount of links from every passage
+     */
+    public IntSummaryStatistics getBranchingStatistics() {
+        IntSummaryStatistics copy = new IntSummaryStatistics();
+        copy.combine(branchingStatistics);
+        return copy;
+    }
+}
@@ -0,0 +1,292 @@
+package no.ntnu.idata2001.g23.model.story.analysis;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.IntSummaryStatistics;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import no.ntnu.idata2001.g23.model.story.Story;
+
+/**
+ * Analyzes the structure of a {@link Story} using a {@link ForkJoinPool}.
+ *
+ * <p>The story is first converted to a {@link StoryGraph}, and the analyses run on its
+ * {@code int}-arrays without touching any passage or link objects. The following analyses
+ * are made, in parallel with each other:</p>
+ * <ul>
+ *     <li><b>Reachability & shortest paths:</b> A level-synchronous breadth-first search
+ *     from the opening passage, where each level's frontier is split between tasks.</li>
+ *     <li><b>Strongly connected components:</b> An iterative version of Tarjan's algorithm,
+ *     which runs as a single task, since it's inherently sequential.
+ *     It doesn't recurse, so it works on stories with any amount of passages.</li>
+ *     <li><b>Dead ends & branching factor:</b> A parallel pass over the out degree
+ *     of every passage.</li>
+ * </ul>
+ */
+public class StoryAnalyzer {
+    private static final VarHandle DISTANCES =
+            MethodHandles.arrayElementVarHandle(int[].class);
+    //The least amount of passages a task processes before it's split further
+    private static final int SPLIT_THRESHOLD = 4096;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Makes a story analyzer that uses the common {@link ForkJoinPool}.
+     */
+    public StoryAnalyzer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Makes a story analyzer.
+     *
+     * @param pool The {@link ForkJoinPool} to run the analyses in
+     */
+    public StoryAnalyzer(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("\"pool\" cannot be null");
+        }
+        this.pool = pool;
+    }
+
+    /**
+     * Analyzes a story.
+     *
+     * @param story The story to analyze
+     * @return The results of the analysis
+     */
+    public StoryAnalysis analyze(Story story) {
+        return analyze(StoryGraph.of(story));
+    }
+
+    /**
+     * Analyzes a story graph.
+     *
+     * @param graph The story graph to analyze
+     * @return The results of the analysis
+     */
+    public StoryAnalysis analyze(StoryGraph graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("\"graph\" cannot be null");
+        }
+        ForkJoinTask<Components> componentTask = pool.submit(() -> findComponents(graph));
+        ForkJoinTask<DegreeSummary> degreeTask = pool.submit(
+                new DegreeTask(graph.getOffsets(), 0, graph.getPassageCount()));
+
+        int[] distances = new int[graph.getPassageCount()];
+        Arrays.fill(distances, StoryAnalysis.UNREACHABLE);
+        int reachableCount = 0;
+        if (distances.length > 0) {
+            distances[0] = 0;
+            int[] frontier = {0};
+            int distance = 0;
+            while (frontier.length > 0) {
+                reachableCount += frontier.length;
+                distance++;
+                frontier = pool.invoke(new FrontierTask(
+                        graph, distances, frontier, 0, frontier.length, distance));
+            }
+        }
+
+        Components components = componentTask.join();
+        DegreeSummary degrees = degreeTask.join();
+        return new StoryAnalysis(graph, distances, reachableCount,
+                components.ids(), components.count(),
+                degrees.deadEnds(), degrees.statistics());
+    }
+
+    /**
+     * Finds every strongly connected component using an iterative version of Tarjan's algorithm.
+     *
+     * @param graph The graph to find the components of
+     * @return The component of every passage, and the amount of components
+     */
+    private static Components findComponents(StoryGraph graph) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int passageCount = graph.getPassageCount();
+        int[] visitIndexes = new int[passageCount];
+        Arrays.fill(visitIndexes, -1);
+        int[] lowLinks = new int[passageCount];
+        boolean[] onStack = new boolean[passageCount];
+        int[] stack = new int[passageCount];
+        int stackSize = 0;
+        //Replaces recursion, each passage on it continues from its next unvisited link
+        int[] callStack = new int[passageCount];
+        int[] nextLinks = new int[passageCount];
+        int callStackSize = 0;
+
+        int[] componentIds = new int[passageCount];
+        int componentCount = 0;
+        int nextVisitIndex = 0;
+        for (int root = 0; root < passageCount; root++) {
+            if (visitIndexes[root] != -1) {
+                continue;
+            }
+            visitIndexes[root] = lowLinks[root] = nextVisitIndex++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            nextLinks[root] = offsets[root];
+            callStack[callStackSize++] = root;
+
+            while (callStackSize > 0) {
+                int passage = callStack[callStackSize - 1];
+                if (nextLinks[passage] < offsets[passage + 1]) {
+                    int target = targets[nextLinks[passage]++];
+                    if (visitIndexes[target] == -1) {
+                        visitIndexes[target] = lowLinks[target] = nextVisitIndex++;
+                        stack[stackSize++] = target;
+                        onStack[target] = true;
+                        nextLinks[target] = offsets[target];
+                        callStack[callStackSize++] = target;
+                    } else if (onStack[target]) {
+                        lowLinks[passage] = Math.min(lowLinks[passage], visitIndexes[target]);
+                    }
+                } else {
+                    callStackSize--;
+                    if (lowLinks[passage] == visitIndexes[passage]) {
+                        int member;
+                        do {
+                            member = stack[--stackSize];
+                            onStack[member] = false;
+                            componentIds[member] = componentCount;
+                        } while (member != passage);
+                        componentCount++;
+                    }
+                    if (callStackSize > 0) {
+                        int caller = callStack[callStackSize - 1];
+                        lowLinks[caller] = Math.min(lowLinks[caller], lowLinks[passage]);
+                    }
+                }
+            }
+        }
+        return new Components(componentIds, componentCount);
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        if (first.length == 0) {
+            return second;
+        }
+        if (second.length == 0) {
+            return first;
+        }
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    /**
+     * The strongly connected components of a graph.
+     *
+     * @param ids   The component of every passage
+     * @param count The amount of components
+     */
+    private record Components(int[] ids, int count) {}
+
+    /**
+     * The dead ends & branching statistics of a range of passages.
+     *
+     * @param deadEnds   Every passage in the range without any links, in ascending order
+     * @param statistics Statistics of the amount of links from every passage in the range
+     */
+    private record DegreeSummary(int[] deadEnds, IntSummaryStatistics statistics) {}
+
+    /**
+     * Expands one level of the breadth-first search,
+     * visiting every unvisited passage linked to from a part of the frontier.
+     */
+    private static class FrontierTask extends RecursiveTask<int[]> {
+        private final StoryGraph graph;
+        private final int[] distances;
+        private final int[] frontier;
+        private final int start;
+        private final int end;
+        private final int distance;
+
+        FrontierTask(StoryGraph graph, int[] distances, int[] frontier,
+                     int start, int end, int distance) {
+            this.graph = graph;
+            this.distances = distances;
+            this.frontier = frontier;
+            this.start = start;
+            this.end = end;
+            this.distance = distance;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (end - start > SPLIT_THRESHOLD) {
+                int middle = (start + end) >>> 1;
+                FrontierTask left = new FrontierTask(
+                        graph, distances, frontier, start, middle, distance);
+                left.fork();
+                int[] right = new FrontierTask(
+                        graph, distances, frontier, middle, end, distance).compute();
+                return concat(left.join(), right);
+            }
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+            int[] nextFrontier = new int[Math.max(16, end - start)];
+            int nextFrontierSize = 0;
+            for (int i = start; i < end; i++) {
+                int passage = frontier[i];
+                for (int link = offsets[passage]; link < offsets[passage + 1]; link++) {
+                    int target = targets[link];
+                    //Only the task that claims a passage first adds it to the next frontier
+                    if (distances[target] == StoryAnalysis.UNREACHABLE
+                            && DISTANCES.compareAndSet(
+                                    distances, target, StoryAnalysis.UNREACHABLE, distance)) {
+                        if (nextFrontierSize == nextFrontier.length) {
+                            nextFrontier = Arrays.copyOf(nextFrontier, nextFrontierSize * 2);
+                        }
+                        nextFrontier[nextFrontierSize++] = target;
+                    }
+                }
+            }
+            return Arrays.copyOf(nextFrontier, nextFrontierSize);
+        }
+    }
+
+    /**
+     * Finds the dead ends & branching statistics of a range of passages.
+     */
+    private static class DegreeTask extends RecursiveTask<DegreeSummary> {
+        private final int[] offsets;
+        private final int start;
+        private final int end;
+
+        DegreeTask(int[] offsets, int start, int end) {
+            this.offsets = offsets;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected DegreeSummary compute() {
+            if (end - start > SPLIT_THRESHOLD) {
+                int middle = (start + end) >>> 1;
+                DegreeTask left = new DegreeTask(offsets, start, middle);
+                left.fork();
+                DegreeSummary right = new DegreeTask(offsets, middle, end).compute();
+                DegreeSummary leftSummary = left.join();
+                leftSummary.statistics().combine(right.statistics());
+                return new DegreeSummary(concat(leftSummary.deadEnds(), right.deadEnds()),
+                        leftSummary.statistics());
+            }
+            IntSummaryStatistics statistics = new IntSummaryStatistics();
+            int[] deadEnds = new int[end - start];
+            int deadEndCount = 0;
+            for (int i = start; i < end; i++) {
+                int outDegree = offsets[i + 1] - offsets[i];
+                statistics.accept(outDegree);
+                if (outDegree == 0) {
+                    deadEnds[deadEndCount++] = i;
+                }
+            }
+            return new DegreeSummary(Arrays.copyOf(deadEnds, deadEndCount), statistics);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package no.ntnu.idata2001.g23.model.story.analysis;
+
+import java.util.HashMap;
+import java.util.Map;
+import no.ntnu.idata2001.g23.model.story.Link;
+import no.ntnu.idata2001.g23.model.story.Passage;
+import no.ntnu.idata2001.g23.model.story.Story;
+
+/**
+ * A compact, read-only snapshot of the links between every passage in a {@link Story}.
+ *
+ * <p>Every passage is given an index, where the opening passage always has index {@code 0}.
+ * The links are stored in compressed sparse row form: The links of passage {@code i}
+ * are the passage indexes in {@code targets[offsets[i]]} to {@code targets[offsets[i + 1] - 1]}.
+ * This way, the graph only needs two {@code int}-arrays, no matter how large the story is.
+ * Links to passages that don't exist in the story are left out, and only counted.</p>
+ */
+public final class StoryGraph {
+    private final String[] titles;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int brokenLinkCount;
+    private final Map<String, Integer> indexes;
+
+    private StoryGraph(String[] titles, int[] offsets, int[] targets,
+                       int brokenLinkCount, Map<String, Integer> indexes) {
+        this.titles = titles;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.brokenLinkCount = brokenLinkCount;
+        this.indexes = indexes;
+    }
+
+    /**
+     * Makes a graph of every passage & link in a story.
+     * Stories that are a {@link Source} make the graph from their own index instead,
+     * without getting every passage.
+     *
+     * <p>The graph is built in two counting passes, straight from the reference of every link:
+     * The first pass counts the links of each passage that lead somewhere, which gives the
+     * offsets, and the second pass writes every target into place.</p>
+     *
+     * @param story The story to make a graph of
+     * @return A graph of the story
+     */
+    public static StoryGraph of(Story story) {
+        if (story == null) {
+            throw new IllegalArgumentException("\"story\" cannot be null");
+        }
+        if (story instanceof Source source) {
+            return source.makeGraph();
+        }
+        Passage openingPassage = story.getOpeningPassage();
+        int passageCount = story.getPassages().size();
+        String[] titles = new String[passageCount];
+        Passage[] passages = new Passage[passageCount];
+        Map<String, Integer> indexes = new HashMap<>(passageCount * 4 / 3 + 1);
+
+        titles[0] = openingPassage.getTitle().trim();
+        passages[0] = openingPassage;
+        indexes.put(titles[0], 0);
+        int nextIndex = 1;
+        for (Passage passage : story.getPassages()) {
+            String title = passage.getTitle().trim();
+            if (!indexes.containsKey(title)) {
+                titles[nextIndex] = title;
+                passages[nextIndex] = passage;
+                indexes.put(title, nextIndex++);
+            }
+        }
+
+        int[] offsets = new int[passageCount + 1];
+        int brokenLinkCount = 0;
+        for (int i = 0; i < passageCount; i++) {
+            int targetCount = 0;
+            for (Link link : passages[i].getLinks()) {
+                if (indexes.containsKey(link.getReference())) {
+                    targetCount++;
+                } else {
+                    brokenLinkCount++;
+                }
+            }
+            offsets[i + 1] = offsets[i] + targetCount;
+        }
+
+        int[] targets = new int[offsets[passageCount]];
+        for (int i = 0; i < passageCount; i++) {
+            int nextTarget = offsets[i];
+            for (Link link : passages[i].getLinks()) {
+                Integer target = indexes.get(link.getReference());
+                if (target != null) {
+                    targets[nextTarget++] = target;
+                }
+            }
+        }
+        return new StoryGraph(titles, offsets, targets, brokenLinkCount, indexes);
+    }
+
+    /**
+     * Makes a graph from links that are already in compressed sparse row form,
+     * like the index of a story that doesn't keep every passage in memory.
+     * The arrays are kept as they are, without copying them.
+     *
+     * @param titles          The title of every passage, with the opening passage first
+     * @param offsets         Where the links of each passage start in {@code targets},
+     *                        followed by the amount of links
+     * @param targets         The passage index that every link leads to
+     * @param brokenLinkCount The amount of links that were left out,
+     *                        since they don't lead to any passage in the story
+     * @return A graph of the links
+     * @throws IllegalArgumentException If any array is {@code null}, or the arrays don't match
+     */
+    public static StoryGraph of(String[] titles, int[] offsets, int[] targets,
+                                int brokenLinkCount) {
+        if (titles == null || offsets == null || targets == null) {
+            throw new IllegalArgumentException("The graph's arrays cannot be null");
+        }
+        if (titles.length == 0 || offsets.length != titles.length + 1
+                || offsets[titles.length] != targets.length) {
+            throw new IllegalArgumentException("The graph's arrays don't match");
+        }
+        Map<String, Integer> indexes = new HashMap<>(titles.length * 4 / 3 + 1);
+        for (int i = 0; i < titles.length; i++) {
+            indexes.putIfAbsent(titles[i], i);
+        }
+        return new StoryGraph(titles, offsets, targets, brokenLinkCount, indexes);
+    }
+
+    /**
+     * Gets the amount of passages in the graph.
+     *
+     * @return The amount of passages in the graph
+     */
+    public int getPassageCount() {
+        return titles.length;
+    }
+
+    /**
+     * Gets the amount of links between passages in the graph.
+     *
+     * @return The amount of links between passages in the graph
+     */
+    public int getLinkCount() {
+        return targets.length;
+    }
+
+    /**
+     * Gets the brokenLinkCount field.
+     *
+     * @return The amount of links that were left out,
+     *         since they don't lead to any passage in the story
+     */
+    public int getBrokenLinkCount() {
+        return brokenLinkCount;
+    }
+
+    /**
+     * Gets the title of a passage.
+     *
+     * @param passageIndex The index of the passage
+     * @return The title of the passage
+     */
+    public String getTitle(int passageIndex) {
+        return titles[passageIndex];
+    }
+
+    /**
+     * Gets the index of a passage.
+     *
+     * @param title The title of the passage
+     * @return The index of the passage, or {@code -1} if the graph has no passage with the title
+     */
+    public int getIndex(String title) {
+        if (title == null) {
+            throw new IllegalArgumentException("\"title\" cannot be null");
+        }
+        Integer index = indexes.get(title.trim());
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Gets the amount of links from a passage.
+     *
+     * @param passageIndex The index of the passage
+     * @return The amount of links from the passage
+     */
+    public int getOutDegree(int passageIndex) {
+        return offsets[passageIndex + 1] - offsets[passageIndex];
+    }
+
+    /**
+     * Gets the passage that a link leads to.
+     *
+     * @param passageIndex The index of the passage with the link
+     * @param linkIndex    The index of the link, from {@code 0} to the passage's out degree
+     * @return The index of the passage that the link leads to
+     */
+    public int getTarget(int passageIndex, int linkIndex) {
+        return targets[offsets[passageIndex] + linkIndex];
+    }
+
+    /**
+     * Gets the offsets field. Package-private so that analyses can read it without copying.
+     *
+     * @return The offsets field
+     */
+    int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Gets the targets field. Package-private so that analyses can read it without copying.
+     *
+     * @return The targets field
+     */
+    int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * A story that can make its graph from its own index of links,
+     * without getting every passage.
+     */
+    public interface Source {
+        /**
+         * Makes a graph of every passage & link in the story.
+         *
+         * @return A graph of the story
+         */
+        StoryGraph makeGraph();
+    }
+}
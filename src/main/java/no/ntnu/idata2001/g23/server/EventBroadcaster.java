@@ -0,0 +1,71 @@
+package no.ntnu.idata2001.g23.server;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import no.ntnu.idata2001.g23.intermediary.GameSession;
+import no.ntnu.idata2001.g23.intermediary.GameUpdateListener;
+import no.ntnu.idata2001.g23.intermediary.events.GameUpdateEvent;
+
+/**
+ * Listens to one {@link GameSession}, and sends its events to every {@link EventStream}
+ * of the session.
+ *
+ * <p>Every event is converted to a server-sent event once, while the session notifies its
+ * listeners, and the same message is queued for every stream. Converting an event therefore
+ * costs the same no matter how many clients are streaming the session,
+ * and nothing is converted while no one is streaming it.</p>
+ */
+class EventBroadcaster implements GameUpdateListener {
+    private final GameSession session;
+    private final Set<EventStream> streams;
+
+    /**
+     * Makes an event broadcaster for a session, without any streams.
+     * The broadcaster must be added to the session as a listener.
+     *
+     * @param session The session to broadcast the events of
+     */
+    EventBroadcaster(GameSession session) {
+        if (session == null) {
+            throw new IllegalArgumentException("\"session\" cannot be null");
+        }
+        this.session = session;
+        this.streams = ConcurrentHashMap.newKeySet();
+    }
+
+    @Override
+    public void onUpdate(GameUpdateEvent event) {
+        if (streams.isEmpty()) {
+            return;
+        }
+        String message = EventStream.toMessage(event, session);
+        for (EventStream stream : streams) {
+            stream.send(message);
+        }
+    }
+
+    /**
+     * Adds a stream that's sent every event from now on.
+     *
+     * @param stream The stream to add
+     */
+    void add(EventStream stream) {
+        streams.add(stream);
+    }
+
+    /**
+     * Removes a stream, so that it's no longer sent any events.
+     *
+     * @param stream The stream to remove
+     */
+    void remove(EventStream stream) {
+        streams.remove(stream);
+    }
+
+    /**
+     * Ends every stream after the events that are already queued for it.
+     */
+    void closeAll() {
+        streams.forEach(EventStream::close);
+    }
+}
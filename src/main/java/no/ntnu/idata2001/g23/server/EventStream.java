@@ -0,0 +1,106 @@
+package no.ntnu.idata2001.g23.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import no.ntnu.idata2001.g23.intermediary.GameSession;
+import no.ntnu.idata2001.g23.intermediary.events.GameUpdateEvent;
+
+/**
+ * Streams the events of a {@link GameSession} to one client as server-sent events.
+ *
+ * <p>Events are converted once per session by an {@link EventBroadcaster}, and the converted
+ * events are queued until they're written, so that a slow client never blocks the session.
+ * If a client falls so far behind that its queue is full, its stream is closed,
+ * and it has to fetch the session again.</p>
+ */
+public class EventStream {
+    /**
+     * The max amount of events that can be queued for one client.
+     */
+    public static final int QUEUE_CAPACITY = 256;
+
+    /**
+     * How long a stream can be idle before a comment is sent, to keep the connection open.
+     */
+    public static final long KEEP_ALIVE_MILLIS = 15000;
+
+    //Queued in place of an event to end the stream
+    private static final String END = "";
+
+    private final BlockingQueue<String> queue;
+    private volatile boolean closed;
+
+    /**
+     * Makes an event stream without any queued events.
+     */
+    public EventStream() {
+        this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY + 1);
+    }
+
+    /**
+     * Converts an event to a server-sent event.
+     * Must be called while the session notifies its listeners, so that the event
+     * has the state the session had when the event happened.
+     *
+     * @param event   The event to convert
+     * @param session The session the event happened in
+     * @return The server-sent event
+     */
+    static String toMessage(GameUpdateEvent event, GameSession session) {
+        String json = Json.write(GameJson.event(event, session));
+        return "event: " + event.getClass().getSimpleName() + "\ndata: " + json + "\n\n";
+    }
+
+    /**
+     * Queues a converted event to be written to the client.
+     * Closes the stream if the client has fallen too far behind.
+     *
+     * @param message The server-sent event to queue
+     */
+    void send(String message) {
+        if (closed) {
+            return;
+        }
+        if (queue.size() >= QUEUE_CAPACITY || !queue.offer(message)) {
+            close();
+        }
+    }
+
+    /**
+     * Ends the stream after the events that are already queued.
+     */
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            //The queue has one extra slot, so that the end always fits
+            queue.offer(END);
+        }
+    }
+
+    /**
+     * Writes queued events to the client until the client disconnects, falls too far behind,
+     * or the stream is closed.
+     *
+     * @param output The response body to write the events to
+     * @throws IOException          If the client could not be written to
+     * @throws InterruptedException If the thread was interrupted while waiting for events
+     */
+    public void stream(OutputStream output) throws IOException, InterruptedException {
+        output.write(": connected\n\n".getBytes(StandardCharsets.UTF_8));
+        output.flush();
+        while (true) {
+            String message = queue.poll(KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS);
+            if (message == null) {
+                message = ": keep-alive\n\n";
+            } else if (message.equals(END)) {
+                return;
+            }
+            output.write(message.getBytes(StandardCharsets.UTF_8));
+            output.flush();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package no.ntnu.idata2001.g23.server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import no.ntnu.idata2001.g23.intermediary.GameSession;
+import no.ntnu.idata2001.g23.intermediary.events.GameUpdateEvent;
+import no.ntnu.idata2001.g23.model.Game;
+import no.ntnu.idata2001.g23.model.entities.Entity;
+import no.ntnu.idata2001.g23.model.entities.enemies.Enemy;
+import no.ntnu.idata2001.g23.model.goals.Goal;
+import no.ntnu.idata2001.g23.model.items.Item;
+import no.ntnu.idata2001.g23.model.items.UsableItem;
+import no.ntnu.idata2001.g23.model.items.Weapon;
+import no.ntnu.idata2001.g23.model.story.Link;
+import no.ntnu.idata2001.g23.model.story.Passage;
+
+/**
+ * Converts the model into the JSON values that the {@link GameServer} responds with.
+ *
+ * @see Json#write(Object)
+ */
+public class GameJson {
+    private GameJson() {
+        throw new IllegalStateException("Do not instantiate this class pls :)");
+    }
+
+    /**
+     * Converts a passage, with its links & enemies.
+     *
+     * @param passage The passage to convert
+     * @return The passage as a JSON object
+     */
+    public static Map<String, Object> passage(Passage passage) {
+        List<Object> links = new ArrayList<>();
+        for (Link link : passage.getLinks()) {
+            Map<String, Object> linkJson = new LinkedHashMap<>();
+            linkJson.put("text", link.getText());
+            linkJson.put("reference", link.getReference());
+            links.add(linkJson);
+        }
+        List<Object> enemies = new ArrayList<>();
+        for (Enemy enemy : passage.getEnemies()) {
+            enemies.add(entity(enemy));
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("title", passage.getTitle());
+        json.put("content", passage.getContent());
+        json.put("links", links);
+        json.put("enemies", enemies);
+        return json;
+    }
+
+    /**
+     * Converts the stats of an entity.
+     *
+     * @param entity The entity to convert
+     * @return The entity as a JSON object
+     */
+    public static Map<String, Object> entity(Entity entity) {
+        Weapon weapon = entity.getEquippedWeapon();
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("name", entity.getName());
+        json.put("health", entity.getHealth());
+        json.put("maxHealth", entity.getMaxHealth());
+        json.put("score", entity.getScore());
+        json.put("gold", entity.getGold());
+        json.put("weapon", weapon == null ? null : weapon.getName());
+        return json;
+    }
+
+    /**
+     * Converts the stats & inventory of the player.
+     *
+     * @param game The game with the player to convert
+     * @return The player as a JSON object
+     */
+    public static Map<String, Object> player(Game game) {
+        List<Object> inventory = new ArrayList<>();
+        for (Item item : game.getPlayer().getInventory().getContents()) {
+            Map<String, Object> itemJson = new LinkedHashMap<>();
+            itemJson.put("name", item.getName());
+            itemJson.put("description", item.getDescription());
+            itemJson.put("usable", item instanceof UsableItem);
+            inventory.add(itemJson);
+        }
+        Map<String, Object> json = entity(game.getPlayer());
+        json.put("inventory", inventory);
+        return json;
+    }
+
+    /**
+     * Converts the state of a session, being the current passage & the player.
+     *
+     * @param session The session to convert
+     * @return The state of the session as a JSON object
+     */
+    public static Map<String, Object> session(GameSession session) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        synchronized (session) {
+            json.put("id", session.getId());
+            json.put("passage", passage(session.getCurrentPassage()));
+            json.put("player", player(session.getGame()));
+        }
+        return json;
+    }
+
+    /**
+     * Converts the goals of a game, and if they're fulfilled or not.
+     *
+     * @param goals Every goal, and if it's fulfilled or not
+     * @return The goals as a JSON array
+     */
+    public static List<Object> goals(Map<Goal, Boolean> goals) {
+        List<Object> json = new ArrayList<>();
+        goals.forEach((goal, isFulfilled) -> {
+            Map<String, Object> goalJson = new LinkedHashMap<>();
+            goalJson.put("goal", goal.getDescriptiveText());
+            goalJson.put("fulfilled", isFulfilled);
+            json.add(goalJson);
+        });
+        return json;
+    }
+
+    /**
+     * Converts an event, with the state of the session right after it happened.
+     * Must be called while the session is notifying its listeners,
+     * so that the session can't change while it's converted.
+     *
+     * @param event   The event to convert
+     * @param session The session the event happened in
+     * @return The event as a JSON object
+     */
+    public static Map<String, Object> event(GameUpdateEvent event, GameSession session) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("type", event.getClass().getSimpleName());
+        json.put("text", event.getDescriptiveText());
+        json.put("passage", passage(session.getCurrentPassage()));
+        json.put("player", player(session.getGame()));
+        return json;
+    }
+}
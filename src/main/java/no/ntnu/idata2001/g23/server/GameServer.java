@@ -0,0 +1,403 @@
+package no.ntnu.idata2001.g23.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import no.ntnu.idata2001.g23.intermediary.GameSession;
+import no.ntnu.idata2001.g23.intermediary.GameSessionRegistry;
+import no.ntnu.idata2001.g23.model.entities.enemies.Enemy;
+import no.ntnu.idata2001.g23.model.fileparsing.CorruptFileException;
+import no.ntnu.idata2001.g23.model.fileparsing.GameFileCollection;
+import no.ntnu.idata2001.g23.model.items.Item;
+import no.ntnu.idata2001.g23.model.items.UsableItem;
+import no.ntnu.idata2001.g23.model.items.Weapon;
+import no.ntnu.idata2001.g23.model.story.Link;
+import no.ntnu.idata2001.g23.model.story.Passage;
+
+/**
+ * A headless HTTP/JSON server on localhost, that lets clients play
+ * {@link GameSession}s from the {@link GameSessionRegistry}.
+ *
+ * <p>The server has these endpoints:</p>
+ * <ul>
+ *     <li>{@code POST /sessions}, with {@code gameDirectory}, {@code difficulty}
+ *     & optionally {@code playerName}: Makes & starts a new session.</li>
+ *     <li>{@code GET /sessions/{id}}: Gets the current passage & player of a session.</li>
+ *     <li>{@code DELETE /sessions/{id}}: Removes a session, and ends its event streams.
+ *     Sessions that are idle for too long are removed by the registry the same way.</li>
+ *     <li>{@code GET /sessions/{id}/passage}: Gets the current passage of a session.</li>
+ *     <li>{@code POST /sessions/{id}/move}, with {@code reference} & optionally {@code text}:
+ *     Follows a link from the current passage.</li>
+ *     <li>{@code POST /sessions/{id}/attack}, with {@code enemy}:
+ *     Attacks the enemy at that index in the current passage.</li>
+ *     <li>{@code POST /sessions/{id}/use}, with {@code item}: Uses or equips the named item
+ *     in the player's inventory.</li>
+ *     <li>{@code GET /sessions/{id}/goals}: Checks every goal of a session.</li>
+ *     <li>{@code GET /sessions/{id}/events}: Streams the events of a session
+ *     as server-sent events.</li>
+ * </ul>
+ *
+ * <p>Every request is handled on its own virtual thread when the runtime supports them,
+ * so that event streams, which stay open, don't hold on to a platform thread each.</p>
+ */
+public class GameServer {
+    /**
+     * The port the server listens to if no other port is specified.
+     */
+    public static final int DEFAULT_PORT = 8080;
+
+    /**
+     * The max size in bytes of a request body.
+     */
+    public static final int MAX_BODY_SIZE = 64 * 1024;
+
+    private static final String DEFAULT_PLAYER_NAME = "Player";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final GameSessionRegistry registry;
+    private final Map<String, EventBroadcaster> broadcasters;
+    private final Consumer<GameSession> removalListener;
+
+    /**
+     * Makes a server on localhost that plays sessions from the shared registry.
+     * The server is not started.
+     *
+     * @param port The port to listen to, or {@code 0} for any free port
+     * @throws IOException If the server could not be bound to the port
+     * @see #start()
+     */
+    public GameServer(int port) throws IOException {
+        this(port, GameSessionRegistry.getInstance());
+    }
+
+    /**
+     * Makes a server on localhost that plays sessions from a specific registry.
+     * The server is not started.
+     *
+     * @param port     The port to listen to, or {@code 0} for any free port
+     * @param registry The registry to make & look up sessions in
+     * @throws IOException If the server could not be bound to the port
+     */
+    GameServer(int port, GameSessionRegistry registry) throws IOException {
+        if (registry == null) {
+            throw new IllegalArgumentException("\"registry\" cannot be null");
+        }
+        this.registry = registry;
+        this.broadcasters = new ConcurrentHashMap<>();
+        this.removalListener = this::sessionRemoved;
+        this.server = HttpServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/sessions", this::handle);
+        registry.addRemovalListener(removalListener);
+    }
+
+    /**
+     * Makes an executor that runs every task on a new virtual thread.
+     * Virtual threads need Java 21, so older runtimes get a new daemon thread per task instead.
+     *
+     * @return The executor to handle requests with
+     */
+    public static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException roe) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "game-server-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Starts listening for requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Ends every event stream, and stops listening for requests.
+     */
+    public void stop() {
+        registry.removeRemovalListener(removalListener);
+        broadcasters.values().forEach(EventBroadcaster::closeAll);
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Gets the port the server listens to.
+     *
+     * @return The port the server listens to
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Routes a request to the endpoint it's for, and responds with an error if it fails.
+     *
+     * @param exchange The request to handle
+     */
+    private void handle(HttpExchange exchange) {
+        try (exchange) {
+            try {
+                route(exchange);
+            } catch (RequestException re) {
+                respond(exchange, re.getStatus(), Map.of("error", re.getMessage()));
+            } catch (CorruptFileException cfe) {
+                respond(exchange, 422, Map.of("error", "Game files are corrupt: "
+                        + cfe.getMessage()));
+            } catch (IllegalArgumentException iae) {
+                respond(exchange, 400, Map.of("error", String.valueOf(iae.getMessage())));
+            } catch (IllegalStateException ise) {
+                respond(exchange, 409, Map.of("error", String.valueOf(ise.getMessage())));
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        } catch (IOException ioe) {
+            //The client disconnected, so there's no one to respond to
+        }
+    }
+
+    private void route(HttpExchange exchange)
+            throws IOException, RequestException, CorruptFileException, InterruptedException {
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        //path[0] is empty & path[1] is "sessions"
+        String method = exchange.getRequestMethod();
+        if (path.length < 2 || !path[1].equals("sessions")) {
+            throw new RequestException(404, "Not found");
+        }
+        if (path.length == 2) {
+            requireMethod(method, "POST");
+            createSession(exchange);
+            return;
+        }
+        GameSession session = registry.getSession(path[2]);
+        if (session == null || path.length > 4) {
+            throw new RequestException(404, "Not found");
+        }
+        if (path.length == 3) {
+            if (method.equals("DELETE")) {
+                registry.removeSession(session.getId());
+                exchange.sendResponseHeaders(204, -1);
+            } else {
+                requireMethod(method, "GET");
+                respond(exchange, 200, GameJson.session(session));
+            }
+            return;
+        }
+        switch (path[3]) {
+            case "passage" -> {
+                requireMethod(method, "GET");
+                respond(exchange, 200, getPassage(session));
+            }
+            case "move" -> {
+                requireMethod(method, "POST");
+                move(session, readBody(exchange));
+                respond(exchange, 200, GameJson.session(session));
+            }
+            case "attack" -> {
+                requireMethod(method, "POST");
+                attack(session, readBody(exchange));
+                respond(exchange, 200, GameJson.session(session));
+            }
+            case "use" -> {
+                requireMethod(method, "POST");
+                use(session, readBody(exchange));
+                respond(exchange, 200, GameJson.session(session));
+            }
+            case "goals" -> {
+                requireMethod(method, "GET");
+                respond(exchange, 200, GameJson.goals(session.checkGoals()));
+            }
+            case "events" -> {
+                requireMethod(method, "GET");
+                streamEvents(exchange, session);
+            }
+            default -> throw new RequestException(404, "Not found");
+        }
+    }
+
+    private static void requireMethod(String method, String expected) throws RequestException {
+        if (!method.equals(expected)) {
+            throw new RequestException(405, "Expected " + expected + ", but got " + method);
+        }
+    }
+
+    private static Map<String, String> readBody(HttpExchange exchange)
+            throws IOException, RequestException {
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] bytes = body.readNBytes(MAX_BODY_SIZE + 1);
+            if (bytes.length > MAX_BODY_SIZE) {
+                throw new RequestException(413, "The request body is too large");
+            }
+            return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String requireField(Map<String, String> body, String field)
+            throws RequestException {
+        String value = body.get(field);
+        if (value == null) {
+            throw new RequestException(400, "\"" + field + "\" is missing");
+        }
+        return value;
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object json)
+            throws IOException {
+        byte[] bytes = Json.write(json).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private void createSession(HttpExchange exchange)
+            throws IOException, RequestException, CorruptFileException {
+        Map<String, String> body = readBody(exchange);
+        GameSession session = registry.createSession(
+                new GameFileCollection(requireField(body, "gameDirectory")),
+                body.getOrDefault("playerName", DEFAULT_PLAYER_NAME),
+                requireField(body, "difficulty"));
+        try {
+            session.startGame();
+        } catch (CorruptFileException | RuntimeException e) {
+            registry.removeSession(session.getId());
+            throw e;
+        }
+        respond(exchange, 201, GameJson.session(session));
+    }
+
+    /**
+     * Stops broadcasting the events of a session that's removed from the registry,
+     * and ends its event streams.
+     *
+     * @param session The removed session
+     */
+    private void sessionRemoved(GameSession session) {
+        EventBroadcaster broadcaster = broadcasters.remove(session.getId());
+        if (broadcaster != null) {
+            session.removeUpdateListener(broadcaster);
+            broadcaster.closeAll();
+        }
+    }
+
+    private static Map<String, Object> getPassage(GameSession session) {
+        synchronized (session) {
+            return GameJson.passage(session.getCurrentPassage());
+        }
+    }
+
+    private static void move(GameSession session, Map<String, String> body)
+            throws RequestException {
+        String reference = requireField(body, "reference");
+        String text = body.get("text");
+        synchronized (session) {
+            Passage passage = session.getCurrentPassage();
+            Link link = passage.getLinks().stream()
+                    .filter(l -> l.getReference().equals(reference)
+                            && (text == null || l.getText().equals(text)))
+                    .findFirst()
+                    .orElseThrow(() -> new RequestException(404,
+                            "\"" + passage.getTitle() + "\" has no link to \"" + reference + "\""));
+            session.movePassage(link);
+        }
+    }
+
+    private static void attack(GameSession session, Map<String, String> body)
+            throws RequestException {
+        int index;
+        try {
+            index = Integer.parseInt(requireField(body, "enemy"));
+        } catch (NumberFormatException nfe) {
+            throw new RequestException(400, "\"enemy\" must be an index");
+        }
+        synchronized (session) {
+            List<Enemy> enemies = session.getCurrentPassage().getEnemies();
+            if (index < 0 || index >= enemies.size()) {
+                throw new RequestException(404, "There is no enemy " + index);
+            }
+            Enemy enemy = enemies.get(index);
+            session.attack(enemy);
+        }
+    }
+
+    private static void use(GameSession session, Map<String, String> body)
+            throws RequestException {
+        String name = requireField(body, "item");
+        synchronized (session) {
+            Item item = session.getGame().getPlayer().getInventory().getContents().stream()
+                    .filter(i -> i.getName().equals(name))
+                    .findFirst()
+                    .orElseThrow(() -> new RequestException(404,
+                            "The player has no \"" + name + "\""));
+            if (item instanceof UsableItem usableItem) {
+                session.useItem(usableItem);
+            } else if (item instanceof Weapon weapon) {
+                session.equipWeapon(weapon);
+            } else {
+                throw new RequestException(400, "\"" + name + "\" cannot be used");
+            }
+        }
+    }
+
+    private void streamEvents(HttpExchange exchange, GameSession session)
+            throws IOException, InterruptedException {
+        EventStream stream = new EventStream();
+        EventBroadcaster broadcaster = broadcasters.computeIfAbsent(session.getId(), id -> {
+            EventBroadcaster newBroadcaster = new EventBroadcaster(session);
+            session.addUpdateListener(newBroadcaster);
+            return newBroadcaster;
+        });
+        broadcaster.add(stream);
+        if (registry.getSession(session.getId()) == null) {
+            //The session was removed while the stream was added
+            sessionRemoved(session);
+            stream.close();
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream output = exchange.getResponseBody()) {
+            stream.stream(output);
+        } finally {
+            broadcaster.remove(stream);
+        }
+    }
+
+    /**
+     * A request that cannot be handled, and the status to respond with.
+     */
+    private static class RequestException extends Exception {
+        private final int status;
+
+        private RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        private int getStatus() {
+            return status;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package no.ntnu.idata2001.g23.server;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes & parses the small subset of JSON that the {@link GameServer} needs,
+ * so that the server doesn't need any dependencies.
+ */
+public class Json {
+    private Json() {
+        throw new IllegalStateException("Do not instantiate this class pls :)");
+    }
+
+    /**
+     * Writes a value as JSON.
+     *
+     * <p>Supported values are {@code null}, strings, numbers, booleans,
+     * maps with string keys, and collections of any supported value.</p>
+     *
+     * @param value The value to write
+     * @return The value as JSON
+     * @throws IllegalArgumentException If the value, or anything it contains, is not supported
+     */
+    public static String write(Object value) {
+        StringBuilder builder = new StringBuilder();
+        write(value, builder);
+        return builder.toString();
+    }
+
+    private static void write(Object value, StringBuilder builder) {
+        if (value == null) {
+            builder.append("null");
+        } else if (value instanceof String string) {
+            writeString(string, builder);
+        } else if (value instanceof Number || value instanceof Boolean) {
+            builder.append(value);
+        } else if (value instanceof Map<?, ?> map) {
+            builder.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) {
+                    builder.append(',');
+                }
+                first = false;
+                writeString(String.valueOf(entry.getKey()), builder);
+                builder.append(':');
+                write(entry.getValue(), builder);
+            }
+            builder.append('}');
+        } else if (value instanceof Collection<?> collection) {
+            builder.append('[');
+            boolean first = true;
+            for (Object element : collection) {
+                if (!first) {
+                    builder.append(',');
+                }
+                first = false;
+                write(element, builder);
+            }
+            builder.append(']');
+        } else {
+            throw new IllegalArgumentException(
+                    "Cannot write \"" + value.getClass().getSimpleName() + "\" as JSON");
+        }
+    }
+
+    private static void writeString(String string, StringBuilder builder) {
+        builder.append('"');
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        builder.append('"');
+    }
+
+    /**
+     * Parses a flat JSON object, where every value is a string, number, boolean or {@code null}.
+     * Every value is returned as its text, and {@code null} values are left out.
+     *
+     * @param json The JSON to parse
+     * @return Every key of the object, mapped to its value
+     * @throws IllegalArgumentException If the JSON is not a flat object
+     */
+    public static Map<String, String> parseObject(String json) {
+        if (json == null) {
+            throw new IllegalArgumentException("\"json\" cannot be null");
+        }
+        Parser parser = new Parser(json);
+        Map<String, String> object = new LinkedHashMap<>();
+        parser.expect('{');
+        if (!parser.consume('}')) {
+            do {
+                String key = parser.readString();
+                parser.expect(':');
+                String value = parser.readValue();
+                if (value != null) {
+                    object.put(key, value);
+                }
+            } while (parser.consume(','));
+            parser.expect('}');
+        }
+        parser.expectEnd();
+        return object;
+    }
+
+    /**
+     * Reads JSON one token at a time.
+     */
+    private static class Parser {
+        private final String json;
+        private int position;
+
+        private Parser(String json) {
+            this.json = json;
+        }
+
+        private void skipWhitespace() {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String expected) {
+            return new IllegalArgumentException(
+                    "Expected " + expected + " at position " + position + " of the JSON");
+        }
+
+        private boolean consume(char c) {
+            skipWhitespace();
+            if (position < json.length() && json.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!consume(c)) {
+                throw error("'" + c + "'");
+            }
+        }
+
+        private void expectEnd() {
+            skipWhitespace();
+            if (position < json.length()) {
+                throw error("the end");
+            }
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder builder = new StringBuilder();
+            while (position < json.length()) {
+                char c = json.charAt(position++);
+                if (c == '"') {
+                    return builder.toString();
+                } else if (c != '\\') {
+                    builder.append(c);
+                } else if (position < json.length()) {
+                    char escaped = json.charAt(position++);
+                    switch (escaped) {
+                        case 'n' -> builder.append('\n');
+                        case 'r' -> builder.append('\r');
+                        case 't' -> builder.append('\t');
+                        case 'b' -> builder.append('\b');
+                        case 'f' -> builder.append('\f');
+                        case 'u' -> {
+                            if (position + 4 > json.length()) {
+                                throw error("a unicode escape");
+                            }
+                            try {
+                                builder.append((char) Integer.parseInt(
+                                        json.substring(position, position + 4), 16));
+                            } catch (NumberFormatException nfe) {
+                                throw error("a unicode escape");
+                            }
+                            position += 4;
+                        }
+                        default -> builder.append(escaped);
+                    }
+                }
+            }
+            throw error("'\"'");
+        }
+
+        private String readValue() {
+            skipWhitespace();
+            if (position < json.length() && json.charAt(position) == '"') {
+                return readString();
+            }
+            int start = position;
+            while (position < json.length()
+                    && ",}".indexOf(json.charAt(position)) < 0
+                    && !Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+            String literal = json.substring(start, position);
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (literal.equals("true") || literal.equals("false")
+                    || literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+                return literal;
+            }
+            throw error("a string, number, boolean or null");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package no.ntnu.idata2001.g23.view.components;
+
+import java.util.function.Consumer;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.Group;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.VBox;
+import no.ntnu.idata2001.g23.model.entities.enemies.Enemy;
+import no.ntnu.idata2001.g23.view.screens.GameplayScreen;
+import no.ntnu.idata2001.g23.view.textures.ImageLoader;
+import no.ntnu.idata2001.g23.view.textures.TextureRegion;
+
+/**
+ * A button that shows an enemy's sprite, name & health,
+ * and is kept on screen for as long as the enemy is.
+ *
+ * <p>Only the health changes during combat,
+ * so {@link #update()} only updates the health label, and only if the health has changed.</p>
+ *
+ * <p>Once its enemy is gone, a card can be shown again for another enemy through
+ * {@link #bind(Enemy, ObservableValue)}, so that cards can be pooled instead of remade.</p>
+ */
+public class EnemyCard {
+    /**
+     * The height enemy sprites are shown at on cards.
+     */
+    public static final double SPRITE_HEIGHT = 400;
+
+    private final Button button;
+    private final ImageView spriteView;
+    private final Label nameLabel;
+    private final Label healthLabel;
+    private Enemy enemy;
+    private int shownHealth;
+    private int shownMaxHealth;
+
+    /**
+     * Makes a card that isn't bound to any enemy yet.
+     *
+     * @param onAction What to do with the card's enemy when the card is clicked
+     * @throws IllegalArgumentException If {@code onAction} is {@code null}
+     */
+    public EnemyCard(Consumer<Enemy> onAction) {
+        if (onAction == null) {
+            throw new IllegalArgumentException("\"onAction\" cannot be null");
+        }
+        this.button = new Button();
+        button.getStyleClass().add(GameplayScreen.Css.ENEMY_BUTTON);
+        button.setOnAction(ae -> {
+            if (enemy != null) {
+                onAction.accept(enemy);
+            }
+        });
+
+        VBox enemyBox = new VBox();
+        enemyBox.setStyle("-fx-alignment: center");
+        //The group makes the button not super tall
+        button.setGraphic(new Group(enemyBox));
+        this.spriteView = ImageLoader.getImageView((TextureRegion) null, 0, SPRITE_HEIGHT, true);
+        enemyBox.getChildren().add(spriteView);
+        this.nameLabel = new Label();
+        enemyBox.getChildren().add(nameLabel);
+        this.healthLabel = new Label();
+        enemyBox.getChildren().add(healthLabel);
+    }
+
+    /**
+     * Makes a card for an enemy.
+     *
+     * @param enemy    The enemy to show
+     * @param sprite   The enemy's sprite, decoded at {@link #SPRITE_HEIGHT},
+     *                 that the card shows whenever it changes
+     * @param onAction What to do when the card is clicked
+     * @throws IllegalArgumentException If {@code enemy} or {@code onAction} is {@code null}
+     */
+    public EnemyCard(Enemy enemy, ObservableValue<TextureRegion> sprite, Consumer<Enemy> onAction) {
+        this(onAction);
+        bind(enemy, sprite);
+    }
+
+    /**
+     * Shows an enemy on the card, replacing the enemy it showed before.
+     *
+     * @param enemy  The enemy to show
+     * @param sprite The enemy's sprite, decoded at {@link #SPRITE_HEIGHT},
+     *               that the card shows whenever it changes
+     * @throws IllegalArgumentException If {@code enemy} or {@code sprite} is {@code null}
+     */
+    public void bind(Enemy enemy, ObservableValue<TextureRegion> sprite) {
+        if (enemy == null) {
+            throw new IllegalArgumentException("\"enemy\" cannot be null");
+        }
+        if (sprite == null) {
+            throw new IllegalArgumentException("\"sprite\" cannot be null");
+        }
+        this.enemy = enemy;
+        ImageLoader.bindSprite(spriteView, sprite);
+        nameLabel.setText(enemy.getName());
+        this.shownHealth = Integer.MIN_VALUE;
+        update();
+    }
+
+    /**
+     * Stops showing the card's enemy, so that neither the enemy nor its sprite
+     * is kept by the card while it's not shown.
+     */
+    public void unbind() {
+        enemy = null;
+        spriteView.imageProperty().unbind();
+        spriteView.viewportProperty().unbind();
+        spriteView.setImage(null);
+        spriteView.setViewport(null);
+    }
+
+    /**
+     * Gets the button field.
+     *
+     * @return The button field
+     */
+    public Button getButton() {
+        return button;
+    }
+
+    /**
+     * Updates the shown health, if the enemy's health has changed since it was last shown.
+     */
+    public void update() {
+        if (enemy != null
+                && (enemy.getHealth() != shownHealth || enemy.getMaxHealth() != shownMaxHealth)) {
+            shownHealth = enemy.getHealth();
+            shownMaxHealth = enemy.getMaxHealth();
+            healthLabel.setText(String.format("HP: %s/%s", shownHealth, shownMaxHealth));
+        }
+    }
+}
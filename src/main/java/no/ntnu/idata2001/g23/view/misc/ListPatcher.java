@@ -0,0 +1,51 @@
+package no.ntnu.idata2001.g23.view.misc;
+
+import java.util.List;
+
+/**
+ * Patches lists shown on screen, so that only the elements that changed are replaced.
+ *
+ * <p>Patching an {@link javafx.collections.ObservableList} this way fires at most one removal
+ * & one addition, instead of clearing and refilling the whole list,
+ * so only the nodes of the changed elements are rebuilt.</p>
+ */
+public class ListPatcher {
+    private ListPatcher() {
+        throw new IllegalStateException("Do not instantiate this class pls :)");
+    }
+
+    /**
+     * Makes a list contain the same elements as another list, in the same order.
+     * Elements are compared by identity, and the elements both lists start & end with
+     * are kept, so adding, removing or replacing a run of elements only touches that run.
+     *
+     * @param target The list to patch
+     * @param source The elements the list should contain
+     * @param <T>    The type of elements in the list
+     * @return {@code true} if the list was changed, {@code false} otherwise
+     */
+    public static <T> boolean patch(List<T> target, List<? extends T> source) {
+        int targetSize = target.size();
+        int sourceSize = source.size();
+        int prefix = 0;
+        while (prefix < targetSize && prefix < sourceSize
+                && target.get(prefix) == source.get(prefix)) {
+            prefix++;
+        }
+        if (prefix == targetSize && prefix == sourceSize) {
+            return false;
+        }
+        int suffix = 0;
+        while (suffix < targetSize - prefix && suffix < sourceSize - prefix
+                && target.get(targetSize - 1 - suffix) == source.get(sourceSize - 1 - suffix)) {
+            suffix++;
+        }
+        if (prefix < targetSize - suffix) {
+            target.subList(prefix, targetSize - suffix).clear();
+        }
+        if (prefix < sourceSize - suffix) {
+            target.addAll(prefix, source.subList(prefix, sourceSize - suffix));
+        }
+        return true;
+    }
+}
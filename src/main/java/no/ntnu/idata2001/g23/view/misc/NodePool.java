@@ -0,0 +1,99 @@
+package no.ntnu.idata2001.g23.view.misc;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A pool of nodes that are no longer shown, so that they can be shown again with new data,
+ * instead of making new nodes.
+ *
+ * <p>Released nodes are recycled, clearing the data they showed, so that the pool never keeps
+ * that data from being garbage collected. Up to a max amount of idle nodes are kept,
+ * and any node released beyond that is left for the garbage collector.</p>
+ *
+ * @param <T> The type of nodes in the pool
+ */
+public class NodePool<T> {
+    /**
+     * The max amount of idle nodes a pool keeps by default.
+     */
+    public static final int DEFAULT_MAX_IDLE = 32;
+
+    private final Supplier<? extends T> factory;
+    private final Consumer<? super T> recycler;
+    private final int maxIdle;
+    private final Deque<T> idle;
+
+    /**
+     * Makes an empty node pool.
+     *
+     * @param factory  Makes a new node, whenever there are no idle nodes
+     * @param recycler Clears the data of a released node
+     * @param maxIdle  The max amount of idle nodes to keep
+     * @throws IllegalArgumentException If {@code factory} or {@code recycler} is {@code null},
+     *                                  or {@code maxIdle} is negative
+     */
+    public NodePool(Supplier<? extends T> factory, Consumer<? super T> recycler, int maxIdle) {
+        if (factory == null) {
+            throw new IllegalArgumentException("\"factory\" cannot be null");
+        }
+        if (recycler == null) {
+            throw new IllegalArgumentException("\"recycler\" cannot be null");
+        }
+        if (maxIdle < 0) {
+            throw new IllegalArgumentException("\"maxIdle\" cannot be negative");
+        }
+        this.factory = factory;
+        this.recycler = recycler;
+        this.maxIdle = maxIdle;
+        this.idle = new ArrayDeque<>();
+    }
+
+    /**
+     * Makes an empty node pool, that keeps up to {@value #DEFAULT_MAX_IDLE} idle nodes.
+     *
+     * @param factory  Makes a new node, whenever there are no idle nodes
+     * @param recycler Clears the data of a released node
+     * @throws IllegalArgumentException If {@code factory} or {@code recycler} is {@code null}
+     */
+    public NodePool(Supplier<? extends T> factory, Consumer<? super T> recycler) {
+        this(factory, recycler, DEFAULT_MAX_IDLE);
+    }
+
+    /**
+     * Takes an idle node from the pool, or makes a new node if there are no idle nodes.
+     *
+     * @return A node that's not shown anywhere
+     */
+    public T acquire() {
+        T node = idle.pollLast();
+        return node != null ? node : factory.get();
+    }
+
+    /**
+     * Recycles a node that's no longer shown, and keeps it for later, if the pool isn't full.
+     *
+     * @param node The node to release
+     * @throws IllegalArgumentException If {@code node} is {@code null}
+     */
+    public void release(T node) {
+        if (node == null) {
+            throw new IllegalArgumentException("\"node\" cannot be null");
+        }
+        recycler.accept(node);
+        if (idle.size() < maxIdle) {
+            idle.addLast(node);
+        }
+    }
+
+    /**
+     * Gets the amount of idle nodes in the pool.
+     *
+     * @return The amount of idle nodes
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+}
@@ -368,8 +368,7 @@ public class GameplayScreen extends GenericScreen {
         passageContent.getChildren().add(passageText);
 
         Button menuButton = new Button();
-        menuButton.setGraphic(ImageLoader.getIcon(
-                ImageLoader.getImageResource("menuIcon.png"), 100));
+        menuButton.setGraphic(ImageLoader.getIcon("menuIcon.png", 100));
         menuButton.setOnAction(ae -> controller.showPauseModal());
         topPrompt.setRight(menuButton);
     }
@@ -409,8 +408,7 @@ public class GameplayScreen extends GenericScreen {
         moveContent.getChildren().add(titleBox);
 
         Button backButton = new Button();
-        backButton.setGraphic(ImageLoader.getIcon(
-                ImageLoader.getImageResource(BACK_ICON), 100));
+        backButton.setGraphic(ImageLoader.getIcon(BACK_ICON, 100));
         backButton.setOnAction(ae -> controller.showActionPrompt());
         titleBox.getChildren().add(backButton);
 
@@ -431,8 +429,7 @@ public class GameplayScreen extends GenericScreen {
         inventoryPrompt.getChildren().add(titleBox);
 
         Button backButton = new Button();
-        backButton.setGraphic(ImageLoader.getIcon(
-                ImageLoader.getImageResource(BACK_ICON), 100));
+        backButton.setGraphic(ImageLoader.getIcon(BACK_ICON, 100));
         backButton.setOnAction(ae -> controller.showActionPrompt());
         titleBox.getChildren().add(backButton);
 
@@ -465,8 +462,7 @@ public class GameplayScreen extends GenericScreen {
         viewItemsContent.getChildren().add(titleBox);
 
         Button backButton = new Button();
-        backButton.setGraphic(ImageLoader.getIcon(
-                ImageLoader.getImageResource(BACK_ICON), 100));
+        backButton.setGraphic(ImageLoader.getIcon(BACK_ICON, 100));
         backButton.setOnAction(ae -> controller.showInventoryPrompt());
         titleBox.getChildren().add(backButton);
 
@@ -509,8 +505,7 @@ public class GameplayScreen extends GenericScreen {
         useItemContent.getChildren().add(titleBox);
 
         Button backButton = new Button();
-        backButton.setGraphic(ImageLoader.getIcon(
-                ImageLoader.getImageResource(BACK_ICON), 100));
+        backButton.setGraphic(ImageLoader.getIcon(BACK_ICON, 100));
         backButton.setOnAction(ae -> controller.showInventoryPrompt());
         titleBox.getChildren().add(backButton);
 
@@ -558,8 +553,7 @@ public class GameplayScreen extends GenericScreen {
         equipWeaponContent.getChildren().add(titleBox);
 
         Button backButton = new Button();
-        backButton.setGraphic(ImageLoader.getIcon(
-                ImageLoader.getImageResource(BACK_ICON), 100));
+        backButton.setGraphic(ImageLoader.getIcon(BACK_ICON, 100));
         backButton.setOnAction(ae -> controller.showInventoryPrompt());
         titleBox.getChildren().add(backButton);
 
@@ -1,14 +1,14 @@
 package no.ntnu.idata2001.g23.view.screens;
 
+import java.util.concurrent.Executor;
+import javafx.application.Platform;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
 import javafx.scene.shape.Rectangle;
 import no.ntnu.idata2001.g23.controllers.PlayGameController;
-import no.ntnu.idata2001.g23.intermediary.GameUpdateListener;
 import no.ntnu.idata2001.g23.intermediary.GameplayManager;
-import no.ntnu.idata2001.g23.intermediary.events.GameUpdateEvent;
 import no.ntnu.idata2001.g23.intermediary.events.NewGameEvent;
 import no.ntnu.idata2001.g23.intermediary.events.PlayerDeathEvent;
 import no.ntnu.idata2001.g23.view.PathsApp;
@@ -17,7 +17,7 @@ import no.ntnu.idata2001.g23.view.misc.GlobalCss;
 /**
  * The play game screen, that shows after the player selects "play game".
  */
-public class PlayGameScreen extends GenericScreen implements GameUpdateListener {
+public class PlayGameScreen extends GenericScreen {
     private final PlayGameController controller;
     private Button continueStory;
 
@@ -29,7 +29,11 @@ public class PlayGameScreen extends GenericScreen implements GameUpdateListener
     public PlayGameScreen(PathsApp application) {
         super();
         controller = new PlayGameController(application);
-        GameplayManager.getInstance().addUpdateListener(this);
+        Executor fxThread = Platform::runLater;
+        GameplayManager.getInstance().subscribe(this, NewGameEvent.class,
+                event -> continueStory.setDisable(false), fxThread);
+        GameplayManager.getInstance().subscribe(this, PlayerDeathEvent.class,
+                event -> continueStory.setDisable(true), fxThread);
     }
 
     @Override
@@ -60,13 +64,4 @@ public class PlayGameScreen extends GenericScreen implements GameUpdateListener
         content.getChildren().add(backButton);
         return content;
     }
-
-    @Override
-    public void onUpdate(GameUpdateEvent event) {
-        if (event instanceof NewGameEvent) {
-            continueStory.setDisable(false);
-        } else if (event instanceof PlayerDeathEvent) {
-            continueStory.setDisable(true);
-        }
-    }
 }
@@ -0,0 +1,51 @@
+package no.ntnu.idata2001.g23.view.textures;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundImage;
+import javafx.scene.layout.BackgroundPosition;
+import javafx.scene.layout.BackgroundRepeat;
+import javafx.scene.layout.BackgroundSize;
+
+/**
+ * A cache of backgrounds that cover their region with a sprite, so that showing the same
+ * sprite again reuses its background, instead of making a new one.
+ *
+ * <p>Backgrounds are kept for as long as their sprite is, so a background is dropped
+ * once its sprite has been evicted from the {@link SpriteCache} and is no longer shown.</p>
+ */
+public class BackgroundCache {
+    private static final BackgroundSize COVER = new BackgroundSize(
+            1,
+            1,
+            true,
+            true,
+            true,
+            false);
+    //Weak keys, so that backgrounds live exactly as long as their sprites
+    private static final Map<TextureRegion, Background> BACKGROUNDS = new WeakHashMap<>();
+
+    private BackgroundCache() {
+        throw new IllegalStateException("Do not instantiate this class pls :)");
+    }
+
+    /**
+     * Gets a background that covers its region with a sprite, centered.
+     *
+     * @param sprite The sprite to cover the region with
+     * @return The background of the sprite
+     * @throws IllegalArgumentException If {@code sprite} is {@code null}
+     */
+    public static synchronized Background getBackground(TextureRegion sprite) {
+        if (sprite == null) {
+            throw new IllegalArgumentException("\"sprite\" cannot be null");
+        }
+        return BACKGROUNDS.computeIfAbsent(sprite, s -> new Background(new BackgroundImage(
+                s.toImage(),
+                BackgroundRepeat.NO_REPEAT,
+                BackgroundRepeat.NO_REPEAT,
+                BackgroundPosition.CENTER,
+                COVER)));
+    }
+}
@@ -0,0 +1,106 @@
+package no.ntnu.idata2001.g23.view.textures;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * A cache of tinted icons, that are tinted once, and then shared by every icon view.
+ *
+ * <p>Tinting an icon with an effect makes JavaFX apply the effect every time the icon is drawn.
+ * Icons from this cache instead have their tint baked into their pixels, keeping only their
+ * alpha, once per resource, tint & size. Icon resources are decoded at the size they're shown
+ * at, and packed into an atlas that every icon shares.</p>
+ */
+public class IconCache {
+    private static final int ATLAS_SIZE = 1024;
+    private static final int MAX_ATLAS_ICON_SIZE = 128;
+    private static final TextureAtlas ATLAS =
+            new TextureAtlas(ATLAS_SIZE, 1, MAX_ATLAS_ICON_SIZE);
+    private static final Map<IconKey, TextureRegion> ICONS = new HashMap<>();
+
+    private IconCache() {
+        throw new IllegalStateException("Do not instantiate this class pls :)");
+    }
+
+    /**
+     * Gets an icon resource, tinted & decoded at a size.
+     *
+     * @param resource The icon resource's relative file path
+     * @param tint     The colour to tint the icon
+     * @param size     The size the icon is shown at
+     * @return The tinted icon, or the default texture if the resource cannot be found
+     * @throws IllegalArgumentException If {@code resource} or {@code tint} is {@code null},
+     *                                  or {@code size} is less than 0
+     */
+    public static synchronized TextureRegion getIcon(String resource, Color tint, double size) {
+        if (resource == null) {
+            throw new IllegalArgumentException("\"resource\" cannot be null");
+        }
+        return getIcon(new IconKey(resource, tint, toPixels(size)),
+                () -> ImageLoader.getImageResource(resource, size, size));
+    }
+
+    private static TextureRegion getIcon(IconKey key, Supplier<Image> loader) {
+        if (key.tint() == null) {
+            throw new IllegalArgumentException("\"tint\" cannot be null");
+        }
+        return ICONS.computeIfAbsent(key, k -> {
+            Image image = loader.get();
+            if (image == ImageLoader.getDefaultTexture() || image.isError()) {
+                return TextureRegion.of(ImageLoader.getDefaultTexture());
+            }
+            Image tinted = tint(image, key.tint());
+            TextureRegion packed = ATLAS.add(tinted);
+            return packed != null ? packed : TextureRegion.of(tinted);
+        });
+    }
+
+    private static int toPixels(double size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("\"size\" cannot be less than 0");
+        }
+        return (int) Math.ceil(size);
+    }
+
+    /**
+     * Makes a copy of an image, where every pixel has the same colour,
+     * but keeps its alpha.
+     *
+     * @param image The image to tint, which must be done loading
+     * @param tint  The colour to tint the image. Its opacity is multiplied into every pixel.
+     * @return The tinted copy of the image
+     */
+    private static Image tint(Image image, Color tint) {
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        int[] pixels = new int[width * height];
+        image.getPixelReader().getPixels(
+                0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        int rgb = (int) Math.round(tint.getRed() * 255) << 16
+                | (int) Math.round(tint.getGreen() * 255) << 8
+                | (int) Math.round(tint.getBlue() * 255);
+        for (int i = 0; i < pixels.length; i++) {
+            int alpha = (int) Math.round((pixels[i] >>> 24) * tint.getOpacity());
+            pixels[i] = alpha << 24 | rgb;
+        }
+        WritableImage tinted = new WritableImage(width, height);
+        tinted.getPixelWriter().setPixels(
+                0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        return tinted;
+    }
+
+    /**
+     * Identifies one tinted icon.
+     *
+     * @param resource The icon resource's relative file path
+     * @param tint     The colour the icon is tinted
+     * @param size     The size the icon is decoded at
+     */
+    private record IconKey(String resource, Color tint, int size) {
+    }
+}
@@ -1,7 +1,9 @@
 package no.ntnu.idata2001.g23.view.textures;
 
+import java.io.IOException;
 import java.io.InputStream;
-import javafx.scene.effect.ColorAdjust;
+import javafx.beans.binding.Bindings;
+import javafx.beans.value.ObservableValue;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.image.PixelWriter;
@@ -28,6 +30,15 @@ public class ImageLoader {
         return defaultTx;
     }
 
+    /**
+     * Gets the default texture, that's shown in place of any image that cannot be loaded.
+     *
+     * @return The default texture
+     */
+    public static Image getDefaultTexture() {
+        return DEFAULT_TEXTURE;
+    }
+
     /**
      * Loads a resource as an {@link Image}.
      * To load external images that aren't resources, use {@link #getImage(String)}.
@@ -46,6 +57,24 @@ public class ImageLoader {
         return image;
     }
 
+    /**
+     * Loads a resource as an {@link Image}, decoded at a size.
+     *
+     * @param resource The resource's relative file path
+     * @param width    The width to decode the resource at. If this is 0, it is ignored.
+     * @param height   The height to decode the resource at. If this is 0, it is ignored.
+     * @return The found resource as an image. If it is not found, a default texture is returned.
+     */
+    public static Image getImageResource(String resource, double width, double height) {
+        Image image;
+        try (InputStream is = ImageLoader.class.getResourceAsStream(resource)) {
+            image = is == null ? DEFAULT_TEXTURE : new Image(is, width, height, false, true);
+        } catch (IOException ioe) {
+            image = DEFAULT_TEXTURE;
+        }
+        return image;
+    }
+
     /**
      * Loads an external url as an {@link Image}.
      * To load resources that aren't external images, use {@link #getImageResource(String)}.
@@ -55,9 +84,23 @@ public class ImageLoader {
      *         If this cannot be found, a default texture is returned
      */
     public static Image getImage(String filePath) {
+        return getImage(filePath, 0, 0);
+    }
+
+    /**
+     * Loads an external url as an {@link Image}, decoded to fit within a size.
+     * Decoding an image at the size it's shown at uses less memory than scaling it down later.
+     *
+     * @param filePath The image's file path
+     * @param width    The width to fit the image within. If this is 0, it is ignored.
+     * @param height   The height to fit the image within. If this is 0, it is ignored.
+     * @return The image that the file path leads to, keeping its aspect ratio.
+     *         If this cannot be found, a default texture is returned
+     */
+    public static Image getImage(String filePath, double width, double height) {
         Image image;
         try {
-            image = new Image(filePath);
+            image = new Image(filePath, width, height, true, true);
         } catch (IllegalArgumentException | NullPointerException e) {
             image = DEFAULT_TEXTURE;
         }
@@ -103,23 +146,77 @@ public class ImageLoader {
     }
 
     /**
-     * Loads an {@link Image} as a viewable {@link ImageView}.
+     * Shows a {@link TextureRegion} as a viewable {@link ImageView}, through its viewport.
+     * Takes the same arguments as {@link #getImageView(Image, double, double, boolean)}.
      *
-     * <p>This is a special convenience method that calls
-     * {@link #getImageView(Image, double, double, boolean)},
-     * but the resulting image view will always be square, and fully white</p>
+     * @param region        The region to show, or {@code null} to show nothing
+     * @param width         The resulting image view's width. If this is 0, it is ignored.
+     * @param height        The resulting image view's height. If this is 0, it is ignored.
+     * @param preserveRatio If the resulting image view should preserve its aspect ratio.
+     * @return The region as a viewable image
+     * @throws IllegalArgumentException Under the same conditions as
+     *                                  {@link #getImageView(Image, double, double, boolean)}
+     */
+    public static ImageView getImageView(
+            TextureRegion region, double width, double height, boolean preserveRatio
+    ) {
+        ImageView iv = getImageView(
+                region != null ? region.image() : null, width, height, preserveRatio);
+        if (region != null) {
+            iv.setViewport(region.viewport());
+        }
+        return iv;
+    }
+
+    /**
+     * Shows a sprite as a viewable {@link ImageView}, that's updated whenever the sprite changes.
+     * Takes the same arguments as {@link #getImageView(Image, double, double, boolean)},
+     * and the sprite should be decoded at the same size, like the sprites of a
+     * {@link SpriteCache}.
+     *
+     * @param sprite        The sprite to show
+     * @param width         The resulting image view's width. If this is 0, it is ignored.
+     * @param height        The resulting image view's height. If this is 0, it is ignored.
+     * @param preserveRatio If the resulting image view should preserve its aspect ratio.
+     * @return The sprite as a viewable image
+     * @throws IllegalArgumentException Under the same conditions as
+     *                                  {@link #getImageView(Image, double, double, boolean)}
+     */
+    public static ImageView getImageView(
+            ObservableValue<TextureRegion> sprite, double width, double height,
+            boolean preserveRatio
+    ) {
+        ImageView iv = getImageView(sprite.getValue(), width, height, preserveRatio);
+        bindSprite(iv, sprite);
+        return iv;
+    }
+
+    /**
+     * Makes an {@link ImageView} show a sprite, and be updated whenever the sprite changes.
+     * Replaces any sprite the image view was bound to before.
      *
-     * @param image The icon image to load
-     * @param size  The resulting icon's rendered size
+     * @param iv     The image view to show the sprite in
+     * @param sprite The sprite to show
+     */
+    public static void bindSprite(ImageView iv, ObservableValue<TextureRegion> sprite) {
+        iv.imageProperty().bind(Bindings.createObjectBinding(
+                () -> sprite.getValue() != null ? sprite.getValue().image() : null, sprite));
+        iv.viewportProperty().bind(Bindings.createObjectBinding(
+                () -> sprite.getValue() != null ? sprite.getValue().viewport() : null, sprite));
+    }
+
+    /**
+     * Loads an icon resource as a viewable {@link ImageView}.
+     *
+     * <p>The resulting icon is square, and fully white. Every icon resource is decoded & made
+     * white once per size, through the {@link IconCache}, instead of with an effect that's
+     * applied every time it's drawn, and every view of it shares the same texture.</p>
+     *
+     * @param resource The icon resource's relative file path
+     * @param size     The resulting icon's rendered size
      * @return The loaded resource, as an icon
      */
-    public static ImageView getIcon(Image image, double size) {
-        ImageView icon = getImageView(image, size, size, false);
-        if (!DEFAULT_TEXTURE.equals(icon.getImage())) {
-            ColorAdjust colorAdjust = new ColorAdjust();
-            colorAdjust.setBrightness(1); //Makes the icon fully white
-            icon.setEffect(colorAdjust);
-        }
-        return icon;
+    public static ImageView getIcon(String resource, double size) {
+        return getImageView(IconCache.getIcon(resource, Color.WHITE, size), size, size, false);
     }
 }
@@ -0,0 +1,449 @@
+package no.ntnu.idata2001.g23.view.textures;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.scene.image.Image;
+
+/**
+ * A cache of sprites, that decodes them in the background and keeps them within a byte budget.
+ *
+ * <p>Every size a sprite is shown at is decoded as its own variant, using
+ * {@link Image}'s requested size, so that small views of large sprites don't decode every pixel.
+ * Every variant is given as a property, that holds {@link ImageLoader}'s default texture
+ * until it's decoded, so that nothing waits on decoding.
+ * Views should bind to the property, to show the sprite as soon as it's decoded.
+ * If a sprite cannot be found or decoded, the property is set to another instance of the
+ * default texture, so that views can tell that it's done.</p>
+ *
+ * <p>Decoded sprites are also kept in a {@link SpriteDiskCache}, so that a sprite that's been
+ * decoded before is read back from disk, instead of being decoded again.</p>
+ *
+ * <p>Small sprites that are prefetched are packed into a {@link TextureAtlas} once they're
+ * decoded, so that they share a few textures, and are given as regions of the atlas.
+ * Only prefetched sprites are packed, since they aren't shown yet, and the page they're packed
+ * into is sealed once one of them is requested, so that a page is never packed into while it's
+ * shown. Requested sprites, larger sprites, and sprites decoded once the atlas is full,
+ * are given as whole images. The atlas belongs to one game, and is reset by
+ * {@link #resetAtlas()} when a new game starts.</p>
+ *
+ * <p>Decoded sprites are counted as 4 bytes per pixel, and the pages of the atlas are counted
+ * instead of the sprites packed into them. Once the cache exceeds the byte budget,
+ * the least recently used sprites are evicted. Views that still show an evicted
+ * sprite keep it, but it's decoded again the next time it's requested.</p>
+ *
+ * <p>Sprites can also be prefetched, to decode them before they're needed. A prefetched sprite
+ * that's still decoding can be cancelled until it's requested, and the bytes of decoded sprites
+ * that are yet to be requested are counted by {@link #getPrefetchedBytes()}.</p>
+ *
+ * <p>The cache must only be used on the JavaFX application thread.</p>
+ */
+public class SpriteCache {
+    /**
+     * The byte budget of the shared cache.
+     */
+    public static final long DEFAULT_BYTE_BUDGET = 256L * 1024 * 1024;
+    /**
+     * The max width & height of sprites that are packed into the atlas.
+     */
+    public static final int MAX_ATLAS_SPRITE_SIZE = 512;
+
+    private static final int MAX_ATLAS_PAGES = 4;
+    private static final TextureRegion DEFAULT_SPRITE =
+            TextureRegion.of(ImageLoader.getDefaultTexture());
+    //Shows the same texture, but is another instance, so that views are told the sprite is done
+    private static final TextureRegion FAILED_SPRITE =
+            TextureRegion.of(ImageLoader.getDefaultTexture());
+
+    private static SpriteCache instance;
+    private final long byteBudget;
+    private final SpriteDiskCache diskCache;
+    private final TextureAtlas atlas;
+    private final Map<SpriteKey, Entry> sprites;
+    //The bytes of every decoded sprite that's not packed into the atlas
+    private long spriteBytes;
+    private long prefetchedBytes;
+
+    /**
+     * Makes a sprite cache.
+     *
+     * @param byteBudget The max amount of bytes the decoded sprites can use
+     * @param diskCache  The disk cache to read & write decoded sprites through,
+     *                   or {@code null} to always decode sprites
+     */
+    SpriteCache(long byteBudget, SpriteDiskCache diskCache) {
+        if (byteBudget < 1) {
+            throw new IllegalArgumentException("\"byteBudget\" must be at least 1");
+        }
+        this.byteBudget = byteBudget;
+        this.diskCache = diskCache;
+        this.atlas = new TextureAtlas(
+                TextureAtlas.DEFAULT_PAGE_SIZE, MAX_ATLAS_PAGES, MAX_ATLAS_SPRITE_SIZE);
+        this.sprites = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Singleton.
+     *
+     * @return Singleton instance
+     */
+    public static synchronized SpriteCache getInstance() {
+        if (instance == null) {
+            instance = new SpriteCache(DEFAULT_BYTE_BUDGET, SpriteDiskCache.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the sprite that every sprite holds until it's decoded,
+     * which shows {@link ImageLoader}'s default texture.
+     * Sprites that fail to decode also show the default texture, but through another instance,
+     * so a sprite is still decoding only if it holds this exact instance.
+     *
+     * @return The sprite of sprites that aren't decoded yet
+     */
+    public static TextureRegion getDefaultSprite() {
+        return DEFAULT_SPRITE;
+    }
+
+    /**
+     * Gets a sprite at full size, and starts decoding it in the background if it's not cached.
+     *
+     * @param url The URL of the sprite
+     * @return A property holding the sprite, or its region of the atlas, once it's decoded,
+     *         and the default texture until then
+     * @throws IllegalArgumentException If {@code url} is {@code null}
+     */
+    public ReadOnlyObjectProperty<TextureRegion> getSprite(String url) {
+        return getSprite(url, 0, 0);
+    }
+
+    /**
+     * Gets a sprite decoded to fit within a size, keeping its aspect ratio,
+     * and starts decoding it in the background if that size isn't cached.
+     *
+     * @param url    The URL of the sprite
+     * @param width  The width the sprite is shown at, or {@code 0} for any width
+     * @param height The height the sprite is shown at, or {@code 0} for any height
+     * @return A property holding the sprite, or its region of the atlas, once it's decoded,
+     *         and the default texture until then
+     * @throws IllegalArgumentException If {@code url} is {@code null},
+     *                                  or {@code width} or {@code height} is less than 0
+     */
+    public ReadOnlyObjectProperty<TextureRegion> getSprite(
+            String url, double width, double height) {
+        Entry entry = getEntry(SpriteKey.of(url, width, height));
+        if (!entry.requested) {
+            entry.requested = true;
+            if (entry.decoded) {
+                prefetchedBytes -= entry.bytes;
+            }
+            if (entry.packed) {
+                //The sprite is about to be shown, so its page must not be packed into again
+                atlas.seal(entry.sprite.get().image());
+            }
+        }
+        return entry.sprite.getReadOnlyProperty();
+    }
+
+    /**
+     * Starts decoding a sprite in the background if it's not cached,
+     * without counting it as requested.
+     *
+     * @param url    The URL of the sprite
+     * @param width  The width the sprite will be shown at, or {@code 0} for any width
+     * @param height The height the sprite will be shown at, or {@code 0} for any height
+     * @throws IllegalArgumentException If {@code url} is {@code null},
+     *                                  or {@code width} or {@code height} is less than 0
+     */
+    public void prefetch(String url, double width, double height) {
+        prefetch(SpriteKey.of(url, width, height));
+    }
+
+    void prefetch(SpriteKey key) {
+        if (!sprites.containsKey(key)) {
+            getEntry(key);
+        }
+    }
+
+    /**
+     * Cancels a prefetched sprite, if it's still decoding and hasn't been requested.
+     * Sprites that are already decoded are kept, until they're evicted.
+     *
+     * @param url    The URL of the sprite
+     * @param width  The width the sprite was prefetched for
+     * @param height The height the sprite was prefetched for
+     * @return If the sprite was cancelled
+     * @throws IllegalArgumentException If {@code url} is {@code null},
+     *                                  or {@code width} or {@code height} is less than 0
+     */
+    public boolean cancelPrefetch(String url, double width, double height) {
+        return cancelPrefetch(SpriteKey.of(url, width, height));
+    }
+
+    boolean cancelPrefetch(SpriteKey key) {
+        Entry entry = sprites.get(key);
+        if (entry == null || entry.requested || entry.decoded) {
+            return false;
+        }
+        sprites.remove(key);
+        if (entry.image != null) {
+            entry.image.cancel();
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a sprite is cached at a size, and done decoding.
+     * Doesn't count as using the sprite.
+     *
+     * @param url    The URL of the sprite
+     * @param width  The width the sprite is shown at, or {@code 0} for any width
+     * @param height The height the sprite is shown at, or {@code 0} for any height
+     * @return If the sprite is cached & decoded at that size
+     * @throws IllegalArgumentException If {@code url} is {@code null},
+     *                                  or {@code width} or {@code height} is less than 0
+     */
+    public boolean isDecoded(String url, double width, double height) {
+        Entry entry = sprites.get(SpriteKey.of(url, width, height));
+        return entry != null && entry.decoded;
+    }
+
+    private Entry getEntry(SpriteKey key) {
+        Entry entry = sprites.get(key);
+        if (entry == null) {
+            entry = new Entry(key);
+            sprites.put(key, entry);
+            //Started once the entry is cached, so that sprites that decode at once are counted
+            entry.load();
+        }
+        return entry;
+    }
+
+    /**
+     * Counts a sprite that has finished decoding, and evicts the least recently used sprites
+     * until the cache is within its byte budget again.
+     *
+     * @param decoded The entry of the sprite that has finished decoding
+     */
+    private void decoded(Entry decoded) {
+        if (sprites.get(decoded.key) != decoded) {
+            //Evicted while decoding
+            return;
+        }
+        if (!decoded.packed) {
+            spriteBytes += decoded.bytes;
+        }
+        if (!decoded.requested) {
+            prefetchedBytes += decoded.bytes;
+        }
+        Iterator<Entry> entries = sprites.values().iterator();
+        while (getUsedBytes() > byteBudget && entries.hasNext()) {
+            Entry entry = entries.next();
+            if (entry != decoded) {
+                removed(entry);
+                entries.remove();
+            }
+        }
+    }
+
+    /**
+     * Stops counting the bytes of a sprite that's removed from the cache.
+     *
+     * @param entry The removed sprite
+     */
+    private void removed(Entry entry) {
+        if (!entry.packed) {
+            spriteBytes -= entry.bytes;
+        }
+        if (!entry.requested) {
+            prefetchedBytes -= entry.bytes;
+        }
+    }
+
+    /**
+     * Empties the atlas, and removes every sprite that was packed into it from the cache,
+     * so that the atlas' pages can be reclaimed once no view shows them.
+     * Should be called when a new game starts, before its sprites are prefetched.
+     */
+    public void resetAtlas() {
+        Iterator<Entry> entries = sprites.values().iterator();
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            if (entry.packed) {
+                removed(entry);
+                entries.remove();
+            }
+        }
+        atlas.clear();
+    }
+
+    /**
+     * Removes every sprite from the cache, and empties the atlas.
+     */
+    public void clear() {
+        sprites.clear();
+        atlas.clear();
+        spriteBytes = 0;
+        prefetchedBytes = 0;
+    }
+
+    /**
+     * Gets the amount of sprites in the cache, including sprites that are still decoding.
+     *
+     * @return The amount of sprites in the cache
+     */
+    public int size() {
+        return sprites.size();
+    }
+
+    /**
+     * Gets the amount of bytes the decoded sprites in the cache & the pages of its atlas use.
+     *
+     * @return The amount of bytes the decoded sprites & the atlas use
+     */
+    public long getUsedBytes() {
+        return spriteBytes + atlas.getPageBytes();
+    }
+
+    /**
+     * Gets the amount of bytes the decoded sprites that have been prefetched,
+     * but not yet requested, use.
+     *
+     * @return The amount of bytes the decoded, unrequested sprites use
+     */
+    public long getPrefetchedBytes() {
+        return prefetchedBytes;
+    }
+
+    /**
+     * Gets the byteBudget field.
+     *
+     * @return The byteBudget field
+     */
+    public long getByteBudget() {
+        return byteBudget;
+    }
+
+    /**
+     * Makes a URL that {@link Image} can load from a sprite path. {@link Image} only loads
+     * URLs & classpath resources, so plain paths to existing files are made into file URLs.
+     *
+     * @param url The URL or file path of a sprite
+     * @return The URL to load the sprite from
+     */
+    private static String toImageUrl(String url) {
+        try {
+            String scheme = new URI(url).getScheme();
+            //Single-letter schemes are Windows drive letters
+            if (scheme != null && scheme.length() > 1) {
+                return url;
+            }
+        } catch (URISyntaxException use) {
+            //Not a URL, but may still be a file path
+        }
+        try {
+            Path path = Path.of(url);
+            return Files.isRegularFile(path) ? path.toUri().toString() : url;
+        } catch (InvalidPathException ipe) {
+            return url;
+        }
+    }
+
+    /**
+     * A cached sprite variant, that holds the default texture until it's decoded.
+     */
+    private final class Entry {
+        private final SpriteKey key;
+        private final ReadOnlyObjectWrapper<TextureRegion> sprite;
+        private Image image;
+        private long bytes;
+        private boolean decoded;
+        private boolean requested;
+        private boolean packed;
+
+        private Entry(SpriteKey key) {
+            this.key = key;
+            this.sprite = new ReadOnlyObjectWrapper<>(DEFAULT_SPRITE);
+        }
+
+        private void load() {
+            if (diskCache == null) {
+                decode();
+            } else {
+                diskCache.read(key, cached -> Platform.runLater(() -> loaded(cached)));
+            }
+        }
+
+        private void loaded(Image cached) {
+            if (sprites.get(key) != this) {
+                //Evicted or cancelled while reading from disk
+                return;
+            }
+            if (cached == null) {
+                decode();
+            } else {
+                image = cached;
+                finish();
+            }
+        }
+
+        private void decode() {
+            try {
+                image = new Image(toImageUrl(key.url()), key.width(), key.height(),
+                        true, true, true);
+            } catch (IllegalArgumentException iae) {
+                //Thrown if the sprite is neither a URL, a file, nor a classpath resource
+                failed();
+                return;
+            }
+            if (image.getProgress() >= 1) {
+                finishDecoding();
+            } else {
+                image.progressProperty().addListener((observable, oldProgress, progress) -> {
+                    if (progress.doubleValue() >= 1) {
+                        finishDecoding();
+                    }
+                });
+            }
+        }
+
+        private void finishDecoding() {
+            if (diskCache != null && !image.isError()) {
+                diskCache.write(key, image);
+            }
+            finish();
+        }
+
+        private void failed() {
+            //Done, so that views stop waiting on it, and it's not decoded again
+            decoded = true;
+            sprite.set(FAILED_SPRITE);
+            decoded(this);
+        }
+
+        private void finish() {
+            if (image.isError()) {
+                failed();
+                return;
+            }
+            decoded = true;
+            bytes = (long) image.getWidth() * (long) image.getHeight() * 4;
+            //Requested sprites may already be shown, and evicted sprites aren't worth the space
+            TextureRegion region = !requested && sprites.get(key) == this
+                    ? atlas.add(image)
+                    : null;
+            packed = region != null;
+            sprite.set(packed ? region : TextureRegion.of(image));
+            decoded(this);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package no.ntnu.idata2001.g23.view.textures;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+/**
+ * A cache of decoded sprite pixels on disk, so that sprites only need to be decoded once,
+ * and not every time the application starts.
+ *
+ * <p>Every sprite variant is stored in its own file, named by a hash of the source file's
+ * contents and the variant's size. A file holds a small header, followed by the variant's
+ * pixels as raw ARGB, which are read back through a memory-mapped file without decoding.
+ * Changing a source file changes its hash, so stale variants are never read, and are deleted
+ * once the changed file is hashed again.</p>
+ *
+ * <p>The cache is kept below a max amount of bytes. Reading a file marks it as recently used,
+ * by updating when it was last modified, and once a write puts the cache above its max,
+ * the least recently used files are deleted until it's back at {@value #PRUNE_PERCENT}%
+ * of its max.</p>
+ *
+ * <p>Only sprites that are files can be cached. Files are read & written on a background
+ * thread, and callbacks are run on that thread.</p>
+ */
+public class SpriteDiskCache {
+    private static final int MAGIC = 0x50534331; //"PSC1"
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+    private static final String FILE_EXTENSION = ".argb";
+    private static final int PRUNE_PERCENT = 75;
+    /**
+     * The max amount of bytes the cache can use by default.
+     */
+    public static final long DEFAULT_MAX_BYTES = 512L * 1024 * 1024;
+
+    private static SpriteDiskCache instance;
+    private final Path directory;
+    private final long maxBytes;
+    private final ExecutorService executor;
+    //Hashing a source file is cheap, but not free, so hashes are kept until the file changes
+    private final Map<Path, SourceHash> sourceHashes;
+    //Only used on the cache's thread. -1 until the directory has been measured.
+    private long usedBytes;
+
+    /**
+     * Makes a sprite disk cache.
+     *
+     * @param directory The directory to store cached sprites in
+     * @param maxBytes  The max amount of bytes the cached sprites can use
+     * @throws IllegalArgumentException If {@code directory} is {@code null},
+     *                                  or {@code maxBytes} is less than 1
+     */
+    SpriteDiskCache(Path directory, long maxBytes) {
+        if (directory == null) {
+            throw new IllegalArgumentException("\"directory\" cannot be null");
+        }
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("\"maxBytes\" must be at least 1");
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.usedBytes = -1;
+        this.executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "sprite-disk-cache");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sourceHashes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Singleton, that stores cached sprites in the user's home directory.
+     *
+     * @return Singleton instance
+     */
+    public static synchronized SpriteDiskCache getInstance() {
+        if (instance == null) {
+            instance = new SpriteDiskCache(Path.of(
+                    System.getProperty("user.home"), ".paths", "spriteCache"), DEFAULT_MAX_BYTES);
+        }
+        return instance;
+    }
+
+    /**
+     * Finds the source file of a sprite.
+     *
+     * @param url The URL or file path of the sprite
+     * @return The sprite's file, or {@code null} if the sprite isn't a file
+     */
+    private static Path getSourceFile(String url) {
+        Path file;
+        try {
+            file = url.startsWith("file:") ? Path.of(URI.create(url)) : Path.of(url);
+        } catch (IllegalArgumentException | FileSystemNotFoundException e) {
+            return null;
+        }
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    /**
+     * Reads a cached sprite variant in the background.
+     *
+     * @param key      The sprite variant to read
+     * @param callback Given the cached sprite, or {@code null} if it isn't cached,
+     *                 or cannot be cached
+     */
+    void read(SpriteKey key, Consumer<Image> callback) {
+        executor.execute(() -> {
+            Image image;
+            try {
+                image = read(getCacheFile(key));
+            } catch (IOException | RuntimeException e) {
+                image = null;
+            }
+            callback.accept(image);
+        });
+    }
+
+    private Image read(Path cacheFile) throws IOException {
+        if (cacheFile == null || !Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+                return null;
+            }
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            if (width < 1 || height < 1
+                    || buffer.remaining() != (long) width * height * Integer.BYTES) {
+                return null;
+            }
+            WritableImage image = new WritableImage(width, height);
+            image.getPixelWriter().setPixels(0, 0, width, height,
+                    PixelFormat.getIntArgbInstance(), buffer.asIntBuffer(), width);
+            Files.setLastModifiedTime(cacheFile, FileTime.fromMillis(System.currentTimeMillis()));
+            return image;
+        }
+    }
+
+    /**
+     * Writes a decoded sprite variant to the cache in the background.
+     * Sprites that cannot be cached are ignored.
+     *
+     * @param key   The sprite variant to write
+     * @param image The decoded sprite
+     */
+    void write(SpriteKey key, Image image) {
+        executor.execute(() -> {
+            try {
+                write(getCacheFile(key), image);
+                prune();
+            } catch (IOException | RuntimeException e) {
+                //Nothing is lost, the sprite is just decoded again next time
+            }
+        });
+    }
+
+    private void write(Path cacheFile, Image image) throws IOException {
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        long size = HEADER_BYTES + (long) width * height * Integer.BYTES;
+        if (cacheFile == null || width < 1 || height < 1 || size > Integer.MAX_VALUE) {
+            return;
+        }
+        Files.createDirectories(directory);
+        measure();
+        long replacedSize = Files.isRegularFile(cacheFile) ? Files.size(cacheFile) : 0;
+        Path tempFile = Files.createTempFile(directory, "sprite", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(MAGIC).putInt(width).putInt(height);
+                IntBuffer pixels = buffer.asIntBuffer();
+                image.getPixelReader().getPixels(0, 0, width, height,
+                        PixelFormat.getIntArgbInstance(), pixels, width);
+                buffer.force();
+            }
+            //Moved into place once complete, so that a half-written file is never read
+            Files.move(tempFile, cacheFile,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            usedBytes += size - replacedSize;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Measures how many bytes the cached sprites use, the first time it's needed.
+     *
+     * @throws IOException If the directory could not be read
+     */
+    private void measure() throws IOException {
+        if (usedBytes < 0) {
+            long measured = 0;
+            for (CachedFile file : listCachedFiles()) {
+                measured += file.size();
+            }
+            usedBytes = measured;
+        }
+    }
+
+    /**
+     * Deletes the least recently used cached sprites, if the cache uses more than its max.
+     *
+     * @throws IOException If the directory could not be read
+     */
+    private void prune() throws IOException {
+        if (usedBytes <= maxBytes) {
+            return;
+        }
+        List<CachedFile> files = listCachedFiles();
+        files.sort(Comparator.comparingLong(CachedFile::lastModified));
+        long target = maxBytes / 100 * PRUNE_PERCENT;
+        usedBytes = files.stream().mapToLong(CachedFile::size).sum();
+        for (Iterator<CachedFile> it = files.iterator(); usedBytes > target && it.hasNext();) {
+            CachedFile file = it.next();
+            if (Files.deleteIfExists(file.path())) {
+                usedBytes -= file.size();
+            }
+        }
+    }
+
+    /**
+     * Deletes every cached variant of a source file's old contents.
+     *
+     * @param hash The hash of the source file's old contents
+     * @throws IOException If the directory could not be read
+     */
+    private void deleteVariants(String hash) throws IOException {
+        for (CachedFile file : listCachedFiles()) {
+            if (file.path().getFileName().toString().startsWith(hash + "-")
+                    && Files.deleteIfExists(file.path()) && usedBytes >= 0) {
+                usedBytes -= file.size();
+            }
+        }
+    }
+
+    private List<CachedFile> listCachedFiles() throws IOException {
+        List<CachedFile> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(
+                directory, "*" + FILE_EXTENSION)) {
+            for (Path path : stream) {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(
+                            path, BasicFileAttributes.class);
+                    files.add(new CachedFile(path, attributes.size(),
+                            attributes.lastModifiedTime().toMillis()));
+                } catch (IOException ioe) {
+                    //Deleted while listing, so it's not part of the cache anymore
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Gets the file a sprite variant is cached in.
+     *
+     * @param key The sprite variant
+     * @return The file the variant is cached in, or {@code null} if it cannot be cached
+     * @throws IOException If the source file could not be read
+     */
+    private Path getCacheFile(SpriteKey key) throws IOException {
+        Path sourceFile = getSourceFile(key.url());
+        if (sourceFile == null) {
+            return null;
+        }
+        return directory.resolve(getSourceHash(sourceFile) + "-"
+                + key.width() + "x" + key.height() + FILE_EXTENSION);
+    }
+
+    private String getSourceHash(Path sourceFile) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(
+                sourceFile, BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        SourceHash sourceHash = sourceHashes.get(sourceFile);
+        if (sourceHash == null || sourceHash.lastModified() != lastModified
+                || sourceHash.size() != attributes.size()) {
+            SourceHash oldHash = sourceHash;
+            sourceHash = new SourceHash(lastModified, attributes.size(), hash(sourceFile));
+            sourceHashes.put(sourceFile, sourceHash);
+            if (oldHash != null && !oldHash.hash().equals(sourceHash.hash())) {
+                deleteVariants(oldHash.hash());
+            }
+        }
+        return sourceHash.hash();
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException("SHA-256 is not supported", nsae);
+        }
+        try (InputStream is = Files.newInputStream(file)) {
+            byte[] chunk = new byte[64 * 1024];
+            int read;
+            while ((read = is.read(chunk)) != -1) {
+                digest.update(chunk, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * The hash of a source file, and what the file was like when it was hashed.
+     *
+     * @param lastModified When the file was last modified, in milliseconds
+     * @param size         The size of the file, in bytes
+     * @param hash         The hash of the file's contents
+     */
+    private record SourceHash(long lastModified, long size, String hash) {
+    }
+
+    /**
+     * A file in the cache.
+     *
+     * @param path         The path of the file
+     * @param size         The size of the file, in bytes
+     * @param lastModified When the file was last modified or read, in milliseconds
+     */
+    private record CachedFile(Path path, long size, long lastModified) {
+    }
+}
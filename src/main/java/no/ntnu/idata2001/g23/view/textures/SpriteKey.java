@@ -0,0 +1,34 @@
+package no.ntnu.idata2001.g23.view.textures;
+
+/**
+ * Identifies one size variant of a sprite.
+ *
+ * @param url    The URL of the sprite
+ * @param width  The width the sprite is decoded to fit within, or {@code 0} for any width
+ * @param height The height the sprite is decoded to fit within, or {@code 0} for any height
+ */
+record SpriteKey(String url, int width, int height) {
+    /**
+     * Makes the key of a sprite variant. Sizes are rounded up to whole pixels,
+     * so that views of nearly the same size share a variant.
+     *
+     * @param url    The URL of the sprite
+     * @param width  The width to fit the sprite within, or {@code 0} for any width
+     * @param height The height to fit the sprite within, or {@code 0} for any height
+     * @return The key of the sprite variant
+     * @throws IllegalArgumentException If {@code url} is {@code null},
+     *                                  or {@code width} or {@code height} is less than 0
+     */
+    static SpriteKey of(String url, double width, double height) {
+        if (url == null) {
+            throw new IllegalArgumentException("\"url\" cannot be null");
+        }
+        if (width < 0) {
+            throw new IllegalArgumentException("\"width\" cannot be less than 0");
+        }
+        if (height < 0) {
+            throw new IllegalArgumentException("\"height\" cannot be less than 0");
+        }
+        return new SpriteKey(url, (int) Math.ceil(width), (int) Math.ceil(height));
+    }
+}
@@ -0,0 +1,220 @@
+package no.ntnu.idata2001.g23.view.textures;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import no.ntnu.idata2001.g23.model.entities.enemies.Enemy;
+import no.ntnu.idata2001.g23.model.story.Link;
+import no.ntnu.idata2001.g23.model.story.Passage;
+import no.ntnu.idata2001.g23.model.story.Story;
+
+/**
+ * Prefetches the sprites of the passages the player can move to next,
+ * so that they're already decoded by the time the player moves there.
+ *
+ * <p>Whenever the player enters a passage, the passages up to {@value #DEFAULT_DEPTH} links
+ * away are found, closest first, and their backgrounds & enemy sprites are prefetched through
+ * a {@link SpriteCache}. Prefetches that are still decoding, and no longer lead anywhere the
+ * player can move to, are cancelled.</p>
+ *
+ * <p>Sprites are prefetched at the sizes set by {@link #setBackgroundSize(double, double)}
+ * and {@link #setEnemySize(double, double)}, which should be the sizes they're shown at,
+ * so that the prefetched variants are the ones that are later requested.</p>
+ *
+ * <p>Prefetching stops at {@value #DEFAULT_MAX_PREFETCHES} sprites per passage, or once the
+ * decoded sprites that have been prefetched, but not yet shown, use the prefetcher's
+ * byte budget.</p>
+ *
+ * <p>The prefetcher must only be used on the JavaFX application thread.</p>
+ */
+public class SpritePrefetcher {
+    /**
+     * How many links away from the current passage sprites are prefetched by default.
+     */
+    public static final int DEFAULT_DEPTH = 2;
+    /**
+     * The max amount of sprites that are prefetched for one passage by default.
+     */
+    public static final int DEFAULT_MAX_PREFETCHES = 32;
+    /**
+     * The max amount of bytes prefetched sprites can use by default.
+     */
+    public static final long DEFAULT_BYTE_BUDGET = SpriteCache.DEFAULT_BYTE_BUDGET / 4;
+
+    private final SpriteCache cache;
+    private final int depth;
+    private final int maxPrefetches;
+    private final long byteBudget;
+    private Story story;
+    private Map<String, String> spritePaths;
+    private Set<SpriteKey> prefetched;
+    private double backgroundWidth;
+    private double backgroundHeight;
+    private double enemyWidth;
+    private double enemyHeight;
+
+    /**
+     * Makes a sprite prefetcher.
+     *
+     * @param cache         The cache to prefetch sprites through
+     * @param depth         How many links away from the current passage to prefetch sprites
+     * @param maxPrefetches The max amount of sprites to prefetch for one passage
+     * @param byteBudget    The max amount of bytes prefetched sprites can use
+     * @throws IllegalArgumentException If {@code cache} is {@code null},
+     *                                  or any of the limits are less than 1
+     */
+    public SpritePrefetcher(SpriteCache cache, int depth, int maxPrefetches, long byteBudget) {
+        if (cache == null) {
+            throw new IllegalArgumentException("\"cache\" cannot be null");
+        }
+        if (depth < 1) {
+            throw new IllegalArgumentException("\"depth\" must be at least 1");
+        }
+        if (maxPrefetches < 1) {
+            throw new IllegalArgumentException("\"maxPrefetches\" must be at least 1");
+        }
+        if (byteBudget < 1) {
+            throw new IllegalArgumentException("\"byteBudget\" must be at least 1");
+        }
+        this.cache = cache;
+        this.depth = depth;
+        this.maxPrefetches = maxPrefetches;
+        this.byteBudget = byteBudget;
+        this.spritePaths = Map.of();
+        this.prefetched = new LinkedHashSet<>();
+    }
+
+    /**
+     * Makes a sprite prefetcher that prefetches through the shared {@link SpriteCache},
+     * with the default limits.
+     */
+    public SpritePrefetcher() {
+        this(SpriteCache.getInstance(), DEFAULT_DEPTH, DEFAULT_MAX_PREFETCHES, DEFAULT_BYTE_BUDGET);
+    }
+
+    /**
+     * Sets the game to prefetch sprites for, cancels every prefetch of the previous game,
+     * and resets the cache's atlas, so that the previous game's packed sprites can be reclaimed.
+     *
+     * @param story       The story of the game
+     * @param spritePaths The path of every sprite, by name
+     */
+    public void setGame(Story story, Map<String, String> spritePaths) {
+        cancelAll();
+        cache.resetAtlas();
+        this.story = story;
+        this.spritePaths = spritePaths != null ? spritePaths : Map.of();
+    }
+
+    /**
+     * Sets the size backgrounds are prefetched at.
+     *
+     * @param width  The width backgrounds are shown at, or {@code 0} for any width
+     * @param height The height backgrounds are shown at, or {@code 0} for any height
+     * @throws IllegalArgumentException If {@code width} or {@code height} is less than 0
+     */
+    public void setBackgroundSize(double width, double height) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("\"width\" & \"height\" cannot be less than 0");
+        }
+        this.backgroundWidth = width;
+        this.backgroundHeight = height;
+    }
+
+    /**
+     * Sets the size enemy sprites are prefetched at.
+     *
+     * @param width  The width enemy sprites are shown at, or {@code 0} for any width
+     * @param height The height enemy sprites are shown at, or {@code 0} for any height
+     * @throws IllegalArgumentException If {@code width} or {@code height} is less than 0
+     */
+    public void setEnemySize(double width, double height) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("\"width\" & \"height\" cannot be less than 0");
+        }
+        this.enemyWidth = width;
+        this.enemyHeight = height;
+    }
+
+    /**
+     * Prefetches the sprites of every passage near a passage, closest first,
+     * and cancels any earlier prefetch that's no longer near.
+     *
+     * @param passage The passage the player is in
+     */
+    public void prefetchAround(Passage passage) {
+        Set<SpriteKey> wanted = new LinkedHashSet<>();
+        if (story != null && passage != null) {
+            for (Passage nearPassage : findNearPassages(passage)) {
+                addSprite(wanted, nearPassage.getTitle(), backgroundWidth, backgroundHeight);
+                for (Enemy enemy : nearPassage.getEnemies()) {
+                    addSprite(wanted, enemy.getName(), enemyWidth, enemyHeight);
+                }
+            }
+        }
+
+        for (SpriteKey key : prefetched) {
+            if (!wanted.contains(key)) {
+                cache.cancelPrefetch(key);
+            }
+        }
+        Set<SpriteKey> started = new LinkedHashSet<>();
+        for (SpriteKey key : wanted) {
+            if (started.size() >= maxPrefetches || cache.getPrefetchedBytes() >= byteBudget) {
+                break;
+            }
+            cache.prefetch(key);
+            started.add(key);
+        }
+        prefetched = started;
+    }
+
+    /**
+     * Cancels every prefetch that's still decoding.
+     */
+    public void cancelAll() {
+        prefetched.forEach(cache::cancelPrefetch);
+        prefetched = new LinkedHashSet<>();
+    }
+
+    private void addSprite(Set<SpriteKey> keys, String name, double width, double height) {
+        String url = spritePaths.get(name);
+        if (url != null) {
+            keys.add(SpriteKey.of(url, width, height));
+        }
+    }
+
+    /**
+     * Finds every passage up to {@link #depth} links away from a passage, breadth first.
+     *
+     * @param passage The passage to start at, which is not included
+     * @return Every passage near the given passage, closest first
+     */
+    private List<Passage> findNearPassages(Passage passage) {
+        Set<Passage> visited = new LinkedHashSet<>();
+        visited.add(passage);
+        List<Passage> hop = List.of(passage);
+        for (int i = 0; i < depth && !hop.isEmpty(); i++) {
+            List<Passage> nextHop = new ArrayList<>();
+            for (Passage from : hop) {
+                for (Link link : from.getLinks()) {
+                    Passage to;
+                    try {
+                        to = story.getPassage(link);
+                    } catch (IllegalArgumentException iae) {
+                        //Broken links lead nowhere
+                        continue;
+                    }
+                    if (to != null && visited.add(to)) {
+                        nextHop.add(to);
+                    }
+                }
+            }
+            hop = nextHop;
+        }
+        visited.remove(passage);
+        return new ArrayList<>(visited);
+    }
+}
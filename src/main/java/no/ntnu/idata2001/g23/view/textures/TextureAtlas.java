@@ -0,0 +1,159 @@
+package no.ntnu.idata2001.g23.view.textures;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Packs small images into a few large pages, so that many sprites share one texture.
+ *
+ * <p>Images are packed in rows, from the top left of a page, and a new page is started once
+ * a page is full. Every packed image is handed out as a {@link TextureRegion} of its page,
+ * which image views show through their viewport. Images are kept a pixel apart,
+ * so that smoothing never blends in a neighbouring image.</p>
+ *
+ * <p>Packing copies the pixels of an image, so packing an image into a page that's already
+ * shown uploads the whole page again. Images should therefore be packed before they're shown,
+ * like when they're loaded, and a page should be sealed with {@link #seal(Image)} once any of
+ * its regions is shown, so that later images are packed into a new page instead.</p>
+ */
+public class TextureAtlas {
+    /**
+     * The width & height of every page by default.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 2048;
+    /**
+     * The space between packed images.
+     */
+    public static final int PADDING = 1;
+
+    private final int pageSize;
+    private final int maxPages;
+    private final int maxImageSize;
+    private final List<WritableImage> pages;
+    private int rowX;
+    private int rowY;
+    private int rowHeight;
+    private boolean sealed;
+
+    /**
+     * Makes an empty texture atlas.
+     *
+     * @param pageSize     The width & height of every page
+     * @param maxPages     The max amount of pages
+     * @param maxImageSize The max width & height of packed images.
+     *                     Larger images are not packed.
+     * @throws IllegalArgumentException If any argument is less than 1,
+     *                                  or {@code maxImageSize} is larger than {@code pageSize}
+     */
+    public TextureAtlas(int pageSize, int maxPages, int maxImageSize) {
+        if (pageSize < 1 || maxPages < 1 || maxImageSize < 1) {
+            throw new IllegalArgumentException(
+                    "\"pageSize\", \"maxPages\" & \"maxImageSize\" must be at least 1");
+        }
+        if (maxImageSize > pageSize) {
+            throw new IllegalArgumentException(
+                    "\"maxImageSize\" cannot be larger than \"pageSize\"");
+        }
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.maxImageSize = maxImageSize;
+        this.pages = new ArrayList<>();
+    }
+
+    /**
+     * Packs an image into the atlas.
+     *
+     * @param image The image to pack, which must be done loading
+     * @return The region of the atlas the image was packed into, or {@code null} if the image
+     *         is too large, hasn't loaded, or the atlas is full
+     * @throws IllegalArgumentException If {@code image} is {@code null}
+     */
+    public TextureRegion add(Image image) {
+        if (image == null) {
+            throw new IllegalArgumentException("\"image\" cannot be null");
+        }
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        if (image.isError() || image.getProgress() < 1 || image.getPixelReader() == null
+                || width < 1 || height < 1 || width > maxImageSize || height > maxImageSize) {
+            return null;
+        }
+        if (rowX + width > pageSize) {
+            //Starts a new row
+            rowX = 0;
+            rowY += rowHeight + PADDING;
+            rowHeight = 0;
+        }
+        if (pages.isEmpty() || sealed || rowY + height > pageSize) {
+            if (pages.size() >= maxPages) {
+                return null;
+            }
+            pages.add(new WritableImage(pageSize, pageSize));
+            rowX = 0;
+            rowY = 0;
+            rowHeight = 0;
+            sealed = false;
+        }
+        WritableImage page = pages.get(pages.size() - 1);
+        page.getPixelWriter().setPixels(rowX, rowY, width, height, image.getPixelReader(), 0, 0);
+        TextureRegion region = new TextureRegion(page, new Rectangle2D(rowX, rowY, width, height));
+        rowX += width + PADDING;
+        rowHeight = Math.max(rowHeight, height);
+        return region;
+    }
+
+    /**
+     * Seals a page, so that no more images are packed into it.
+     * Should be called once a region of the page is shown.
+     * Pages before the last page are never packed into again, so only the last page is sealed.
+     *
+     * @param page The page to seal
+     */
+    public void seal(Image page) {
+        if (!pages.isEmpty() && pages.get(pages.size() - 1) == page) {
+            sealed = true;
+        }
+    }
+
+    /**
+     * Gets the amount of bytes the pages of the atlas use, counted as 4 bytes per pixel.
+     *
+     * @return The amount of bytes the pages use
+     */
+    public long getPageBytes() {
+        return (long) pages.size() * pageSize * pageSize * 4;
+    }
+
+    /**
+     * Gets the amount of pages in the atlas.
+     *
+     * @return The amount of pages
+     */
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Gets the maxImageSize field.
+     *
+     * @return The maxImageSize field
+     */
+    public int getMaxImageSize() {
+        return maxImageSize;
+    }
+
+    /**
+     * Removes every page from the atlas.
+     * Regions that were already handed out keep showing their page.
+     */
+    public void clear() {
+        pages.clear();
+        rowX = 0;
+        rowY = 0;
+        rowHeight = 0;
+        sealed = false;
+    }
+}
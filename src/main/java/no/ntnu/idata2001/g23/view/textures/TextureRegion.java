@@ -0,0 +1,69 @@
+package no.ntnu.idata2001.g23.view.textures;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+
+/**
+ * A part of an image, like a sprite packed into a {@link TextureAtlas}.
+ *
+ * @param image    The image the region is a part of
+ * @param viewport The part of the image the region covers, or {@code null} for the whole image
+ */
+public record TextureRegion(Image image, Rectangle2D viewport) {
+    /**
+     * Makes a texture region.
+     *
+     * @param image    The image the region is a part of
+     * @param viewport The part of the image the region covers, or {@code null} for the whole image
+     * @throws IllegalArgumentException If {@code image} is {@code null}
+     */
+    public TextureRegion {
+        if (image == null) {
+            throw new IllegalArgumentException("\"image\" cannot be null");
+        }
+    }
+
+    /**
+     * Makes a region that covers a whole image.
+     *
+     * @param image The image the region covers
+     * @return A region covering the whole image
+     * @throws IllegalArgumentException If {@code image} is {@code null}
+     */
+    public static TextureRegion of(Image image) {
+        return new TextureRegion(image, null);
+    }
+
+    /**
+     * Gets the region as an image of its own, for uses that cannot show a viewport,
+     * like backgrounds. Regions that cover a whole image are not copied.
+     *
+     * @return The image, if the region covers all of it, or a copy of the region otherwise
+     */
+    public Image toImage() {
+        if (viewport == null) {
+            return image;
+        }
+        return new WritableImage(image.getPixelReader(), (int) viewport.getMinX(),
+                (int) viewport.getMinY(), (int) viewport.getWidth(), (int) viewport.getHeight());
+    }
+
+    /**
+     * Gets the width of the region.
+     *
+     * @return The width of the region
+     */
+    public double getWidth() {
+        return viewport != null ? viewport.getWidth() : image.getWidth();
+    }
+
+    /**
+     * Gets the height of the region.
+     *
+     * @return The height of the region
+     */
+    public double getHeight() {
+        return viewport != null ? viewport.getHeight() : image.getHeight();
+    }
+}
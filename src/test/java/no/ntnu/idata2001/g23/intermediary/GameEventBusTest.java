@@ -0,0 +1,165 @@
+package no.ntnu.idata2001.g23.intermediary;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import no.ntnu.idata2001.g23.intermediary.events.GameUpdateEvent;
+import no.ntnu.idata2001.g23.intermediary.events.PlayerDeathEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GameEventBusTest {
+    private GameEventBus eventBus;
+    private Queue<Runnable> tasks;
+    private Executor executor;
+
+    private record TestEvent(int number) implements GameUpdateEvent {
+        @Override
+        public String getDescriptiveText() {
+            return "Test event " + number;
+        }
+    }
+
+    private record OtherEvent(int number) implements GameUpdateEvent {
+        @Override
+        public String getDescriptiveText() {
+            return "Other event " + number;
+        }
+    }
+
+    @BeforeEach
+    void before() {
+        eventBus = new GameEventBus();
+        tasks = new ArrayDeque<>();
+        executor = tasks::add;
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+    }
+
+    @Test
+    void testDirectSubscribersOnlyGetHandledTypes() {
+        List<GameUpdateEvent> testEvents = new ArrayList<>();
+        List<GameUpdateEvent> allEvents = new ArrayList<>();
+        eventBus.subscribe(TestEvent.class, testEvents::add);
+        eventBus.subscribe(allEvents::add);
+
+        eventBus.publish(new TestEvent(1));
+        eventBus.publish(new OtherEvent(2));
+        assertEquals(List.of(new TestEvent(1)), testEvents);
+        assertEquals(List.of(new TestEvent(1), new OtherEvent(2)), allEvents);
+        assertThrows(IllegalArgumentException.class, () -> eventBus.publish(null));
+    }
+
+    @Test
+    void testOwnerGetsEventsInOrderAcrossTypes() {
+        List<GameUpdateEvent> events = new ArrayList<>();
+        Object owner = new Object();
+        eventBus.subscribe(owner, TestEvent.class, events::add, executor);
+        eventBus.subscribe(owner, OtherEvent.class, events::add, executor);
+        assertEquals(2, eventBus.getSubscriberCount());
+
+        eventBus.publish(new OtherEvent(1));
+        eventBus.publish(new TestEvent(2));
+        eventBus.publish(new OtherEvent(3));
+        assertEquals(1, tasks.size());
+        runTasks();
+        assertEquals(List.of(new OtherEvent(1), new TestEvent(2), new OtherEvent(3)), events);
+    }
+
+    @Test
+    void testCoalescingListenerGetsOneBatch() {
+        List<List<GameUpdateEvent>> batches = new ArrayList<>();
+        eventBus.subscribe(new GameUpdateListener() {
+            @Override
+            public void onUpdate(GameUpdateEvent event) {
+                fail("Coalescing listeners should only get batches");
+            }
+
+            @Override
+            public void onUpdates(List<GameUpdateEvent> events) {
+                batches.add(events);
+            }
+        }, executor, true);
+
+        eventBus.publish(new TestEvent(1));
+        eventBus.publish(new TestEvent(2));
+        runTasks();
+        eventBus.publish(new TestEvent(3));
+        runTasks();
+        assertEquals(List.of(List.of(new TestEvent(1), new TestEvent(2)),
+                List.of(new TestEvent(3))), batches);
+    }
+
+    @Test
+    void testCancelledSubscriptionsAreNotNotified() {
+        List<GameUpdateEvent> events = new ArrayList<>();
+        Subscription subscription = eventBus.subscribe(TestEvent.class, events::add, executor);
+        eventBus.publish(new TestEvent(1));
+        subscription.cancel();
+        assertTrue(subscription.isCancelled());
+        assertEquals(0, eventBus.getSubscriberCount());
+
+        runTasks();
+        eventBus.publish(new TestEvent(2));
+        runTasks();
+        assertTrue(events.isEmpty());
+        assertDoesNotThrow(subscription::cancel);
+    }
+
+    @Test
+    void testCancellingOneHandlerKeepsTheOwnersOtherHandlers() {
+        List<GameUpdateEvent> events = new ArrayList<>();
+        Object owner = new Object();
+        Subscription testSubscription = eventBus.subscribe(
+                owner, TestEvent.class, events::add, executor);
+        eventBus.subscribe(owner, OtherEvent.class, events::add, executor);
+        testSubscription.cancel();
+
+        eventBus.publish(new TestEvent(1));
+        eventBus.publish(new OtherEvent(2));
+        runTasks();
+        assertEquals(List.of(new OtherEvent(2)), events);
+    }
+
+    @Test
+    void testUnsubscribedListenerIsNotNotified() {
+        List<GameUpdateEvent> events = new ArrayList<>();
+        GameUpdateListener listener = events::add;
+        eventBus.subscribe(listener);
+        eventBus.unsubscribe(listener);
+        eventBus.publish(new TestEvent(1));
+        assertTrue(events.isEmpty());
+        assertEquals(0, eventBus.getSubscriberCount());
+    }
+
+    @Test
+    void testFullMailboxDropsOldestEventsButKeepsGameEvents() {
+        List<GameUpdateEvent> events = new ArrayList<>();
+        eventBus.subscribe(TestEvent.class, events::add, executor);
+        GameUpdateEvent death = new PlayerDeathEvent(new TestEvent(-1));
+        List<GameUpdateEvent> allEvents = new ArrayList<>();
+        eventBus.subscribe(allEvents::add, executor, false);
+
+        eventBus.publish(death);
+        for (int i = 0; i < GameEventBus.MAILBOX_CAPACITY + 10; i++) {
+            eventBus.publish(new TestEvent(i));
+        }
+        runTasks();
+
+        assertEquals(GameEventBus.MAILBOX_CAPACITY, events.size());
+        assertEquals(new TestEvent(10), events.get(0));
+        assertEquals(new TestEvent(GameEventBus.MAILBOX_CAPACITY + 9),
+                events.get(events.size() - 1));
+        assertEquals(death, allEvents.get(0));
+        assertEquals(GameEventBus.MAILBOX_CAPACITY, allEvents.size());
+        assertEquals(21, eventBus.getDroppedEventCount());
+    }
+}
@@ -0,0 +1,143 @@
+package no.ntnu.idata2001.g23.intermediary;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import no.ntnu.idata2001.g23.intermediary.events.GameUpdateEvent;
+import no.ntnu.idata2001.g23.intermediary.events.NewGameEvent;
+import no.ntnu.idata2001.g23.model.fileparsing.GameFileCollection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GameSessionRegistryTest {
+    private static final long IDLE_TIMEOUT_MILLIS = 1000;
+
+    private GameFileCollection gameFiles;
+    private AtomicLong clock;
+    private GameSessionRegistry registry;
+
+    @BeforeEach
+    void before() {
+        gameFiles = assertDoesNotThrow(() -> new GameFileCollection("testStory"));
+        clock = new AtomicLong();
+        registry = new GameSessionRegistry(2, IDLE_TIMEOUT_MILLIS, clock::get);
+    }
+
+    @AfterEach
+    void after() {
+        registry.stopSweeper();
+    }
+
+    private GameSession createSession() {
+        return registry.createSession(gameFiles, "Test player", "Normal");
+    }
+
+    @Test
+    void testSessionsCanBeStartedAndLookedUp() {
+        GameSession session = createSession();
+        List<GameUpdateEvent> events = new ArrayList<>();
+        session.addUpdateListener(events::add);
+        assertDoesNotThrow(session::startGame);
+
+        assertSame(session, registry.getSession(session.getId()));
+        assertNotNull(session.getGame());
+        assertEquals(session.getGame().getStory().getOpeningPassage(),
+                session.getCurrentPassage());
+        assertInstanceOf(NewGameEvent.class, events.get(0));
+        assertNull(registry.getSession("No such session"));
+        assertNull(registry.getSession(null));
+    }
+
+    @Test
+    void testSessionLimit() {
+        GameSession firstSession = createSession();
+        createSession();
+        assertEquals(2, registry.getSessionCount());
+        assertThrows(IllegalStateException.class, this::createSession);
+        assertEquals(2, registry.getSessionCount());
+
+        registry.removeSession(firstSession.getId());
+        assertDoesNotThrow(this::createSession);
+    }
+
+    @Test
+    void testRemovedSessionsNotifyListeners() {
+        List<GameSession> removed = new ArrayList<>();
+        registry.addRemovalListener(removed::add);
+        GameSession session = createSession();
+
+        assertSame(session, registry.removeSession(session.getId()));
+        assertNull(registry.getSession(session.getId()));
+        assertNull(registry.removeSession(session.getId()));
+        assertEquals(List.of(session), removed);
+        assertEquals(0, registry.getSessionCount());
+    }
+
+    @Test
+    void testIdleSessionsAreRemoved() {
+        List<GameSession> removed = new ArrayList<>();
+        registry.addRemovalListener(removed::add);
+        GameSession idleSession = createSession();
+        GameSession activeSession = createSession();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(IDLE_TIMEOUT_MILLIS / 2 + 1));
+        registry.getSession(activeSession.getId());
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(IDLE_TIMEOUT_MILLIS / 2 + 1));
+
+        assertEquals(1, registry.removeIdleSessions());
+        assertEquals(List.of(idleSession), removed);
+        assertNull(registry.getSession(idleSession.getId()));
+        assertSame(activeSession, registry.getSession(activeSession.getId()));
+        assertEquals(1, registry.getSessionCount());
+    }
+
+    @Test
+    void testThrowingListenerDoesNotStopOtherListeners() {
+        List<GameSession> removed = new ArrayList<>();
+        registry.addRemovalListener(session -> {
+            throw new IllegalStateException("First listener");
+        });
+        registry.addRemovalListener(removed::add);
+        GameSession idleSession = createSession();
+        GameSession removedSession = createSession();
+
+        assertThrows(IllegalStateException.class, () ->
+                registry.removeSession(removedSession.getId()));
+        assertEquals(List.of(removedSession), removed);
+        assertNull(registry.getSession(removedSession.getId()));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(IDLE_TIMEOUT_MILLIS + 1));
+        assertThrows(IllegalStateException.class, registry::removeIdleSessions);
+        assertEquals(List.of(removedSession, idleSession), removed);
+        assertEquals(0, registry.getSessionCount());
+    }
+
+    @Test
+    void testSweeperCanBeStopped() {
+        assertFalse(registry.isSweeping());
+        createSession();
+        assertTrue(registry.isSweeping());
+        registry.stopSweeper();
+        assertFalse(registry.isSweeping());
+        assertDoesNotThrow(registry::stopSweeper);
+
+        createSession();
+        assertTrue(registry.isSweeping());
+    }
+
+    @Test
+    void testInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new GameSessionRegistry(0));
+        assertThrows(IllegalArgumentException.class, () ->
+                new GameSessionRegistry(1, 0, System::nanoTime));
+        assertThrows(IllegalArgumentException.class, () ->
+                registry.createSession(null, "Test player", "Normal"));
+        assertThrows(IllegalArgumentException.class, () ->
+                registry.createSession(gameFiles, " ", "Normal"));
+        assertThrows(IllegalArgumentException.class, () -> registry.addRemovalListener(null));
+    }
+}
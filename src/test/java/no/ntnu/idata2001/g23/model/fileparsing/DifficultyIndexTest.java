@@ -0,0 +1,64 @@
+package no.ntnu.idata2001.g23.model.fileparsing;
+
+import java.io.LineNumberReader;
+import java.io.StringReader;
+import java.util.List;
+import no.ntnu.idata2001.g23.model.goals.Goal;
+import no.ntnu.idata2001.g23.model.goals.GoldGoal;
+import no.ntnu.idata2001.g23.model.goals.ScoreGoal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DifficultyIndexTest {
+    private DifficultyIndex<GoalLoader.GoalsTemplate> goalIndex;
+
+    @BeforeEach
+    void before() {
+        goalIndex = assertDoesNotThrow(() -> GoalLoader.parseGoalIndex(new LineNumberReader(
+                new StringReader("""
+                        #Easy
+                        Gold: 100
+
+                        #Broken
+                        Gold 100
+
+                        #Hard
+                        Gold: 500
+                        Score: 20
+
+                        #Hardest
+                        Gold: 1000
+                        """))));
+    }
+
+    @Test
+    void testEveryDifficultyIsLookedUpFromTheSameIndex() {
+        List<Goal> easyGoals = assertDoesNotThrow(() ->
+                new GoalLoader(null, "Easy").makeGoals(goalIndex));
+        List<Goal> hardGoals = assertDoesNotThrow(() ->
+                new GoalLoader(null, "Hard").makeGoals(goalIndex));
+        List<Goal> hardestGoals = assertDoesNotThrow(() ->
+                new GoalLoader(null, "Hardest").makeGoals(goalIndex));
+
+        assertEquals(List.of(new GoldGoal(100)), easyGoals);
+        assertEquals(List.of(new GoldGoal(500), new ScoreGoal(20)), hardGoals);
+        assertEquals(List.of(new GoldGoal(1000)), hardestGoals);
+    }
+
+    @Test
+    void testCorruptDifficultyOnlyThrowsWhenLookedUp() {
+        CorruptFileException exception = assertThrows(CorruptFileException.class, () ->
+                new GoalLoader(null, "Broken").makeGoals(goalIndex));
+        assertEquals(CorruptFileException.Type.GOAL_INVALID_FORMAT, exception.getType());
+        assertTrue(exception.getMessage().contains("Line: 5"));
+    }
+
+    @Test
+    void testMissingDifficultyThrowsWithLastLineNumber() {
+        CorruptFileException exception = assertThrows(CorruptFileException.class, () ->
+                goalIndex.get("Impossible", CorruptFileException.Type.NO_GOALS));
+        assertEquals(CorruptFileException.Type.NO_GOALS, exception.getType());
+        assertTrue(exception.getMessage().contains("Line: 12"));
+    }
+}
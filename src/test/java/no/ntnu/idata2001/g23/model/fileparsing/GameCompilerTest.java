@@ -0,0 +1,134 @@
+package no.ntnu.idata2001.g23.model.fileparsing;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.stream.Stream;
+import no.ntnu.idata2001.g23.model.Game;
+import no.ntnu.idata2001.g23.model.story.Link;
+import no.ntnu.idata2001.g23.model.story.Passage;
+import no.ntnu.idata2001.g23.model.story.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameCompilerTest {
+    private static final Path TEST_STORY = Path.of("testStory");
+
+    @TempDir
+    private Path gameDirectory;
+    private GameFileCollection gameFiles;
+    private Story textStory;
+
+    @BeforeEach
+    void before() throws IOException {
+        try (Stream<Path> files = Files.list(TEST_STORY)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.copy(file, gameDirectory.resolve(file.getFileName()));
+            }
+        }
+        gameFiles = assertDoesNotThrow(() -> new GameFileCollection(gameDirectory.toString()));
+        textStory = assertDoesNotThrow(() -> gameFiles.makeNewGame("Test player", "Normal"))
+                .getStory();
+    }
+
+    /**
+     * Compiles the game, and marks every source file as older than the compiled file.
+     */
+    private void compile() throws IOException {
+        assertDoesNotThrow(() -> GameCompiler.compile(gameFiles));
+        FileTime sourceTime = FileTime.from(Instant.now().minusSeconds(60));
+        try (Stream<Path> files = Files.list(gameDirectory)) {
+            for (Path file : files.toList()) {
+                if (!file.equals(gameFiles.getCompiledPath())) {
+                    Files.setLastModifiedTime(file, sourceTime);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testCompiledStoryMatchesTextStory() throws IOException {
+        compile();
+        CompiledGame compiledGame = assertDoesNotThrow(() ->
+                CompiledGame.load(gameFiles.getCompiledPath()));
+        Story compiledStory = assertDoesNotThrow(() -> compiledGame.makeStory(
+                compiledGame.makeItemProvider(),
+                compiledGame.makeEnemyProvider(compiledGame.makeItemProvider())));
+
+        assertEquals(textStory, compiledStory);
+        assertEquals(textStory.getOpeningPassage(), compiledStory.getOpeningPassage());
+    }
+
+    @Test
+    void testLazyCompiledStoryMatchesTextStory() throws IOException {
+        compile();
+        CompiledGame compiledGame = assertDoesNotThrow(() ->
+                CompiledGame.load(gameFiles.getCompiledPath()));
+        LazyStory lazyStory = assertDoesNotThrow(() -> compiledGame.makeLazyStory(
+                compiledGame.makeItemProvider(),
+                compiledGame.makeEnemyProvider(compiledGame.makeItemProvider()), 1));
+
+        assertEquals(textStory.getOpeningPassage(), lazyStory.getOpeningPassage());
+        assertEquals(textStory.getPassages().size(), lazyStory.getPassages().size());
+        for (Passage passage : textStory.getPassages()) {
+            Link link = new Link(passage.getTitle(), passage.getTitle());
+            assertEquals(passage, lazyStory.getPassage(link));
+            assertEquals(textStory.getReferringPassages(link).size(),
+                    lazyStory.getReferringPassages(link).size());
+        }
+        assertTrue(lazyStory.getLoadedPassageCount() <= 2);
+    }
+
+    @Test
+    void testMissingProvidersThrowCorruptFileException() throws IOException {
+        compile();
+        CompiledGame compiledGame = assertDoesNotThrow(() ->
+                CompiledGame.load(gameFiles.getCompiledPath()));
+        assertEquals(CorruptFileException.Type.COMPILED_INVALID_FORMAT, assertThrows(
+                CorruptFileException.class, () -> compiledGame.makeStory(null, null)).getType());
+    }
+
+    @Test
+    void testCompiledGameIsPreferredWhenUpToDate() throws IOException {
+        compile();
+        assertNotNull(gameFiles.getCompiledGame());
+        Game game = assertDoesNotThrow(() -> gameFiles.makeNewGame("Test player", "Normal"));
+        assertEquals(textStory, game.getStory());
+    }
+
+    @Test
+    void testTextFilesArePreferredWhenNewer() throws IOException {
+        compile();
+        Files.setLastModifiedTime(gameFiles.getPath(".paths"),
+                FileTime.from(Instant.now().plusSeconds(60)));
+        assertNull(gameFiles.getCompiledGame());
+    }
+
+    @Test
+    void testCorruptCompiledFileFallsBackToTextFiles() throws IOException {
+        compile();
+        FileTime compiledTime = Files.getLastModifiedTime(gameFiles.getCompiledPath());
+        Files.write(gameFiles.getCompiledPath(), new byte[] {1, 2, 3});
+        Files.setLastModifiedTime(gameFiles.getCompiledPath(), compiledTime);
+
+        assertNull(gameFiles.getCompiledGame());
+        Game game = assertDoesNotThrow(() -> gameFiles.makeNewGame("Test player", "Normal"));
+        assertEquals(textStory, game.getStory());
+    }
+
+    @Test
+    void testLoadingOfCorruptCompiledFileThrowsCorruptFileException() throws IOException {
+        Path compiledPath = gameFiles.getCompiledPath();
+        Files.write(compiledPath, new byte[] {1, 2, 3});
+        assertEquals(CorruptFileException.Type.COMPILED_INVALID_FORMAT, assertThrows(
+                CorruptFileException.class, () -> CompiledGame.load(compiledPath)).getType());
+
+        assertEquals(CorruptFileException.Type.UNKNOWN_COMPILED, assertThrows(
+                CorruptFileException.class, () -> CompiledGame.load(
+                        gameDirectory.resolve("missing.compiled"))).getType());
+    }
+}
@@ -0,0 +1,104 @@
+package no.ntnu.idata2001.g23.model.fileparsing;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.stream.Stream;
+import no.ntnu.idata2001.g23.model.Game;
+import no.ntnu.idata2001.g23.model.story.Link;
+import no.ntnu.idata2001.g23.model.story.Passage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameTemplateCacheTest {
+    private static final Path TEST_STORY = Path.of("testStory");
+
+    private GameTemplateCache cache;
+    private GameFileCollection gameFiles;
+
+    @BeforeEach
+    void before() {
+        cache = new GameTemplateCache(1);
+        gameFiles = assertDoesNotThrow(() -> new GameFileCollection(TEST_STORY.toString()));
+    }
+
+    private GameFileCollection copyTestStory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(TEST_STORY)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.copy(file, directory.resolve(file.getFileName()));
+            }
+        }
+        return assertDoesNotThrow(() -> new GameFileCollection(directory.toString()));
+    }
+
+    @Test
+    void testTemplateIsReused() {
+        GameTemplate template = assertDoesNotThrow(() -> cache.getTemplate(gameFiles));
+        assertSame(template, assertDoesNotThrow(() -> cache.getTemplate(gameFiles)));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testGamesFromTemplateHaveSeparateState() {
+        GameTemplate template = assertDoesNotThrow(() -> cache.getTemplate(gameFiles));
+        Game firstGame = assertDoesNotThrow(() -> template.makeGame("Test player", "Normal"));
+        Game secondGame = assertDoesNotThrow(() -> template.makeGame("Test player", "Normal"));
+        Game loadedGame = assertDoesNotThrow(() -> gameFiles.makeNewGame("Test player", "Normal"));
+
+        assertEquals(loadedGame.getStory().getOpeningPassage(),
+                firstGame.getStory().getOpeningPassage());
+        assertEquals(loadedGame.getStory().getPassages().size(),
+                firstGame.getStory().getPassages().size());
+        for (Passage passage : loadedGame.getStory().getPassages()) {
+            assertEquals(passage, firstGame.getStory().getPassage(
+                    new Link(passage.getTitle(), passage.getTitle())));
+        }
+        assertEquals(loadedGame.getPlayer(), firstGame.getPlayer());
+        assertEquals(loadedGame.getGoals(), firstGame.getGoals());
+
+        assertNotSame(firstGame.getPlayer(), secondGame.getPlayer());
+        Link testRoom = new Link("Test room", "Test room");
+        Passage firstTestRoom = firstGame.getStory().getPassage(testRoom);
+        Passage secondTestRoom = secondGame.getStory().getPassage(testRoom);
+        assertNotSame(firstTestRoom, secondTestRoom);
+        assertNotSame(firstTestRoom.getEnemies().get(0), secondTestRoom.getEnemies().get(0));
+
+        firstTestRoom.getEnemies().clear();
+        assertFalse(secondTestRoom.getEnemies().isEmpty());
+
+        Link anotherRoom = new Link("Another room", "Another room");
+        assertSame(firstGame.getStory().getPassage(anotherRoom),
+                secondGame.getStory().getPassage(anotherRoom));
+        assertSame(firstTestRoom.getLinks().get(0), secondTestRoom.getLinks().get(0));
+    }
+
+    @Test
+    void testModifiedGameIsParsedAgain(@TempDir Path gameDirectory) throws IOException {
+        GameFileCollection copiedGameFiles = copyTestStory(gameDirectory);
+        GameTemplate template = assertDoesNotThrow(() -> cache.getTemplate(copiedGameFiles));
+
+        Files.setLastModifiedTime(copiedGameFiles.getPath(".goals"),
+                FileTime.from(Instant.now().plusSeconds(60)));
+        assertNotSame(template, assertDoesNotThrow(() -> cache.getTemplate(copiedGameFiles)));
+    }
+
+    @Test
+    void testLeastRecentlyUsedTemplateIsEvicted(@TempDir Path gameDirectory) throws IOException {
+        GameFileCollection copiedGameFiles = copyTestStory(gameDirectory);
+        GameTemplate template = assertDoesNotThrow(() -> cache.getTemplate(gameFiles));
+        assertDoesNotThrow(() -> cache.getTemplate(copiedGameFiles));
+
+        assertEquals(1, cache.size());
+        assertNotSame(template, assertDoesNotThrow(() -> cache.getTemplate(gameFiles)));
+    }
+
+    @Test
+    void testInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new GameTemplateCache(0));
+        assertThrows(IllegalArgumentException.class, () -> cache.getTemplate(null));
+    }
+}
@@ -0,0 +1,312 @@
+package no.ntnu.idata2001.g23.model.fileparsing;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import no.ntnu.idata2001.g23.model.entities.enemies.Enemy;
+import no.ntnu.idata2001.g23.model.items.Item;
+import no.ntnu.idata2001.g23.model.misc.Provider;
+import no.ntnu.idata2001.g23.model.story.Link;
+import no.ntnu.idata2001.g23.model.story.Passage;
+import no.ntnu.idata2001.g23.model.story.Story;
+import no.ntnu.idata2001.g23.model.story.StoryIntegrity;
+import no.ntnu.idata2001.g23.model.story.analysis.StoryGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyStoryTest {
+    private static final Path TEST_STORY = Path.of("testStory");
+
+    @TempDir
+    private Path storyDirectory;
+    private StoryLoader storyLoader;
+    private Path storyPath;
+
+    @BeforeEach
+    void before() {
+        GameFileCollection gameFiles = assertDoesNotThrow(() ->
+                new GameFileCollection(TEST_STORY.toString()));
+        Provider<Item> itemProvider = assertDoesNotThrow(gameFiles::loadItems);
+        Provider<Enemy> enemyProvider = assertDoesNotThrow(() ->
+                gameFiles.loadEnemies(itemProvider));
+        storyLoader = new StoryLoader(itemProvider, enemyProvider);
+        storyPath = gameFiles.getPath(".paths");
+    }
+
+    /**
+     * Writes a story where each passage links to the next one, and the last links to the first.
+     *
+     * @param passageCount The amount of passages in the story
+     * @return The path to the written story
+     */
+    private Path writeChainStory(int passageCount) throws IOException {
+        StringBuilder story = new StringBuilder("Chain story\r\n\r\n");
+        for (int i = 0; i < passageCount; i++) {
+            story.append("::Passage ").append(i).append("\r\n")
+                    .append("Passage number ").append(i).append(" æøå\r\n")
+                    .append("[Next] (Passage ").append((i + 1) % passageCount).append(")\r\n")
+                    .append("\r\n");
+        }
+        Path chainPath = storyDirectory.resolve("chain.paths");
+        Files.writeString(chainPath, story);
+        return chainPath;
+    }
+
+    private static Link linkTo(String passageTitle) {
+        return new Link(passageTitle, passageTitle);
+    }
+
+    @Test
+    void testLazyPassagesMatchEagerPassages() {
+        Story eagerStory = assertDoesNotThrow(() -> storyLoader.loadStory(storyPath));
+        LazyStory lazyStory = assertDoesNotThrow(() -> storyLoader.loadLazyStory(storyPath, 1));
+
+        assertEquals(eagerStory.getTitle(), lazyStory.getTitle());
+        assertEquals(eagerStory.getOpeningPassage(), lazyStory.getOpeningPassage());
+        assertEquals(eagerStory.getPassages().size(), lazyStory.getPassages().size());
+        for (Passage passage : eagerStory.getPassages()) {
+            assertEquals(passage, lazyStory.getPassage(linkTo(passage.getTitle())));
+        }
+    }
+
+    @Test
+    void testCacheIsBounded() throws IOException {
+        Path chainPath = writeChainStory(50);
+        LazyStory lazyStory = assertDoesNotThrow(() -> storyLoader.loadLazyStory(chainPath, 4));
+        assertEquals(1, lazyStory.getLoadedPassageCount());
+
+        Passage passage = lazyStory.getOpeningPassage();
+        for (int i = 0; i < 100; i++) {
+            passage = lazyStory.getPassage(passage.getLinks().get(0));
+            assertEquals("Passage " + ((i + 1) % 50), passage.getTitle());
+            assertTrue(lazyStory.getLoadedPassageCount() <= 5);
+        }
+        assertEquals("Passage number 7 æøå",
+                lazyStory.getPassage(linkTo("Passage 7")).getContent());
+    }
+
+    @Test
+    void testEnemyStateIsKeptWhenEvicted() {
+        LazyStory lazyStory = assertDoesNotThrow(() -> storyLoader.loadLazyStory(storyPath, 1));
+        Passage testRoom = lazyStory.getPassage(linkTo("Test room"));
+        assertEquals(10, testRoom.getEnemies().size());
+        testRoom.getEnemies().remove(0);
+        lazyStory.getPassage(linkTo("Another room"));
+        assertEquals(2, lazyStory.getLoadedPassageCount());
+
+        Passage parsedAgain = lazyStory.getPassage(linkTo("Test room"));
+        assertNotSame(testRoom, parsedAgain);
+        assertEquals(9, parsedAgain.getEnemies().size());
+        assertSame(testRoom.getEnemies().get(0), parsedAgain.getEnemies().get(0));
+
+        parsedAgain.getEnemies().clear();
+        lazyStory.getPassage(linkTo("Another room"));
+        assertTrue(lazyStory.getPassage(linkTo("Test room")).getEnemies().isEmpty());
+    }
+
+    @Test
+    void testEnemiesKilledThroughEvictedPassageStayDead() {
+        LazyStory lazyStory = assertDoesNotThrow(() -> storyLoader.loadLazyStory(storyPath, 1));
+        Passage currentPassage = lazyStory.getPassage(linkTo("Test room"));
+        lazyStory.getPassage(linkTo("Another room"));
+        Passage parsedAgain = lazyStory.getPassage(linkTo("Test room"));
+        assertNotSame(currentPassage, parsedAgain);
+
+        //The evicted passage is still shown, and an enemy is killed through it
+        Enemy killed = currentPassage.getEnemies().remove(0);
+        lazyStory.getPassage(linkTo("Another room"));
+        Passage revisited = lazyStory.getPassage(linkTo("Test room"));
+        assertEquals(9, parsedAgain.getEnemies().size());
+        assertEquals(9, revisited.getEnemies().size());
+        assertFalse(revisited.getEnemies().stream().anyMatch(enemy -> enemy == killed));
+    }
+
+    @Test
+    void testCopiesHaveSeparatePassages() {
+        LazyStory lazyStory = assertDoesNotThrow(() -> storyLoader.loadLazyStory(storyPath, 1));
+        LazyStory copy = lazyStory.copy(passage -> passage);
+
+        assertEquals(lazyStory, copy);
+        assertNotSame(lazyStory.getOpeningPassage(), copy.getOpeningPassage());
+        assertNotSame(lazyStory.getPassage(linkTo("Test room")),
+                copy.getPassage(linkTo("Test room")));
+    }
+
+    @Test
+    void testBrokenLinksAreFoundWhenLoading() throws IOException {
+        Path brokenPath = storyDirectory.resolve("broken.paths");
+        Files.writeString(brokenPath, """
+                Broken story
+
+                ::Start
+                There's a door here
+                [Open the door] (Nowhere)
+                [Stay] (Start)
+                """);
+        CorruptFileException exception = assertThrows(CorruptFileException.class, () ->
+                storyLoader.loadLazyStory(brokenPath, 16));
+        assertEquals(CorruptFileException.Type.STORY_BROKEN_LINKS, exception.getType());
+    }
+
+    @Test
+    void testCorruptPassagesAreFoundWhenLoading() throws IOException {
+        Path corruptPath = storyDirectory.resolve("corrupt.paths");
+        Files.writeString(corruptPath, """
+                Corrupt story
+
+                ::Start
+                There's a door here
+                [Open the door] (Start)
+
+                ::Empty
+                [Go back] (Start)
+                """);
+        CorruptFileException exception = assertThrows(CorruptFileException.class, () ->
+                storyLoader.loadLazyStory(corruptPath, 16));
+        assertEquals(CorruptFileException.Type.PASSAGE_NO_CONTENT, exception.getType());
+        assertEquals(exception.getMessage(), assertThrows(CorruptFileException.class, () ->
+                storyLoader.loadStory(corruptPath)).getMessage());
+    }
+
+    @Test
+    void testInvalidActionsAndEnemiesAreFoundWhenLoading() throws IOException {
+        Path actionPath = storyDirectory.resolve("action.paths");
+        Files.writeString(actionPath, """
+                Action story
+
+                ::Start
+                There's a door here
+                [Open the door] (Broken)
+
+                ::Broken
+                The door leads nowhere
+                [Go back] (Start) {Not an action}
+                """);
+        CorruptFileException exception = assertThrows(CorruptFileException.class, () ->
+                storyLoader.loadLazyStory(actionPath, 16));
+        assertEquals(CorruptFileException.Type.ACTION_INVALID_FORMAT, exception.getType());
+        assertEquals(exception.getMessage(), assertThrows(CorruptFileException.class, () ->
+                storyLoader.loadStory(actionPath)).getMessage());
+
+        Path enemyPath = storyDirectory.resolve("enemy.paths");
+        Files.writeString(enemyPath, """
+                Enemy story
+
+                ::Start
+                There's a door here
+                [Open the door] (Guarded)
+
+                ::Guarded
+                Something guards the door
+                !No such enemy
+                [Go back] (Start)
+                """);
+        exception = assertThrows(CorruptFileException.class, () ->
+                storyLoader.loadLazyStory(enemyPath, 16));
+        assertEquals(CorruptFileException.Type.PASSAGE_INVALID_ENEMY, exception.getType());
+        assertEquals(exception.getMessage(), assertThrows(CorruptFileException.class, () ->
+                storyLoader.loadStory(enemyPath)).getMessage());
+    }
+
+    @Test
+    void testUnknownPassage() throws IOException {
+        Path chainPath = writeChainStory(3);
+        LazyStory lazyStory = assertDoesNotThrow(() -> storyLoader.loadLazyStory(chainPath, 4));
+
+        assertThrows(IllegalArgumentException.class, () -> lazyStory.getPassage(null));
+        assertThrows(IllegalArgumentException.class, () ->
+                lazyStory.getPassage(linkTo("Passage 3")));
+        assertThrows(IllegalArgumentException.class, () ->
+                storyLoader.loadLazyStory(chainPath, 0));
+    }
+
+    @Test
+    void testAddAndRemovePassages() throws IOException {
+        Path chainPath = writeChainStory(3);
+        LazyStory lazyStory = assertDoesNotThrow(() -> storyLoader.loadLazyStory(chainPath, 4));
+        assertThrows(IllegalStateException.class, () ->
+                lazyStory.removePassage(linkTo("Passage 1")));
+
+        Passage newPassage = new Passage("New passage", "Content");
+        newPassage.addLink(linkTo("Passage 1"));
+        lazyStory.addPassage(newPassage);
+        assertSame(newPassage, lazyStory.getPassage(linkTo("New passage")));
+        assertEquals(4, lazyStory.getPassages().size());
+        assertEquals(List.of(lazyStory.getPassage(linkTo("Passage 0")), newPassage),
+                lazyStory.getReferringPassages(linkTo("Passage 1")));
+
+        Passage replacement = new Passage("Passage 2", "Replaced content");
+        replacement.addLink(linkTo("Passage 0"));
+        lazyStory.addPassage(replacement);
+        assertSame(replacement, lazyStory.getPassage(linkTo("Passage 2")));
+        assertEquals(4, lazyStory.getPassages().size());
+
+        lazyStory.removePassage(linkTo("New passage"));
+        assertThrows(IllegalArgumentException.class, () ->
+                lazyStory.getPassage(linkTo("New passage")));
+        assertEquals(3, lazyStory.getPassages().size());
+    }
+
+    @Test
+    void testIntegritySnapshot() throws IOException {
+        Path chainPath = writeChainStory(3);
+        LazyStory lazyStory = assertDoesNotThrow(() -> storyLoader.loadLazyStory(chainPath, 4));
+        StoryIntegrity integrity = lazyStory.getIntegrity();
+        assertFalse(integrity.hasDanglingReferences());
+        assertTrue(integrity.getOrphanPassages().isEmpty());
+        assertTrue(integrity.getDeadEnds().isEmpty());
+
+        Passage deadEnd = new Passage("Dead end", "Content");
+        Passage brokenPassage = new Passage("Broken passage", "Content");
+        brokenPassage.addLink(linkTo("Nowhere"));
+        lazyStory.addPassage(deadEnd);
+        lazyStory.addPassage(brokenPassage);
+        integrity = lazyStory.getIntegrity();
+        assertEquals(Set.of("Nowhere"), integrity.getDanglingReferences());
+        assertEquals(Set.of(deadEnd, brokenPassage), Set.copyOf(integrity.getOrphanPassages()));
+        assertEquals(List.of(deadEnd), List.copyOf(integrity.getDeadEnds()));
+        assertEquals(List.of(linkTo("Nowhere")), lazyStory.getBrokenLinks());
+    }
+
+    @Test
+    void testGraphIsMadeFromIndex() throws IOException {
+        Story eagerStory = assertDoesNotThrow(() -> storyLoader.loadStory(storyPath));
+        LazyStory lazyStory = assertDoesNotThrow(() -> storyLoader.loadLazyStory(storyPath, 1));
+        StoryGraph eagerGraph = StoryGraph.of(eagerStory);
+        StoryGraph lazyGraph = StoryGraph.of(lazyStory);
+        assertEquals(1, lazyStory.getLoadedPassageCount());
+        assertEquals(eagerGraph.getPassageCount(), lazyGraph.getPassageCount());
+        assertEquals(eagerGraph.getLinkCount(), lazyGraph.getLinkCount());
+        for (int i = 0; i < eagerGraph.getPassageCount(); i++) {
+            int lazyIndex = lazyGraph.getIndex(eagerGraph.getTitle(i));
+            assertEquals(eagerGraph.getOutDegree(i), lazyGraph.getOutDegree(lazyIndex));
+            for (int link = 0; link < eagerGraph.getOutDegree(i); link++) {
+                assertEquals(eagerGraph.getTitle(eagerGraph.getTarget(i, link)),
+                        lazyGraph.getTitle(lazyGraph.getTarget(lazyIndex, link)));
+            }
+        }
+
+        Path chainPath = writeChainStory(3);
+        LazyStory chainStory = assertDoesNotThrow(() -> storyLoader.loadLazyStory(chainPath, 4));
+        Passage replacement = new Passage("Passage 2", "Replaced content");
+        replacement.addLink(linkTo("Nowhere"));
+        chainStory.addPassage(replacement);
+        Passage newPassage = new Passage("New passage", "Content");
+        newPassage.addLink(linkTo("Passage 2"));
+        chainStory.addPassage(newPassage);
+
+        StoryGraph chainGraph = StoryGraph.of(chainStory);
+        assertEquals(4, chainGraph.getPassageCount());
+        assertEquals(3, chainGraph.getLinkCount());
+        assertEquals(1, chainGraph.getBrokenLinkCount());
+        assertEquals("Passage 0", chainGraph.getTitle(0));
+        int replacementIndex = chainGraph.getIndex("Passage 2");
+        assertEquals(0, chainGraph.getOutDegree(replacementIndex));
+        assertEquals(replacementIndex, chainGraph.getTarget(chainGraph.getIndex("New passage"), 0));
+        assertEquals(replacementIndex, chainGraph.getTarget(chainGraph.getIndex("Passage 1"), 0));
+    }
+}
@@ -0,0 +1,74 @@
+package no.ntnu.idata2001.g23.model.fileparsing;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LexerTest {
+    @Test
+    void testParseIntMatchesIntegerParseInt() {
+        for (String number : List.of("0", "42", "-42", "+42", "007", "2147483647",
+                "-2147483648", "١٢")) {
+            assertEquals(Integer.parseInt(number), new Lexer(number).parseInt());
+        }
+        for (String number : List.of("", "-", "+", "4 2", "42a", "2147483648",
+                "-2147483649", "--1", "1.5")) {
+            assertThrows(NumberFormatException.class, () -> Integer.parseInt(number));
+            assertThrows(NumberFormatException.class, () -> new Lexer(number).parseInt());
+        }
+    }
+
+    @Test
+    void testParseListMatchesSplit() {
+        for (String list : List.of("", "a", " foo, BAR ,7357 ", "a,", "a,,", ",", ",,",
+                "a, ,", "a,, b", ", a")) {
+            assertEquals(Arrays.stream(list.split(",")).map(String::trim).toList(),
+                    CollectionParserUtil.parseList(list));
+        }
+    }
+
+    @Test
+    void testReadUntilSplitsAtFirstDelimiter() {
+        Lexer lexer = new Lexer(" Key : Value: with colon ");
+        Lexer token = new Lexer();
+        assertTrue(lexer.readUntil(':', token));
+        assertEquals("Key", token.trim().toString());
+        assertEquals("Value: with colon", lexer.trim().toString());
+        assertFalse(lexer.readUntil(';', token));
+        assertEquals("Key", token.toString());
+        assertEquals("Value: with colon", lexer.toString());
+    }
+
+    @Test
+    void testResetReadsAnotherText() {
+        Lexer lexer = new Lexer("Gold: 5");
+        Lexer token = new Lexer();
+        assertTrue(lexer.readUntil(':', token));
+        lexer.reset("Health: -3");
+        assertEquals("Gold", token.toString());
+        assertTrue(lexer.readUntil(':', token));
+        assertEquals("Health", token.toString());
+        assertEquals(-3, lexer.trim().parseInt());
+    }
+
+    @Test
+    void testMatchKeywordIgnoresCaseAndSpaces() {
+        assertEquals("usable", new Lexer(" Usa ble").matchKeyword("basic", "usable"));
+        assertEquals("basic", new Lexer("BASIC").matchKeyword("basic", "usable"));
+        assertNull(new Lexer("basics").matchKeyword("basic", "usable"));
+        assertNull(new Lexer("").matchKeyword("basic", "usable"));
+    }
+
+    @Test
+    void testStripEnclosingAndBlankChecks() {
+        Lexer lexer = new Lexer("  { {Gold: 5} }  ").stripEnclosing('{', '}');
+        assertEquals("Gold: 5", lexer.toString());
+        assertTrue(lexer.startsWith('G'));
+        assertTrue(lexer.contains(':'));
+        assertFalse(lexer.isBlank());
+        assertTrue(new Lexer(" \t ").isBlank());
+        assertTrue(new Lexer("Gold").contentEquals("Gold"));
+        assertFalse(new Lexer("Gold").contentEquals("Golden"));
+    }
+}
@@ -0,0 +1,99 @@
+package no.ntnu.idata2001.g23.model.fileparsing;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.stream.Stream;
+import no.ntnu.idata2001.g23.model.Game;
+import no.ntnu.idata2001.g23.model.story.Link;
+import no.ntnu.idata2001.g23.model.story.Passage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelGameLoaderTest {
+    private static final Path TEST_STORY = Path.of("testStory");
+
+    private GameFileCollection gameFiles;
+
+    @BeforeEach
+    void before() {
+        gameFiles = assertDoesNotThrow(() -> new GameFileCollection(TEST_STORY.toString()));
+    }
+
+    /**
+     * Copies the test story to a temporary directory, so that its files can be corrupted.
+     *
+     * @param directory The directory to copy the test story to
+     */
+    private void copyTestStory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(TEST_STORY)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.copy(file, directory.resolve(file.getFileName()));
+            }
+        }
+    }
+
+    @Test
+    void testLoadingMatchesSerialLoading() {
+        Game serialGame = assertDoesNotThrow(() -> gameFiles.makeNewGame("Test player", "Normal"));
+        Game parallelGame = assertDoesNotThrow(() -> new ParallelGameLoader(gameFiles)
+                .loadGame("Test player", "Normal"));
+
+        assertEquals(serialGame.getStory().getTitle(), parallelGame.getStory().getTitle());
+        assertEquals(serialGame.getStory().getOpeningPassage(),
+                parallelGame.getStory().getOpeningPassage());
+        assertEquals(serialGame.getStory().getPassages().size(),
+                parallelGame.getStory().getPassages().size());
+        for (Passage passage : serialGame.getStory().getPassages()) {
+            assertEquals(passage, parallelGame.getStory().getPassage(
+                    new Link(passage.getTitle(), passage.getTitle())));
+        }
+        assertEquals(serialGame.getPlayer(), parallelGame.getPlayer());
+        assertEquals(serialGame.getGoals(), parallelGame.getGoals());
+    }
+
+    @Test
+    void testEveryStageIsTimed() {
+        ParallelGameLoader loader = new ParallelGameLoader(gameFiles);
+        assertDoesNotThrow(() -> loader.loadGame("Test player", "Easy"));
+
+        assertEquals(EnumSet.allOf(ParallelGameLoader.Stage.class),
+                EnumSet.copyOf(loader.getStageTimings().keySet()));
+        loader.getStageTimings().values().forEach(duration ->
+                assertFalse(duration.isNegative()));
+    }
+
+    @Test
+    void testTemplateKeepsStageTimings() {
+        GameTemplate template = assertDoesNotThrow(() -> gameFiles.makeTemplateParallel());
+        assertEquals(EnumSet.allOf(ParallelGameLoader.Stage.class),
+                EnumSet.copyOf(template.getLoadTimings().keySet()));
+        assertDoesNotThrow(() -> template.makeGame("Test player", "Normal"));
+    }
+
+    @Test
+    void testLoadingOfCorruptGameThrowsCorruptFileException(@TempDir Path gameDirectory)
+            throws IOException {
+        copyTestStory(gameDirectory);
+        Files.writeString(gameDirectory.resolve("testStory.goals"), """
+                #Easy
+                Gold 325
+                """);
+        GameFileCollection corruptGameFiles = assertDoesNotThrow(() ->
+                new GameFileCollection(gameDirectory.toString()));
+
+        CorruptFileException exception = assertThrows(CorruptFileException.class, () ->
+                new ParallelGameLoader(corruptGameFiles).loadGame("Test player", "Easy"));
+        assertEquals(CorruptFileException.Type.GOAL_INVALID_FORMAT, exception.getType());
+    }
+
+    @Test
+    void testCreationOfLoaderWithInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelGameLoader(null));
+        assertThrows(IllegalArgumentException.class, () ->
+                new ParallelGameLoader(gameFiles, null));
+    }
+}
@@ -0,0 +1,80 @@
+package no.ntnu.idata2001.g23.model.fileparsing;
+
+import java.util.ArrayList;
+import java.util.List;
+import no.ntnu.idata2001.g23.model.story.Link;
+import no.ntnu.idata2001.g23.model.story.Passage;
+import no.ntnu.idata2001.g23.model.story.Story;
+import no.ntnu.idata2001.g23.model.story.analysis.StoryGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemplateStoryTest {
+    private static final Link ANOTHER_ROOM = new Link("Another room", "Another room");
+    private static final Link TEST_ROOM = new Link("Test room", "Test room");
+    private static final Link BEGINNINGS = new Link("Beginnings", "Beginnings");
+
+    private Story templateStory;
+    private Story story;
+
+    @BeforeEach
+    void before() {
+        GameFileCollection gameFiles = assertDoesNotThrow(() ->
+                new GameFileCollection("testStory"));
+        GameTemplate template = assertDoesNotThrow(() -> new ParallelGameLoader(gameFiles)
+                .loadTemplate());
+        templateStory = assertDoesNotThrow(() -> gameFiles.makeNewGame("Test player", "Normal"))
+                .getStory();
+        story = assertDoesNotThrow(() -> template.makeGame("Test player", "Normal"))
+                .getStory();
+    }
+
+    @Test
+    void testOnlyPassagesWithEnemiesAreCopied() {
+        List<Passage> copiedPassages = new ArrayList<>();
+        Story otherStory = new TemplateStory(templateStory,
+                new Passage("Beginnings", "Another opening"), passage -> {
+                    copiedPassages.add(passage);
+                    return new Passage(passage.getTitle(), passage.getContent());
+                });
+        assertSame(templateStory.getPassage(ANOTHER_ROOM), otherStory.getPassage(ANOTHER_ROOM));
+        assertNotSame(templateStory.getPassage(TEST_ROOM), otherStory.getPassage(TEST_ROOM));
+        assertSame(otherStory.getPassage(TEST_ROOM), otherStory.getPassage(TEST_ROOM));
+        assertEquals(List.of(templateStory.getPassage(TEST_ROOM)), copiedPassages);
+        assertEquals("Another opening", otherStory.getPassage(BEGINNINGS).getContent());
+        assertSame(otherStory.getOpeningPassage(), otherStory.getPassage(BEGINNINGS));
+    }
+
+    @Test
+    void testPassagesWithEnemiesAreCopiedOnce() {
+        Passage testRoom = story.getPassage(TEST_ROOM);
+        testRoom.getEnemies().clear();
+        assertSame(testRoom, story.getPassage(TEST_ROOM));
+        assertTrue(story.getPassages().contains(testRoom));
+        assertTrue(story.getReferringPassages(TEST_ROOM).contains(story.getOpeningPassage()));
+        assertSame(testRoom, story.getReferringPassages(BEGINNINGS).stream()
+                .filter(passage -> passage.getTitle().equals("Test room"))
+                .findFirst().orElseThrow());
+    }
+
+    @Test
+    void testStoryMatchesTemplateStory() {
+        assertEquals(templateStory.getTitle(), story.getTitle());
+        assertEquals(templateStory.getOpeningPassage(), story.getOpeningPassage());
+        assertEquals(templateStory.getPassages().size(), story.getPassages().size());
+        assertEquals(templateStory.getBrokenLinks(), story.getBrokenLinks());
+        StoryGraph templateGraph = StoryGraph.of(templateStory);
+        StoryGraph graph = StoryGraph.of(story);
+        assertEquals(templateGraph.getPassageCount(), graph.getPassageCount());
+        assertEquals(templateGraph.getLinkCount(), graph.getLinkCount());
+    }
+
+    @Test
+    void testStoryCannotBeModified() {
+        assertThrows(UnsupportedOperationException.class, () ->
+                story.addPassage(new Passage("New room", "A new room")));
+        assertThrows(UnsupportedOperationException.class, () ->
+                story.removePassage(ANOTHER_ROOM));
+    }
+}
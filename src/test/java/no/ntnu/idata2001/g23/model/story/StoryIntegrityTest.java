@@ -0,0 +1,109 @@
+package no.ntnu.idata2001.g23.model.story;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StoryIntegrityTest {
+    private Passage openingPassage;
+    private Passage nextPassage;
+    private Link nextLink;
+    private Story story;
+
+    @BeforeEach
+    void before() {
+        openingPassage = new Passage("Opening passage", "Test content");
+        nextPassage = new Passage("Next passage", "Test content");
+        nextLink = new Link("Next link", nextPassage.getTitle());
+        openingPassage.addLink(nextLink);
+        story = new Story("Test story", openingPassage);
+    }
+
+    @Test
+    void testNewStoryHasDanglingReference() {
+        StoryIntegrity integrity = story.getIntegrity();
+        assertTrue(integrity.hasDanglingReferences());
+        assertEquals(Set.of("Next passage"), integrity.getDanglingReferences());
+        assertTrue(integrity.getOrphanPassages().isEmpty());
+        assertTrue(integrity.getDeadEnds().isEmpty());
+    }
+
+    @Test
+    void testAddingPassageResolvesDanglingReference() {
+        story.addPassage(nextPassage);
+        StoryIntegrity integrity = story.getIntegrity();
+        assertFalse(integrity.hasDanglingReferences());
+        assertTrue(integrity.getOrphanPassages().isEmpty());
+        assertEquals(List.of(nextPassage), List.copyOf(integrity.getDeadEnds()));
+    }
+
+    @Test
+    void testAddingLinksUpdatesDeadEndsAndOrphans() {
+        story.addPassage(nextPassage);
+        Passage hiddenPassage = new Passage("Hidden passage", "Hidden content");
+        hiddenPassage.addLink(new Link("Back", openingPassage.getTitle()));
+        story.addPassage(hiddenPassage);
+        StoryIntegrity integrity = story.getIntegrity();
+        assertEquals(List.of(hiddenPassage), List.copyOf(integrity.getOrphanPassages()));
+
+        nextPassage.addLink(new Link("Hide", hiddenPassage.getTitle()));
+        assertTrue(integrity.getOrphanPassages().isEmpty());
+        assertTrue(integrity.getDeadEnds().isEmpty());
+
+        nextPassage.getLinks().clear();
+        assertEquals(List.of(hiddenPassage), List.copyOf(integrity.getOrphanPassages()));
+        assertEquals(List.of(nextPassage), List.copyOf(integrity.getDeadEnds()));
+    }
+
+    @Test
+    void testRemovingLinksAndPassages() {
+        Passage unlinkedPassage = new Passage("Unlinked passage", "Unlinked content");
+        story.addPassage(unlinkedPassage);
+        openingPassage.getLinks().remove(nextLink);
+        StoryIntegrity integrity = story.getIntegrity();
+        assertFalse(integrity.hasDanglingReferences());
+        assertEquals(List.of(unlinkedPassage, openingPassage),
+                List.copyOf(integrity.getDeadEnds()));
+
+        story.removePassage(new Link("Unlinked link", unlinkedPassage.getTitle()));
+        assertTrue(integrity.getOrphanPassages().isEmpty());
+        assertEquals(List.of(openingPassage), List.copyOf(integrity.getDeadEnds()));
+    }
+
+    @Test
+    void testBrokenLinksFollowIntegrity() {
+        Link otherBrokenLink = new Link("Other link", nextPassage.getTitle());
+        Passage otherPassage = new Passage("Other passage", "Other content");
+        otherPassage.addLink(otherBrokenLink);
+        story.addPassage(otherPassage);
+        assertEquals(2, story.getBrokenLinks().size());
+
+        story.addPassage(nextPassage);
+        assertEquals(List.of(), story.getBrokenLinks());
+    }
+
+    @Test
+    void testIntegrityCannotBeModified() {
+        StoryIntegrity integrity = story.getIntegrity();
+        assertThrows(UnsupportedOperationException.class,
+                () -> integrity.getDanglingReferences().clear());
+        assertThrows(UnsupportedOperationException.class,
+                () -> integrity.getDeadEnds().clear());
+    }
+
+    @Test
+    void testSnapshotIsNotKeptUpToDate() {
+        StoryIntegrity snapshot = StoryIntegrity.snapshot(
+                List.of("Next passage"), List.of(), List.of(nextPassage));
+        story.addPassage(nextPassage);
+        assertEquals(Set.of("Next passage"), snapshot.getDanglingReferences());
+        assertEquals(List.of(nextPassage), List.copyOf(snapshot.getDeadEnds()));
+        assertThrows(UnsupportedOperationException.class,
+                () -> snapshot.getOrphanPassages().clear());
+        assertThrows(IllegalArgumentException.class,
+                () -> StoryIntegrity.snapshot(null, List.of(), List.of()));
+    }
+}
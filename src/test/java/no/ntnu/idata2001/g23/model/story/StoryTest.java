@@ -116,4 +116,54 @@ class StoryTest {
         validStory.getOpeningPassage().addLink(brokenLink);
         assertEquals(List.of(brokenLink), validStory.getBrokenLinks());
     }
+
+    @Test
+    void testAdditionOfPassageWithSameTitleReplacesIt() {
+        validStory.addPassage(nextPassage);
+        Passage replacingPassage = new Passage(nextPassage.getTitle(), "Different content");
+        assertDoesNotThrow(() -> validStory.addPassage(replacingPassage));
+        assertEquals(2, validStory.getPassages().size());
+        assertSame(replacingPassage, validStory.getPassage(nextLink));
+    }
+
+    @Test
+    void testGettingReferringPassages() {
+        validStory.addPassage(nextPassage);
+        Link openingLink = new Link("Back", openingPassage.getTitle());
+        nextPassage.addLink(openingLink);
+        nextPassage.addLink(new Link("Stay", nextPassage.getTitle()));
+
+        assertEquals(List.of(openingPassage, nextPassage),
+                validStory.getReferringPassages(nextLink));
+        assertEquals(List.of(nextPassage), validStory.getReferringPassages(openingLink));
+        assertEquals(List.of(), validStory.getReferringPassages(new Link(
+                "Unlinked link", "Unlinked passage")));
+        assertThrows(IllegalArgumentException.class, () -> validStory.getReferringPassages(null));
+    }
+
+    @Test
+    void testReferringPassagesFollowLinkChanges() {
+        Passage unlinkedPassage = new Passage("Unlinked passage", "Unlinked content");
+        Link unlinkedLink = new Link("Unlinked link", unlinkedPassage.getTitle());
+        validStory.addPassage(unlinkedPassage);
+
+        openingPassage.addLink(unlinkedLink);
+        assertEquals(List.of(openingPassage), validStory.getReferringPassages(unlinkedLink));
+        assertThrows(IllegalStateException.class, () -> validStory.removePassage(unlinkedLink));
+
+        openingPassage.getLinks().removeIf(unlinkedLink::equals);
+        assertEquals(List.of(), validStory.getReferringPassages(unlinkedLink));
+        assertDoesNotThrow(() -> validStory.removePassage(unlinkedLink));
+    }
+
+    @Test
+    void testRemovedPassagesAreNotIndexed() {
+        Passage unlinkedPassage = new Passage("Unlinked passage", "Unlinked content");
+        validStory.addPassage(unlinkedPassage);
+        validStory.removePassage(new Link("Unlinked link", unlinkedPassage.getTitle()));
+
+        unlinkedPassage.addLink(new Link("Back", openingPassage.getTitle()));
+        assertEquals(List.of(), validStory.getReferringPassages(
+                new Link("Opening link", openingPassage.getTitle())));
+    }
 }
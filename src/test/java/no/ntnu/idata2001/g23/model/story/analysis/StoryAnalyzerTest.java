@@ -0,0 +1,134 @@
+package no.ntnu.idata2001.g23.model.story.analysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import no.ntnu.idata2001.g23.model.story.Link;
+import no.ntnu.idata2001.g23.model.story.Passage;
+import no.ntnu.idata2001.g23.model.story.Story;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StoryAnalyzerTest {
+    private Story story;
+    private StoryAnalyzer analyzer;
+
+    private static void link(Passage from, Passage to) {
+        from.addLink(new Link("Go to " + to.getTitle(), to.getTitle()));
+    }
+
+    /**
+     * Makes a story where "Hall" & "Kitchen" link to each other,
+     * "Cellar" is a dead end, and "Attic" can't be reached.
+     */
+    @BeforeEach
+    void before() {
+        Passage opening = new Passage("Opening", "Content");
+        Passage hall = new Passage("Hall", "Content");
+        Passage kitchen = new Passage("Kitchen", "Content");
+        Passage cellar = new Passage("Cellar", "Content");
+        Passage attic = new Passage("Attic", "Content");
+        link(opening, hall);
+        link(hall, kitchen);
+        link(kitchen, hall);
+        link(kitchen, cellar);
+        link(attic, opening);
+        attic.addLink(new Link("Broken link", "Nowhere"));
+
+        story = new Story("Test story", opening);
+        story.addPassage(hall);
+        story.addPassage(kitchen);
+        story.addPassage(cellar);
+        story.addPassage(attic);
+        analyzer = new StoryAnalyzer();
+    }
+
+    @Test
+    void testGraphOfStory() {
+        StoryGraph graph = StoryGraph.of(story);
+        assertEquals(5, graph.getPassageCount());
+        assertEquals(5, graph.getLinkCount());
+        assertEquals(1, graph.getBrokenLinkCount());
+        assertEquals("Opening", graph.getTitle(0));
+        int hall = graph.getIndex("Hall");
+        assertEquals(1, graph.getOutDegree(0));
+        assertEquals(hall, graph.getTarget(0, 0));
+        assertEquals(-1, graph.getIndex("Nowhere"));
+    }
+
+    @Test
+    void testReachabilityAndDistances() {
+        StoryAnalysis analysis = analyzer.analyze(story);
+        StoryGraph graph = analysis.getGraph();
+        assertEquals(4, analysis.getReachableCount());
+        assertEquals(0, analysis.getDistance(0));
+        assertEquals(1, analysis.getDistance(graph.getIndex("Hall")));
+        assertEquals(2, analysis.getDistance(graph.getIndex("Kitchen")));
+        assertEquals(3, analysis.getDistance(graph.getIndex("Cellar")));
+        assertFalse(analysis.isReachable(graph.getIndex("Attic")));
+        assertArrayEquals(new int[] {graph.getIndex("Attic")},
+                analysis.getUnreachablePassages());
+    }
+
+    @Test
+    void testStronglyConnectedComponents() {
+        StoryAnalysis analysis = analyzer.analyze(story);
+        StoryGraph graph = analysis.getGraph();
+        assertEquals(4, analysis.getComponentCount());
+        assertEquals(2, analysis.getLargestComponentSize());
+        assertEquals(analysis.getComponent(graph.getIndex("Hall")),
+                analysis.getComponent(graph.getIndex("Kitchen")));
+        assertNotEquals(analysis.getComponent(0),
+                analysis.getComponent(graph.getIndex("Hall")));
+    }
+
+    @Test
+    void testDeadEndsAndBranching() {
+        StoryAnalysis analysis = analyzer.analyze(story);
+        assertEquals(List.of("Cellar"), analysis.getDeadEndTitles());
+        IntSummaryStatistics statistics = analysis.getBranchingStatistics();
+        assertEquals(5, statistics.getCount());
+        assertEquals(0, statistics.getMin());
+        assertEquals(2, statistics.getMax());
+        assertEquals(1.0, statistics.getAverage());
+    }
+
+    /**
+     * Analyzes a long cycle with shortcuts, large enough to split every task
+     * and to overflow the stack if components were found recursively.
+     */
+    @Test
+    void testLargeStory() {
+        int passageCount = 100_000;
+        Passage[] passages = new Passage[passageCount];
+        for (int i = 0; i < passageCount; i++) {
+            passages[i] = new Passage("Passage " + i, "Content");
+        }
+        for (int i = 0; i < passageCount; i++) {
+            link(passages[i], passages[(i + 1) % passageCount]);
+            if (i % 2 == 0) {
+                link(passages[i], passages[(i + 2) % passageCount]);
+            }
+        }
+        Story largeStory = new Story("Large story", passages[0]);
+        for (int i = 1; i < passageCount; i++) {
+            largeStory.addPassage(passages[i]);
+        }
+
+        StoryAnalysis analysis = new StoryAnalyzer(new ForkJoinPool(4)).analyze(largeStory);
+        StoryGraph graph = analysis.getGraph();
+        assertEquals(passageCount, analysis.getReachableCount());
+        assertEquals(1, analysis.getComponentCount());
+        assertEquals(passageCount / 2, analysis.getDistance(graph.getIndex("Passage 99999")));
+        assertEquals(0, analysis.getDeadEnds().length);
+    }
+
+    @Test
+    void testInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new StoryAnalyzer(null));
+        assertThrows(IllegalArgumentException.class, () -> analyzer.analyze((Story) null));
+        assertThrows(IllegalArgumentException.class, () -> analyzer.analyze((StoryGraph) null));
+    }
+}
@@ -0,0 +1,188 @@
+package no.ntnu.idata2001.g23.server;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import no.ntnu.idata2001.g23.intermediary.GameSessionRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameServerTest {
+    private static final Path TEST_STORY = Path.of("testStory");
+    private static final Pattern SESSION_ID = Pattern.compile("\"id\":\"([^\"]+)\"");
+
+    private GameSessionRegistry registry;
+    private GameServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void before() throws IOException {
+        registry = new GameSessionRegistry(2);
+        server = new GameServer(0, registry);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void after() {
+        server.stop();
+        registry.stopSweeper();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path))
+                .timeout(Duration.ofSeconds(10));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) {
+        return assertDoesNotThrow(() ->
+                client.send(request.build(), HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private HttpResponse<String> get(String path) {
+        return send(request(path).GET());
+    }
+
+    private HttpResponse<String> post(String path, Object body) {
+        return send(request(path).POST(HttpRequest.BodyPublishers.ofString(Json.write(body))));
+    }
+
+    private HttpResponse<String> delete(String path) {
+        return send(request(path).DELETE());
+    }
+
+    private String createSession(String gameDirectory) {
+        HttpResponse<String> response = post("/sessions", Map.of(
+                "gameDirectory", gameDirectory,
+                "playerName", "Test player",
+                "difficulty", "Normal"));
+        assertEquals(201, response.statusCode(), response.body());
+        Matcher matcher = SESSION_ID.matcher(response.body());
+        assertTrue(matcher.find(), response.body());
+        return matcher.group(1);
+    }
+
+    @Test
+    void testSessionCanBePlayed() {
+        String id = createSession(TEST_STORY.toString());
+        String session = "/sessions/" + id;
+        assertEquals(1, registry.getSessionCount());
+
+        HttpResponse<String> passage = get(session + "/passage");
+        assertEquals(200, passage.statusCode());
+        assertTrue(passage.body().contains("\"title\":\"Beginnings\""), passage.body());
+        assertTrue(get(session).body().contains("\"name\":\"Test player\""));
+
+        //The enemy is killed first, since it could otherwise keep the player from moving
+        HttpResponse<String> attacked;
+        int attackCount = 0;
+        do {
+            attacked = post(session + "/attack", Map.of("enemy", "0"));
+            assertEquals(200, attacked.statusCode(), attacked.body());
+            attackCount++;
+        } while (!attacked.body().contains("\"enemies\":[]") && attackCount < 10);
+        assertTrue(attacked.body().contains("\"enemies\":[]"), attacked.body());
+
+        HttpResponse<String> used = post(session + "/use", Map.of("item", "Usable Test"));
+        assertEquals(200, used.statusCode(), used.body());
+        assertTrue(used.body().contains("\"name\":\"Big Sword UwU\""), used.body());
+
+        HttpResponse<String> moved = post(session + "/move", Map.of("reference", "Another room"));
+        assertEquals(200, moved.statusCode(), moved.body());
+        assertTrue(moved.body().contains("\"title\":\"Another room\""), moved.body());
+
+        HttpResponse<String> goals = get(session + "/goals");
+        assertEquals(200, goals.statusCode());
+        assertTrue(goals.body().contains("\"fulfilled\":false"), goals.body());
+
+        assertEquals(204, delete(session).statusCode());
+        assertEquals(404, get(session).statusCode());
+        assertEquals(0, registry.getSessionCount());
+    }
+
+    @Test
+    void testInvalidRequestsGetErrorStatuses() {
+        String session = "/sessions/" + createSession(TEST_STORY.toString());
+
+        assertEquals(404, get("/sessions/No-such-session").statusCode());
+        assertEquals(404, get(session + "/nothing").statusCode());
+        assertEquals(404, get(session + "/passage/nothing").statusCode());
+        assertEquals(405, get("/sessions").statusCode());
+        assertEquals(405, post(session + "/passage", Map.of()).statusCode());
+        assertEquals(405, get(session + "/move").statusCode());
+
+        assertEquals(400, post(session + "/move", Map.of()).statusCode());
+        assertEquals(404, post(session + "/move", Map.of("reference", "Nowhere")).statusCode());
+        assertEquals(400, post(session + "/attack", Map.of("enemy", "first")).statusCode());
+        assertEquals(404, post(session + "/attack", Map.of("enemy", "5")).statusCode());
+        assertEquals(404, post(session + "/use", Map.of("item", "Nothing")).statusCode());
+        assertEquals(400, send(request(session + "/move")
+                .POST(HttpRequest.BodyPublishers.ofString("{not json"))).statusCode());
+        assertEquals(413, send(request(session + "/move").POST(HttpRequest.BodyPublishers
+                .ofString("x".repeat(GameServer.MAX_BODY_SIZE + 1)))).statusCode());
+        assertEquals(400, post("/sessions", Map.of("difficulty", "Normal")).statusCode());
+
+        createSession(TEST_STORY.toString());
+        assertEquals(409, post("/sessions", Map.of(
+                "gameDirectory", TEST_STORY.toString(), "difficulty", "Normal")).statusCode());
+        assertEquals(2, registry.getSessionCount());
+    }
+
+    @Test
+    void testCorruptGameGetsUnprocessableStatus(@TempDir Path gameDirectory) throws IOException {
+        try (Stream<Path> files = Files.list(TEST_STORY)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.copy(file, gameDirectory.resolve(file.getFileName()));
+            }
+        }
+        Files.writeString(gameDirectory.resolve("testStory.goals"), """
+                #Normal
+                Gold 325
+                """);
+        HttpResponse<String> response = post("/sessions", Map.of(
+                "gameDirectory", gameDirectory.toString(), "difficulty", "Normal"));
+        assertEquals(422, response.statusCode(), response.body());
+        assertEquals(0, registry.getSessionCount());
+    }
+
+    @Test
+    void testDeletingSessionEndsEventStream() throws Exception {
+        String session = "/sessions/" + createSession(TEST_STORY.toString());
+        HttpResponse<Stream<String>> events = client.send(request(session + "/events")
+                .timeout(Duration.ofSeconds(30)).GET().build(),
+                HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, events.statusCode());
+        Iterator<String> lines = events.body().iterator();
+        assertEquals(": connected", lines.next());
+
+        CompletableFuture<List<String>> remainingLines = CompletableFuture.supplyAsync(() -> {
+            List<String> remaining = new ArrayList<>();
+            lines.forEachRemaining(remaining::add);
+            return remaining;
+        });
+        assertEquals(200, post(session + "/move", Map.of("reference", "Another room"))
+                .statusCode());
+        assertEquals(204, delete(session).statusCode());
+
+        List<String> remaining = remainingLines.get(10, TimeUnit.SECONDS);
+        assertTrue(remaining.stream().anyMatch(line -> line.startsWith("event: ")),
+                String.valueOf(remaining));
+    }
+}
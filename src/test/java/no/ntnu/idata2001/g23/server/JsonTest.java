@@ -0,0 +1,64 @@
+package no.ntnu.idata2001.g23.server;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTest {
+    @Test
+    void testWriteValues() {
+        Map<String, Object> object = new LinkedHashMap<>();
+        object.put("name", "Test");
+        object.put("health", 10);
+        object.put("alive", true);
+        object.put("weapon", null);
+        object.put("items", List.of("Sword", 2.5));
+        object.put("stats", Map.of());
+        assertEquals("{\"name\":\"Test\",\"health\":10,\"alive\":true,\"weapon\":null,"
+                + "\"items\":[\"Sword\",2.5],\"stats\":{}}", Json.write(object));
+        assertEquals("[]", Json.write(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> Json.write(new Object()));
+        assertThrows(IllegalArgumentException.class, () -> Json.write(List.of(new Object())));
+    }
+
+    @Test
+    void testWriteEscapesStrings() {
+        assertEquals("\"\\\"quoted\\\" \\\\ back\\nnew\\rline\\ttab\\u0001\"",
+                Json.write("\"quoted\" \\ back\nnew\rline\ttab\u0001"));
+        assertEquals("\"æøå\"", Json.write("æøå"));
+    }
+
+    @Test
+    void testWrittenStringsAreParsedBack() {
+        String text = "\"quoted\" \\ back\nnew\rline\ttab\u0001 æøå";
+        assertEquals(Map.of("text", text), Json.parseObject(Json.write(Map.of("text", text))));
+    }
+
+    @Test
+    void testParseObject() {
+        Map<String, String> object = Json.parseObject(
+                " { \"name\" : \"Test player\", \"difficulty\":\"Normal\","
+                        + " \"health\": -10.5e2, \"alive\": false, \"weapon\": null } ");
+        assertEquals(List.of("name", "difficulty", "health", "alive"),
+                List.copyOf(object.keySet()));
+        assertEquals("Test player", object.get("name"));
+        assertEquals("-10.5e2", object.get("health"));
+        assertEquals("false", object.get("alive"));
+        assertEquals(Map.of(), Json.parseObject("{}"));
+        assertEquals(Map.of("a", "\b\f/\u00e6"),
+                Json.parseObject("{\"a\": \"\\b\\f\\/\\u00E6\"}"));
+    }
+
+    @Test
+    void testParseMalformedObject() {
+        for (String json : List.of("", "[]", "{", "{\"a\"}", "{\"a\":}", "{\"a\": 1,}",
+                "{\"a\": 1} x", "{a: 1}", "{\"a\": \"unterminated}", "{\"a\": \"\\u12\"}",
+                "{\"a\": \"\\uzzzz\"}", "{\"a\": yes}", "{\"a\": {}}", "{\"a\": [1]}",
+                "{\"a\": 1 \"b\": 2}")) {
+            assertThrows(IllegalArgumentException.class, () -> Json.parseObject(json), json);
+        }
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject(null));
+    }
+}
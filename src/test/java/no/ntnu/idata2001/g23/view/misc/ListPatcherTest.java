@@ -0,0 +1,105 @@
+package no.ntnu.idata2001.g23.view.misc;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListPatcherTest {
+    private final String a = new String("a");
+    private final String b = new String("b");
+    private final String c = new String("c");
+    private final String d = new String("d");
+    private final String e = new String("e");
+    private ObservableList<String> target;
+    private List<String> removed;
+    private List<String> added;
+    private int changeCount;
+
+    @BeforeEach
+    void before() {
+        target = FXCollections.observableArrayList(a, b, c, d);
+        removed = new ArrayList<>();
+        added = new ArrayList<>();
+        changeCount = 0;
+        target.addListener((ListChangeListener<String>) change -> {
+            changeCount++;
+            while (change.next()) {
+                removed.addAll(change.getRemoved());
+                added.addAll(change.getAddedSubList());
+            }
+        });
+    }
+
+    private void assertPatched(List<String> source) {
+        assertTrue(ListPatcher.patch(target, source));
+        assertEquals(source, target);
+        for (int i = 0; i < source.size(); i++) {
+            assertSame(source.get(i), target.get(i));
+        }
+    }
+
+    @Test
+    void testSameElementsAreNotChanged() {
+        assertFalse(ListPatcher.patch(target, List.of(a, b, c, d)));
+        assertEquals(0, changeCount);
+        assertFalse(ListPatcher.patch(new ArrayList<>(), List.of()));
+    }
+
+    @Test
+    void testOnlyTheChangedRunIsReplaced() {
+        assertPatched(List.of(a, e, d));
+        assertEquals(List.of(b, c), removed);
+        assertEquals(List.of(e), added);
+        assertEquals(2, changeCount);
+    }
+
+    @Test
+    void testInsertedRunKeepsPrefixAndSuffix() {
+        assertPatched(List.of(a, b, e, c, d));
+        assertEquals(List.of(), removed);
+        assertEquals(List.of(e), added);
+        assertEquals(1, changeCount);
+    }
+
+    @Test
+    void testRemovedRunKeepsPrefixAndSuffix() {
+        assertPatched(List.of(a, d));
+        assertEquals(List.of(b, c), removed);
+        assertEquals(List.of(), added);
+        assertEquals(1, changeCount);
+    }
+
+    @Test
+    void testElementsAreComparedByIdentity() {
+        String otherB = new String("b");
+        assertPatched(List.of(a, otherB, c, d));
+        assertEquals(List.of(b), removed);
+        assertSame(otherB, added.get(0));
+    }
+
+    @Test
+    void testRepeatedElementsAreNotCountedTwice() {
+        target.setAll(a, a);
+        removed.clear();
+        added.clear();
+        assertPatched(List.of(a));
+        assertEquals(List.of(a), removed);
+
+        assertPatched(List.of(a, a, a));
+        assertEquals(List.of(a, a), added);
+    }
+
+    @Test
+    void testWholeListIsReplaced() {
+        assertPatched(List.of(e));
+        assertEquals(List.of(a, b, c, d), removed);
+        assertPatched(List.of());
+        assertPatched(List.of(b, c));
+        assertEquals(List.of(e, b, c), added);
+    }
+}
@@ -0,0 +1,91 @@
+package no.ntnu.idata2001.g23.view.misc;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodePoolTest {
+    private List<StringBuilder> recycled;
+    private int madeCount;
+    private NodePool<StringBuilder> pool;
+
+    @BeforeEach
+    void before() {
+        recycled = new ArrayList<>();
+        madeCount = 0;
+        pool = new NodePool<>(() -> {
+            madeCount++;
+            return new StringBuilder();
+        }, node -> {
+            node.setLength(0);
+            recycled.add(node);
+        }, 2);
+    }
+
+    @Test
+    void testNodesAreMadeWhenNoneAreIdle() {
+        StringBuilder first = pool.acquire();
+        StringBuilder second = pool.acquire();
+        assertNotSame(first, second);
+        assertEquals(2, madeCount);
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    void testReleasedNodesAreRecycledAndReused() {
+        StringBuilder node = pool.acquire();
+        node.append("Old data");
+        pool.release(node);
+        assertEquals(List.of(node), recycled);
+        assertEquals(0, node.length());
+        assertEquals(1, pool.getIdleCount());
+
+        assertSame(node, pool.acquire());
+        assertEquals(1, madeCount);
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    void testLastReleasedNodeIsReusedFirst() {
+        StringBuilder first = pool.acquire();
+        StringBuilder second = pool.acquire();
+        pool.release(first);
+        pool.release(second);
+        assertSame(second, pool.acquire());
+        assertSame(first, pool.acquire());
+    }
+
+    @Test
+    void testNodesBeyondMaxIdleAreNotKept() {
+        List<StringBuilder> nodes = List.of(pool.acquire(), pool.acquire(), pool.acquire());
+        nodes.forEach(pool::release);
+        assertEquals(3, recycled.size());
+        assertEquals(2, pool.getIdleCount());
+
+        NodePool<StringBuilder> noIdle = new NodePool<>(StringBuilder::new, node -> {}, 0);
+        noIdle.release(noIdle.acquire());
+        assertEquals(0, noIdle.getIdleCount());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> pool.release(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new NodePool<>(null, node -> {}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new NodePool<>(Object::new, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new NodePool<>(Object::new, node -> {}, -1));
+        assertEquals(NodePool.DEFAULT_MAX_IDLE, assertDoesNotThrow(() -> {
+            NodePool<Object> defaultPool = new NodePool<>(Object::new, node -> {});
+            List<Object> nodes = new ArrayList<>();
+            for (int i = 0; i <= NodePool.DEFAULT_MAX_IDLE; i++) {
+                nodes.add(defaultPool.acquire());
+            }
+            nodes.forEach(defaultPool::release);
+            return defaultPool.getIdleCount();
+        }));
+    }
+}